@@ -0,0 +1,72 @@
+package org.example.expenseapi.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing amounts as BigDecimal vs long cents, as done by the report and budget aggregations.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@jmh}; {@code -prof gc} (the default jmh.args)
+ * reports the allocation rate per operation next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneySumBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    private BigDecimal[] amounts;
+    private long[] cents;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new BigDecimal[rows];
+        cents = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            long c = random.nextLong(1, 500_000); // 0.01 .. 4999.99
+            cents[i] = c;
+            amounts[i] = BigDecimal.valueOf(c, 2);
+        }
+    }
+
+    /** Previous approach: one BigDecimal allocated per added row. */
+    @Benchmark
+    public BigDecimal bigDecimalSum() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal a : amounts) sum = sum.add(a);
+        return sum;
+    }
+
+    /** Rows already held as cents (column store). */
+    @Benchmark
+    public long minorUnitsSum() {
+        return MoneyUtils.sum(cents);
+    }
+
+    /** Rows loaded as BigDecimal (entities) and converted to cents before adding. */
+    @Benchmark
+    public long convertThenMinorUnitsSum() {
+        long sum = 0L;
+        for (BigDecimal a : amounts) sum = MoneyUtils.add(sum, MoneyUtils.toMinorUnitsRounded(a));
+        return sum;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.expenseapi.application.service;
+
+import org.example.expenseapi.dto.ExpenseDto;
+import org.example.expenseapi.dto.ExpenseStatusDto;
+import org.example.expenseapi.dto.PaginatedResponse;
+import org.example.expenseapi.model.Expense;
+import org.example.expenseapi.service.BudgetWindow;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExpenseApplicationService {
+    // One page of search results as DTOs; the budgets embedded in their categories are loaded in one query
+    PaginatedResponse<ExpenseDto> search(String keyword, List<Long> categoryIds, LocalDate start, LocalDate end,
+                                         Pageable pageable, BudgetWindow budgets);
+
+    ExpenseDto toDto(Expense expense, BudgetWindow budgets);
+
+    List<ExpenseStatusDto> listStatuses();
+}
@@ -0,0 +1,139 @@
+package org.example.expenseapi.application.service;
+
+import org.example.expenseapi.dto.ExpenseCategoryBudgetDto;
+import org.example.expenseapi.dto.ExpenseCategoryDto;
+import org.example.expenseapi.dto.ExpenseDto;
+import org.example.expenseapi.dto.ExpenseStatusDto;
+import org.example.expenseapi.dto.PaginatedResponse;
+import org.example.expenseapi.model.Expense;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.model.ExpenseStatus;
+import org.example.expenseapi.service.BudgetWindow;
+import org.example.expenseapi.service.ExpenseBudgetService;
+import org.example.expenseapi.service.ExpenseService;
+import org.example.expenseapi.service.ExpenseStatusService;
+import org.example.expenseapi.util.PaginationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class ExpenseApplicationServiceImpl implements ExpenseApplicationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseApplicationServiceImpl.class);
+
+    private final ExpenseService service;
+    private final ExpenseBudgetService budgetService;
+    private final ExpenseStatusService statusService;
+
+    public ExpenseApplicationServiceImpl(ExpenseService service, ExpenseBudgetService budgetService, ExpenseStatusService statusService) {
+        this.service = service;
+        this.budgetService = budgetService;
+        this.statusService = statusService;
+    }
+
+    @Override
+    public PaginatedResponse<ExpenseDto> search(String keyword, List<Long> categoryIds, LocalDate start, LocalDate end,
+                                                Pageable pageable, BudgetWindow budgets) {
+        Page<Expense> page = service.search(keyword, categoryIds, start, end, pageable);
+        // budgets of all categories on the page in one query instead of one per expense
+        var budgetsByCategory = budgetsFor(page.getContent(), budgets);
+        return PaginationUtils.toPaginatedResponse(page, e -> toDto(e, budgetsByCategory));
+    }
+
+    @Override
+    public ExpenseDto toDto(Expense expense, BudgetWindow budgets) {
+        return toDto(expense, budgetsFor(expense == null ? List.of() : List.of(expense), budgets));
+    }
+
+    @Override
+    public List<ExpenseStatusDto> listStatuses() {
+        return statusService.findAll().stream().map(this::toStatusDto).collect(Collectors.toList());
+    }
+
+    // categoryId -> budgets within the window, for the categories of the given expenses; null for budgets=none
+    private Map<Long, List<ExpenseCategoryBudget>> budgetsFor(List<Expense> expenses, BudgetWindow window) {
+        if (window.isNone()) return null;
+        if (budgetService == null) return Map.of();
+        List<Long> ids = new ArrayList<>();
+        for (Expense e : expenses) {
+            if (e.getExpenseCategory() != null && e.getExpenseCategory().getId() != null) ids.add(e.getExpenseCategory().getId());
+        }
+        try {
+            return budgetService.findBudgetsForCategories(ids, window);
+        } catch (Exception ex) {
+            // Defensive: log and continue without budgets rather than failing the whole request
+            log.warn("Failed to load budgets for expense categories {}: {}", ids, ex.getMessage());
+            return Map.of();
+        }
+    }
+
+    // budgets: categoryId -> budgets within the requested window, or null for budgets=none (field left out)
+    private ExpenseDto toDto(Expense e, Map<Long, List<ExpenseCategoryBudget>> budgets) {
+        if (e == null) return null;
+        ExpenseDto dto = new ExpenseDto();
+        dto.setId(e.getId());
+        dto.setExpenseDate(e.getExpenseDate());
+        dto.setDesignation(e.getDesignation());
+        dto.setExpenseCategoryId(e.getExpenseCategory() != null ? e.getExpenseCategory().getId() : null);
+        dto.setExpenseStatusId(e.getExpenseStatus() != null ? e.getExpenseStatus().getId() : null);
+        dto.setAmount(e.getAmount());
+        dto.setAnomalyScore(e.getAnomalyScore());
+        dto.setCreatedAt(e.getCreatedAt());
+        dto.setCreatedBy(e.getCreatedBy());
+        dto.setUpdatedAt(e.getUpdatedAt());
+        dto.setUpdatedBy(e.getUpdatedBy());
+
+        // populate nested DTOs
+        if (e.getExpenseCategory() != null) {
+            var c = new ExpenseCategoryDto();
+            c.setId(e.getExpenseCategory().getId());
+            c.setName(e.getExpenseCategory().getName());
+            c.setStatus(e.getExpenseCategory().getStatus());
+            c.setLevel(e.getExpenseCategory().getLevel());
+            // populate budgets for category (prefetched for the whole page)
+            List<ExpenseCategoryBudgetDto> bdto = new ArrayList<>();
+            for (var b : budgets == null ? List.<ExpenseCategoryBudget>of() : budgets.getOrDefault(e.getExpenseCategory().getId(), List.of())) {
+                var eb = new ExpenseCategoryBudgetDto();
+                eb.setYear(b.getYear()); eb.setMonth(b.getMonth()); eb.setBudget(b.getBudget());
+                // map allowOverspend as provided by the entity (entity getter returns a default if null)
+                eb.setAllowOverspend(b.getAllowOverspend());
+                eb.setIncludeSubcategories(b.getIncludeSubcategories());
+                bdto.add(eb);
+            }
+            c.setBudgets(budgets == null ? null : bdto);
+            c.setParentId(e.getExpenseCategory().getParent() != null ? e.getExpenseCategory().getParent().getId() : null);
+            c.setCreatedAt(e.getExpenseCategory().getCreatedAt());
+            c.setCreatedBy(e.getExpenseCategory().getCreatedBy());
+            c.setUpdatedAt(e.getExpenseCategory().getUpdatedAt());
+            c.setUpdatedBy(e.getExpenseCategory().getUpdatedBy());
+            // ensure subCategories are not included when returning an Expense
+            c.setSubCategories(null);
+            dto.setExpenseCategory(c);
+        }
+
+        if (e.getExpenseStatus() != null) dto.setExpenseStatus(toStatusDto(e.getExpenseStatus()));
+
+        return dto;
+    }
+
+    private ExpenseStatusDto toStatusDto(ExpenseStatus s) {
+        ExpenseStatusDto dto = new ExpenseStatusDto();
+        dto.setId(s.getId());
+        dto.setName(s.getName());
+        dto.setIsDefault(s.getIsDefault());
+        dto.setCreatedAt(s.getCreatedAt());
+        dto.setCreatedBy(s.getCreatedBy());
+        dto.setUpdatedAt(s.getUpdatedAt());
+        dto.setUpdatedBy(s.getUpdatedBy());
+        return dto;
+    }
+}
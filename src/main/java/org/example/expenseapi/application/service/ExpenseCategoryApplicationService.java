@@ -2,6 +2,7 @@ package org.example.expenseapi.application.service;
 
 import org.example.expenseapi.dto.ExpenseCategoryDto;
 import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.service.BudgetWindow;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,9 +10,11 @@ import java.util.Optional;
 public interface ExpenseCategoryApplicationService {
     ExpenseCategory create(ExpenseCategory category);
     ExpenseCategory update(Long id, ExpenseCategory category);
+    ExpenseCategory toggleStatus(Long id);
     void delete(Long id);
     Optional<ExpenseCategory> findById(Long id);
     List<ExpenseCategory> findAll();
+    List<ExpenseCategory> findChildren(Long parentId);
     Optional<ExpenseCategory> findByName(String name);
 
     // If the provided id is a child, return its parent assembled with direct children (as DTO)
@@ -19,4 +22,8 @@ public interface ExpenseCategoryApplicationService {
 
     // If the provided id is a top-level parent, return its sibling top-level categories (as DTOs)
     List<ExpenseCategoryDto> siblingsForParent(Long id);
+
+    // Top-level categories with their subcategories nested to any depth, current-month budget status and the
+    // budgets within the window (left out for budgets=none)
+    List<ExpenseCategoryDto> listTree(BudgetWindow budgets);
 }
@@ -1,11 +1,19 @@
 package org.example.expenseapi.application.service;
 
+import org.example.expenseapi.dto.BudgetStatus;
+import org.example.expenseapi.dto.ExpenseCategoryBudgetDto;
 import org.example.expenseapi.dto.ExpenseCategoryDto;
 import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.service.BudgetWindow;
 import org.example.expenseapi.service.ExpenseCategoryService;
 import org.springframework.stereotype.Service;
 
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -30,6 +38,11 @@ public class ExpenseCategoryApplicationServiceImpl implements ExpenseCategoryApp
         return service.updateExpenseCategory(id, category);
     }
 
+    @Override
+    public ExpenseCategory toggleStatus(Long id) {
+        return service.toggleStatus(id);
+    }
+
     @Override
     public void delete(Long id) {
         service.deleteExpenseCategory(id);
@@ -45,6 +58,11 @@ public class ExpenseCategoryApplicationServiceImpl implements ExpenseCategoryApp
         return service.findAll();
     }
 
+    @Override
+    public List<ExpenseCategory> findChildren(Long parentId) {
+        return service.findChildren(parentId);
+    }
+
     @Override
     public Optional<ExpenseCategory> findByName(String name) {
         return service.findByName(name);
@@ -57,8 +75,18 @@ public class ExpenseCategoryApplicationServiceImpl implements ExpenseCategoryApp
         ExpenseCategory current = opt.get();
         if (current.getParent() == null) return Optional.empty();
         ExpenseCategory parent = current.getParent();
-
-        ExpenseCategoryDto parentDto = toDto(parent, true);
+        List<ExpenseCategory> children = service.findChildren(parent.getId());
+
+        // budgets of the parent and its children in one query
+        List<Long> ids = new ArrayList<>();
+        ids.add(parent.getId());
+        for (var ch : children) ids.add(ch.getId());
+        var budgets = budgetService.findBudgetsForCategories(ids, BudgetWindow.currentYear());
+
+        ExpenseCategoryDto parentDto = toDto(parent, null, budgets);
+        parentDto.setSubCategories(children.stream()
+                .map(ch -> toDto(ch, null, budgets))
+                .collect(Collectors.toList()));
         return Optional.of(parentDto);
     }
 
@@ -69,45 +97,81 @@ public class ExpenseCategoryApplicationServiceImpl implements ExpenseCategoryApp
         ExpenseCategory current = opt.get();
         if (current.getParent() != null) return List.of();
 
+        List<ExpenseCategory> siblings = service.findAll().stream()
+                .filter(c -> c.getParent() == null && !c.getId().equals(current.getId()))
+                .collect(Collectors.toList());
+        var budgets = budgetService.findBudgetsForCategories(
+                siblings.stream().map(ExpenseCategory::getId).collect(Collectors.toList()), BudgetWindow.currentYear());
+        return siblings.stream()
+                .map(c -> toDto(c, null, budgets))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ExpenseCategoryDto> listTree(BudgetWindow window) {
         List<ExpenseCategory> all = service.findAll();
+        List<Long> ids = all.stream().map(ExpenseCategory::getId).distinct().collect(Collectors.toList());
+
+        var ym = YearMonth.now();
+        var statusMap = budgetService.getBudgetStatusForCategories(ids, ym.getYear(), ym.getMonthValue());
+        var budgets = window.isNone() ? null : budgetService.findBudgetsForCategories(ids, window);
+
+        // children per parent, in the order of findAll (siblings by level)
+        Map<Long, List<ExpenseCategory>> childrenOf = new HashMap<>();
+        for (var c : all) {
+            if (c.getParent() != null && c.getParent().getId() != null) {
+                childrenOf.computeIfAbsent(c.getParent().getId(), k -> new ArrayList<>()).add(c);
+            }
+        }
         return all.stream()
-                .filter(c -> c.getParent() == null && !c.getId().equals(current.getId()))
-                .map(c -> toDto(c, false))
+                .filter(c -> c.getParent() == null)
+                .map(parent -> {
+                    ExpenseCategoryDto dto = toTreeDto(parent, childrenOf, statusMap, budgets);
+                    if (dto.getSubCategories() == null) dto.setSubCategories(new ArrayList<>());
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
-    // mapping helper (shallow unless includeChildren=true)
-    private ExpenseCategoryDto toDto(ExpenseCategory c, boolean includeChildren) {
+    // the category with its subcategories nested to any depth; subCategories is left out below leaves
+    private ExpenseCategoryDto toTreeDto(ExpenseCategory c, Map<Long, List<ExpenseCategory>> childrenOf,
+                                         Map<Long, BudgetStatus> statusMap, Map<Long, List<ExpenseCategoryBudget>> budgets) {
+        ExpenseCategoryDto dto = toDto(c, statusMap, budgets);
+        List<ExpenseCategory> children = childrenOf.getOrDefault(c.getId(), List.of());
+        if (!children.isEmpty()) {
+            dto.setSubCategories(children.stream()
+                    .map(ch -> toTreeDto(ch, childrenOf, statusMap, budgets))
+                    .collect(Collectors.toList()));
+        }
+        return dto;
+    }
+
+    // budgets: categoryId -> budgets within the window, or null for budgets=none (field left out)
+    private ExpenseCategoryDto toDto(ExpenseCategory c, Map<Long, BudgetStatus> statusMap,
+                                     Map<Long, List<ExpenseCategoryBudget>> budgets) {
         ExpenseCategoryDto dto = new ExpenseCategoryDto();
         dto.setId(c.getId());
         dto.setName(c.getName());
         dto.setStatus(c.getStatus());
         dto.setLevel(c.getLevel());
+
+        List<ExpenseCategoryBudgetDto> bdto = new ArrayList<>();
+        for (var b : budgets == null ? List.<ExpenseCategoryBudget>of() : budgets.getOrDefault(c.getId(), List.of())) {
+            var eb = new ExpenseCategoryBudgetDto();
+            eb.setYear(b.getYear()); eb.setMonth(b.getMonth()); eb.setBudget(b.getBudget());
+            eb.setAllowOverspend(b.getAllowOverspend());
+            eb.setIncludeSubcategories(b.getIncludeSubcategories());
+            bdto.add(eb);
+        }
+        dto.setBudgets(budgets == null ? null : bdto);
         dto.setParentId(c.getParent() != null ? c.getParent().getId() : null);
         dto.setCreatedAt(c.getCreatedAt());
         dto.setCreatedBy(c.getCreatedBy());
         dto.setUpdatedAt(c.getUpdatedAt());
         dto.setUpdatedBy(c.getUpdatedBy());
-
-        // populate budgets
-        var budgets = budgetService.findBudgetsForCategory(c.getId());
-        java.util.List<org.example.expenseapi.dto.ExpenseCategoryBudgetDto> bdto = new java.util.ArrayList<>();
-        for (var b : budgets) {
-            var eb = new org.example.expenseapi.dto.ExpenseCategoryBudgetDto();
-            eb.setYear(b.getYear()); eb.setMonth(b.getMonth()); eb.setBudget(b.getBudget());
-            bdto.add(eb);
-        }
-        dto.setBudgets(bdto);
-
-        if (includeChildren) {
-            List<ExpenseCategory> all = service.findAll();
-            List<ExpenseCategoryDto> children = all.stream()
-                    .filter(ch -> ch.getParent() != null && ch.getParent().getId() != null && ch.getParent().getId().equals(c.getId()))
-                    .map(ch -> toDto(ch, false))
-                    .collect(Collectors.toList());
-            dto.setSubCategories(children);
-        }
-
+        // only when a budget applies this month
+        var st = statusMap == null ? null : statusMap.get(c.getId());
+        dto.setBudgetStatus(st != null && st.getBudget() != null ? st : null);
         return dto;
     }
 }
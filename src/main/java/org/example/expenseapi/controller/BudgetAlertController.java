@@ -0,0 +1,47 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.service.BudgetAlertService;
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/budgets/alerts")
+public class BudgetAlertController {
+
+    private final BudgetAlertService alertService;
+    private final ExpenseCategoryService categoryService;
+    private final int maxLimit;
+
+    public BudgetAlertController(BudgetAlertService alertService,
+                                 ExpenseCategoryService categoryService,
+                                 @Value("${app.budgets.alerts.max-limit:500}") int maxLimit) {
+        this.alertService = alertService;
+        this.categoryService = categoryService;
+        this.maxLimit = maxLimit;
+    }
+
+    // GET budget threshold alerts recorded after alert `since` (0 = from the start), oldest first
+    @GetMapping
+    public ResponseEntity<?> feed(@RequestParam(name = "since", required = false, defaultValue = "0") long since,
+                                  @RequestParam(name = "limit", required = false, defaultValue = "50") int limit,
+                                  @RequestParam(name = "categoryId", required = false) Long categoryId) {
+        if (since < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "since must not be negative"));
+        }
+        if (limit < 1 || limit > maxLimit) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "limit must be between 1 and " + maxLimit));
+        }
+        if (categoryId != null && categoryService.findById(categoryId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Category not found: " + categoryId));
+        }
+        return ResponseEntity.ok(alertService.feed(categoryId, since, limit));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.expenseapi.controller;
+
+import jakarta.validation.Valid;
+import org.example.expenseapi.dto.ExpenseCategoryBudgetBulkItem;
+import org.example.expenseapi.dto.ExpenseCategoryBudgetBulkRequest;
+import org.example.expenseapi.service.ExpenseBudgetService;
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/v1/budgets")
+public class BudgetBulkController {
+
+    private final ExpenseBudgetService budgetService;
+    private final ExpenseCategoryService categoryService;
+    private final int maxItems;
+
+    public BudgetBulkController(ExpenseBudgetService budgetService,
+                                ExpenseCategoryService categoryService,
+                                @Value("${app.budgets.bulk.max-items:5000}") int maxItems) {
+        this.budgetService = budgetService;
+        this.categoryService = categoryService;
+        this.maxItems = maxItems;
+    }
+
+    // PUT many category/month budgets at once (insert or update); all or nothing
+    @PutMapping("/bulk")
+    public ResponseEntity<?> bulkUpsert(@Valid @RequestBody ExpenseCategoryBudgetBulkRequest req) {
+        if (req.getBudgets().size() > maxItems) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "At most " + maxItems + " budgets per request"));
+        }
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        for (ExpenseCategoryBudgetBulkItem item : req.getBudgets()) {
+            if (item == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "budgets must not contain null entries"));
+            }
+            categoryIds.add(item.getCategoryId());
+        }
+        String categoryError = CategoryIdValidator.check(categoryIds, categoryService);
+        if (categoryError != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", categoryError));
+        }
+        int written = budgetService.upsertBudgets(req.getBudgets());
+        return ResponseEntity.ok(Map.of("written", written));
+    }
+
+    // POST copy every budget of month "from" to month "to", adjusted by adjustPct percent
+    @PostMapping("/rollover")
+    public ResponseEntity<?> rollover(@RequestParam(name = "from") String fromStr,
+                                      @RequestParam(name = "to") String toStr,
+                                      @RequestParam(name = "adjustPct", required = false, defaultValue = "0") BigDecimal adjustPct,
+                                      @RequestParam(name = "overwrite", required = false, defaultValue = "false") boolean overwrite) {
+        YearMonth from;
+        YearMonth to;
+        try {
+            from = YearMonth.parse(fromStr.trim());
+            to = YearMonth.parse(toStr.trim());
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid month format for from/to, expected yyyy-MM"));
+        }
+        if (from.equals(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "from and to must be different months"));
+        }
+        if (adjustPct.compareTo(BigDecimal.valueOf(-100)) < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "adjustPct must be at least -100"));
+        }
+        int written = budgetService.rolloverBudgets(from, to, adjustPct, overwrite);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("from", from.toString());
+        body.put("to", to.toString());
+        body.put("adjustPct", adjustPct);
+        body.put("overwrite", overwrite);
+        body.put("written", written);
+        return ResponseEntity.ok(body);
+    }
+}
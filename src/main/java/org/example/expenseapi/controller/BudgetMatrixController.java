@@ -0,0 +1,82 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.service.ExpenseBudgetService;
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/v1/budgets")
+public class BudgetMatrixController {
+
+    private final ExpenseBudgetService budgetService;
+    private final ExpenseCategoryService categoryService;
+    private final int maxMonths;
+
+    public BudgetMatrixController(ExpenseBudgetService budgetService,
+                                  ExpenseCategoryService categoryService,
+                                  @Value("${app.budgets.matrix.max-months:36}") int maxMonths) {
+        this.budgetService = budgetService;
+        this.categoryService = categoryService;
+        this.maxMonths = maxMonths;
+    }
+
+    // GET budget status of categories x months (all categories unless categoryIds is given); defaults to this year
+    @GetMapping("/matrix")
+    public ResponseEntity<?> matrix(@RequestParam(name = "from", required = false) String fromStr,
+                                    @RequestParam(name = "to", required = false) String toStr,
+                                    @RequestParam(name = "categoryIds", required = false) String categoryIdsCsv) {
+        YearMonth from;
+        YearMonth to;
+        try {
+            from = fromStr == null || fromStr.isBlank() ? YearMonth.now().withMonth(1) : YearMonth.parse(fromStr.trim());
+            to = toStr == null || toStr.isBlank() ? from.withMonth(12) : YearMonth.parse(toStr.trim());
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid month format for from/to, expected yyyy-MM"));
+        }
+        if (from.isAfter(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "from must not be after to"));
+        }
+        if (from.until(to, ChronoUnit.MONTHS) + 1 > maxMonths) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "At most " + maxMonths + " months can be requested"));
+        }
+
+        List<ExpenseCategory> categories;
+        if (categoryIdsCsv == null || categoryIdsCsv.isBlank()) {
+            categories = new ArrayList<>(categoryService.findAll());
+            categories.sort(Comparator.comparing(ExpenseCategory::getId));
+        } else {
+            Set<Long> ids = new LinkedHashSet<>();
+            for (String p : categoryIdsCsv.split(",")) {
+                try {
+                    ids.add(Long.parseLong(p.trim()));
+                } catch (NumberFormatException ex) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid category id: " + p.trim()));
+                }
+            }
+            String error = CategoryIdValidator.check(ids, categoryService);
+            if (error != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", error));
+            }
+            categories = new ArrayList<>();
+            for (Long id : ids) categoryService.findById(id).ifPresent(categories::add);
+        }
+        return ResponseEntity.ok(budgetService.getBudgetMatrix(categories, from, to));
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.application.service.ExpenseCategoryApplicationService;
+import org.example.expenseapi.service.ExpenseBudgetService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/budgets")
+public class BudgetProjectionController {
+
+    private final ExpenseBudgetService budgetService;
+    private final ExpenseCategoryApplicationService categoryAppService;
+
+    public BudgetProjectionController(ExpenseBudgetService budgetService, ExpenseCategoryApplicationService categoryAppService) {
+        this.budgetService = budgetService;
+        this.categoryAppService = categoryAppService;
+    }
+
+    // GET rolling spend and month-end projection for every category budgeted this month (or one category)
+    @GetMapping("/projections")
+    public ResponseEntity<?> projections(@RequestParam(name = "categoryId", required = false) Long categoryId,
+                                         @RequestParam(name = "atRiskOnly", required = false, defaultValue = "false") boolean atRiskOnly) {
+        if (categoryId != null && categoryAppService.findById(categoryId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Category not found"));
+        }
+        return ResponseEntity.ok(budgetService.getProjections(categoryId, atRiskOnly));
+    }
+}
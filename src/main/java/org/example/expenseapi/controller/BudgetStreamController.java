@@ -0,0 +1,56 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.service.BudgetStatusStream;
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/v1/budgets")
+public class BudgetStreamController {
+
+    private final BudgetStatusStream stream;
+    private final ExpenseCategoryService categoryService;
+
+    public BudgetStreamController(BudgetStatusStream stream, ExpenseCategoryService categoryService) {
+        this.stream = stream;
+        this.categoryService = categoryService;
+    }
+
+    // GET server-sent budget-status events for categories whose spent amount or budget changed
+    // (all categories unless categoryIds is given)
+    @GetMapping(value = "/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> stream(@RequestParam(name = "categoryIds", required = false) String categoryIdsCsv) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (categoryIdsCsv != null && !categoryIdsCsv.isBlank()) {
+            for (String p : categoryIdsCsv.split(",")) {
+                try {
+                    ids.add(Long.parseLong(p.trim()));
+                } catch (NumberFormatException ex) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                            .body(Map.of("error", "Invalid category id: " + p.trim()));
+                }
+            }
+            String error = CategoryIdValidator.check(ids, categoryService);
+            if (error != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("error", error));
+            }
+        }
+        try {
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(stream.subscribe(ids));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", ex.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.service.ExpenseCategoryService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Existence check of the category ids a request filters on, shared by the expense list, summary, report, report
+ * jobs and budget endpoints: all ids are resolved at once (against the category snapshot) and every missing one is
+ * named in a single error, instead of a lookup and a 400 per id.
+ */
+final class CategoryIdValidator {
+
+    private CategoryIdValidator() {
+    }
+
+    /** @throws IllegalArgumentException naming every id that is not a category */
+    static void requireExisting(Collection<Long> ids, ExpenseCategoryService categoryService) {
+        String error = check(ids, categoryService);
+        if (error != null) throw new IllegalArgumentException(error);
+    }
+
+    /** @return the error naming every id that is not a category, or null when all exist (nulls are ignored) */
+    static String check(Collection<Long> ids, ExpenseCategoryService categoryService) {
+        if (ids == null || ids.isEmpty()) return null;
+        List<Long> missing = categoryService.findMissingIds(ids);
+        if (missing == null || missing.isEmpty()) return null;
+        if (missing.size() == 1) return "Category not found: " + missing.get(0);
+        return "Categories not found: " + missing.stream().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+}
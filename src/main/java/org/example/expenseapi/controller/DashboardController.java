@@ -0,0 +1,83 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.application.service.ExpenseApplicationService;
+import org.example.expenseapi.application.service.ExpenseCategoryApplicationService;
+import org.example.expenseapi.dto.DashboardDto;
+import org.example.expenseapi.dto.PaginatedResponse;
+import org.example.expenseapi.service.BudgetWindow;
+import org.example.expenseapi.service.DashboardService;
+import org.example.expenseapi.service.ExpenseService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Everything the SPA needs on its first screen in one round trip (one JWT validation and user lookup instead of
+ * one per call). Sections come from the same application services as the individual endpoints, so the payloads are
+ * identical to {@code /v1/expense-categories}, {@code /v1/expenses/reports?year=}, {@code /v1/expenses?size=} and
+ * {@code /v1/expense-statuses}.
+ */
+@RestController
+@RequestMapping("/v1/dashboard")
+public class DashboardController {
+
+    private static final int MAX_RECENT = 50;
+
+    private final DashboardService dashboardService;
+    private final ExpenseCategoryApplicationService categoryAppService;
+    private final ExpenseApplicationService expenseAppService;
+    private final ExpenseService expenseService;
+
+    public DashboardController(DashboardService dashboardService,
+                               ExpenseCategoryApplicationService categoryAppService,
+                               ExpenseApplicationService expenseAppService,
+                               ExpenseService expenseService) {
+        this.dashboardService = dashboardService;
+        this.categoryAppService = categoryAppService;
+        this.expenseAppService = expenseAppService;
+        this.expenseService = expenseService;
+    }
+
+    @GetMapping
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<?> dashboard(@RequestParam(name = "recent", required = false, defaultValue = "10") int recent) {
+        if (recent < 1 || recent > MAX_RECENT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "recent must be between 1 and " + MAX_RECENT));
+        }
+        int year = Year.now().getValue();
+        // same defaults as GET /v1/expenses: this month up to today, newest first
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = YearMonth.from(today).atDay(1);
+        PageRequest recentPage = PageRequest.of(0, recent, Sort.by(Sort.Direction.DESC, "expenseDate"));
+
+        Map<String, Callable<?>> sections = new LinkedHashMap<>();
+        sections.put("categories", () -> categoryAppService.listTree(BudgetWindow.currentYear()));
+        sections.put("report", () -> expenseService.getExpensesReportByCategory(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), null));
+        sections.put("recentExpenses", () -> expenseAppService.search("", null, monthStart, today, recentPage, BudgetWindow.currentYear()));
+        sections.put("statuses", expenseAppService::listStatuses);
+        DashboardService.Sections result = dashboardService.run(sections);
+
+        DashboardDto dto = new DashboardDto();
+        dto.setGeneratedAt(Instant.now());
+        dto.setCategories((List<org.example.expenseapi.dto.ExpenseCategoryDto>) result.get("categories"));
+        dto.setReport((List<org.example.expenseapi.dto.YearlyExpenseDto>) result.get("report"));
+        dto.setRecentExpenses((PaginatedResponse<org.example.expenseapi.dto.ExpenseDto>) result.get("recentExpenses"));
+        dto.setStatuses((List<org.example.expenseapi.dto.ExpenseStatusDto>) result.get("statuses"));
+        dto.setErrors(result.getErrors());
+        return ResponseEntity.ok(dto);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.example.expenseapi.service.analytics.ExpenseAnomalyDetector;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/expenses/anomalies")
+public class ExpenseAnomalyController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final ExpenseAnomalyDetector anomalyDetector;
+    private final ExpenseCategoryService categoryService;
+
+    public ExpenseAnomalyController(ExpenseAnomalyDetector anomalyDetector, ExpenseCategoryService categoryService) {
+        this.anomalyDetector = anomalyDetector;
+        this.categoryService = categoryService;
+    }
+
+    // GET most recently detected outliers, optionally for one category
+    @GetMapping
+    public ResponseEntity<?> list(@RequestParam(name = "categoryId", required = false) Long categoryId,
+                                  @RequestParam(name = "limit", required = false, defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        if (categoryId != null && categoryService.findById(categoryId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Category not found: " + categoryId));
+        }
+        return ResponseEntity.ok(anomalyDetector.recent(categoryId, limit));
+    }
+}
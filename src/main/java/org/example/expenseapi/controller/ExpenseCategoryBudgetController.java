@@ -6,6 +6,7 @@ import org.example.expenseapi.dto.ExpenseCategoryBudgetCreateRequest;
 import org.example.expenseapi.dto.ExpenseCategoryBudgetDto;
 import org.example.expenseapi.dto.BudgetStatus;
 import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.service.BudgetAlertService;
 import org.example.expenseapi.service.ExpenseBudgetService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -66,9 +67,17 @@ public class ExpenseCategoryBudgetController {
             saved.setAllowOverspend(req.getAllowOverspend());
             saved = budgetService.setAllowOverspendForBudget(saved.getId(), req.getAllowOverspend());
         }
+        if (req.getIncludeSubcategories() != null) {
+            saved = budgetService.setIncludeSubcategoriesForBudget(saved.getId(), req.getIncludeSubcategories());
+        }
+        if (req.getAlertThresholds() != null) {
+            saved = budgetService.setAlertThresholdsForBudget(saved.getId(), req.getAlertThresholds());
+        }
         ExpenseCategoryBudgetDto dto = new ExpenseCategoryBudgetDto();
         dto.setYear(saved.getYear()); dto.setMonth(saved.getMonth()); dto.setBudget(saved.getBudget());
         dto.setAllowOverspend(saved.getAllowOverspend());
+        dto.setIncludeSubcategories(saved.getIncludeSubcategories());
+        if (saved.getAlertThresholds() != null) dto.setAlertThresholds(BudgetAlertService.parseThresholds(saved.getAlertThresholds()));
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
 
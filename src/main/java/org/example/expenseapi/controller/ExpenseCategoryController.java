@@ -5,7 +5,9 @@ import org.example.expenseapi.dto.ExpenseCategoryCreateRequest;
 import org.example.expenseapi.dto.ExpenseCategoryDto;
 import org.example.expenseapi.dto.ExpenseCategoryUpdateRequest;
 import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
 import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.service.BudgetWindow;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -55,12 +57,23 @@ public class ExpenseCategoryController {
         log.debug("Created expense category: id={} name={}", created.getId(), created.getName());
         var ymCreated = java.time.YearMonth.now();
         var statusMapCreated = budgetService.getBudgetStatusForCategories(java.util.List.of(created.getId()), ymCreated.getYear(), ymCreated.getMonthValue());
-        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(created, statusMapCreated));
+        var budgetsCreated = budgetService.findBudgetsForCategories(java.util.List.of(created.getId()), BudgetWindow.currentYear());
+        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(created, statusMapCreated, budgetsCreated));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> get(@PathVariable Long id) {
+    public ResponseEntity<?> get(@PathVariable Long id,
+                                 // embedded budgets: budgetsFrom..budgetsTo (yyyy-MM, default this year) or budgets=none
+                                 @RequestParam(name = "budgets", required = false) String budgetsOption,
+                                 @RequestParam(name = "budgetsFrom", required = false) String budgetsFrom,
+                                 @RequestParam(name = "budgetsTo", required = false) String budgetsTo) {
         log.info("Get expense category request: id={}", id);
+        BudgetWindow window;
+        try {
+            window = BudgetWindow.parse(budgetsOption, budgetsFrom, budgetsTo);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+        }
         var existingCategory = service.findById(id);
         if (existingCategory.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Category not found"));
@@ -69,20 +82,18 @@ public class ExpenseCategoryController {
         ExpenseCategory current = existingCategory.get();
 
         log.info("Getting subcategories for category id={}", current.getId());
-        List<ExpenseCategory> allCategories = service.findAll();
-        List<ExpenseCategory> subsEntities = allCategories.stream()
-                .filter(ch -> ch.getParent() != null && ch.getParent().getId() != null && ch.getParent().getId().equals(current.getId()))
-                .toList();
+        List<ExpenseCategory> subsEntities = service.findChildren(current.getId());
         List<Long> idsToCheck = new ArrayList<>();
         idsToCheck.add(current.getId());
         for (var s : subsEntities) idsToCheck.add(s.getId());
 
         var ym = java.time.YearMonth.now();
         var statusMap = budgetService.getBudgetStatusForCategories(idsToCheck, ym.getYear(), ym.getMonthValue());
+        var budgets = window.isNone() ? null : budgetService.findBudgetsForCategories(idsToCheck, window);
 
-        ExpenseCategoryDto dto = toDto(current, statusMap);
+        ExpenseCategoryDto dto = toDto(current, statusMap, budgets);
         List<ExpenseCategoryDto> subs = subsEntities.stream()
-                .map(e -> toDto(e, statusMap))
+                .map(e -> toDto(e, statusMap, budgets))
                 .collect(Collectors.toList());
         log.debug("Returning category id={} with {} subcategories", current.getId(), subs.size());
         dto.setSubCategories(subs);
@@ -90,36 +101,20 @@ public class ExpenseCategoryController {
     }
 
     @GetMapping
-    public List<ExpenseCategoryDto> list() {
+    public ResponseEntity<?> list(@RequestParam(name = "budgets", required = false) String budgetsOption,
+                                  @RequestParam(name = "budgetsFrom", required = false) String budgetsFrom,
+                                  @RequestParam(name = "budgetsTo", required = false) String budgetsTo) {
         log.info("List expense categories request");
-        // Return only top-level parent categories and include their direct children as `subCategories`.
-        List<ExpenseCategory> all = service.findAll();
-        // prepare list of all ids we will need to check budgets for (parents + their children)
-        List<Long> ids = all.stream().map(ExpenseCategory::getId).collect(Collectors.toList());
-        // also include children ids
-        for (var c : all) {
-            if (c.getParent() != null && c.getParent().getId() != null) ids.add(c.getId());
+        BudgetWindow window;
+        try {
+            window = BudgetWindow.parse(budgetsOption, budgetsFrom, budgetsTo);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
         }
-        // dedupe ids
-        ids = new java.util.ArrayList<>(new java.util.LinkedHashSet<>(ids));
-
-        var ym = java.time.YearMonth.now();
-        var statusMap = budgetService.getBudgetStatusForCategories(ids, ym.getYear(), ym.getMonthValue());
-
-        var result = all.stream()
-                .filter(c -> c.getParent() == null)
-                .map(parent -> {
-                    ExpenseCategoryDto dto = toDto(parent, statusMap);
-                    List<ExpenseCategoryDto> subs = all.stream()
-                            .filter(ch -> ch.getParent() != null && ch.getParent().getId() != null && ch.getParent().getId().equals(parent.getId()))
-                            .map(ch -> toDto(ch, statusMap))
-                            .collect(Collectors.toList());
-                    dto.setSubCategories(subs);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        // Return only top-level parent categories, with their subcategories nested (to any depth) as `subCategories`.
+        List<ExpenseCategoryDto> result = service.listTree(window);
         log.debug("Returning {} top-level categories", result.size());
-        return result;
+        return ResponseEntity.ok(result);
     }
 
     @PutMapping("/{id}")
@@ -141,7 +136,13 @@ public class ExpenseCategoryController {
             update.setParent(parentOpt.get());
         }
 
-        ExpenseCategory saved = service.update(id, update);
+        ExpenseCategory saved;
+        try {
+            saved = service.update(id, update);
+        } catch (IllegalArgumentException ex) {
+            // e.g. a category moved under one of its own subcategories
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+        }
 
         // process optional budget updates included in the update request
         if (req.getBudgets() != null && !req.getBudgets().isEmpty()) {
@@ -174,7 +175,8 @@ public class ExpenseCategoryController {
         var ymSaved = java.time.YearMonth.now();
         var statusMapSaved = budgetService.getBudgetStatusForCategories(java.util.List.of(saved.getId()), ymSaved.getYear(), ymSaved.getMonthValue());
         log.debug("Updated category id={}", saved.getId());
-        return ResponseEntity.ok(toDto(saved, statusMapSaved));
+        var budgetsSaved = budgetService.findBudgetsForCategories(java.util.List.of(saved.getId()), BudgetWindow.currentYear());
+        return ResponseEntity.ok(toDto(saved, statusMapSaved, budgetsSaved));
     }
 
     @DeleteMapping("/{id}")
@@ -194,15 +196,11 @@ public class ExpenseCategoryController {
         if (opt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Category not found"));
         }
-        ExpenseCategory existing = opt.get();
-        ExpenseCategoryStatus current = existing.getStatus();
-        ExpenseCategoryStatus newStatus = (current == ExpenseCategoryStatus.ACTIVE) ? ExpenseCategoryStatus.INACTIVE : ExpenseCategoryStatus.ACTIVE;
-        ExpenseCategory update = new ExpenseCategory();
-        update.setStatus(newStatus);
-        ExpenseCategory saved = service.update(id, update);
+        ExpenseCategory saved = service.toggleStatus(id);
         var statusMapToggled = budgetService.getBudgetStatusForCategories(java.util.List.of(saved.getId()), java.time.YearMonth.now().getYear(), java.time.YearMonth.now().getMonthValue());
         log.debug("Toggled status for category id={} newStatus={}", saved.getId(), saved.getStatus());
-        return ResponseEntity.ok(toDto(saved, statusMapToggled));
+        var budgetsToggled = budgetService.findBudgetsForCategories(java.util.List.of(saved.getId()), BudgetWindow.currentYear());
+        return ResponseEntity.ok(toDto(saved, statusMapToggled, budgetsToggled));
     }
 
     @GetMapping("/{id}/budget-status")
@@ -221,7 +219,9 @@ public class ExpenseCategoryController {
         return ResponseEntity.ok(status);
     }
 
-    private ExpenseCategoryDto toDto(ExpenseCategory c, java.util.Map<Long, org.example.expenseapi.dto.BudgetStatus> statusMap) {
+    // budgets: categoryId -> budgets within the requested window, or null for budgets=none (field left out)
+    private ExpenseCategoryDto toDto(ExpenseCategory c, java.util.Map<Long, org.example.expenseapi.dto.BudgetStatus> statusMap,
+                                     java.util.Map<Long, List<ExpenseCategoryBudget>> budgets) {
         ExpenseCategoryDto dto = new ExpenseCategoryDto();
         dto.setId(c.getId());
         dto.setName(c.getName());
@@ -229,15 +229,15 @@ public class ExpenseCategoryController {
         dto.setLevel(c.getLevel());
 
         java.util.List<org.example.expenseapi.dto.ExpenseCategoryBudgetDto> bdto = new java.util.ArrayList<>();
-        var budgets = budgetService.findBudgetsForCategory(c.getId());
-        for (var b : budgets) {
+        for (var b : budgets == null ? List.<ExpenseCategoryBudget>of() : budgets.getOrDefault(c.getId(), List.of())) {
             var eb = new org.example.expenseapi.dto.ExpenseCategoryBudgetDto();
             eb.setYear(b.getYear()); eb.setMonth(b.getMonth()); eb.setBudget(b.getBudget());
             // map allowOverspend so the DTO reflects entity value (entity getter returns default if null)
             eb.setAllowOverspend(b.getAllowOverspend());
+            eb.setIncludeSubcategories(b.getIncludeSubcategories());
             bdto.add(eb);
         }
-        dto.setBudgets(bdto);
+        dto.setBudgets(budgets == null ? null : bdto);
         dto.setParentId(c.getParent() != null ? c.getParent().getId() : null);
         dto.setCreatedAt(c.getCreatedAt());
         dto.setCreatedBy(c.getCreatedBy());
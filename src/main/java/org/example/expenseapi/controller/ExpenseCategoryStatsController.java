@@ -0,0 +1,48 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.application.service.ExpenseCategoryApplicationService;
+import org.example.expenseapi.service.analytics.AmountStatsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Year;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/expense-categories/{categoryId}/stats")
+public class ExpenseCategoryStatsController {
+
+    private static final int MAX_BUCKETS = 50;
+
+    private final AmountStatsService statsService;
+    private final ExpenseCategoryApplicationService categoryAppService;
+
+    public ExpenseCategoryStatsController(AmountStatsService statsService, ExpenseCategoryApplicationService categoryAppService) {
+        this.statsService = statsService;
+        this.categoryAppService = categoryAppService;
+    }
+
+    // GET amount distribution (count, mean, percentiles, histogram) for a month, or the whole year when month is omitted
+    @GetMapping
+    public ResponseEntity<?> stats(@PathVariable Long categoryId,
+                                   @RequestParam(name = "year", required = false) Integer year,
+                                   @RequestParam(name = "month", required = false) Integer month,
+                                   @RequestParam(name = "includeSubcategories", required = false, defaultValue = "false") boolean includeSubcategories,
+                                   @RequestParam(name = "buckets", required = false, defaultValue = "10") int buckets) {
+        if (categoryId == null || categoryAppService.findById(categoryId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Category not found"));
+        }
+        int y = year != null ? year : Year.now().getValue();
+        if (y < 1970 || y > 9999) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Year is invalid"));
+        }
+        if (month != null && (month < 1 || month > 12)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Month must be between 1 and 12"));
+        }
+        if (buckets < 0 || buckets > MAX_BUCKETS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "buckets must be between 0 and " + MAX_BUCKETS));
+        }
+        return ResponseEntity.ok(statsService.getStats(categoryId, includeSubcategories, y, month, buckets));
+    }
+}
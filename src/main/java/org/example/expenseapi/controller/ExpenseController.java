@@ -1,21 +1,25 @@
 package org.example.expenseapi.controller;
 
 import jakarta.validation.Valid;
-import org.example.expenseapi.dto.ExpenseCategoryBudgetDto;
+import org.example.expenseapi.application.service.ExpenseApplicationService;
 import org.example.expenseapi.dto.ExpenseCreateRequest;
 import org.example.expenseapi.dto.ExpenseDto;
 import org.example.expenseapi.dto.ExpenseUpdateRequest;
 import org.example.expenseapi.model.Expense;
 import org.example.expenseapi.model.ExpenseStatus;
+import org.example.expenseapi.service.BudgetExceededException;
+import org.example.expenseapi.service.BudgetWindow;
+import org.example.expenseapi.service.ClosedPeriodException;
 import org.example.expenseapi.service.ExpenseService;
 import org.example.expenseapi.service.ExpenseCategoryService;
 import org.example.expenseapi.service.ExpenseStatusService;
+import org.example.expenseapi.service.analytics.ExpenseFacetService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Sort;
-import org.example.expenseapi.service.ExpenseBudgetService;
+import org.example.expenseapi.util.MoneyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,14 +35,16 @@ public class ExpenseController {
     private final ExpenseService service;
     private final ExpenseCategoryService categoryService;
     private final ExpenseStatusService statusService;
-    private final ExpenseBudgetService budgetService;
+    private final ExpenseApplicationService appService;
+    private final ExpenseFacetService facetService;
     private static final Logger log = LoggerFactory.getLogger(ExpenseController.class);
 
-    public ExpenseController(ExpenseService service, ExpenseCategoryService categoryService, ExpenseStatusService statusService, org.example.expenseapi.service.ExpenseBudgetService budgetService) {
+    public ExpenseController(ExpenseService service, ExpenseCategoryService categoryService, ExpenseStatusService statusService, ExpenseApplicationService appService, ExpenseFacetService facetService) {
         this.service = service;
         this.categoryService = categoryService;
         this.statusService = statusService;
-        this.budgetService = budgetService;
+        this.appService = appService;
+        this.facetService = facetService;
     }
 
     @PostMapping
@@ -47,45 +53,6 @@ public class ExpenseController {
         var catOpt = categoryService.findById(req.getExpenseCategoryId());
         if (catOpt.isEmpty()) return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Category not found"));
 
-        // Budget-aware check: if a budget exists for the category/month, compute spent+amount and if it would exceed
-        // the budget and the budget does NOT allow overspend, return 400 with details; otherwise continue.
-        try {
-            YearMonth ym = YearMonth.from(req.getExpenseDate());
-            var budgetOpt = budgetService.findBudgetForCategoryMonth(catOpt.get().getId(), ym.getYear(), ym.getMonthValue());
-            if (budgetOpt.isPresent()) {
-                var budget = budgetOpt.get();
-                BigDecimal currentSpent = budgetService.getBudgetStatus(catOpt.get().getId(), ym.getYear(), ym.getMonthValue()).getSpent();
-                BigDecimal budgetAmount = budget.getBudget();
-                BigDecimal newTotal = currentSpent.add(req.getAmount() == null ? BigDecimal.ZERO : req.getAmount());
-                if (newTotal.compareTo(budgetAmount) > 0) {
-                    // Over budget - check allowOverspend flag on the budget entity
-                    Boolean allow = budget.getAllowOverspend();
-                    if (allow == null) allow = Boolean.TRUE; // default
-                    if (!allow) {
-                        Map<String, Object> details = new HashMap<>();
-                        details.put("error", "Expense would exceed monthly budget for category");
-                        details.put("categoryId", catOpt.get().getId());
-                        details.put("year", ym.getYear());
-                        details.put("month", ym.getMonthValue());
-                        details.put("budget", budgetAmount);
-                        details.put("spent", currentSpent);
-                        details.put("attemptedTotal", newTotal);
-                        details.put("allowOverspend", false);
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(details);
-                    }
-                }
-            }
-        } catch (Exception ex) {
-            // don't fail the request just because budget check failed; log and proceed with the existing isWithinBudget check for safety
-            log.warn("Budget check failed for category id={} date={} amount={} - {}", req.getExpenseCategoryId(), req.getExpenseDate(), req.getAmount(), ex.getMessage());
-        }
-
-        // fallback simple budget check: prevent creating an expense that would exceed the monthly budget for the category
-        boolean within = budgetService.isWithinBudgetForNewExpense(catOpt.get().getId(), req.getExpenseDate(), req.getAmount());
-        if (!within) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Expense would exceed monthly budget for category"));
-        }
-
         // Determine status: use provided id or fallback to default
         ExpenseStatus statusToUse;
         if (req.getExpenseStatusId() != null) {
@@ -107,15 +74,31 @@ public class ExpenseController {
         e.setExpenseStatus(statusToUse);
         e.setAmount(req.getAmount());
 
-        Expense created = service.createExpense(e);
-        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(created));
+        try {
+            Expense created = service.createExpense(e);
+            return ResponseEntity.status(HttpStatus.CREATED).body(toDto(created));
+        } catch (ClosedPeriodException ex) {
+            return closedPeriod(ex);
+        } catch (BudgetExceededException ex) {
+            return overBudget(ex);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> get(@PathVariable Long id) {
+    public ResponseEntity<?> get(@PathVariable Long id,
+                                 // embedded budgets: budgetsFrom..budgetsTo (yyyy-MM, default this year) or budgets=none
+                                 @RequestParam(name = "budgets", required = false) String budgetsOption,
+                                 @RequestParam(name = "budgetsFrom", required = false) String budgetsFrom,
+                                 @RequestParam(name = "budgetsTo", required = false) String budgetsTo) {
+        BudgetWindow window;
+        try {
+            window = BudgetWindow.parse(budgetsOption, budgetsFrom, budgetsTo);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+        }
         var opt = service.findById(id);
         if (opt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Expense not found"));
-        return ResponseEntity.ok(toDto(opt.get()));
+        return ResponseEntity.ok(appService.toDto(opt.get(), window));
     }
 
     @GetMapping
@@ -128,8 +111,26 @@ public class ExpenseController {
             @RequestParam(name = "categoryId", required = false) Long categoryId,
             @RequestParam(name = "categoryIds", required = false) String categoryIdsCsv,
             @RequestParam(name = "startDate", required = false) String startDateStr,
-            @RequestParam(name = "endDate", required = false) String endDateStr
+            @RequestParam(name = "endDate", required = false) String endDateStr,
+            // opt-in facet counts, e.g. "category,status"
+            @RequestParam(name = "facets", required = false) String facetsCsv,
+            // budgets embedded in each expense's category: budgetsFrom..budgetsTo (yyyy-MM, default this year) or budgets=none
+            @RequestParam(name = "budgets", required = false) String budgetsOption,
+            @RequestParam(name = "budgetsFrom", required = false) String budgetsFrom,
+            @RequestParam(name = "budgetsTo", required = false) String budgetsTo
     ) {
+        Set<String> facets = new LinkedHashSet<>();
+        if (facetsCsv != null && !facetsCsv.isBlank()) {
+            for (String f : facetsCsv.split(",")) {
+                String name = f.trim().toLowerCase(Locale.ROOT);
+                if (name.isEmpty()) continue;
+                if (!ExpenseFacetService.SUPPORTED.contains(name)) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Unsupported facet: " + name + " (expected category, status)"));
+                }
+                facets.add(name);
+            }
+        }
+
         // parse sort param (e.g. "expenseDate,desc" or "amount,asc")
         Sort sortObj = Sort.by(Sort.Direction.DESC, "expenseDate");
         if (sort != null && !sort.isBlank()) {
@@ -146,62 +147,33 @@ public class ExpenseController {
         int zeroBasedPage = Math.max(0, page - 1);
         var pageable = PageRequest.of(zeroBasedPage, size, sortObj);
 
-        // parse date range
-        LocalDate startDate = null; LocalDate endDate = null;
+        BudgetWindow window;
         try {
-            if (startDateStr != null && !startDateStr.isBlank()) startDate = LocalDate.parse(startDateStr);
-            if (endDateStr != null && !endDateStr.isBlank()) endDate = LocalDate.parse(endDateStr);
-        } catch (Exception ex) {
-            log.warn("Invalid date parameter(s): startDate='{}', endDate='{}' - {}", startDateStr, endDateStr, ex.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid date format for startDate/endDate, expected yyyy-MM-dd"));
+            window = BudgetWindow.parse(budgetsOption, budgetsFrom, budgetsTo);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
         }
 
-        // Defaults: if startDate not provided -> first day of current month; if endDate not provided -> today
-        if (startDate == null) {
-            YearMonth ym = YearMonth.now();
-            startDate = ym.atDay(1);
-        }
-        if (endDate == null) {
-            endDate = LocalDate.now();
-        }
-
-        // Ensure startDate <= endDate; if not, swap them
-        if (startDate.isAfter(endDate)) {
-            LocalDate tmp = startDate;
-            startDate = endDate;
-            endDate = tmp;
-        }
-
-        // parse category ids: either single categoryId or CSV list
-        List<Long> categoryIds = null;
-        if (categoryIdsCsv != null && !categoryIdsCsv.isBlank()) {
-            String[] parts = categoryIdsCsv.split(",");
-            categoryIds = new ArrayList<>();
-            for (String p : parts) {
-                try { categoryIds.add(Long.parseLong(p.trim())); } catch (NumberFormatException ignored) {}
-            }
-        }
-        if (categoryId != null) {
-            if (categoryIds == null) categoryIds = new ArrayList<>();
-            categoryIds.add(categoryId);
-        }
-
-        // validate category existence before calling service
-        if (categoryIds != null && !categoryIds.isEmpty()) {
-            for (Long cid : categoryIds) {
-                if (categoryService.findById(cid).isEmpty()) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Category not found: " + cid));
-                }
-            }
+        ExpenseSearchFilter filter;
+        try {
+            filter = ExpenseSearchFilter.parse(keyword, categoryId, categoryIdsCsv, startDateStr, endDateStr, categoryService);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalid search parameter(s): startDate='{}', endDate='{}' - {}", startDateStr, endDateStr, ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
         }
+        List<Long> categoryIds = filter.getCategoryIds();
+        LocalDate startDate = filter.getStartDate();
+        LocalDate endDate = filter.getEndDate();
 
         // Log effective search parameters for easier debugging
         log.info("Listing expenses - keyword='{}' categoryIds={} startDate={} endDate={} requestedPage={} size={} sort={}",
                 keyword, categoryIds, startDate, endDate, page, size, sortObj);
 
         try {
-            var pageResult = service.search(keyword, categoryIds, startDate, endDate, pageable);
-            var response = org.example.expenseapi.util.PaginationUtils.toPaginatedResponse(pageResult, this::toDto);
+            var response = appService.search(keyword, categoryIds, startDate, endDate, pageable, window);
+            if (!facets.isEmpty()) {
+                response.setFacets(facetService.facets(keyword, categoryIds, startDate, endDate, facets));
+            }
             return ResponseEntity.ok(response);
         } catch (Exception ex) {
             log.error("Failed to list expenses with params keyword='{}' categoryIds={} startDate={} endDate={} - {}",
@@ -237,18 +209,47 @@ public class ExpenseController {
             existingExpense.setExpenseStatus(stOpt.get());
         }
 
-        Expense saved = service.updateExpense(id, existingExpense);
-        return ResponseEntity.ok(toDto(saved));
+        try {
+            Expense saved = service.updateExpense(id, existingExpense);
+            return ResponseEntity.ok(toDto(saved));
+        } catch (ClosedPeriodException ex) {
+            return closedPeriod(ex);
+        } catch (BudgetExceededException ex) {
+            return overBudget(ex);
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> delete(@PathVariable Long id) {
         var opt = service.findById(id);
         if (opt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Expense not found"));
-        service.deleteExpense(id);
+        try {
+            service.deleteExpense(id);
+        } catch (ClosedPeriodException ex) {
+            return closedPeriod(ex);
+        }
         return ResponseEntity.noContent().build();
     }
 
+    // 400 with the figures of the budget that would be exceeded
+    private ResponseEntity<?> overBudget(BudgetExceededException ex) {
+        Map<String, Object> details = new HashMap<>();
+        details.put("error", ex.getMessage());
+        details.put("categoryId", ex.getCategoryId());
+        details.put("year", ex.getMonth().getYear());
+        details.put("month", ex.getMonth().getMonthValue());
+        details.put("budget", ex.getBudget());
+        details.put("spent", ex.getSpent());
+        details.put("attemptedTotal", ex.getAttemptedTotal());
+        details.put("allowOverspend", false);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(details);
+    }
+
+    // expenses dated in a closed accounting month are read-only
+    private ResponseEntity<?> closedPeriod(ClosedPeriodException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage(), "month", ex.getMonth().toString()));
+    }
+
     // New endpoint: GET reports grouped by category -> year -> month
     @GetMapping("/reports")
     public ResponseEntity<?> getExpensesReport(
@@ -270,8 +271,9 @@ public class ExpenseController {
         // Validate single categoryId if provided
         java.util.List<Long> categoryIds = null;
         if (categoryId != null) {
-            if (categoryService.findById(categoryId).isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Category not found: " + categoryId));
+            String error = CategoryIdValidator.check(java.util.List.of(categoryId), categoryService);
+            if (error != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", error));
             }
             categoryIds = java.util.List.of(categoryId);
         }
@@ -285,72 +287,9 @@ public class ExpenseController {
         }
     }
 
+    // create and update responses embed this year's budgets, as a GET without budget parameters does
     private ExpenseDto toDto(Expense e) {
-        if (e == null) return null;
-        ExpenseDto dto = new ExpenseDto();
-        dto.setId(e.getId());
-        dto.setExpenseDate(e.getExpenseDate());
-        dto.setDesignation(e.getDesignation());
-        dto.setExpenseCategoryId(e.getExpenseCategory() != null ? e.getExpenseCategory().getId() : null);
-        dto.setExpenseStatusId(e.getExpenseStatus() != null ? e.getExpenseStatus().getId() : null);
-        dto.setAmount(e.getAmount());
-        dto.setCreatedAt(e.getCreatedAt());
-        dto.setCreatedBy(e.getCreatedBy());
-        dto.setUpdatedAt(e.getUpdatedAt());
-        dto.setUpdatedBy(e.getUpdatedBy());
-
-        // populate nested DTOs
-        if (e.getExpenseCategory() != null) {
-            var c = new org.example.expenseapi.dto.ExpenseCategoryDto();
-            c.setId(e.getExpenseCategory().getId());
-            c.setName(e.getExpenseCategory().getName());
-            c.setStatus(e.getExpenseCategory().getStatus());
-            c.setLevel(e.getExpenseCategory().getLevel());
-            // populate budgets for category (use budgetService)
-            java.util.List<ExpenseCategoryBudgetDto> bdto = new java.util.ArrayList<>();
-            try {
-                Long catId = e.getExpenseCategory().getId();
-                if (catId != null && budgetService != null) {
-                    var budgets = budgetService.findBudgetsForCategory(catId);
-                    if (budgets != null) {
-                        for (var b : budgets) {
-                            if (b == null) continue;
-                            var eb = new ExpenseCategoryBudgetDto();
-                            eb.setYear(b.getYear()); eb.setMonth(b.getMonth()); eb.setBudget(b.getBudget());
-                            // map allowOverspend as provided by the entity (entity getter returns a default if null)
-                            eb.setAllowOverspend(b.getAllowOverspend());
-                            bdto.add(eb);
-                        }
-                    }
-                }
-            } catch (Exception ex) {
-                // Defensive: log and continue without budgets rather than failing the whole request
-                log.warn("Failed to load budgets for expense category id={}: {}", e.getExpenseCategory().getId(), ex.getMessage());
-            }
-            c.setBudgets(bdto);
-            c.setParentId(e.getExpenseCategory().getParent() != null ? e.getExpenseCategory().getParent().getId() : null);
-            c.setCreatedAt(e.getExpenseCategory().getCreatedAt());
-            c.setCreatedBy(e.getExpenseCategory().getCreatedBy());
-            c.setUpdatedAt(e.getExpenseCategory().getUpdatedAt());
-            c.setUpdatedBy(e.getExpenseCategory().getUpdatedBy());
-            // ensure subCategories are not included when returning an Expense
-            c.setSubCategories(null);
-            dto.setExpenseCategory(c);
-        }
-
-        if (e.getExpenseStatus() != null) {
-            var s = new org.example.expenseapi.dto.ExpenseStatusDto();
-            s.setId(e.getExpenseStatus().getId());
-            s.setName(e.getExpenseStatus().getName());
-            s.setIsDefault(e.getExpenseStatus().getIsDefault());
-            s.setCreatedAt(e.getExpenseStatus().getCreatedAt());
-            s.setCreatedBy(e.getExpenseStatus().getCreatedBy());
-            s.setUpdatedAt(e.getExpenseStatus().getUpdatedAt());
-            s.setUpdatedBy(e.getExpenseStatus().getUpdatedBy());
-            dto.setExpenseStatus(s);
-        }
-
-        return dto;
+        return appService.toDto(e, BudgetWindow.currentYear());
     }
 
     // Validation helpers for amount
@@ -364,8 +303,7 @@ public class ExpenseController {
         }
 
         // allow at most 2 fractional digits
-        int scale = Math.max(0, amount.stripTrailingZeros().scale());
-        if (scale > 2) {
+        if (!MoneyUtils.hasAtMostTwoDecimals(amount)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "amount must have at most 2 decimal places"));
         }
 
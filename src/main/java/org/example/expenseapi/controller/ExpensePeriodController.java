@@ -0,0 +1,108 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.dto.ExpenseMonthSnapshotDto;
+import org.example.expenseapi.dto.ExpensePeriodCloseDto;
+import org.example.expenseapi.model.ExpenseMonthSnapshot;
+import org.example.expenseapi.model.ExpensePeriodClose;
+import org.example.expenseapi.service.ExpensePeriodCloseService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Month close: closed months are read-only and reported from frozen per-category snapshots
+@RestController
+@RequestMapping("/v1/expense-periods")
+public class ExpensePeriodController {
+
+    private final ExpensePeriodCloseService periodCloseService;
+
+    public ExpensePeriodController(ExpensePeriodCloseService periodCloseService) {
+        this.periodCloseService = periodCloseService;
+    }
+
+    // GET all closed months, most recent first
+    @GetMapping
+    public ResponseEntity<?> list() {
+        List<ExpensePeriodCloseDto> result = new ArrayList<>();
+        for (ExpensePeriodClose c : periodCloseService.findAll()) result.add(toDto(c, null));
+        return ResponseEntity.ok(result);
+    }
+
+    // GET one closed month with its per-category snapshot
+    @GetMapping("/{month}")
+    public ResponseEntity<?> get(@PathVariable("month") String monthStr) {
+        YearMonth month = parseMonth(monthStr);
+        if (month == null) return badMonth();
+        var opt = periodCloseService.find(month);
+        if (opt.isEmpty()) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Accounting period " + month + " is not closed"));
+        return ResponseEntity.ok(toDto(opt.get(), periodCloseService.findSnapshots(month)));
+    }
+
+    // POST close a month that has ended
+    @PostMapping("/{month}/close")
+    public ResponseEntity<?> close(@PathVariable("month") String monthStr) {
+        YearMonth month = parseMonth(monthStr);
+        if (month == null) return badMonth();
+        try {
+            ExpensePeriodClose close = periodCloseService.close(month);
+            return ResponseEntity.status(HttpStatus.CREATED).body(toDto(close, periodCloseService.findSnapshots(month)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+        } catch (IllegalStateException | DataIntegrityViolationException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Accounting period " + month + " is already closed"));
+        }
+    }
+
+    // DELETE reopen a closed month (drops its snapshot)
+    @DeleteMapping("/{month}/close")
+    public ResponseEntity<?> reopen(@PathVariable("month") String monthStr) {
+        YearMonth month = parseMonth(monthStr);
+        if (month == null) return badMonth();
+        if (!periodCloseService.reopen(month)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Accounting period " + month + " is not closed"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static YearMonth parseMonth(String monthStr) {
+        try {
+            return YearMonth.parse(monthStr.trim());
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static ResponseEntity<?> badMonth() {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "month must be formatted as yyyy-MM"));
+    }
+
+    private static ExpensePeriodCloseDto toDto(ExpensePeriodClose c, List<ExpenseMonthSnapshot> snapshots) {
+        ExpensePeriodCloseDto dto = new ExpensePeriodCloseDto();
+        dto.setMonth(YearMonth.of(c.getYear(), c.getMonth()).toString());
+        dto.setExpenseCount(c.getExpenseCount());
+        dto.setAmount(c.getAmount());
+        dto.setClosedAt(c.getCreatedAt());
+        dto.setClosedBy(c.getCreatedBy());
+        if (snapshots != null) {
+            List<ExpenseMonthSnapshotDto> categories = new ArrayList<>();
+            for (ExpenseMonthSnapshot s : snapshots) {
+                ExpenseMonthSnapshotDto sd = new ExpenseMonthSnapshotDto();
+                sd.setCategoryId(s.getCategoryId());
+                sd.setExpenseCount(s.getExpenseCount());
+                sd.setAmount(s.getAmount());
+                categories.add(sd);
+            }
+            categories.sort(Comparator.comparing(ExpenseMonthSnapshotDto::getCategoryId));
+            dto.setCategories(categories);
+        }
+        return dto;
+    }
+}
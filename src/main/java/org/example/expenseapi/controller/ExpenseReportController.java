@@ -0,0 +1,97 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.example.expenseapi.service.analytics.PeriodComparisonService;
+import org.example.expenseapi.service.analytics.ReportPeriod;
+import org.example.expenseapi.service.analytics.TopDesignationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+// Additional expense reports; the yearly report stays on ExpenseController (GET /v1/expenses/reports)
+@RestController
+@RequestMapping("/v1/expenses/reports")
+public class ExpenseReportController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final TopDesignationService topDesignationService;
+    private final ExpenseCategoryService categoryService;
+    private final PeriodComparisonService periodComparisonService;
+    private static final Logger log = LoggerFactory.getLogger(ExpenseReportController.class);
+
+    public ExpenseReportController(TopDesignationService topDesignationService,
+                                   ExpenseCategoryService categoryService,
+                                   PeriodComparisonService periodComparisonService) {
+        this.topDesignationService = topDesignationService;
+        this.categoryService = categoryService;
+        this.periodComparisonService = periodComparisonService;
+    }
+
+    // GET top designations (merchants) of a month by count or amount
+    @GetMapping("/top-designations")
+    public ResponseEntity<?> topDesignations(
+            @RequestParam(name = "month", required = false) String monthStr,
+            @RequestParam(name = "limit", required = false, defaultValue = "10") int limit,
+            @RequestParam(name = "categoryId", required = false) Long categoryId,
+            @RequestParam(name = "by", required = false, defaultValue = "count") String by,
+            @RequestParam(name = "exact", required = false, defaultValue = "false") boolean exact
+    ) {
+        YearMonth month;
+        try {
+            month = monthStr == null || monthStr.isBlank() ? YearMonth.now() : YearMonth.parse(monthStr.trim());
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "month must be formatted as yyyy-MM"));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        if (!TopDesignationService.BY_COUNT.equals(by) && !TopDesignationService.BY_AMOUNT.equals(by)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "by must be 'count' or 'amount'"));
+        }
+        if (categoryId != null && categoryService.findById(categoryId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Category not found: " + categoryId));
+        }
+
+        try {
+            return ResponseEntity.ok(topDesignationService.topDesignations(month, categoryId, limit, by, exact));
+        } catch (Exception ex) {
+            log.error("Failed to build top designations report: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to generate report"));
+        }
+    }
+
+    // GET per-category totals of a month/quarter/year compared with the previous period or the same period last year
+    @GetMapping("/compare")
+    public ResponseEntity<?> compare(
+            @RequestParam(name = "period", required = false, defaultValue = "month") String periodStr,
+            @RequestParam(name = "anchor", required = false) String anchor,
+            @RequestParam(name = "against", required = false, defaultValue = PeriodComparisonService.AGAINST_PREVIOUS) String against
+    ) {
+        ReportPeriod current;
+        try {
+            current = ReportPeriod.parse(ReportPeriod.parseType(periodStr), anchor);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+        }
+        if (!PeriodComparisonService.AGAINST_PREVIOUS.equals(against) && !PeriodComparisonService.AGAINST_YEAR_AGO.equals(against)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "against must be 'previous' or 'year-ago'"));
+        }
+
+        try {
+            return ResponseEntity.ok(periodComparisonService.compare(current, against));
+        } catch (Exception ex) {
+            log.error("Failed to build comparison report: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to generate report"));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.service.ExpenseCategoryService;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search parameters shared by the expense list and its summary, parsed the same way for both:
+ * dates default to the first of the current month .. today and are swapped when reversed;
+ * categoryId and categoryIds (CSV) are combined and must all exist.
+ */
+final class ExpenseSearchFilter {
+
+    private final String keyword;
+    private final List<Long> categoryIds;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    private ExpenseSearchFilter(String keyword, List<Long> categoryIds, LocalDate startDate, LocalDate endDate) {
+        this.keyword = keyword;
+        this.categoryIds = categoryIds;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    /** @throws IllegalArgumentException with the message to return to the client */
+    static ExpenseSearchFilter parse(String keyword, Long categoryId, String categoryIdsCsv,
+                                     String startDateStr, String endDateStr, ExpenseCategoryService categoryService) {
+        // parse date range
+        LocalDate startDate = null; LocalDate endDate = null;
+        try {
+            if (startDateStr != null && !startDateStr.isBlank()) startDate = LocalDate.parse(startDateStr);
+            if (endDateStr != null && !endDateStr.isBlank()) endDate = LocalDate.parse(endDateStr);
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("Invalid date format for startDate/endDate, expected yyyy-MM-dd", ex);
+        }
+
+        // Defaults: if startDate not provided -> first day of current month; if endDate not provided -> today
+        if (startDate == null) {
+            YearMonth ym = YearMonth.now();
+            startDate = ym.atDay(1);
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+
+        // Ensure startDate <= endDate; if not, swap them
+        if (startDate.isAfter(endDate)) {
+            LocalDate tmp = startDate;
+            startDate = endDate;
+            endDate = tmp;
+        }
+
+        // parse category ids: either single categoryId or CSV list
+        List<Long> categoryIds = null;
+        if (categoryIdsCsv != null && !categoryIdsCsv.isBlank()) {
+            String[] parts = categoryIdsCsv.split(",");
+            categoryIds = new ArrayList<>();
+            for (String p : parts) {
+                try { categoryIds.add(Long.parseLong(p.trim())); } catch (NumberFormatException ignored) {}
+            }
+        }
+        if (categoryId != null) {
+            if (categoryIds == null) categoryIds = new ArrayList<>();
+            categoryIds.add(categoryId);
+        }
+
+        // validate category existence before calling service: all ids at once, every missing one reported
+        CategoryIdValidator.requireExisting(categoryIds, categoryService);
+        return new ExpenseSearchFilter(keyword, categoryIds, startDate, endDate);
+    }
+
+    String getKeyword() { return keyword; }
+    List<Long> getCategoryIds() { return categoryIds; }
+    LocalDate getStartDate() { return startDate; }
+    LocalDate getEndDate() { return endDate; }
+}
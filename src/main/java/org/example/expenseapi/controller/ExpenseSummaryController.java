@@ -0,0 +1,54 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.example.expenseapi.service.analytics.ExpenseSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/expenses/summary")
+public class ExpenseSummaryController {
+
+    private final ExpenseSummaryService summaryService;
+    private final ExpenseCategoryService categoryService;
+    private static final Logger log = LoggerFactory.getLogger(ExpenseSummaryController.class);
+
+    public ExpenseSummaryController(ExpenseSummaryService summaryService, ExpenseCategoryService categoryService) {
+        this.summaryService = summaryService;
+        this.categoryService = categoryService;
+    }
+
+    // GET count/sum/min/max/avg of everything GET /v1/expenses returns for the same search params
+    @GetMapping
+    public ResponseEntity<?> summary(
+            @RequestParam(name = "keyword", required = false, defaultValue = "") String keyword,
+            @RequestParam(name = "categoryId", required = false) Long categoryId,
+            @RequestParam(name = "categoryIds", required = false) String categoryIdsCsv,
+            @RequestParam(name = "startDate", required = false) String startDateStr,
+            @RequestParam(name = "endDate", required = false) String endDateStr
+    ) {
+        ExpenseSearchFilter filter;
+        try {
+            filter = ExpenseSearchFilter.parse(keyword, categoryId, categoryIdsCsv, startDateStr, endDateStr, categoryService);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+        }
+
+        try {
+            return ResponseEntity.ok(summaryService.summarize(filter.getKeyword(), filter.getCategoryIds(),
+                    filter.getStartDate(), filter.getEndDate()));
+        } catch (Exception ex) {
+            log.error("Failed to summarize expenses with params keyword='{}' categoryIds={} startDate={} endDate={} - {}",
+                    keyword, filter.getCategoryIds(), filter.getStartDate(), filter.getEndDate(), ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to summarize expenses"));
+        }
+    }
+}
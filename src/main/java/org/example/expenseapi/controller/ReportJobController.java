@@ -0,0 +1,121 @@
+package org.example.expenseapi.controller;
+
+import org.example.expenseapi.dto.ReportJobCreateRequest;
+import org.example.expenseapi.dto.ReportJobDto;
+import org.example.expenseapi.service.ExpenseCategoryService;
+import org.example.expenseapi.service.ReportJob;
+import org.example.expenseapi.service.ReportJobRejectedException;
+import org.example.expenseapi.service.ReportJobService;
+import org.example.expenseapi.service.ReportJobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.Year;
+import java.util.Map;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/v1/reports/jobs")
+public class ReportJobController {
+
+    private final ReportJobService jobService;
+    private final ExpenseCategoryService categoryService;
+    private static final Logger log = LoggerFactory.getLogger(ReportJobController.class);
+
+    public ReportJobController(ReportJobService jobService, ExpenseCategoryService categoryService) {
+        this.jobService = jobService;
+        this.categoryService = categoryService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestBody(required = false) ReportJobCreateRequest req) {
+        if (req == null) req = new ReportJobCreateRequest();
+        int currentYear = Year.now().getValue();
+        int toYear = req.getToYear() != null ? req.getToYear() : (req.getFromYear() != null ? Math.max(req.getFromYear(), currentYear) : currentYear);
+        int fromYear = req.getFromYear() != null ? req.getFromYear() : toYear;
+        if (fromYear < 1970 || toYear > 9999) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Year is invalid"));
+        }
+        if (fromYear > toYear) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "fromYear must not be after toYear"));
+        }
+
+        String categoryError = CategoryIdValidator.check(req.getCategoryIds(), categoryService);
+        if (categoryError != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", categoryError));
+        }
+
+        try {
+            ReportJob job = jobService.submit(getCurrentUsername(), fromYear, toYear, req.getCategoryIds());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/v1/reports/jobs/" + job.getId()))
+                    .body(toDto(job));
+        } catch (ReportJobRejectedException ex) {
+            log.warn("Report job rejected: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> get(@PathVariable String id) {
+        ReportJob job = findOwnJob(id);
+        if (job == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Report job not found"));
+        return ResponseEntity.ok(toDto(job));
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> result(@PathVariable String id) {
+        ReportJob job = findOwnJob(id);
+        if (job == null) return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Report job not found"));
+        if (job.getStatus() == ReportJobStatus.COMPLETED) {
+            return ResponseEntity.ok(job.getResult());
+        }
+        if (job.getStatus() == ReportJobStatus.FAILED) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Report job failed", "details", Objects.toString(job.getError(), "")));
+        }
+        // still pending/running: tell the client to keep polling the status
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(job));
+    }
+
+    // Jobs are private to the user who submitted them; other users get a 404
+    private ReportJob findOwnJob(String id) {
+        var opt = jobService.findById(id);
+        if (opt.isEmpty()) return null;
+        ReportJob job = opt.get();
+        if (!Objects.equals(job.getRequestedBy(), getCurrentUsername())) return null;
+        return job;
+    }
+
+    private String getCurrentUsername() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) return null;
+        Object principal = auth.getPrincipal();
+        if (principal instanceof UserDetails) return ((UserDetails) principal).getUsername();
+        if (principal instanceof String) return (String) principal;
+        return null;
+    }
+
+    private ReportJobDto toDto(ReportJob job) {
+        ReportJobDto dto = new ReportJobDto();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus().name());
+        dto.setProgress(job.getProgress());
+        dto.setCompletedSteps(job.getCompletedSteps());
+        dto.setTotalSteps(job.getTotalSteps());
+        dto.setFromYear(job.getFromYear());
+        dto.setToYear(job.getToYear());
+        dto.setCategoryIds(job.getCategoryIds());
+        dto.setSubmittedAt(job.getSubmittedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        dto.setError(job.getError());
+        return dto;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+
+public class AmountHistogramBucketDto {
+    private BigDecimal from; // exclusive, except for the first bucket
+    private BigDecimal to; // inclusive
+    private long count; // estimated number of expenses in the bucket
+
+    public AmountHistogramBucketDto() {}
+
+    public BigDecimal getFrom() { return from; }
+    public void setFrom(BigDecimal from) { this.from = from; }
+
+    public BigDecimal getTo() { return to; }
+    public void setTo(BigDecimal to) { this.to = to; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
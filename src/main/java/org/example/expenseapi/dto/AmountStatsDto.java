@@ -0,0 +1,61 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class AmountStatsDto {
+    private Long categoryId;
+    private boolean includeSubcategories;
+    private Integer year;
+    private Integer month; // null for the whole year
+    private long count;
+    private BigDecimal total;
+    private BigDecimal mean;
+    private BigDecimal min;
+    private BigDecimal p50; // percentiles are estimates (~1% rank error)
+    private BigDecimal p90;
+    private BigDecimal p99;
+    private BigDecimal max;
+    private List<AmountHistogramBucketDto> histogram;
+
+    public AmountStatsDto() {}
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public boolean isIncludeSubcategories() { return includeSubcategories; }
+    public void setIncludeSubcategories(boolean includeSubcategories) { this.includeSubcategories = includeSubcategories; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Integer getMonth() { return month; }
+    public void setMonth(Integer month) { this.month = month; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+
+    public BigDecimal getMean() { return mean; }
+    public void setMean(BigDecimal mean) { this.mean = mean; }
+
+    public BigDecimal getMin() { return min; }
+    public void setMin(BigDecimal min) { this.min = min; }
+
+    public BigDecimal getP50() { return p50; }
+    public void setP50(BigDecimal p50) { this.p50 = p50; }
+
+    public BigDecimal getP90() { return p90; }
+    public void setP90(BigDecimal p90) { this.p90 = p90; }
+
+    public BigDecimal getP99() { return p99; }
+    public void setP99(BigDecimal p99) { this.p99 = p99; }
+
+    public BigDecimal getMax() { return max; }
+    public void setMax(BigDecimal max) { this.max = max; }
+
+    public List<AmountHistogramBucketDto> getHistogram() { return histogram; }
+    public void setHistogram(List<AmountHistogramBucketDto> histogram) { this.histogram = histogram; }
+}
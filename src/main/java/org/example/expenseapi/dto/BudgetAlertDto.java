@@ -0,0 +1,45 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class BudgetAlertDto {
+    private Long id; // feed position, pass the last one as since
+    private Long categoryId;
+    private Integer year;
+    private Integer month;
+    private Integer thresholdPct; // percentage of the budget that was reached
+    private BigDecimal budget;
+    private BigDecimal spent; // spent in the month once the expense was written
+    private Long expenseId; // the expense whose write crossed the threshold
+    private Instant createdAt;
+
+    public BudgetAlertDto() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Integer getMonth() { return month; }
+    public void setMonth(Integer month) { this.month = month; }
+
+    public Integer getThresholdPct() { return thresholdPct; }
+    public void setThresholdPct(Integer thresholdPct) { this.thresholdPct = thresholdPct; }
+
+    public BigDecimal getBudget() { return budget; }
+    public void setBudget(BigDecimal budget) { this.budget = budget; }
+
+    public BigDecimal getSpent() { return spent; }
+    public void setSpent(BigDecimal spent) { this.spent = spent; }
+
+    public Long getExpenseId() { return expenseId; }
+    public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
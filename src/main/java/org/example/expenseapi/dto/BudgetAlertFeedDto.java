@@ -0,0 +1,21 @@
+package org.example.expenseapi.dto;
+
+import java.util.List;
+
+// One page of the budget alert feed; request the next one with since=nextSince
+public class BudgetAlertFeedDto {
+    private List<BudgetAlertDto> alerts;
+    private Long nextSince; // id of the last alert returned, or the requested since when there were none
+    private boolean hasMore;
+
+    public BudgetAlertFeedDto() {}
+
+    public List<BudgetAlertDto> getAlerts() { return alerts; }
+    public void setAlerts(List<BudgetAlertDto> alerts) { this.alerts = alerts; }
+
+    public Long getNextSince() { return nextSince; }
+    public void setNextSince(Long nextSince) { this.nextSince = nextSince; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
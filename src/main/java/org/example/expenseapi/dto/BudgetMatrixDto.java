@@ -0,0 +1,25 @@
+package org.example.expenseapi.dto;
+
+import java.util.List;
+
+// Budget status of categories (rows) x months (columns); every row array has one slot per entry of months
+public class BudgetMatrixDto {
+    private String from; // yyyy-MM
+    private String to;
+    private List<String> months;
+    private List<BudgetMatrixRowDto> rows;
+
+    public BudgetMatrixDto() {}
+
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+
+    public List<String> getMonths() { return months; }
+    public void setMonths(List<String> months) { this.months = months; }
+
+    public List<BudgetMatrixRowDto> getRows() { return rows; }
+    public void setRows(List<BudgetMatrixRowDto> rows) { this.rows = rows; }
+}
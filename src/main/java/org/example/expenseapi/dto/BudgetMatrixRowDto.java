@@ -0,0 +1,38 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+
+// One category of a BudgetMatrixDto: the BudgetStatus fields as arrays indexed like BudgetMatrixDto.months.
+// budget, remaining and allowOverspend are null in months without a budget.
+public class BudgetMatrixRowDto {
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal[] budget;
+    private BigDecimal[] spent;
+    private BigDecimal[] remaining;
+    private Boolean[] allowOverspend;
+    private boolean[] overBudget;
+
+    public BudgetMatrixRowDto() {}
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public BigDecimal[] getBudget() { return budget; }
+    public void setBudget(BigDecimal[] budget) { this.budget = budget; }
+
+    public BigDecimal[] getSpent() { return spent; }
+    public void setSpent(BigDecimal[] spent) { this.spent = spent; }
+
+    public BigDecimal[] getRemaining() { return remaining; }
+    public void setRemaining(BigDecimal[] remaining) { this.remaining = remaining; }
+
+    public Boolean[] getAllowOverspend() { return allowOverspend; }
+    public void setAllowOverspend(Boolean[] allowOverspend) { this.allowOverspend = allowOverspend; }
+
+    public boolean[] getOverBudget() { return overBudget; }
+    public void setOverBudget(boolean[] overBudget) { this.overBudget = overBudget; }
+}
@@ -8,6 +8,7 @@ public class BudgetStatus {
     private BigDecimal remaining;
     private boolean overBudget;
     private Boolean allowOverspend;
+    private SpendProjectionDto projection; // current month only
 
     public BigDecimal getBudget() { return budget; }
     public void setBudget(BigDecimal budget) { this.budget = budget; }
@@ -19,4 +20,6 @@ public class BudgetStatus {
     public void setOverBudget(boolean overBudget) { this.overBudget = overBudget; }
     public Boolean getAllowOverspend() { return allowOverspend; }
     public void setAllowOverspend(Boolean allowOverspend) { this.allowOverspend = allowOverspend; }
+    public SpendProjectionDto getProjection() { return projection; }
+    public void setProjection(SpendProjectionDto projection) { this.projection = projection; }
 }
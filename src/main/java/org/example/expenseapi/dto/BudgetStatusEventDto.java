@@ -0,0 +1,30 @@
+package org.example.expenseapi.dto;
+
+// Payload of a budget-status event on GET /v1/budgets/stream: the new status of one category in one month
+public class BudgetStatusEventDto {
+    private Long categoryId;
+    private Integer year;
+    private Integer month;
+    private BudgetStatus status;
+
+    public BudgetStatusEventDto() {}
+
+    public BudgetStatusEventDto(Long categoryId, Integer year, Integer month, BudgetStatus status) {
+        this.categoryId = categoryId;
+        this.year = year;
+        this.month = month;
+        this.status = status;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Integer getMonth() { return month; }
+    public void setMonth(Integer month) { this.month = month; }
+
+    public BudgetStatus getStatus() { return status; }
+    public void setStatus(BudgetStatus status) { this.status = status; }
+}
@@ -0,0 +1,32 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+
+public class CategoryComparisonDto {
+    private Long categoryId; // null for the overall total
+    private String categoryName;
+    private BigDecimal current;
+    private BigDecimal previous;
+    private BigDecimal delta; // current - previous
+    private BigDecimal deltaPercent; // null when previous is zero
+
+    public CategoryComparisonDto() {}
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public BigDecimal getCurrent() { return current; }
+    public void setCurrent(BigDecimal current) { this.current = current; }
+
+    public BigDecimal getPrevious() { return previous; }
+    public void setPrevious(BigDecimal previous) { this.previous = previous; }
+
+    public BigDecimal getDelta() { return delta; }
+    public void setDelta(BigDecimal delta) { this.delta = delta; }
+
+    public BigDecimal getDeltaPercent() { return deltaPercent; }
+    public void setDeltaPercent(BigDecimal deltaPercent) { this.deltaPercent = deltaPercent; }
+}
@@ -0,0 +1,38 @@
+package org.example.expenseapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Sections that failed or timed out are omitted and listed in errors (section name -> reason)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardDto {
+    private Instant generatedAt;
+    private List<ExpenseCategoryDto> categories; // with current-month budget status
+    private List<YearlyExpenseDto> report; // current year
+    private PaginatedResponse<ExpenseDto> recentExpenses;
+    private List<ExpenseStatusDto> statuses;
+    private Map<String, String> errors;
+
+    public DashboardDto() {}
+
+    public Instant getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(Instant generatedAt) { this.generatedAt = generatedAt; }
+
+    public List<ExpenseCategoryDto> getCategories() { return categories; }
+    public void setCategories(List<ExpenseCategoryDto> categories) { this.categories = categories; }
+
+    public List<YearlyExpenseDto> getReport() { return report; }
+    public void setReport(List<YearlyExpenseDto> report) { this.report = report; }
+
+    public PaginatedResponse<ExpenseDto> getRecentExpenses() { return recentExpenses; }
+    public void setRecentExpenses(PaginatedResponse<ExpenseDto> recentExpenses) { this.recentExpenses = recentExpenses; }
+
+    public List<ExpenseStatusDto> getStatuses() { return statuses; }
+    public void setStatuses(List<ExpenseStatusDto> statuses) { this.statuses = statuses; }
+
+    public Map<String, String> getErrors() { return errors; }
+    public void setErrors(Map<String, String> errors) { this.errors = errors; }
+}
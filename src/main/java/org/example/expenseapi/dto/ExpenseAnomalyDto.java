@@ -0,0 +1,50 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+public class ExpenseAnomalyDto {
+    private Long expenseId;
+    private Long categoryId;
+    private LocalDate expenseDate;
+    private String designation;
+    private BigDecimal amount;
+    private Double score; // standard deviations from the category mean
+    private BigDecimal categoryMean; // category statistics when the expense was scored
+    private BigDecimal categoryStddev;
+    private Long sampleCount;
+    private Instant detectedAt;
+
+    public ExpenseAnomalyDto() {}
+
+    public Long getExpenseId() { return expenseId; }
+    public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public LocalDate getExpenseDate() { return expenseDate; }
+    public void setExpenseDate(LocalDate expenseDate) { this.expenseDate = expenseDate; }
+
+    public String getDesignation() { return designation; }
+    public void setDesignation(String designation) { this.designation = designation; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public BigDecimal getCategoryMean() { return categoryMean; }
+    public void setCategoryMean(BigDecimal categoryMean) { this.categoryMean = categoryMean; }
+
+    public BigDecimal getCategoryStddev() { return categoryStddev; }
+    public void setCategoryStddev(BigDecimal categoryStddev) { this.categoryStddev = categoryStddev; }
+
+    public Long getSampleCount() { return sampleCount; }
+    public void setSampleCount(Long sampleCount) { this.sampleCount = sampleCount; }
+
+    public Instant getDetectedAt() { return detectedAt; }
+    public void setDetectedAt(Instant detectedAt) { this.detectedAt = detectedAt; }
+}
@@ -0,0 +1,48 @@
+package org.example.expenseapi.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+// One budget of a PUT /v1/budgets/bulk request
+public class ExpenseCategoryBudgetBulkItem {
+    @NotNull(message = "categoryId is required")
+    private Long categoryId;
+
+    @NotNull(message = "year is required")
+    @Min(2000)
+    @Max(2100)
+    private Integer year;
+
+    @NotNull(message = "month is required")
+    @Min(1)
+    @Max(12)
+    private Integer month;
+
+    @NotNull(message = "budget is required")
+    @PositiveOrZero(message = "budget must be zero or positive")
+    private BigDecimal budget;
+
+    // null keeps the current flag of an existing budget (new budgets allow overspend)
+    private Boolean allowOverspend;
+
+    public ExpenseCategoryBudgetBulkItem() {}
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    public Integer getMonth() { return month; }
+    public void setMonth(Integer month) { this.month = month; }
+
+    public BigDecimal getBudget() { return budget; }
+    public void setBudget(BigDecimal budget) { this.budget = budget; }
+
+    public Boolean getAllowOverspend() { return allowOverspend; }
+    public void setAllowOverspend(Boolean allowOverspend) { this.allowOverspend = allowOverspend; }
+}
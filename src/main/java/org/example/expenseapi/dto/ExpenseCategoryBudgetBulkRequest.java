@@ -0,0 +1,17 @@
+package org.example.expenseapi.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class ExpenseCategoryBudgetBulkRequest {
+    @NotEmpty(message = "budgets must not be empty")
+    @Valid
+    private List<ExpenseCategoryBudgetBulkItem> budgets;
+
+    public ExpenseCategoryBudgetBulkRequest() {}
+
+    public List<ExpenseCategoryBudgetBulkItem> getBudgets() { return budgets; }
+    public void setBudgets(List<ExpenseCategoryBudgetBulkItem> budgets) { this.budgets = budgets; }
+}
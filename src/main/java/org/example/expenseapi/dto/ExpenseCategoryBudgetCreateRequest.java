@@ -4,8 +4,10 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public class ExpenseCategoryBudgetCreateRequest {
     @NotNull(message = "year is required")
@@ -25,6 +27,14 @@ public class ExpenseCategoryBudgetCreateRequest {
     // If true, creating expenses that exceed the budget will be allowed for this category/month
     private Boolean allowOverspend = Boolean.TRUE;
 
+    // If true the budget also counts the spending of all subcategories; omitted leaves it unchanged (new budgets: false)
+    private Boolean includeSubcategories;
+
+    // Percentages of the budget that raise an alert when reached, e.g. [50, 80, 100]; empty disables alerts,
+    // omitted leaves them unchanged (new budgets use the configured defaults)
+    @Size(max = 10, message = "at most 10 alert thresholds")
+    private List<@NotNull @Min(1) @Max(1000) Integer> alertThresholds;
+
     public ExpenseCategoryBudgetCreateRequest() {}
 
     public Integer getYear() { return year; }
@@ -38,4 +48,10 @@ public class ExpenseCategoryBudgetCreateRequest {
 
     public Boolean getAllowOverspend() { return allowOverspend; }
     public void setAllowOverspend(Boolean allowOverspend) { this.allowOverspend = allowOverspend; }
+
+    public Boolean getIncludeSubcategories() { return includeSubcategories; }
+    public void setIncludeSubcategories(Boolean includeSubcategories) { this.includeSubcategories = includeSubcategories; }
+
+    public List<Integer> getAlertThresholds() { return alertThresholds; }
+    public void setAlertThresholds(List<Integer> alertThresholds) { this.alertThresholds = alertThresholds; }
 }
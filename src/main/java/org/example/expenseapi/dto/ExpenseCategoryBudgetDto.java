@@ -1,12 +1,18 @@
 package org.example.expenseapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
+import java.util.List;
 
 public class ExpenseCategoryBudgetDto {
     private Integer year;
     private Integer month;
     private BigDecimal budget;
     private Boolean allowOverspend;
+    private Boolean includeSubcategories; // spent includes all subcategories
+    @JsonInclude(JsonInclude.Include.NON_NULL) // null when the budget uses the default thresholds
+    private List<Integer> alertThresholds;
 
     public ExpenseCategoryBudgetDto() {}
 
@@ -21,4 +27,10 @@ public class ExpenseCategoryBudgetDto {
 
     public Boolean getAllowOverspend() { return allowOverspend; }
     public void setAllowOverspend(Boolean allowOverspend) { this.allowOverspend = allowOverspend; }
+
+    public Boolean getIncludeSubcategories() { return includeSubcategories; }
+    public void setIncludeSubcategories(Boolean includeSubcategories) { this.includeSubcategories = includeSubcategories; }
+
+    public List<Integer> getAlertThresholds() { return alertThresholds; }
+    public void setAlertThresholds(List<Integer> alertThresholds) { this.alertThresholds = alertThresholds; }
 }
@@ -1,5 +1,6 @@
 package org.example.expenseapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.example.expenseapi.model.ExpenseCategoryStatus;
 
 import java.time.Instant;
@@ -11,6 +12,7 @@ public class ExpenseCategoryDto {
     private String name;
     private ExpenseCategoryStatus status;
     private Integer level;
+    @JsonInclude(JsonInclude.Include.NON_NULL) // null when the request asked for budgets=none
     private List<ExpenseCategoryBudgetDto> budgets = new ArrayList<>();
     private Long parentId;
     private List<ExpenseCategoryDto> subCategories = new ArrayList<>();
@@ -1,5 +1,7 @@
 package org.example.expenseapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -14,6 +16,9 @@ public class ExpenseDto {
     private ExpenseCategoryDto expenseCategory;
     private ExpenseStatusDto expenseStatus;
     private BigDecimal amount;
+    // standard deviations from the category mean, only returned by create/update
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double anomalyScore;
 
     // audit
     private Instant createdAt;
@@ -48,6 +53,9 @@ public class ExpenseDto {
     public BigDecimal getAmount() { return amount; }
     public void setAmount(BigDecimal amount) { this.amount = amount; }
 
+    public Double getAnomalyScore() { return anomalyScore; }
+    public void setAnomalyScore(Double anomalyScore) { this.anomalyScore = anomalyScore; }
+
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
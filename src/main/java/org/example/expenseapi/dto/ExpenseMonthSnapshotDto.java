@@ -0,0 +1,20 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+
+public class ExpenseMonthSnapshotDto {
+    private Long categoryId;
+    private long expenseCount;
+    private BigDecimal amount;
+
+    public ExpenseMonthSnapshotDto() {}
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public long getExpenseCount() { return expenseCount; }
+    public void setExpenseCount(long expenseCount) { this.expenseCount = expenseCount; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
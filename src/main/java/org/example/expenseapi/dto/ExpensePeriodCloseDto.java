@@ -0,0 +1,38 @@
+package org.example.expenseapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+// A closed accounting month; categories is only filled when a single month is requested
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpensePeriodCloseDto {
+    private String month; // yyyy-MM
+    private long expenseCount;
+    private BigDecimal amount;
+    private Instant closedAt;
+    private String closedBy;
+    private List<ExpenseMonthSnapshotDto> categories;
+
+    public ExpensePeriodCloseDto() {}
+
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+
+    public long getExpenseCount() { return expenseCount; }
+    public void setExpenseCount(long expenseCount) { this.expenseCount = expenseCount; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public Instant getClosedAt() { return closedAt; }
+    public void setClosedAt(Instant closedAt) { this.closedAt = closedAt; }
+
+    public String getClosedBy() { return closedBy; }
+    public void setClosedBy(String closedBy) { this.closedBy = closedBy; }
+
+    public List<ExpenseMonthSnapshotDto> getCategories() { return categories; }
+    public void setCategories(List<ExpenseMonthSnapshotDto> categories) { this.categories = categories; }
+}
@@ -0,0 +1,58 @@
+package org.example.expenseapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Totals of everything GET /v1/expenses would return for the same filters (min/max/avg absent when nothing matches)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseSummaryDto {
+    private String keyword;
+    private List<Long> categoryIds;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long count;
+    private BigDecimal sum;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal avg;
+    private List<ExpenseSummaryGroupDto> byCategory;
+    private List<ExpenseSummaryGroupDto> byStatus;
+
+    public ExpenseSummaryDto() {}
+
+    public String getKeyword() { return keyword; }
+    public void setKeyword(String keyword) { this.keyword = keyword; }
+
+    public List<Long> getCategoryIds() { return categoryIds; }
+    public void setCategoryIds(List<Long> categoryIds) { this.categoryIds = categoryIds; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public BigDecimal getSum() { return sum; }
+    public void setSum(BigDecimal sum) { this.sum = sum; }
+
+    public BigDecimal getMin() { return min; }
+    public void setMin(BigDecimal min) { this.min = min; }
+
+    public BigDecimal getMax() { return max; }
+    public void setMax(BigDecimal max) { this.max = max; }
+
+    public BigDecimal getAvg() { return avg; }
+    public void setAvg(BigDecimal avg) { this.avg = avg; }
+
+    public List<ExpenseSummaryGroupDto> getByCategory() { return byCategory; }
+    public void setByCategory(List<ExpenseSummaryGroupDto> byCategory) { this.byCategory = byCategory; }
+
+    public List<ExpenseSummaryGroupDto> getByStatus() { return byStatus; }
+    public void setByStatus(List<ExpenseSummaryGroupDto> byStatus) { this.byStatus = byStatus; }
+}
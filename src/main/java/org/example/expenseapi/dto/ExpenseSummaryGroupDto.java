@@ -0,0 +1,40 @@
+package org.example.expenseapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+// Totals of one category or status within an expense search summary
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseSummaryGroupDto {
+    private Long id;
+    private String name;
+    private long count;
+    private BigDecimal sum;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal avg;
+
+    public ExpenseSummaryGroupDto() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public BigDecimal getSum() { return sum; }
+    public void setSum(BigDecimal sum) { this.sum = sum; }
+
+    public BigDecimal getMin() { return min; }
+    public void setMin(BigDecimal min) { this.min = min; }
+
+    public BigDecimal getMax() { return max; }
+    public void setMax(BigDecimal max) { this.max = max; }
+
+    public BigDecimal getAvg() { return avg; }
+    public void setAvg(BigDecimal avg) { this.avg = avg; }
+}
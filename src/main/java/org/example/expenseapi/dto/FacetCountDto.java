@@ -0,0 +1,25 @@
+package org.example.expenseapi.dto;
+
+// Number of search results a facet option (a category or a status) would give
+public class FacetCountDto {
+    private Long id;
+    private String name;
+    private long count;
+
+    public FacetCountDto() {}
+
+    public FacetCountDto(Long id, String name, long count) {
+        this.id = id;
+        this.name = name;
+        this.count = count;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
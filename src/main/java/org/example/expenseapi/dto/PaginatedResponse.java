@@ -1,10 +1,16 @@
 package org.example.expenseapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.Map;
 
 public class PaginatedResponse<T> {
     private List<T> data;
     private PaginationMetadata pagination;
+    // only set when the caller asked for facets (facet name -> option counts)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, List<FacetCountDto>> facets;
 
     public PaginatedResponse() {}
 
@@ -18,5 +24,8 @@ public class PaginatedResponse<T> {
 
     public PaginationMetadata getPagination() { return pagination; }
     public void setPagination(PaginationMetadata pagination) { this.pagination = pagination; }
+
+    public Map<String, List<FacetCountDto>> getFacets() { return facets; }
+    public void setFacets(Map<String, List<FacetCountDto>> facets) { this.facets = facets; }
 }
 
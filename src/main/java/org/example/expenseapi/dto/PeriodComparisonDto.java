@@ -0,0 +1,49 @@
+package org.example.expenseapi.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class PeriodComparisonDto {
+    private String period; // month | quarter | year
+    private String against; // previous | year-ago
+    private String currentLabel; // e.g. 2026-10, 2026-Q4, 2026
+    private LocalDate currentStart;
+    private LocalDate currentEnd;
+    private String previousLabel;
+    private LocalDate previousStart;
+    private LocalDate previousEnd;
+    private CategoryComparisonDto total;
+    private List<CategoryComparisonDto> categories;
+
+    public PeriodComparisonDto() {}
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public String getAgainst() { return against; }
+    public void setAgainst(String against) { this.against = against; }
+
+    public String getCurrentLabel() { return currentLabel; }
+    public void setCurrentLabel(String currentLabel) { this.currentLabel = currentLabel; }
+
+    public LocalDate getCurrentStart() { return currentStart; }
+    public void setCurrentStart(LocalDate currentStart) { this.currentStart = currentStart; }
+
+    public LocalDate getCurrentEnd() { return currentEnd; }
+    public void setCurrentEnd(LocalDate currentEnd) { this.currentEnd = currentEnd; }
+
+    public String getPreviousLabel() { return previousLabel; }
+    public void setPreviousLabel(String previousLabel) { this.previousLabel = previousLabel; }
+
+    public LocalDate getPreviousStart() { return previousStart; }
+    public void setPreviousStart(LocalDate previousStart) { this.previousStart = previousStart; }
+
+    public LocalDate getPreviousEnd() { return previousEnd; }
+    public void setPreviousEnd(LocalDate previousEnd) { this.previousEnd = previousEnd; }
+
+    public CategoryComparisonDto getTotal() { return total; }
+    public void setTotal(CategoryComparisonDto total) { this.total = total; }
+
+    public List<CategoryComparisonDto> getCategories() { return categories; }
+    public void setCategories(List<CategoryComparisonDto> categories) { this.categories = categories; }
+}
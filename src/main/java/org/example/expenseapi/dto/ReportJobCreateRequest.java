@@ -0,0 +1,22 @@
+package org.example.expenseapi.dto;
+
+import java.util.List;
+
+public class ReportJobCreateRequest {
+    // inclusive year range; when omitted both default to the current year
+    private Integer fromYear;
+    private Integer toYear;
+    // optional category filter (null/empty = all categories)
+    private List<Long> categoryIds;
+
+    public ReportJobCreateRequest() {}
+
+    public Integer getFromYear() { return fromYear; }
+    public void setFromYear(Integer fromYear) { this.fromYear = fromYear; }
+
+    public Integer getToYear() { return toYear; }
+    public void setToYear(Integer toYear) { this.toYear = toYear; }
+
+    public List<Long> getCategoryIds() { return categoryIds; }
+    public void setCategoryIds(List<Long> categoryIds) { this.categoryIds = categoryIds; }
+}
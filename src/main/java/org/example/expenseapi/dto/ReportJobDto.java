@@ -0,0 +1,57 @@
+package org.example.expenseapi.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ReportJobDto {
+    private String id;
+    private String status;
+    private int progress; // percent 0..100
+    private int completedSteps;
+    private int totalSteps;
+    private Integer fromYear;
+    private Integer toYear;
+    private List<Long> categoryIds;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private String error;
+
+    public ReportJobDto() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getProgress() { return progress; }
+    public void setProgress(int progress) { this.progress = progress; }
+
+    public int getCompletedSteps() { return completedSteps; }
+    public void setCompletedSteps(int completedSteps) { this.completedSteps = completedSteps; }
+
+    public int getTotalSteps() { return totalSteps; }
+    public void setTotalSteps(int totalSteps) { this.totalSteps = totalSteps; }
+
+    public Integer getFromYear() { return fromYear; }
+    public void setFromYear(Integer fromYear) { this.fromYear = fromYear; }
+
+    public Integer getToYear() { return toYear; }
+    public void setToYear(Integer toYear) { this.toYear = toYear; }
+
+    public List<Long> getCategoryIds() { return categoryIds; }
+    public void setCategoryIds(List<Long> categoryIds) { this.categoryIds = categoryIds; }
+
+    public Instant getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(Instant submittedAt) { this.submittedAt = submittedAt; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,56 @@
+package org.example.expenseapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SpendProjectionDto {
+    private Long categoryId;
+    private LocalDate asOf;
+    private BigDecimal last7Days;
+    private BigDecimal last30Days;
+    private BigDecimal dailyRate; // exponentially weighted average spend per day, up to yesterday
+    private BigDecimal spent; // current month, including expenses dated later this month
+    private BigDecimal linearProjection; // month-to-date pace extended to the whole month
+    private BigDecimal ewmaProjection; // spent + dailyRate * days left
+    private BigDecimal budget;
+    private BigDecimal projectedRemaining; // budget - ewmaProjection
+    private Boolean projectedOverBudget;
+
+    public SpendProjectionDto() {}
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public LocalDate getAsOf() { return asOf; }
+    public void setAsOf(LocalDate asOf) { this.asOf = asOf; }
+
+    public BigDecimal getLast7Days() { return last7Days; }
+    public void setLast7Days(BigDecimal last7Days) { this.last7Days = last7Days; }
+
+    public BigDecimal getLast30Days() { return last30Days; }
+    public void setLast30Days(BigDecimal last30Days) { this.last30Days = last30Days; }
+
+    public BigDecimal getDailyRate() { return dailyRate; }
+    public void setDailyRate(BigDecimal dailyRate) { this.dailyRate = dailyRate; }
+
+    public BigDecimal getSpent() { return spent; }
+    public void setSpent(BigDecimal spent) { this.spent = spent; }
+
+    public BigDecimal getLinearProjection() { return linearProjection; }
+    public void setLinearProjection(BigDecimal linearProjection) { this.linearProjection = linearProjection; }
+
+    public BigDecimal getEwmaProjection() { return ewmaProjection; }
+    public void setEwmaProjection(BigDecimal ewmaProjection) { this.ewmaProjection = ewmaProjection; }
+
+    public BigDecimal getBudget() { return budget; }
+    public void setBudget(BigDecimal budget) { this.budget = budget; }
+
+    public BigDecimal getProjectedRemaining() { return projectedRemaining; }
+    public void setProjectedRemaining(BigDecimal projectedRemaining) { this.projectedRemaining = projectedRemaining; }
+
+    public Boolean getProjectedOverBudget() { return projectedOverBudget; }
+    public void setProjectedOverBudget(Boolean projectedOverBudget) { this.projectedOverBudget = projectedOverBudget; }
+}
@@ -0,0 +1,31 @@
+package org.example.expenseapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TopDesignationDto {
+    private String designation; // trimmed, lower-cased
+    private Long count;
+    private BigDecimal amount;
+    private Long countError; // sketch answers ranked by count: count may be over-estimated by up to this much
+    private BigDecimal amountError; // sketch answers ranked by amount: amount may be over-estimated by up to this much
+
+    public TopDesignationDto() {}
+
+    public String getDesignation() { return designation; }
+    public void setDesignation(String designation) { this.designation = designation; }
+
+    public Long getCount() { return count; }
+    public void setCount(Long count) { this.count = count; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public Long getCountError() { return countError; }
+    public void setCountError(Long countError) { this.countError = countError; }
+
+    public BigDecimal getAmountError() { return amountError; }
+    public void setAmountError(BigDecimal amountError) { this.amountError = amountError; }
+}
@@ -0,0 +1,37 @@
+package org.example.expenseapi.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class TopDesignationsReportDto {
+    private String month; // yyyy-MM
+    private Long categoryId;
+    private String rankBy; // count | amount
+    private boolean exact; // false when answered from sketches (values are estimates)
+    private Long totalCount;
+    private BigDecimal totalAmount;
+    private List<TopDesignationDto> items;
+
+    public TopDesignationsReportDto() {}
+
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getRankBy() { return rankBy; }
+    public void setRankBy(String rankBy) { this.rankBy = rankBy; }
+
+    public boolean isExact() { return exact; }
+    public void setExact(boolean exact) { this.exact = exact; }
+
+    public Long getTotalCount() { return totalCount; }
+    public void setTotalCount(Long totalCount) { this.totalCount = totalCount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public List<TopDesignationDto> getItems() { return items; }
+    public void setItems(List<TopDesignationDto> items) { this.items = items; }
+}
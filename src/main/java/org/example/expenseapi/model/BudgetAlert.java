@@ -0,0 +1,101 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * A category's spending in a month reaching one of the alert thresholds of its budget.
+ * Written in the transaction of the expense write that crossed it and never updated, so the table doubles as the
+ * outbox read by the alert feed.
+ */
+@Entity
+@Immutable
+@Table(name = "budget_alerts",
+       indexes = @Index(name = "idx_budget_alerts_category_id", columnList = "category_id, id"))
+public class BudgetAlert extends BasicEntity {
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "year_col", nullable = false)
+    private Integer year;
+
+    @Column(name = "month_col", nullable = false)
+    private Integer month; // 1..12
+
+    // percentage of the budget that was reached
+    @Column(name = "threshold_pct", nullable = false)
+    private Integer thresholdPct;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal budget;
+
+    // spent in the month once the expense was written
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal spent;
+
+    // the expense whose write crossed the threshold
+    @Column(name = "expense_id")
+    private Long expenseId;
+
+    public BudgetAlert() {
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public int getYear() {
+        return year == null ? 0 : year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month == null ? 0 : month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public int getThresholdPct() {
+        return thresholdPct == null ? 0 : thresholdPct;
+    }
+
+    public void setThresholdPct(int thresholdPct) {
+        this.thresholdPct = thresholdPct;
+    }
+
+    public BigDecimal getBudget() {
+        return budget;
+    }
+
+    public void setBudget(BigDecimal budget) {
+        this.budget = budget;
+    }
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(Long expenseId) {
+        this.expenseId = expenseId;
+    }
+}
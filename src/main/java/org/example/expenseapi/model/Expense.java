@@ -25,6 +25,10 @@ public class Expense extends BasicEntity {
     @Column(nullable = false)
     private BigDecimal amount;
 
+    // Set on create/update when the category has enough history; not persisted (see ExpenseAnomalyDetector)
+    @Transient
+    private Double anomalyScore;
+
     public Expense() {
     }
 
@@ -67,5 +71,13 @@ public class Expense extends BasicEntity {
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
+
+    public Double getAnomalyScore() {
+        return anomalyScore;
+    }
+
+    public void setAnomalyScore(Double anomalyScore) {
+        this.anomalyScore = anomalyScore;
+    }
 }
 
@@ -0,0 +1,119 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An expense whose amount was far from its category's running mean when it was recorded.
+ * The category statistics at that moment are kept with it so the score can be explained later.
+ */
+@Entity
+@Table(name = "expense_anomalies",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"expense_id"}))
+public class ExpenseAnomaly extends BasicEntity {
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "expense_date", nullable = false)
+    private LocalDate expenseDate;
+
+    @Column(nullable = false)
+    private String designation;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    // standard deviations from the category mean
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(name = "category_mean", nullable = false, precision = 19, scale = 2)
+    private BigDecimal categoryMean;
+
+    @Column(name = "category_stddev", nullable = false, precision = 19, scale = 2)
+    private BigDecimal categoryStddev;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    public ExpenseAnomaly() {
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(Long expenseId) {
+        this.expenseId = expenseId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public LocalDate getExpenseDate() {
+        return expenseDate;
+    }
+
+    public void setExpenseDate(LocalDate expenseDate) {
+        this.expenseDate = expenseDate;
+    }
+
+    public String getDesignation() {
+        return designation;
+    }
+
+    public void setDesignation(String designation) {
+        this.designation = designation;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public BigDecimal getCategoryMean() {
+        return categoryMean;
+    }
+
+    public void setCategoryMean(BigDecimal categoryMean) {
+        this.categoryMean = categoryMean;
+    }
+
+    public BigDecimal getCategoryStddev() {
+        return categoryStddev;
+    }
+
+    public void setCategoryStddev(BigDecimal categoryStddev) {
+        this.categoryStddev = categoryStddev;
+    }
+
+    public long getSampleCount() {
+        return sampleCount == null ? 0L : sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Persisted running amount statistics (Welford) of one category, used to score new expenses.
+ * Derived data: it can always be rebuilt from the expenses table.
+ */
+@Entity
+@Table(name = "expense_category_amount_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"category_id"}))
+public class ExpenseCategoryAmountStats extends BasicEntity {
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    // mean and m2 are in cents
+    @Column(name = "mean_cents", nullable = false)
+    private Double mean;
+
+    @Column(name = "m2", nullable = false)
+    private Double m2;
+
+    // Total the statistics were built from, compared with the expenses table before the row is trusted
+    @Column(name = "amount_cents", nullable = false)
+    private Long amountCents;
+
+    public ExpenseCategoryAmountStats() {
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public long getSampleCount() {
+        return sampleCount == null ? 0L : sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getMean() {
+        return mean == null ? 0.0 : mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public double getM2() {
+        return m2 == null ? 0.0 : m2;
+    }
+
+    public void setM2(double m2) {
+        this.m2 = m2;
+    }
+
+    public long getAmountCents() {
+        return amountCents == null ? 0L : amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+}
@@ -26,6 +26,15 @@ public class ExpenseCategoryBudget extends BasicEntity {
     @Column(name = "allow_overspend", nullable = false)
     private Boolean allowOverspend = Boolean.TRUE; // default to true now
 
+    // when true the budget covers the spending of all subcategories as well, not only the category's own
+    @Column(name = "include_subcategories", nullable = false)
+    private Boolean includeSubcategories = Boolean.FALSE;
+
+    // comma-separated percentages of the budget that raise an alert when crossed, e.g. "50,80,100";
+    // null uses the configured defaults, empty disables alerts
+    @Column(name = "alert_thresholds", length = 64)
+    private String alertThresholds;
+
     public ExpenseCategoryBudget() {
     }
 
@@ -68,4 +77,20 @@ public class ExpenseCategoryBudget extends BasicEntity {
     public void setAllowOverspend(Boolean allowOverspend) {
         this.allowOverspend = allowOverspend;
     }
+
+    public Boolean getIncludeSubcategories() {
+        return includeSubcategories == null ? Boolean.FALSE : includeSubcategories;
+    }
+
+    public void setIncludeSubcategories(Boolean includeSubcategories) {
+        this.includeSubcategories = includeSubcategories;
+    }
+
+    public String getAlertThresholds() {
+        return alertThresholds;
+    }
+
+    public void setAlertThresholds(String alertThresholds) {
+        this.alertThresholds = alertThresholds;
+    }
 }
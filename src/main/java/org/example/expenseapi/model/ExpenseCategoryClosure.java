@@ -0,0 +1,71 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One (ancestor, descendant) pair of the category hierarchy, at any distance; every category is also linked to
+ * itself at depth 0. The subtree of a category is then a single indexed lookup on ancestor_id, whatever the depth
+ * of the tree. Rows are written with bulk statements by the category service only, so the entity is read-only.
+ */
+@Entity
+@IdClass(ExpenseCategoryClosure.Key.class)
+@Table(name = "expense_category_closure",
+       indexes = @Index(name = "idx_expense_category_closure_descendant", columnList = "descendant_id, ancestor_id"))
+public class ExpenseCategoryClosure {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    // 0 for the category itself, 1 for its parent, ...
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+
+    public ExpenseCategoryClosure() {
+    }
+
+    public Long getAncestorId() {
+        return ancestorId;
+    }
+
+    public Long getDescendantId() {
+        return descendantId;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+
+        public Key() {
+        }
+
+        public Key(Long ancestorId, Long descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Lock row of the category tree. Top-level categories have no parent row to serialize their reorders on, and changes
+ * of the hierarchy must not race with the closure links they read and write: inserts and reorders at the top level
+ * and moves between parents hold it exclusively, inserts under a parent hold it shared next to the parent row.
+ * There is one row, created on first use.
+ */
+@Entity
+@Table(name = "expense_category_tree_locks",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"name"}))
+public class ExpenseCategoryTreeLock extends BasicEntity {
+
+    public static final String TREE = "tree";
+
+    @Column(name = "name", nullable = false, length = 32)
+    private String name;
+
+    public ExpenseCategoryTreeLock() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
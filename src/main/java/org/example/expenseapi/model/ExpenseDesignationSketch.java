@@ -0,0 +1,85 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Persisted heavy-hitter summary of expense designations for one category and month.
+ * Derived data: it can always be rebuilt from the expenses table.
+ */
+@Entity
+@Table(name = "expense_designation_sketches",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"category_id", "year_col", "month_col"}))
+public class ExpenseDesignationSketch extends BasicEntity {
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    // Use explicit column names to avoid reserved keyword conflicts in H2 (year/month)
+    @Column(name = "year_col", nullable = false)
+    private Integer year;
+
+    @Column(name = "month_col", nullable = false)
+    private Integer month; // 1..12
+
+    // Totals the sketch was built from, compared with the expenses table before the sketch is trusted
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+
+    @Column(name = "amount_cents", nullable = false)
+    private Long amountCents;
+
+    // Base64 encoded sketch
+    @Column(name = "payload", nullable = false, length = 100000)
+    private String payload;
+
+    public ExpenseDesignationSketch() {
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public int getYear() {
+        return year == null ? 0 : year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month == null ? 0 : month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount == null ? 0L : expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    public long getAmountCents() {
+        return amountCents == null ? 0L : amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Frozen expense count and total of one category in a closed month ({@link ExpensePeriodClose}).
+ * Written once when the month is closed and removed when it is reopened; never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "expense_month_snapshots",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"year_col", "month_col", "category_id"}))
+public class ExpenseMonthSnapshot extends BasicEntity {
+
+    @Column(name = "year_col", nullable = false)
+    private Integer year;
+
+    @Column(name = "month_col", nullable = false)
+    private Integer month; // 1..12
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    public ExpenseMonthSnapshot() {
+    }
+
+    public int getYear() {
+        return year == null ? 0 : year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month == null ? 0 : month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount == null ? 0L : expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
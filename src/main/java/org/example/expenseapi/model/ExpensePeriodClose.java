@@ -0,0 +1,64 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * A closed accounting month: expenses dated in it can no longer be created, changed or deleted, and reports read
+ * its {@link ExpenseMonthSnapshot}s instead of re-aggregating it. Deleting the row reopens the month.
+ */
+@Entity
+@Table(name = "expense_period_closes",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"year_col", "month_col"}))
+public class ExpensePeriodClose extends BasicEntity {
+
+    // Use explicit column names to avoid reserved keyword conflicts in H2 (year/month)
+    @Column(name = "year_col", nullable = false)
+    private Integer year;
+
+    @Column(name = "month_col", nullable = false)
+    private Integer month; // 1..12
+
+    // Totals of the month when it was closed
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    public ExpensePeriodClose() {
+    }
+
+    public int getYear() {
+        return year == null ? 0 : year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month == null ? 0 : month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount == null ? 0L : expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.expenseapi.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Lock row of an accounting month. Expense writers hold it shared (SELECT ... FOR SHARE) until they commit and
+ * closing the month holds it exclusively while it snapshots the month, so no write can commit into a month between
+ * its snapshot and its close. It also carries whether the month is closed, so a writer checks the month with the
+ * same query that locks it. Created ahead of time for the months around today, on first use for the others.
+ */
+@Entity
+@Table(name = "expense_period_locks",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"year_col", "month_col"}))
+public class ExpensePeriodLock extends BasicEntity {
+
+    @Column(name = "year_col", nullable = false)
+    private Integer year;
+
+    @Column(name = "month_col", nullable = false)
+    private Integer month; // 1..12
+
+    // null on rows that predate the flag until ExpensePeriodLockBackfill sets it from expense_period_closes
+    @Column(name = "closed")
+    private Boolean closed;
+
+    public ExpensePeriodLock() {
+    }
+
+    public int getYear() {
+        return year == null ? 0 : year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month == null ? 0 : month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public Boolean getClosed() {
+        return closed;
+    }
+
+    public void setClosed(Boolean closed) {
+        this.closed = closed;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.expenseapi.repository;
+
+import org.example.expenseapi.model.BudgetAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+    // Feed order: alerts after the given id, oldest first, recorded before the given instant
+    List<BudgetAlert> findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(Long since, Instant before, Pageable pageable);
+    List<BudgetAlert> findByCategoryIdAndIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(Long categoryId, Long since, Instant before, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package org.example.expenseapi.repository;
+
+import org.example.expenseapi.model.ExpenseAnomaly;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ExpenseAnomalyRepository extends JpaRepository<ExpenseAnomaly, Long> {
+    // Most recently recorded first
+    List<ExpenseAnomaly> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+    List<ExpenseAnomaly> findByCategoryIdOrderByCreatedAtDescIdDesc(Long categoryId, Pageable pageable);
+    Optional<ExpenseAnomaly> findByExpenseId(Long expenseId);
+    void deleteByExpenseId(Long expenseId);
+}
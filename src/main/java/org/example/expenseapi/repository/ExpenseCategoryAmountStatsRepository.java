@@ -0,0 +1,19 @@
+package org.example.expenseapi.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.expenseapi.model.ExpenseCategoryAmountStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ExpenseCategoryAmountStatsRepository extends JpaRepository<ExpenseCategoryAmountStats, Long> {
+    Optional<ExpenseCategoryAmountStats> findByCategoryId(Long categoryId);
+
+    // SELECT ... FOR UPDATE: nodes merging their changes into the same row take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ExpenseCategoryAmountStats s where s.categoryId = :categoryId")
+    Optional<ExpenseCategoryAmountStats> lockByCategoryId(@Param("categoryId") Long categoryId);
+}
@@ -0,0 +1,37 @@
+package org.example.expenseapi.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+// Set-based writes of budgets, mixed into ExpenseCategoryBudgetRepository
+public interface ExpenseCategoryBudgetBulkOperations {
+
+    /**
+     * Insert or update the given budgets (matched on category/year/month) with MERGE statements of up to a few hundred
+     * rows each. A null allowOverspend keeps the flag of an existing budget and defaults to true for a new one.
+     * Keys must be unique within {@code rows}. Returns the number of rows written.
+     */
+    int upsertAll(Collection<BudgetRow> rows, String auditor);
+
+    final class BudgetRow {
+        private final Long categoryId;
+        private final int year;
+        private final int month;
+        private final BigDecimal budget;
+        private final Boolean allowOverspend;
+
+        public BudgetRow(Long categoryId, int year, int month, BigDecimal budget, Boolean allowOverspend) {
+            this.categoryId = categoryId;
+            this.year = year;
+            this.month = month;
+            this.budget = budget;
+            this.allowOverspend = allowOverspend;
+        }
+
+        public Long getCategoryId() { return categoryId; }
+        public int getYear() { return year; }
+        public int getMonth() { return month; }
+        public BigDecimal getBudget() { return budget; }
+        public Boolean getAllowOverspend() { return allowOverspend; }
+    }
+}
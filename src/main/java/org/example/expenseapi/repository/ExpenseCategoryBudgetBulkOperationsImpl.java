@@ -0,0 +1,59 @@
+package org.example.expenseapi.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+class ExpenseCategoryBudgetBulkOperationsImpl implements ExpenseCategoryBudgetBulkOperations {
+
+    // rows per MERGE; keeps the statement well under the bind parameter limits of the drivers
+    private static final int CHUNK = 500;
+
+    // standard MERGE (PostgreSQL 15+, H2); parameters are cast so VALUES columns get the table's types
+    private static final String MERGE_HEAD =
+            "merge into expense_category_budgets t using (values ";
+    private static final String MERGE_ROW =
+            "(cast(? as bigint), cast(? as integer), cast(? as integer), cast(? as numeric(19, 2)), cast(? as boolean))";
+    private static final String MERGE_TAIL =
+            ") as s (category_id, year_col, month_col, budget, allow_overspend) " +
+            "on t.category_id = s.category_id and t.year_col = s.year_col and t.month_col = s.month_col " +
+            "when matched then update set budget = s.budget, allow_overspend = coalesce(s.allow_overspend, t.allow_overspend), " +
+            "updated_at = current_timestamp, updated_by = ? " +
+            "when not matched then insert (category_id, year_col, month_col, budget, allow_overspend, include_subcategories, created_at, created_by, updated_at, updated_by) " +
+            "values (s.category_id, s.year_col, s.month_col, s.budget, coalesce(s.allow_overspend, true), false, current_timestamp, ?, current_timestamp, ?)";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int upsertAll(Collection<BudgetRow> rows, String auditor) {
+        List<BudgetRow> all = new ArrayList<>(rows);
+        int written = 0;
+        for (int from = 0; from < all.size(); from += CHUNK) {
+            List<BudgetRow> chunk = all.subList(from, Math.min(all.size(), from + CHUNK));
+            StringBuilder sql = new StringBuilder(MERGE_HEAD);
+            for (int i = 0; i < chunk.size(); i++) sql.append(i == 0 ? "" : ", ").append(MERGE_ROW);
+            sql.append(MERGE_TAIL);
+
+            NativeQuery<?> q = em.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+            int p = 1;
+            for (BudgetRow r : chunk) {
+                q.setParameter(p++, r.getCategoryId(), StandardBasicTypes.LONG);
+                q.setParameter(p++, r.getYear(), StandardBasicTypes.INTEGER);
+                q.setParameter(p++, r.getMonth(), StandardBasicTypes.INTEGER);
+                q.setParameter(p++, r.getBudget(), StandardBasicTypes.BIG_DECIMAL);
+                q.setParameter(p++, r.getAllowOverspend(), StandardBasicTypes.BOOLEAN);
+            }
+            q.setParameter(p++, auditor, StandardBasicTypes.STRING);
+            q.setParameter(p++, auditor, StandardBasicTypes.STRING);
+            q.setParameter(p, auditor, StandardBasicTypes.STRING);
+            written += q.executeUpdate();
+        }
+        return written;
+    }
+}
@@ -1,14 +1,89 @@
 package org.example.expenseapi.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.expenseapi.model.ExpenseCategoryBudget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
-public interface ExpenseCategoryBudgetRepository extends JpaRepository<ExpenseCategoryBudget, Long> {
+public interface ExpenseCategoryBudgetRepository extends JpaRepository<ExpenseCategoryBudget, Long>, ExpenseCategoryBudgetBulkOperations {
     Optional<ExpenseCategoryBudget> findByCategoryIdAndYearAndMonth(Long categoryId, int year, int month);
     List<ExpenseCategoryBudget> findByCategoryIdOrderByYearAscMonthAsc(Long categoryId);
     // Batch lookup for budgets for many categories for a specific year and month
     List<ExpenseCategoryBudget> findByCategoryIdInAndYearAndMonth(List<Long> categoryIds, int year, int month);
+    List<ExpenseCategoryBudget> findByYearAndMonth(int year, int month);
+
+    // Budgets of the given categories for every month from fromYear/fromMonth to toYear/toMonth (inclusive)
+    @Query("select b from ExpenseCategoryBudget b where b.category.id in :categoryIds " +
+           "and (b.year > :fromYear or (b.year = :fromYear and b.month >= :fromMonth)) " +
+           "and (b.year < :toYear or (b.year = :toYear and b.month <= :toMonth))")
+    List<ExpenseCategoryBudget> findByCategoryIdInAndMonthRange(@Param("categoryIds") List<Long> categoryIds,
+                                                                @Param("fromYear") int fromYear,
+                                                                @Param("fromMonth") int fromMonth,
+                                                                @Param("toYear") int toYear,
+                                                                @Param("toMonth") int toMonth);
+
+    // Budgets of a month that cover an expense of the category: its own, and those of its ancestors (any depth,
+    // through the category closure) that include subcategories. Top-level category first, the category itself last
+    @Query("select b from ExpenseCategoryBudget b left join ExpenseCategoryClosure l " +
+           "on l.ancestorId = b.category.id and l.descendantId = :categoryId " +
+           "where b.year = :year and b.month = :month " +
+           "and (b.category.id = :categoryId or (b.includeSubcategories = true and l.depth > 0)) " +
+           "order by coalesce(l.depth, 0) desc")
+    List<ExpenseCategoryBudget> findCoveringBudgets(@Param("categoryId") Long categoryId,
+                                                    @Param("year") int year,
+                                                    @Param("month") int month);
+
+    // Budget of a category/month together with what is already spent in [start, end] (optionally excluding one expense),
+    // in one query. The spending of the descendants (any depth, through the category closure) counts only when the
+    // budget includes subcategories. Returns at most one Object[]
+    // { budget (BigDecimal), allowOverspend (Boolean), spent (BigDecimal), includeSubcategories (Boolean) }
+    @Query("select b.budget, b.allowOverspend, " +
+           "(select coalesce(sum(e.amount), 0) from Expense e where (e.expenseCategory.id = :categoryId " +
+           "   or (b.includeSubcategories = true and e.expenseCategory.id in " +
+           "       (select l.descendantId from ExpenseCategoryClosure l where l.ancestorId = :categoryId))) " +
+           " and e.expenseDate >= :start and e.expenseDate <= :end and (:excludeId is null or e.id <> :excludeId)), " +
+           "b.includeSubcategories " +
+           "from ExpenseCategoryBudget b where b.category.id = :categoryId and b.year = :year and b.month = :month")
+    List<Object[]> findBudgetWithSpent(@Param("categoryId") Long categoryId,
+                                       @Param("year") int year,
+                                       @Param("month") int month,
+                                       @Param("start") LocalDate start,
+                                       @Param("end") LocalDate end,
+                                       @Param("excludeId") Long excludeId);
+
+    // SELECT ... FOR UPDATE on the budget row: serializes hard-budget checks of one category/month across transactions
+    // (and nodes) until the caller's transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from ExpenseCategoryBudget b where b.category.id = :categoryId and b.year = :year and b.month = :month")
+    Optional<ExpenseCategoryBudget> lockByCategoryIdAndYearAndMonth(@Param("categoryId") Long categoryId,
+                                                                    @Param("year") int year,
+                                                                    @Param("month") int month);
+
+    // Copy every budget (with its overspend and alert settings) of fromYear/fromMonth to toYear/toMonth, scaled by
+    // factor and rounded to cents, in one MERGE.
+    // Budgets already set in the target month are replaced only when overwrite is true. Returns the rows written.
+    @Modifying
+    @Query(nativeQuery = true, value =
+           "merge into expense_category_budgets t " +
+           "using (select category_id, budget, allow_overspend, include_subcategories, alert_thresholds from expense_category_budgets where year_col = :fromYear and month_col = :fromMonth) s " +
+           "on t.category_id = s.category_id and t.year_col = :toYear and t.month_col = :toMonth " +
+           "when matched and :overwrite then update set budget = round(s.budget * :factor, 2), allow_overspend = s.allow_overspend, include_subcategories = s.include_subcategories, alert_thresholds = s.alert_thresholds, " +
+           "updated_at = current_timestamp, updated_by = :auditor " +
+           "when not matched then insert (category_id, year_col, month_col, budget, allow_overspend, include_subcategories, alert_thresholds, created_at, created_by, updated_at, updated_by) " +
+           "values (s.category_id, :toYear, :toMonth, round(s.budget * :factor, 2), s.allow_overspend, s.include_subcategories, s.alert_thresholds, current_timestamp, :auditor, current_timestamp, :auditor)")
+    int rollover(@Param("fromYear") int fromYear,
+                 @Param("fromMonth") int fromMonth,
+                 @Param("toYear") int toYear,
+                 @Param("toMonth") int toMonth,
+                 @Param("factor") BigDecimal factor,
+                 @Param("overwrite") boolean overwrite,
+                 @Param("auditor") String auditor);
 }
@@ -0,0 +1,65 @@
+package org.example.expenseapi.repository;
+
+import org.example.expenseapi.model.ExpenseCategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExpenseCategoryClosureRepository extends JpaRepository<ExpenseCategoryClosure, ExpenseCategoryClosure.Key> {
+
+    // Whether descendantId is in the subtree of ancestorId (or is ancestorId itself)
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    // The category itself and all of its descendants
+    @Query("select l.descendantId from ExpenseCategoryClosure l where l.ancestorId = :id")
+    List<Long> findSubtreeIds(@Param("id") Long id);
+
+    // Number of categories linked to themselves, i.e. known to the closure
+    @Query("select count(l) from ExpenseCategoryClosure l where l.depth = 0")
+    long countSelfLinks();
+
+    // Link a new category to itself
+    @Modifying
+    @Query("insert into ExpenseCategoryClosure (ancestorId, descendantId, depth) values (:id, :id, 0)")
+    int insertSelfLink(@Param("id") Long id);
+
+    // Link every category of the subtree of id to the parent and its ancestors (cross product of both paths)
+    @Modifying
+    @Query("insert into ExpenseCategoryClosure (ancestorId, descendantId, depth) "
+            + "select a.ancestorId, d.descendantId, a.depth + d.depth + 1 "
+            + "from ExpenseCategoryClosure a, ExpenseCategoryClosure d where a.descendantId = :parentId and d.ancestorId = :id")
+    int attachSubtree(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    // Unlink the subtree of id from the ancestors of id; links inside the subtree are kept
+    @Modifying
+    @Query("delete from ExpenseCategoryClosure l "
+            + "where l.descendantId in (select d.descendantId from ExpenseCategoryClosure d where d.ancestorId = :id) "
+            + "and l.ancestorId not in (select d.descendantId from ExpenseCategoryClosure d where d.ancestorId = :id)")
+    int detachSubtree(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from ExpenseCategoryClosure l where l.ancestorId = :id or l.descendantId = :id")
+    int deleteLinksOf(@Param("id") Long id);
+
+    // ---- rebuild from the parent links -------------------------------------------------------------------------
+
+    @Modifying
+    @Query("delete from ExpenseCategoryClosure l")
+    int deleteAllLinks();
+
+    @Modifying
+    @Query("insert into ExpenseCategoryClosure (ancestorId, descendantId, depth) select c.id, c.id, 0 from ExpenseCategory c")
+    int insertAllSelfLinks();
+
+    // Extend the links of the given depth by one parent step
+    @Modifying
+    @Query("insert into ExpenseCategoryClosure (ancestorId, descendantId, depth) "
+            + "select l.ancestorId, c.id, l.depth + 1 from ExpenseCategoryClosure l, ExpenseCategory c "
+            + "where c.parent.id = l.descendantId and l.depth = :depth")
+    int insertLinksBelow(@Param("depth") int depth);
+}
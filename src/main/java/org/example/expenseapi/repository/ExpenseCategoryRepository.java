@@ -1,7 +1,12 @@
 package org.example.expenseapi.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.expenseapi.model.ExpenseCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +21,25 @@ public interface ExpenseCategoryRepository extends JpaRepository<ExpenseCategory
 
     // Fetch top-level categories (parent is null) ordered by level
     List<ExpenseCategory> findByParentIsNullOrderByLevelAsc();
+
+    // { id, name, status, level, parent id, createdAt, createdBy, updatedAt, updatedBy } of every category in one
+    // query; scalars, so loading them does not put stale entities into the caller's persistence context
+    @Query("select c.id, c.name, c.status, c.level, p.id, c.createdAt, c.createdBy, c.updatedAt, c.updatedBy "
+            + "from ExpenseCategory c left join c.parent p")
+    List<Object[]> findAllForSnapshot();
+
+    // Lock a parent row (SELECT ... FOR UPDATE): reorders of its children are serialized on it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ExpenseCategory c where c.id = :id")
+    Optional<ExpenseCategory> lockById(@Param("id") Long id);
+
+    // Highest level among the children of the parent (top-level categories when parentId is null)
+    @Query("select max(c.level) from ExpenseCategory c where (:parentId is null and c.parent is null) or c.parent.id = :parentId")
+    Integer findMaxLevelByParentId(@Param("parentId") Long parentId);
+
+    // Add delta to the level of the parent's children whose level is within [from, to], in one statement
+    @Modifying
+    @Query("update ExpenseCategory c set c.level = c.level + :delta "
+            + "where ((:parentId is null and c.parent is null) or c.parent.id = :parentId) and c.level between :from and :to")
+    int shiftLevels(@Param("parentId") Long parentId, @Param("from") int from, @Param("to") int to, @Param("delta") int delta);
 }
@@ -0,0 +1,25 @@
+package org.example.expenseapi.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.expenseapi.model.ExpenseCategoryTreeLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ExpenseCategoryTreeLockRepository extends JpaRepository<ExpenseCategoryTreeLock, Long> {
+
+    boolean existsByName(String name);
+
+    // SELECT ... FOR SHARE: taken by inserts under a parent, which do not block each other
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select l from ExpenseCategoryTreeLock l where l.name = :name")
+    Optional<ExpenseCategoryTreeLock> lockShared(@Param("name") String name);
+
+    // SELECT ... FOR UPDATE: taken by top-level reorders, moves between parents and the closure rebuild
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from ExpenseCategoryTreeLock l where l.name = :name")
+    Optional<ExpenseCategoryTreeLock> lockExclusive(@Param("name") String name);
+}
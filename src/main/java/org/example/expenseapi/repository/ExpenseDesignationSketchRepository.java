@@ -0,0 +1,12 @@
+package org.example.expenseapi.repository;
+
+import org.example.expenseapi.model.ExpenseDesignationSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ExpenseDesignationSketchRepository extends JpaRepository<ExpenseDesignationSketch, Long> {
+    Optional<ExpenseDesignationSketch> findByCategoryIdAndYearAndMonth(Long categoryId, int year, int month);
+    List<ExpenseDesignationSketch> findByYearAndMonth(int year, int month);
+}
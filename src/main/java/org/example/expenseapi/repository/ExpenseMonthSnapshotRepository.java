@@ -0,0 +1,18 @@
+package org.example.expenseapi.repository;
+
+import org.example.expenseapi.model.ExpenseMonthSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ExpenseMonthSnapshotRepository extends JpaRepository<ExpenseMonthSnapshot, Long> {
+    List<ExpenseMonthSnapshot> findByYearAndMonth(int year, int month);
+
+    // bulk delete: the entity is immutable, so it is removed with a statement rather than loaded and deleted
+    @Modifying
+    @Query("delete from ExpenseMonthSnapshot s where s.year = :year and s.month = :month")
+    int deleteByYearAndMonth(@Param("year") int year, @Param("month") int month);
+}
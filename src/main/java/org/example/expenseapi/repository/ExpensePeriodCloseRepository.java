@@ -0,0 +1,13 @@
+package org.example.expenseapi.repository;
+
+import org.example.expenseapi.model.ExpensePeriodClose;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ExpensePeriodCloseRepository extends JpaRepository<ExpensePeriodClose, Long> {
+    boolean existsByYearAndMonth(int year, int month);
+    Optional<ExpensePeriodClose> findByYearAndMonth(int year, int month);
+    List<ExpensePeriodClose> findAllByOrderByYearDescMonthDesc();
+}
@@ -0,0 +1,34 @@
+package org.example.expenseapi.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.expenseapi.model.ExpensePeriodLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ExpensePeriodLockRepository extends JpaRepository<ExpensePeriodLock, Long> {
+
+    boolean existsByYearAndMonth(int year, int month);
+
+    List<ExpensePeriodLock> findByClosedIsNull();
+
+    // only while still unset, so a close or reopen that got there first is kept
+    @Modifying
+    @Query("update ExpensePeriodLock l set l.closed = :closed where l.id = :id and l.closed is null")
+    int initClosed(@Param("id") Long id, @Param("closed") boolean closed);
+
+    // SELECT ... FOR SHARE: taken by expense writers, who do not block each other
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select l from ExpensePeriodLock l where l.year = :year and l.month = :month")
+    Optional<ExpensePeriodLock> lockShared(@Param("year") int year, @Param("month") int month);
+
+    // SELECT ... FOR UPDATE: taken by the month close, waits for the writers holding it shared
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from ExpensePeriodLock l where l.year = :year and l.month = :month")
+    Optional<ExpensePeriodLock> lockExclusive(@Param("year") int year, @Param("month") int month);
+}
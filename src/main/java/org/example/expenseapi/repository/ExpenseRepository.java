@@ -1,10 +1,12 @@
 package org.example.expenseapi.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.expenseapi.model.Expense;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +15,7 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
@@ -23,6 +26,15 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
                                                  @Param("start") LocalDate start,
                                                  @Param("end") LocalDate end);
 
+    // Sum over the category and all of its descendants (any depth, through the category closure) within a date range
+    @Query("select coalesce(sum(e.amount), 0) from Expense e " +
+           "where (e.expenseCategory.id = :categoryId or e.expenseCategory.id in " +
+           "       (select l.descendantId from ExpenseCategoryClosure l where l.ancestorId = :categoryId)) " +
+           "and e.expenseDate >= :start and e.expenseDate <= :end")
+    BigDecimal sumAmountInSubtreeBetween(@Param("categoryId") Long categoryId,
+                                         @Param("start") LocalDate start,
+                                         @Param("end") LocalDate end);
+
     List<Expense> findAllByExpenseDateBetweenOrderByExpenseDateDesc(LocalDate start, LocalDate end);
 
     // Sum per category within a date range. Returns list of Object[] { categoryId (Long), sum (BigDecimal) }
@@ -34,6 +46,80 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
                                                      @Param("end") LocalDate end,
                                                      @Param("categoryIds") List<Long> categoryIds);
 
+    // Stream of Object[] { id, expenseDate, categoryId, statusId, amount } for every expense; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.id, e.expenseDate, e.expenseCategory.id, e.expenseStatus.id, e.amount from Expense e")
+    Stream<Object[]> streamAllForAnalytics();
+
+    // Count and sum per calendar month. Returns list of Object[] { year (Integer), month (Integer), count (Long), sum (BigDecimal) }
+    @Query("select year(e.expenseDate), month(e.expenseDate), count(e), coalesce(sum(e.amount),0) " +
+           "from Expense e group by year(e.expenseDate), month(e.expenseDate)")
+    List<Object[]> countAndSumGroupedByMonth();
+
+    // Stream of Object[] { categoryId, designation, amount } within a date range; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.expenseCategory.id, e.designation, e.amount from Expense e " +
+           "where e.expenseDate >= :start and e.expenseDate <= :end")
+    Stream<Object[]> streamDesignationsBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Stream of Object[] { categoryId, expenseDate, amount } for the given categories within a date range; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.expenseCategory.id, e.expenseDate, e.amount from Expense e " +
+           "where e.expenseCategory.id in :categoryIds and e.expenseDate >= :start and e.expenseDate <= :end")
+    Stream<Object[]> streamAmountsByCategoriesBetween(@Param("categoryIds") List<Long> categoryIds,
+                                                      @Param("start") LocalDate start,
+                                                      @Param("end") LocalDate end);
+
+    // Count and sum per category and calendar month within a date range.
+    // Returns list of Object[] { categoryId (Long), year (Integer), month (Integer), count (Long), sum (BigDecimal) }
+    @Query("select e.expenseCategory.id, year(e.expenseDate), month(e.expenseDate), count(e), coalesce(sum(e.amount),0) " +
+           "from Expense e where e.expenseDate >= :start and e.expenseDate <= :end " +
+           "group by e.expenseCategory.id, year(e.expenseDate), month(e.expenseDate)")
+    List<Object[]> countAndSumGroupedByCategoryAndMonthBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Sum per category and day within a date range. Returns list of Object[] { categoryId (Long), expenseDate (LocalDate), sum (BigDecimal) }
+    @Query("select e.expenseCategory.id, e.expenseDate, coalesce(sum(e.amount),0) " +
+           "from Expense e where e.expenseCategory.id in :categoryIds and e.expenseDate >= :start and e.expenseDate <= :end " +
+           "group by e.expenseCategory.id, e.expenseDate")
+    List<Object[]> sumAmountGroupedByCategoryAndDayBetween(@Param("categoryIds") List<Long> categoryIds,
+                                                           @Param("start") LocalDate start,
+                                                           @Param("end") LocalDate end);
+
+    // Count and sum per category over all expenses. Returns list of Object[] { categoryId (Long), count (Long), sum (BigDecimal) }
+    @Query("select e.expenseCategory.id, count(e), coalesce(sum(e.amount),0) from Expense e group by e.expenseCategory.id")
+    List<Object[]> countAndSumGroupedByCategory();
+
+    // Count and sum per category within a date range. Returns list of Object[] { categoryId (Long), count (Long), sum (BigDecimal) }
+    @Query("select e.expenseCategory.id, count(e), coalesce(sum(e.amount),0) " +
+           "from Expense e where e.expenseDate >= :start and e.expenseDate <= :end " +
+           "group by e.expenseCategory.id")
+    List<Object[]> countAndSumGroupedByCategoryBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Exact count and sum per normalized designation. Returns list of Object[] { designation (String), count (Long), sum (BigDecimal) }
+    @Query("select lower(trim(e.designation)), count(e), coalesce(sum(e.amount),0) " +
+           "from Expense e where e.expenseDate >= :start and e.expenseDate <= :end " +
+           "and (:categoryId is null or e.expenseCategory.id = :categoryId) " +
+           "group by lower(trim(e.designation))")
+    List<Object[]> countAndSumGroupedByDesignationBetween(@Param("start") LocalDate start,
+                                                          @Param("end") LocalDate end,
+                                                          @Param("categoryId") Long categoryId);
+
+    @Query("select count(e) from Expense e where e.expenseDate >= :start and e.expenseDate <= :end " +
+           "and (:categoryId is null or e.expenseCategory.id = :categoryId)")
+    long countBetween(@Param("start") LocalDate start, @Param("end") LocalDate end, @Param("categoryId") Long categoryId);
+
+    // Totals of a search (same filters as search()) per category and status:
+    // Object[] { categoryId, statusId, count, sum, min, max }. pattern is a lower-case LIKE pattern escaped with '\'
+    @Query("select e.expenseCategory.id, e.expenseStatus.id, count(e), coalesce(sum(e.amount),0), min(e.amount), max(e.amount) " +
+           "from Expense e where e.expenseDate >= :start and e.expenseDate <= :end " +
+           "and (:categoryIds is null or e.expenseCategory.id in :categoryIds) " +
+           "and (:pattern is null or lower(e.designation) like :pattern escape '\\') " +
+           "group by e.expenseCategory.id, e.expenseStatus.id")
+    List<Object[]> summarizeGroupedByCategoryAndStatus(@Param("start") LocalDate start,
+                                                       @Param("end") LocalDate end,
+                                                       @Param("categoryIds") List<Long> categoryIds,
+                                                       @Param("pattern") String pattern);
+
     default Page<Expense> search(String keyword, List<Long> categoryIds, LocalDate start, LocalDate end, Pageable pageable) {
         // keyword normalization
         String k = (keyword == null || keyword.isBlank()) ? null : keyword.trim().toLowerCase();
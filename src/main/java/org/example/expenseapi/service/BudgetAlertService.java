@@ -0,0 +1,235 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.dto.BudgetAlertDto;
+import org.example.expenseapi.dto.BudgetAlertFeedDto;
+import org.example.expenseapi.model.BudgetAlert;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.BudgetAlertRepository;
+import org.example.expenseapi.repository.ExpenseCategoryClosureRepository;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Raises an alert when a category's spending in a month reaches one of the thresholds of its budget
+ * (percentages, by default 50/80/100).
+ *
+ * Evaluated only for the (category, month) an expense write adds spending to, just before that write commits: the
+ * budget row is locked so concurrent writers of the same category/month are evaluated one after the other, spent is
+ * summed, and every threshold between spent before and after the write is recorded as a {@link BudgetAlert} in the
+ * same transaction. Writes that do not increase the month's spending (deletes, lowered amounts) cost nothing.
+ * Budgets of ancestor categories that include subcategories are evaluated the same way against the spent of their
+ * whole subtree; their rows are locked top-level first, as in {@link BudgetGuard}. The covering budgets are resolved
+ * through the category closure in the writer's transaction, not from the node-local {@link CategoryTreeCache}, so a
+ * category just moved on another node is evaluated against its new ancestors.
+ *
+ * Most writes land far below any threshold, so a category's own budget is first checked against the spent held by
+ * {@link BudgetSpentCache}: only when that plus the write comes within {@code prefilter-margin-pct} points of the
+ * lowest threshold is the row locked and the month re-summed. The cache may lag writes of other nodes (and writes
+ * still in flight) by its ttl; a threshold crossed by a write skipped meanwhile - i.e. by more than the margin's worth
+ * of spending the cache had not seen - is not alerted. A margin of 100 turns the pre-filter off. Budgets that include
+ * subcategories are always evaluated.
+ *
+ * The alerts table is read as a feed ordered by id. An alert is only handed out once it is older than
+ * {@code feed-delay-seconds}, so a transaction that took a lower id but committed after a higher one was read is
+ * not skipped by a reader that moved past it.
+ */
+@Service
+public class BudgetAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetAlertService.class);
+
+    private final ExpenseCategoryBudgetRepository budgetRepo;
+    private final ExpenseRepository expenseRepo;
+    private final BudgetAlertRepository alertRepo;
+    private final boolean enabled;
+    private final List<Integer> defaultThresholds;
+    private final Duration feedDelay;
+    private final int prefilterMarginPct;
+    private final ExpenseCategoryClosureRepository closureRepo;
+    private final BudgetSpentCache spentCache;
+
+    public BudgetAlertService(ExpenseCategoryBudgetRepository budgetRepo,
+                              ExpenseRepository expenseRepo,
+                              BudgetAlertRepository alertRepo,
+                              @Value("${app.budgets.alerts.enabled:true}") boolean enabled,
+                              @Value("${app.budgets.alerts.default-thresholds:50,80,100}") String defaultThresholds,
+                              @Value("${app.budgets.alerts.feed-delay-seconds:2}") long feedDelaySeconds,
+                              @Value("${app.budgets.alerts.prefilter-margin-pct:10}") int prefilterMarginPct,
+                              ExpenseCategoryClosureRepository closureRepo,
+                              BudgetSpentCache spentCache) {
+        this.budgetRepo = budgetRepo;
+        this.expenseRepo = expenseRepo;
+        this.alertRepo = alertRepo;
+        this.enabled = enabled;
+        this.defaultThresholds = parseThresholds(defaultThresholds);
+        this.feedDelay = Duration.ofSeconds(Math.max(0, feedDelaySeconds));
+        this.prefilterMarginPct = prefilterMarginPct;
+        this.closureRepo = closureRepo;
+        this.spentCache = spentCache;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (!enabled || event == null) return;
+        ExpenseSnapshot after = event.getAfter();
+        if (after == null || after.getCategoryId() == null || after.getExpenseDate() == null || after.getAmount() == null) return;
+        YearMonth month = YearMonth.from(after.getExpenseDate());
+        Long categoryId = after.getCategoryId();
+        // spending of the category's month did not grow, so no threshold can have been reached
+        if (addedCents(event.getBefore(), after, month, categoryId, false) <= 0) return;
+
+        // the own budget and every ancestor budget that includes subcategories, top-level category first (the same
+        // order as BudgetGuard takes its locks), in one query through the category closure
+        for (ExpenseCategoryBudget covering : budgetRepo.findCoveringBudgets(categoryId, month.getYear(), month.getMonthValue())) {
+            Long id = covering.getCategory() == null ? null : covering.getCategory().getId();
+            if (id == null || thresholdsOf(covering).isEmpty()) continue;
+            if (id.equals(categoryId) && !covering.getIncludeSubcategories()
+                    && !mayReachThreshold(covering, month, addedCents(event.getBefore(), after, month, id, false))) continue;
+            Optional<ExpenseCategoryBudget> budget = budgetRepo.lockByCategoryIdAndYearAndMonth(id, month.getYear(), month.getMonthValue());
+            if (budget.isEmpty()) continue;
+            boolean rollUp = budget.get().getIncludeSubcategories();
+            if (!id.equals(categoryId) && !rollUp) continue;
+            long addedCents = addedCents(event.getBefore(), after, month, id, rollUp);
+            if (addedCents > 0) evaluate(budget.get(), id, rollUp, month, addedCents, after.getId());
+        }
+    }
+
+    // From the cached spent: false when even with the write the category stays more than the margin below its lowest
+    // threshold, so the budget row need not be locked nor the month re-summed
+    private boolean mayReachThreshold(ExpenseCategoryBudget budget, YearMonth month, long addedCents) {
+        if (spentCache == null || !spentCache.isEnabled() || prefilterMarginPct >= 100) return true;
+        long budgetCents = budget.getBudget() == null ? 0L : MoneyUtils.toMinorUnitsRounded(budget.getBudget());
+        if (budgetCents <= 0) return false;
+        BudgetSpentCache.Entry cached = spentCache.get(budget.getCategory().getId(), month);
+        if (cached == null) return true;
+        long pct = Math.max(0L, thresholdsOf(budget).get(0) - (long) prefilterMarginPct);
+        long afterCents = Math.addExact(cached.getSpentCents(), addedCents);
+        return Math.multiplyExact(afterCents, 100L) >= Math.multiplyExact(budgetCents, pct);
+    }
+
+    // growth of the month's spending of the category (with its subtree when rollUp) caused by the write
+    private long addedCents(ExpenseSnapshot before, ExpenseSnapshot after, YearMonth month, Long categoryId, boolean rollUp) {
+        long addedCents = MoneyUtils.toMinorUnitsRounded(after.getAmount());
+        if (before != null && before.getCategoryId() != null && before.getExpenseDate() != null
+                && before.getAmount() != null && YearMonth.from(before.getExpenseDate()).equals(month)
+                && covers(categoryId, rollUp, before.getCategoryId())) {
+            addedCents = Math.subtractExact(addedCents, MoneyUtils.toMinorUnitsRounded(before.getAmount()));
+        }
+        return addedCents;
+    }
+
+    private boolean covers(Long categoryId, boolean rollUp, Long otherId) {
+        if (categoryId.equals(otherId)) return true;
+        return rollUp && closureRepo.existsByAncestorIdAndDescendantId(categoryId, otherId);
+    }
+
+    private void evaluate(ExpenseCategoryBudget budget, Long categoryId, boolean rollUp, YearMonth month, long addedCents, Long expenseId) {
+        List<Integer> thresholds = thresholdsOf(budget);
+        long budgetCents = budget.getBudget() == null ? 0L : MoneyUtils.toMinorUnitsRounded(budget.getBudget());
+        if (thresholds.isEmpty() || budgetCents <= 0) return;
+
+        long spentCents = 0L;
+        if (!rollUp) {
+            BigDecimal spent = expenseRepo.sumAmountByCategoryAndDateBetween(categoryId, month.atDay(1), month.atEndOfMonth());
+            spentCents = spent == null ? 0L : MoneyUtils.toMinorUnitsRounded(spent);
+        } else {
+            // the whole subtree in one query, through the category closure
+            BigDecimal spent = expenseRepo.sumAmountInSubtreeBetween(categoryId, month.atDay(1), month.atEndOfMonth());
+            spentCents = spent == null ? 0L : MoneyUtils.toMinorUnitsRounded(spent);
+        }
+        long beforeCents = Math.subtractExact(spentCents, addedCents);
+        for (int pct : thresholds) {
+            // reached when spent >= budget * pct / 100, compared in hundredths of a cent to stay exact
+            long limit = Math.multiplyExact(budgetCents, pct);
+            if (Math.multiplyExact(beforeCents, 100L) >= limit || Math.multiplyExact(spentCents, 100L) < limit) continue;
+            BudgetAlert alert = new BudgetAlert();
+            alert.setCategoryId(categoryId);
+            alert.setYear(month.getYear());
+            alert.setMonth(month.getMonthValue());
+            alert.setThresholdPct(pct);
+            alert.setBudget(MoneyUtils.fromMinorUnits(budgetCents));
+            alert.setSpent(MoneyUtils.fromMinorUnits(spentCents));
+            alert.setExpenseId(expenseId);
+            alertRepo.save(alert);
+            log.info("Budget alert: categoryId={} month={} reached {}% (budget={}, spent={})",
+                    categoryId, month, pct, alert.getBudget(), alert.getSpent());
+        }
+    }
+
+    private List<Integer> thresholdsOf(ExpenseCategoryBudget budget) {
+        return budget.getAlertThresholds() == null ? defaultThresholds : parseThresholds(budget.getAlertThresholds());
+    }
+
+    /**
+     * Alerts recorded after alert {@code since}, oldest first, optionally for one category.
+     * Pass the returned nextSince as since to read on.
+     */
+    @Transactional(readOnly = true)
+    public BudgetAlertFeedDto feed(Long categoryId, long since, int limit) {
+        Instant settled = Instant.now().minus(feedDelay);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<BudgetAlert> rows = categoryId == null
+                ? alertRepo.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(since, settled, page)
+                : alertRepo.findByCategoryIdAndIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(categoryId, since, settled, page);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows = rows.subList(0, limit);
+
+        List<BudgetAlertDto> alerts = new ArrayList<>();
+        for (BudgetAlert a : rows) {
+            BudgetAlertDto dto = new BudgetAlertDto();
+            dto.setId(a.getId());
+            dto.setCategoryId(a.getCategoryId());
+            dto.setYear(a.getYear());
+            dto.setMonth(a.getMonth());
+            dto.setThresholdPct(a.getThresholdPct());
+            dto.setBudget(a.getBudget());
+            dto.setSpent(a.getSpent());
+            dto.setExpenseId(a.getExpenseId());
+            dto.setCreatedAt(a.getCreatedAt());
+            alerts.add(dto);
+        }
+        BudgetAlertFeedDto feed = new BudgetAlertFeedDto();
+        feed.setAlerts(alerts);
+        feed.setNextSince(alerts.isEmpty() ? since : alerts.get(alerts.size() - 1).getId());
+        feed.setHasMore(hasMore);
+        return feed;
+    }
+
+    /** "50,80,100" -> [50, 80, 100] (sorted, without duplicates); empty or blank -> no thresholds. */
+    public static List<Integer> parseThresholds(String thresholds) {
+        TreeSet<Integer> res = new TreeSet<>();
+        if (thresholds == null) return List.of();
+        for (String part : thresholds.split(",")) {
+            if (!part.isBlank()) res.add(Integer.parseInt(part.trim()));
+        }
+        return List.copyOf(res);
+    }
+
+    /** Inverse of {@link #parseThresholds}; null stays null (use the defaults). */
+    public static String formatThresholds(Collection<Integer> thresholds) {
+        if (thresholds == null) return null;
+        return new TreeSet<>(thresholds).stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.expenseapi.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+// Thrown when an expense would push a category over a budget that does not allow overspend
+public class BudgetExceededException extends RuntimeException {
+    private final Long categoryId;
+    private final YearMonth month;
+    private final BigDecimal budget;
+    private final BigDecimal spent;
+    private final BigDecimal attemptedTotal;
+
+    public BudgetExceededException(Long categoryId, YearMonth month, BigDecimal budget, BigDecimal spent, BigDecimal attemptedTotal) {
+        super("Expense would exceed monthly budget for category");
+        this.categoryId = categoryId;
+        this.month = month;
+        this.budget = budget;
+        this.spent = spent;
+        this.attemptedTotal = attemptedTotal;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+    public YearMonth getMonth() { return month; }
+    public BigDecimal getBudget() { return budget; }
+    public BigDecimal getSpent() { return spent; }
+    public BigDecimal getAttemptedTotal() { return attemptedTotal; }
+}
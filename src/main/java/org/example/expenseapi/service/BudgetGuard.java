@@ -0,0 +1,97 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enforces budgets that do not allow overspend when an expense is written.
+ *
+ * The budgets that can block an expense are the one of its own category and those of its ancestors that include
+ * subcategories (a "Travel" budget covering "Flights"). Categories without such a budget for the month, or whose
+ * budgets allow overspend, always pass.
+ *
+ * The covering budgets are read from the database inside the caller's transaction, the ancestors resolved through
+ * the category closure in the same query. Neither the node-local {@link CategoryTreeCache} nor the
+ * {@link BudgetSpentCache} is used: on another node's move of a category or change of a budget they can lag behind
+ * until their entries expire, and a hard budget would be skipped meanwhile.
+ *
+ * Each hard budget row is then locked (SELECT ... FOR UPDATE) and spent - of the subtree, joined through the category
+ * closure, when the budget includes subcategories - is read again under the lock, so concurrent writers of the same
+ * category/month, or anywhere below a covering budget, are checked one after the other on any node. Locks are taken
+ * from the top-level category down, so writers of sibling subtrees cannot deadlock on their shared ancestors. They are
+ * held until the caller's transaction commits, i.e. after the expense is written; the check must run inside it.
+ */
+@Component
+public class BudgetGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetGuard.class);
+
+    private final ExpenseCategoryBudgetRepository budgetRepo;
+
+    public BudgetGuard(ExpenseCategoryBudgetRepository budgetRepo) {
+        this.budgetRepo = budgetRepo;
+    }
+
+    /**
+     * Check that adding {@code amount} on {@code expenseDate} keeps the category, and every ancestor whose budget
+     * includes subcategories, within budget.
+     *
+     * @param excludeExpenseId expense whose current amount must not count as spent (the one being updated), or null
+     * @throws BudgetExceededException when a budget that does not allow overspend would be exceeded
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void check(Long categoryId, LocalDate expenseDate, BigDecimal amount, Long excludeExpenseId) {
+        if (categoryId == null || expenseDate == null || amount == null) return;
+        YearMonth ym = YearMonth.from(expenseDate);
+
+        // hard budgets that cover the expense, top-level category first
+        List<Long> hard = new ArrayList<>();
+        for (ExpenseCategoryBudget b : budgetRepo.findCoveringBudgets(categoryId, ym.getYear(), ym.getMonthValue())) {
+            if (b.getCategory() != null && Boolean.FALSE.equals(b.getAllowOverspend())) hard.add(b.getCategory().getId());
+        }
+        if (hard.isEmpty()) return;
+
+        // wait for concurrent writers below these budgets (top-level first), then re-read budget and spent, own first
+        for (Long id : hard) budgetRepo.lockByCategoryIdAndYearAndMonth(id, ym.getYear(), ym.getMonthValue());
+        for (int i = hard.size() - 1; i >= 0; i--) {
+            Long id = hard.get(i);
+            Object[] r = budgetWithSpent(id, ym, excludeExpenseId);
+            if (!isHardBudget(r)) continue;
+            // an ancestor's budget only covers the expense while it includes subcategories
+            if (!id.equals(categoryId) && !Boolean.TRUE.equals(r[3])) continue;
+
+            long budgetCents = MoneyUtils.toMinorUnitsRounded((BigDecimal) r[0]);
+            long spentCents = MoneyUtils.toMinorUnitsRounded((BigDecimal) r[2]);
+            long attemptedCents = MoneyUtils.add(spentCents, MoneyUtils.toMinorUnitsRounded(amount));
+            if (attemptedCents > budgetCents) {
+                log.debug("Budget check failed: categoryId={} budgetCategoryId={} month={} budget={} spent={} amount={}",
+                        categoryId, id, ym, r[0], r[2], amount);
+                throw new BudgetExceededException(id, ym, MoneyUtils.fromMinorUnits(budgetCents),
+                        MoneyUtils.fromMinorUnits(spentCents), MoneyUtils.fromMinorUnits(attemptedCents));
+            }
+        }
+    }
+
+    // { budget, allowOverspend, spent, includeSubcategories } or null when the category has no budget for the month
+    private Object[] budgetWithSpent(Long categoryId, YearMonth ym, Long excludeExpenseId) {
+        List<Object[]> rows = budgetRepo.findBudgetWithSpent(categoryId, ym.getYear(), ym.getMonthValue(),
+                ym.atDay(1), ym.atEndOfMonth(), excludeExpenseId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static boolean isHardBudget(Object[] r) {
+        return r != null && Boolean.FALSE.equals(r[1]);
+    }
+}
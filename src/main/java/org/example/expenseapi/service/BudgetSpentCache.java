@@ -0,0 +1,250 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.BudgetChangedEvent;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local spent amount and budget per (category, month), so budget statuses are answered from memory instead of
+ * with a query each.
+ *
+ * Missing or expired entries are loaded in one batch: a grouped sum over the month for all of them and one budget
+ * lookup. From then on an entry follows this node's writes - spent is a {@link LongAdder} updated from
+ * {@link ExpenseChangedEvent}s, and a {@link BudgetChangedEvent} drops the entry. A write is tracked from the moment
+ * its event is published until its transaction completes, and a load is only cached when no write to its keys was
+ * in that window meanwhile: its sum then either includes a write or the write's delta is applied to it, never both.
+ * Writes made on other nodes are only seen once the entry is older than the ttl and is reloaded, so figures may lag
+ * them by up to the ttl. That is fine for budget statuses, and for {@link BudgetAlertService} to skip writes far
+ * below any threshold, but not for enforcement: {@link BudgetGuard} reads which budgets are hard, and their spent,
+ * from the database and does not use this cache.
+ */
+@Component
+public class BudgetSpentCache {
+
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseCategoryBudgetRepository budgetRepo;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // one counter per stripe of keys, bumped when a write to a key of the stripe starts and when it commits; a load
+    // only caches a key whose stripe did not move while it ran, so a change committed during the load is not lost
+    private final AtomicLongArray stamps;
+    // writes per stripe whose transaction has not completed yet: their rows may or may not be in a sum read now
+    private final AtomicLongArray pending;
+
+    public BudgetSpentCache(ExpenseRepository expenseRepo,
+                            ExpenseCategoryBudgetRepository budgetRepo,
+                            @Value("${app.budgets.spent-cache.enabled:true}") boolean enabled,
+                            @Value("${app.budgets.spent-cache.ttl-seconds:5}") long ttlSeconds,
+                            @Value("${app.budgets.spent-cache.max-entries:10000}") int maxEntries,
+                            @Value("${app.budgets.spent-cache.stripes:64}") int stripes) {
+        this.expenseRepo = expenseRepo;
+        this.budgetRepo = budgetRepo;
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+        this.maxEntries = Math.max(1, maxEntries);
+        this.stamps = new AtomicLongArray(Math.max(1, stripes));
+        this.pending = new AtomicLongArray(Math.max(1, stripes));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Spent and budget of the category in the month (loaded when missing or expired). */
+    public Entry get(Long categoryId, YearMonth month) {
+        return get(List.of(categoryId), month).get(categoryId);
+    }
+
+    /** Spent and budget of each category in the month; missing or expired ones are loaded together. */
+    public Map<Long, Entry> get(Collection<Long> categoryIds, YearMonth month) {
+        Map<Long, Entry> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        for (Long id : categoryIds) {
+            if (id == null || result.containsKey(id)) continue;
+            Entry e = entries.get(new Key(id, month));
+            if (e != null && now - e.loadedAt < ttlNanos) result.put(id, e);
+            else missing.add(id);
+        }
+        if (!missing.isEmpty()) result.putAll(load(new ArrayList<>(missing), month));
+        return result;
+    }
+
+    private Map<Long, Entry> load(List<Long> ids, YearMonth month) {
+        long loadedAt = System.nanoTime();
+        // -1: a write to the key is in flight, the sum may or may not include it
+        long[] seen = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            int stripe = stripe(new Key(ids.get(i), month));
+            seen[i] = stamps.get(stripe);
+            if (pending.get(stripe) > 0) seen[i] = -1;
+        }
+
+        Map<Long, Long> spent = new HashMap<>();
+        for (Object[] row : expenseRepo.sumAmountGroupedByCategoryBetween(month.atDay(1), month.atEndOfMonth(), ids)) {
+            if (row[0] == null) continue;
+            spent.put(((Number) row[0]).longValue(), row[1] == null ? 0L : MoneyUtils.toMinorUnitsRounded((BigDecimal) row[1]));
+        }
+        Map<Long, ExpenseCategoryBudget> budgets = new HashMap<>();
+        for (ExpenseCategoryBudget b : budgetRepo.findByCategoryIdInAndYearAndMonth(ids, month.getYear(), month.getMonthValue())) {
+            if (b.getCategory() != null && b.getCategory().getId() != null) budgets.put(b.getCategory().getId(), b);
+        }
+
+        if (entries.size() + ids.size() > maxEntries) trim(loadedAt);
+        Map<Long, Entry> result = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            ExpenseCategoryBudget b = budgets.get(id);
+            Entry fresh = new Entry(b == null ? null : b.getBudget(), b == null ? null : b.getAllowOverspend(),
+                    b != null && b.getIncludeSubcategories(), spent.getOrDefault(id, 0L), loadedAt);
+            long stamp = seen[i];
+            entries.compute(new Key(id, month), (k, old) -> stamps.get(stripe(k)) == stamp ? fresh : old);
+            result.put(id, fresh);
+        }
+        return result;
+    }
+
+    // drop expired entries; when that is not enough, start over
+    private void trim(long now) {
+        entries.values().removeIf(e -> now - e.loadedAt >= ttlNanos);
+        if (entries.size() >= maxEntries) entries.clear();
+    }
+
+    // Runs when the event is published, i.e. before the write commits: from then until the transaction completes the
+    // keys it touches are not cached by loads, then its delta is applied to the entries cached before it started
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (!enabled || event == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event.getBefore(), -1);
+            apply(event.getAfter(), 1);
+            return;
+        }
+        List<Key> keys = new ArrayList<>(2);
+        for (ExpenseSnapshot s : new ExpenseSnapshot[]{event.getBefore(), event.getAfter()}) {
+            Key key = keyOf(s);
+            if (key == null) continue;
+            pending.incrementAndGet(stripe(key));
+            stamps.incrementAndGet(stripe(key));
+            keys.add(key);
+        }
+        if (keys.isEmpty()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    apply(event.getBefore(), -1);
+                    apply(event.getAfter(), 1);
+                }
+                for (Key key : keys) pending.decrementAndGet(stripe(key));
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        if (!enabled || event == null || event.getCategoryId() == null) return;
+        Key key = new Key(event.getCategoryId(), YearMonth.of(event.getYear(), event.getMonth()));
+        stamps.incrementAndGet(stripe(key));
+        entries.remove(key);
+    }
+
+    private void apply(ExpenseSnapshot s, int sign) {
+        Key key = keyOf(s);
+        if (key == null) return;
+        stamps.incrementAndGet(stripe(key));
+        Entry e = entries.get(key);
+        if (e != null) e.spentCents.add(sign * MoneyUtils.toMinorUnitsRounded(s.getAmount()));
+    }
+
+    private static Key keyOf(ExpenseSnapshot s) {
+        if (s == null || s.getCategoryId() == null || s.getExpenseDate() == null || s.getAmount() == null) return null;
+        return new Key(s.getCategoryId(), YearMonth.from(s.getExpenseDate()));
+    }
+
+    private int stripe(Key key) {
+        return Math.floorMod(key.hashCode(), stamps.length());
+    }
+
+    /** Budget (if any) and spent of one category in one month; spent is the category's own, without subcategories. */
+    public static final class Entry {
+        private final BigDecimal budget; // null when the category has no budget for the month
+        private final Boolean allowOverspend;
+        private final boolean includeSubcategories;
+        private final LongAdder spentCents = new LongAdder();
+        private final long loadedAt;
+
+        Entry(BigDecimal budget, Boolean allowOverspend, long spentCents, long loadedAt) {
+            this(budget, allowOverspend, false, spentCents, loadedAt);
+        }
+
+        Entry(BigDecimal budget, Boolean allowOverspend, boolean includeSubcategories, long spentCents, long loadedAt) {
+            this.budget = budget;
+            this.allowOverspend = allowOverspend;
+            this.includeSubcategories = includeSubcategories;
+            this.spentCents.add(spentCents);
+            this.loadedAt = loadedAt;
+        }
+
+        public boolean hasBudget() { return budget != null; }
+        public BigDecimal getBudget() { return budget; }
+        public Boolean getAllowOverspend() { return allowOverspend; }
+        public boolean isIncludeSubcategories() { return includeSubcategories; }
+        public long getSpentCents() { return spentCents.sum(); }
+
+        /** A budget that does not allow overspend. */
+        public boolean isHardBudget() {
+            return budget != null && Boolean.FALSE.equals(allowOverspend);
+        }
+    }
+
+    private static final class Key {
+        final long categoryId;
+        final int monthIndex;
+
+        Key(long categoryId, YearMonth month) {
+            this.categoryId = categoryId;
+            this.monthIndex = month.getYear() * 12 + (month.getMonthValue() - 1);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return categoryId == k.categoryId && monthIndex == k.monthIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(categoryId) + monthIndex;
+        }
+    }
+}
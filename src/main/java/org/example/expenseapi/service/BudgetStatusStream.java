@@ -0,0 +1,340 @@
+package org.example.expenseapi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.expenseapi.dto.BudgetStatus;
+import org.example.expenseapi.dto.BudgetStatusEventDto;
+import org.example.expenseapi.service.event.BudgetChangedEvent;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes budget statuses to SSE subscribers (GET /v1/budgets/stream) for the categories whose spent amount or budget
+ * changed, instead of dashboards polling every category's status.
+ *
+ * Committed expense and budget changes only mark their (category, month) as dirty. Every {@code coalesce-millis} the
+ * dirty set is drained, the statuses of the changed categories are computed in one batch per month and a
+ * {@code budget-status} event is sent to each subscriber interested in the category - however many writes happened
+ * in between. With no subscribers nothing is computed. Subscribers are held in a concurrent map and cost no thread
+ * while idle; a comment line every {@code heartbeat-seconds} keeps proxies from closing the connection and drops
+ * subscribers that went away.
+ *
+ * Events are not written by the publishing thread: each subscriber has a buffer of up to {@code buffer-size} events
+ * that a small pool of {@code send-threads} drains, one subscriber at a time. A subscriber whose buffer is full or
+ * whose current write has been blocked for {@code write-timeout-seconds} is dropped, so one slow client delays
+ * neither the others nor the next publish; it reconnects and re-reads the current statuses.
+ *
+ * Only changes made on this node are seen. Clients should subscribe first and then read the current statuses, so no
+ * change falls in between, and behind several nodes re-read them periodically (or pin the stream to the node that
+ * serves their writes).
+ */
+@Service
+public class BudgetStatusStream {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetStatusStream.class);
+
+    private final ExpenseBudgetService budgetService;
+    private final long coalesceMillis;
+    private final long heartbeatSeconds;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long writeTimeoutNanos;
+    private final CategoryTreeCache categoryTree;
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "budget-status-stream");
+        t.setDaemon(true);
+        return t;
+    });
+    // drains subscriber buffers; holds at most one task per subscriber, so its queue is bounded by max-subscribers
+    private final ThreadPoolExecutor senders;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+
+    public BudgetStatusStream(ExpenseBudgetService budgetService,
+                              @Value("${app.budgets.stream.coalesce-millis:500}") long coalesceMillis,
+                              @Value("${app.budgets.stream.heartbeat-seconds:30}") long heartbeatSeconds,
+                              @Value("${app.budgets.stream.timeout-minutes:30}") long timeoutMinutes,
+                              @Value("${app.budgets.stream.max-subscribers:5000}") int maxSubscribers,
+                              @Value("${app.budgets.stream.buffer-size:64}") int bufferSize,
+                              @Value("${app.budgets.stream.send-threads:4}") int sendThreads,
+                              @Value("${app.budgets.stream.write-timeout-seconds:10}") long writeTimeoutSeconds,
+                              CategoryTreeCache categoryTree) {
+        this.budgetService = budgetService;
+        this.coalesceMillis = Math.max(10L, coalesceMillis);
+        this.heartbeatSeconds = Math.max(1L, heartbeatSeconds);
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(Math.max(1L, timeoutMinutes));
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.writeTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(1L, writeTimeoutSeconds));
+        this.categoryTree = categoryTree;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(Math.max(1, sendThreads), Math.max(1, sendThreads), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "budget-status-sender-" + threadCounter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PostConstruct
+    public void init() {
+        publisher.scheduleWithFixedDelay(this::publishQuietly, coalesceMillis, coalesceMillis, TimeUnit.MILLISECONDS);
+        publisher.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber s : subscribers.values()) s.emitter.complete();
+        subscribers.clear();
+    }
+
+    /**
+     * Register a subscriber for the given categories (all when null or empty).
+     *
+     * @throws IllegalStateException when max-subscribers are already connected
+     */
+    public SseEmitter subscribe(Set<Long> categoryIds) {
+        return subscribe(categoryIds, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Set<Long> categoryIds, SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many budget stream subscribers, try again later");
+        }
+        long id = nextId.incrementAndGet();
+        Subscriber subscriber = new Subscriber(id, emitter, categoryIds == null || categoryIds.isEmpty() ? null : Set.copyOf(categoryIds));
+        emitter.onCompletion(() -> subscribers.remove(id));
+        emitter.onTimeout(() -> subscribers.remove(id));
+        emitter.onError(ex -> subscribers.remove(id));
+        subscribers.put(id, subscriber);
+        log.debug("Budget stream subscriber {} connected (categories={}, total={})", id, subscriber.categoryIds, subscribers.size());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // ---- change feed ---------------------------------------------------------------------------------------
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event == null || subscribers.isEmpty()) return;
+        markDirty(event.getBefore());
+        markDirty(event.getAfter());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        if (event == null || event.getCategoryId() == null || subscribers.isEmpty()) return;
+        dirty.add(new Key(event.getCategoryId(), YearMonth.of(event.getYear(), event.getMonth())));
+    }
+
+    private void markDirty(ExpenseSnapshot s) {
+        if (s == null || s.getCategoryId() == null || s.getExpenseDate() == null) return;
+        YearMonth month = YearMonth.from(s.getExpenseDate());
+        if (categoryTree == null) {
+            dirty.add(new Key(s.getCategoryId(), month));
+            return;
+        }
+        // ancestors too: their status changes when their budget includes subcategories
+        for (Long id : categoryTree.pathToRoot(s.getCategoryId())) dirty.add(new Key(id, month));
+    }
+
+    // ---- publishing ----------------------------------------------------------------------------------------
+
+    /** Send the statuses of everything that changed since the last run to the interested subscribers. */
+    public void publish() {
+        if (dirty.isEmpty()) return;
+        Map<YearMonth, Set<Long>> byMonth = new HashMap<>();
+        for (var it = dirty.iterator(); it.hasNext(); ) {
+            Key k = it.next();
+            it.remove();
+            byMonth.computeIfAbsent(k.month, m -> new HashSet<>()).add(k.categoryId);
+        }
+        if (subscribers.isEmpty()) return;
+
+        for (Map.Entry<YearMonth, Set<Long>> e : byMonth.entrySet()) {
+            YearMonth month = e.getKey();
+            Set<Long> wanted = new HashSet<>();
+            for (Subscriber s : subscribers.values()) {
+                if (s.categoryIds == null) {
+                    wanted = e.getValue();
+                    break;
+                }
+                for (Long id : s.categoryIds) if (e.getValue().contains(id)) wanted.add(id);
+            }
+            if (wanted.isEmpty()) continue;
+            Map<Long, BudgetStatus> statuses = budgetService.getBudgetStatusForCategories(new ArrayList<>(wanted),
+                    month.getYear(), month.getMonthValue());
+            for (Map.Entry<Long, BudgetStatus> s : statuses.entrySet()) {
+                send(s.getKey(), new BudgetStatusEventDto(s.getKey(), month.getYear(), month.getMonthValue(), s.getValue()));
+            }
+        }
+    }
+
+    private void send(Long categoryId, BudgetStatusEventDto event) {
+        for (Subscriber s : subscribers.values()) {
+            if (s.categoryIds != null && !s.categoryIds.contains(categoryId)) continue;
+            enqueue(s, SseEmitter.event().name("budget-status").data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber s : subscribers.values()) enqueue(s, SseEmitter.event().comment("keep-alive"));
+    }
+
+    private void enqueue(Subscriber s, SseEmitter.SseEventBuilder event) {
+        boolean full;
+        boolean start = false;
+        synchronized (s) {
+            if (s.dropped) return;
+            full = s.buffer.size() >= bufferSize;
+            if (!full) {
+                s.buffer.add(event);
+                start = !s.draining;
+                s.draining = true;
+            }
+        }
+        if (full) {
+            // the client reads slower than statuses change
+            drop(s, "fell behind");
+        } else if (start) {
+            try {
+                senders.execute(() -> drain(s));
+            } catch (RejectedExecutionException ex) {
+                drop(s, "shutting down");
+            }
+        }
+    }
+
+    private void drain(Subscriber s) {
+        while (true) {
+            SseEmitter.SseEventBuilder next;
+            synchronized (s) {
+                if (s.dropped) break;
+                next = s.buffer.poll();
+                if (next == null) {
+                    s.draining = false;
+                    return;
+                }
+            }
+            s.sendingSince = System.nanoTime();
+            try {
+                s.emitter.send(next);
+            } catch (IOException | IllegalStateException ex) {
+                drop(s, "went away");
+            } finally {
+                s.sendingSince = 0L;
+            }
+        }
+        // dropped while draining: completed here, where no write is in progress
+        s.emitter.complete();
+    }
+
+    // Subscribers whose current write has been blocked longer than the write timeout
+    private void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber s : subscribers.values()) {
+            long since = s.sendingSince;
+            if (since != 0L && now - since > writeTimeoutNanos) drop(s, "write timed out");
+        }
+    }
+
+    private void drop(Subscriber s, String reason) {
+        if (!subscribers.remove(s.id, s)) return;
+        boolean idle;
+        synchronized (s) {
+            s.dropped = true;
+            s.buffer.clear();
+            idle = !s.draining;
+        }
+        // completing waits for a write in progress, so a draining subscriber is completed by its sender once
+        // the write returns; the emitter timeout ends writes that never do
+        if (idle) s.emitter.complete();
+        log.debug("Budget stream subscriber {} disconnected ({})", s.id, reason);
+    }
+
+    private void publishQuietly() {
+        try {
+            dropStalled();
+            publish();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to publish budget statuses: {}", ex.getMessage());
+        }
+    }
+
+    private static final class Subscriber {
+        final long id;
+        final SseEmitter emitter;
+        final Set<Long> categoryIds; // null = all categories
+        // guarded by this
+        final ArrayDeque<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+        boolean draining;
+        boolean dropped;
+        // System.nanoTime() when the write in progress started, 0 when none is
+        volatile long sendingSince;
+
+        Subscriber(long id, SseEmitter emitter, Set<Long> categoryIds) {
+            this.id = id;
+            this.emitter = emitter;
+            this.categoryIds = categoryIds;
+        }
+    }
+
+    private static final class Key {
+        final long categoryId;
+        final YearMonth month;
+
+        Key(long categoryId, YearMonth month) {
+            this.categoryId = categoryId;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return categoryId == k.categoryId && month.equals(k.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(categoryId) + month.hashCode();
+        }
+    }
+}
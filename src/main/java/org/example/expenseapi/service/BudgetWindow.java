@@ -0,0 +1,73 @@
+package org.example.expenseapi.service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Which budgets to embed in category (and expense) responses: the months from..to, or none at all.
+ * Defaults to the current calendar year so responses do not grow with the budget history.
+ */
+public final class BudgetWindow {
+
+    // widest window a client may ask for
+    static final int MAX_MONTHS = 60;
+
+    private static final BudgetWindow NONE = new BudgetWindow(null, null);
+
+    private final YearMonth from;
+    private final YearMonth to;
+
+    private BudgetWindow(YearMonth from, YearMonth to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public static BudgetWindow none() {
+        return NONE;
+    }
+
+    public static BudgetWindow of(YearMonth from, YearMonth to) {
+        return from.isAfter(to) ? new BudgetWindow(to, from) : new BudgetWindow(from, to);
+    }
+
+    public static BudgetWindow currentYear() {
+        YearMonth now = YearMonth.now();
+        return new BudgetWindow(now.withMonth(1), now.withMonth(12));
+    }
+
+    /**
+     * From the {@code budgets}, {@code budgetsFrom} and {@code budgetsTo} request parameters (all optional).
+     * A missing bound defaults to the start / end of the other bound's year, or of the current year.
+     *
+     * @throws IllegalArgumentException with the message to return to the client
+     */
+    public static BudgetWindow parse(String budgets, String fromStr, String toStr) {
+        if (budgets != null && !budgets.isBlank()) {
+            if (!"none".equalsIgnoreCase(budgets.trim())) {
+                throw new IllegalArgumentException("Unsupported budgets option: " + budgets.trim() + " (expected none)");
+            }
+            return NONE;
+        }
+        YearMonth from;
+        YearMonth to;
+        try {
+            from = fromStr == null || fromStr.isBlank() ? null : YearMonth.parse(fromStr.trim());
+            to = toStr == null || toStr.isBlank() ? null : YearMonth.parse(toStr.trim());
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid month format for budgetsFrom/budgetsTo, expected yyyy-MM", ex);
+        }
+        if (from == null && to == null) return currentYear();
+        if (from == null) from = to.withMonth(1);
+        if (to == null) to = from.withMonth(12);
+        BudgetWindow window = of(from, to);
+        if (window.from.until(window.to, ChronoUnit.MONTHS) + 1 > MAX_MONTHS) {
+            throw new IllegalArgumentException("At most " + MAX_MONTHS + " months of budgets can be requested");
+        }
+        return window;
+    }
+
+    public boolean isNone() { return from == null; }
+    public YearMonth getFrom() { return from; }
+    public YearMonth getTo() { return to; }
+}
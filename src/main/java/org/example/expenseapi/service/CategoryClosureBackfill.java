@@ -0,0 +1,70 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.repository.ExpenseCategoryClosureRepository;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds the category closure table from the parent links when it does not cover every category, e.g. on a
+ * database whose categories predate the table or were seeded without the category service.
+ *
+ * Runs once the application is up, before the first request is likely; the table is as small as the category
+ * tree, so the rebuild is a handful of set-based statements (one per tree depth) in one transaction.
+ */
+@Component
+public class CategoryClosureBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryClosureBackfill.class);
+
+    // guards against parent cycles in bad data, as in CategoryTreeCache
+    private static final int MAX_DEPTH = 64;
+
+    private final ExpenseCategoryRepository categoryRepo;
+    private final ExpenseCategoryClosureRepository closureRepo;
+    private final CategoryTreeLock treeLock;
+    private final TransactionTemplate tx;
+
+    public CategoryClosureBackfill(ExpenseCategoryRepository categoryRepo, ExpenseCategoryClosureRepository closureRepo,
+                                   CategoryTreeLock treeLock, PlatformTransactionManager txManager) {
+        this.categoryRepo = categoryRepo;
+        this.closureRepo = closureRepo;
+        this.treeLock = treeLock;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            backfillIfIncomplete();
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild the category closure: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /** @return true when the closure was rebuilt */
+    public boolean backfillIfIncomplete() {
+        Boolean rebuilt = tx.execute(status -> {
+            // category writers that change the hierarchy hold the same lock, at least shared
+            treeLock.lockExclusive();
+            long categories = categoryRepo.count();
+            if (closureRepo.countSelfLinks() == categories) return false;
+            long startedAt = System.currentTimeMillis();
+            closureRepo.deleteAllLinks();
+            int links = closureRepo.insertAllSelfLinks();
+            for (int depth = 0, added = links; added > 0 && depth < MAX_DEPTH; depth++) {
+                added = closureRepo.insertLinksBelow(depth);
+                links += added;
+            }
+            log.info("Rebuilt category closure for {} categories ({} links) in {} ms",
+                    categories, links, System.currentTimeMillis() - startedAt);
+            return true;
+        });
+        return Boolean.TRUE.equals(rebuilt);
+    }
+}
@@ -0,0 +1,245 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.service.event.CategoryChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Node-local, immutable snapshot of all categories: id -> node and parent -> children ordered by level.
+ * Category reads (lists, single categories, children, ancestors and descendants) are answered from it instead of a
+ * query per parent.
+ *
+ * The snapshot is loaded with one (scalar) query on first use and swapped atomically, so readers never see a half-built tree.
+ * It is dropped when a category change commits on this node and rebuilt by the next read; changes made on other
+ * nodes are picked up once it is older than the ttl, or at once by calling {@link #invalidate()}.
+ *
+ * Readers get fresh, detached copies of the entities, so nothing they change leaks into the snapshot.
+ */
+@Component
+public class CategoryTreeCache {
+
+    // guards against parent cycles in bad data
+    private static final int MAX_DEPTH = 64;
+
+    private static final Comparator<Node> BY_LEVEL = Comparator
+            .comparing((Node n) -> n.level, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(n -> n.id);
+
+    private final ExpenseCategoryRepository categoryRepo;
+    private final long ttlNanos;
+    // bumped on every change, so a load that raced with one is not kept
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public CategoryTreeCache(ExpenseCategoryRepository categoryRepo,
+                             @Value("${app.categories.tree-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.categoryRepo = categoryRepo;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+    }
+
+    public Optional<ExpenseCategory> findById(Long id) {
+        if (id == null) return Optional.empty();
+        Snapshot s = snapshot();
+        return s.nodes.containsKey(id) ? Optional.of(s.toEntity(id, new HashMap<>())) : Optional.empty();
+    }
+
+    /** Every category, each followed by its descendants; top-level categories and siblings ordered by level. */
+    public List<ExpenseCategory> findAll() {
+        Snapshot s = snapshot();
+        Map<Long, ExpenseCategory> copies = new HashMap<>();
+        List<ExpenseCategory> res = new ArrayList<>(s.nodes.size());
+        Deque<Long> todo = new ArrayDeque<>(s.roots);
+        while (!todo.isEmpty() && res.size() < s.nodes.size()) {
+            Long id = todo.pop();
+            res.add(s.toEntity(id, copies));
+            List<Long> children = s.childrenOf.getOrDefault(id, List.of());
+            for (int i = children.size() - 1; i >= 0; i--) todo.push(children.get(i));
+        }
+        return res;
+    }
+
+    /** The given ids that are not categories, without duplicates and in the given order; nulls are ignored. */
+    public List<Long> findMissingIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        Map<Long, Node> nodes = snapshot().nodes;
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id != null && !nodes.containsKey(id)) missing.add(id);
+        }
+        return missing;
+    }
+
+    /** Direct children of the category, ordered by level. */
+    public List<ExpenseCategory> findChildren(Long categoryId) {
+        Snapshot s = snapshot();
+        Map<Long, ExpenseCategory> copies = new HashMap<>();
+        List<ExpenseCategory> res = new ArrayList<>();
+        for (Long id : s.childrenOf.getOrDefault(categoryId, List.of())) res.add(s.toEntity(id, copies));
+        return res;
+    }
+
+    /** The category followed by its parent, grandparent, ... up to the top-level category. */
+    public List<Long> pathToRoot(Long categoryId) {
+        Map<Long, Node> nodes = snapshot().nodes;
+        List<Long> path = new ArrayList<>();
+        for (Long id = categoryId; id != null && path.size() < MAX_DEPTH; ) {
+            path.add(id);
+            Node n = nodes.get(id);
+            id = n == null ? null : n.parentId;
+        }
+        return path;
+    }
+
+    /** The category followed by all of its descendants (breadth first). */
+    public List<Long> subtreeIds(Long categoryId) {
+        Snapshot s = snapshot();
+        List<Long> ids = new ArrayList<>();
+        Deque<Long> todo = new ArrayDeque<>();
+        todo.add(categoryId);
+        // a subtree has at most every category plus an unknown root
+        while (!todo.isEmpty() && ids.size() <= s.nodes.size()) {
+            Long id = todo.poll();
+            ids.add(id);
+            todo.addAll(s.childrenOf.getOrDefault(id, List.of()));
+        }
+        return ids;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate();
+    }
+
+    /** Drop the snapshot; the next read loads a new one. */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot.get();
+        if (s != null && System.nanoTime() - s.loadedAt < ttlNanos) return s;
+        long gen = generation.get();
+        Snapshot loaded = load();
+        snapshot.compareAndSet(s, loaded);
+        // a change committed while loading: the new snapshot may miss it
+        if (generation.get() != gen) snapshot.compareAndSet(loaded, null);
+        return loaded;
+    }
+
+    private Snapshot load() {
+        long loadedAt = System.nanoTime();
+        Map<Long, Node> nodes = new LinkedHashMap<>();
+        for (Object[] r : categoryRepo.findAllForSnapshot()) {
+            Node n = new Node(r);
+            nodes.put(n.id, n);
+        }
+        Map<Long, List<Node>> children = new HashMap<>();
+        List<Node> roots = new ArrayList<>();
+        for (Node n : nodes.values()) {
+            if (n.parentId == null || !nodes.containsKey(n.parentId)) roots.add(n);
+            else children.computeIfAbsent(n.parentId, p -> new ArrayList<>()).add(n);
+        }
+        Map<Long, List<Long>> childrenOf = new HashMap<>();
+        children.forEach((parentId, list) -> childrenOf.put(parentId, idsByLevel(list)));
+        return new Snapshot(Map.copyOf(nodes), Map.copyOf(childrenOf), idsByLevel(roots), loadedAt);
+    }
+
+    private static List<Long> idsByLevel(List<Node> nodes) {
+        nodes.sort(BY_LEVEL);
+        List<Long> ids = new ArrayList<>(nodes.size());
+        for (Node n : nodes) ids.add(n.id);
+        return List.copyOf(ids);
+    }
+
+    private static final class Snapshot {
+        final Map<Long, Node> nodes;
+        final Map<Long, List<Long>> childrenOf;
+        final List<Long> roots;
+        final long loadedAt;
+
+        Snapshot(Map<Long, Node> nodes, Map<Long, List<Long>> childrenOf, List<Long> roots, long loadedAt) {
+            this.nodes = nodes;
+            this.childrenOf = childrenOf;
+            this.roots = roots;
+            this.loadedAt = loadedAt;
+        }
+
+        // detached copy of the category with its ancestors; copies are shared within one read
+        ExpenseCategory toEntity(Long id, Map<Long, ExpenseCategory> copies) {
+            ExpenseCategory c = copies.get(id);
+            if (c != null) return c;
+            List<Node> path = new ArrayList<>();
+            for (Node n = nodes.get(id); n != null && !copies.containsKey(n.id) && path.size() < MAX_DEPTH;
+                 n = n.parentId == null ? null : nodes.get(n.parentId)) {
+                path.add(n);
+            }
+            // top-most first, so every copy's parent exists already
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node n = path.get(i);
+                ExpenseCategory e = n.toEntity();
+                if (n.parentId != null) e.setParent(copies.get(n.parentId));
+                copies.put(n.id, e);
+            }
+            return copies.get(id);
+        }
+    }
+
+    private static final class Node {
+        final Long id;
+        final String name;
+        final ExpenseCategoryStatus status;
+        final Integer level;
+        final Long parentId;
+        final Instant createdAt;
+        final String createdBy;
+        final Instant updatedAt;
+        final String updatedBy;
+
+        Node(Object[] r) {
+            this.id = ((Number) r[0]).longValue();
+            this.name = (String) r[1];
+            this.status = (ExpenseCategoryStatus) r[2];
+            this.level = (Integer) r[3];
+            this.parentId = r[4] == null ? null : ((Number) r[4]).longValue();
+            this.createdAt = (Instant) r[5];
+            this.createdBy = (String) r[6];
+            this.updatedAt = (Instant) r[7];
+            this.updatedBy = (String) r[8];
+        }
+
+        ExpenseCategory toEntity() {
+            ExpenseCategory c = new ExpenseCategory();
+            c.setId(id);
+            c.setName(name);
+            c.setStatus(status);
+            c.setLevel(level);
+            c.setCreatedAt(createdAt);
+            c.setCreatedBy(createdBy);
+            c.setUpdatedAt(updatedAt);
+            c.setUpdatedBy(updatedBy);
+            return c;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseCategoryTreeLock;
+import org.example.expenseapi.repository.ExpenseCategoryTreeLockRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Takes the lock row of the category tree ({@link ExpenseCategoryTreeLock}) in the caller's transaction, creating
+ * it first when it does not exist yet. Taken before any parent row, so category writers lock in the same order.
+ */
+@Component
+public class CategoryTreeLock {
+
+    private final ExpenseCategoryTreeLockRepository lockRepo;
+    private final TransactionTemplate newTx;
+
+    public CategoryTreeLock(ExpenseCategoryTreeLockRepository lockRepo, PlatformTransactionManager txManager) {
+        this.lockRepo = lockRepo;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Held by inserts under a parent: the hierarchy above the parent stays put until they commit. */
+    public void lockShared() {
+        lock(false);
+    }
+
+    /** Held by top-level inserts and reorders, moves between parents and the closure rebuild. */
+    public void lockExclusive() {
+        lock(true);
+    }
+
+    private void lock(boolean exclusive) {
+        if (lockRow(exclusive).isPresent()) return;
+        try {
+            newTx.executeWithoutResult(status -> {
+                if (lockRepo.existsByName(ExpenseCategoryTreeLock.TREE)) return;
+                ExpenseCategoryTreeLock row = new ExpenseCategoryTreeLock();
+                row.setName(ExpenseCategoryTreeLock.TREE);
+                lockRepo.saveAndFlush(row);
+            });
+        } catch (DataIntegrityViolationException ignored) {
+            // created concurrently
+        }
+        lockRow(exclusive).orElseThrow(() -> new IllegalStateException("Lock row of the category tree is missing"));
+    }
+
+    private Optional<ExpenseCategoryTreeLock> lockRow(boolean exclusive) {
+        return exclusive ? lockRepo.lockExclusive(ExpenseCategoryTreeLock.TREE)
+                : lockRepo.lockShared(ExpenseCategoryTreeLock.TREE);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.expenseapi.service;
+
+import java.time.YearMonth;
+
+public class ClosedPeriodException extends RuntimeException {
+    private final YearMonth month;
+
+    public ClosedPeriodException(YearMonth month) {
+        super("Accounting period " + month + " is closed");
+        this.month = month;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+}
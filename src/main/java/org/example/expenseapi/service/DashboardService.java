@@ -0,0 +1,127 @@
+package org.example.expenseapi.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the independent sections of the dashboard concurrently.
+ *
+ * Sections execute on a bounded pool (fixed threads + bounded queue); when the pool is saturated a section is not
+ * run at all and reported as busy, so a request thread never does the work itself without a timeout. Each section
+ * gets its own read-only transaction (so lazy associations can be mapped) and the caller's security context. A
+ * section that fails, exceeds the timeout or is rejected is reported in {@link Sections#getErrors()} and the others
+ * are still returned.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTx;
+    private final long sectionTimeoutMillis;
+
+    public DashboardService(PlatformTransactionManager txManager,
+                            @Value("${app.dashboard.pool-size:4}") int poolSize,
+                            @Value("${app.dashboard.queue-capacity:32}") int queueCapacity,
+                            @Value("${app.dashboard.section-timeout-ms:3000}") long sectionTimeoutMillis) {
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "dashboard-" + threadCounter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Run every section (name -> task) and wait for each up to the section timeout. */
+    public Sections run(Map<String, Callable<?>> sections) {
+        long startedAt = System.currentTimeMillis();
+        Sections result = new Sections();
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Callable<?>> e : sections.entrySet()) {
+            Callable<?> task = new DelegatingSecurityContextCallable<>(inTransaction(e.getValue()));
+            try {
+                futures.put(e.getKey(), executor.submit(task));
+            } catch (RejectedExecutionException ex) {
+                // pool saturated: the client retries the section later
+                log.warn("Dashboard section '{}' rejected, pool saturated", e.getKey());
+                result.errors.put(e.getKey(), "Busy");
+            }
+        }
+
+        long deadline = startedAt + sectionTimeoutMillis;
+        for (Map.Entry<String, Future<?>> e : futures.entrySet()) {
+            String name = e.getKey();
+            Future<?> future = e.getValue();
+            try {
+                long wait = Math.max(0L, deadline - System.currentTimeMillis());
+                result.values.put(name, future.get(wait, TimeUnit.MILLISECONDS));
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                log.warn("Dashboard section '{}' timed out after {} ms", name, sectionTimeoutMillis);
+                result.errors.put(name, "Timed out");
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                log.warn("Dashboard section '{}' failed: {}", name, cause.getMessage(), cause);
+                result.errors.put(name, "Failed to load");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                result.errors.put(name, "Interrupted");
+            }
+        }
+        log.debug("Dashboard assembled in {} ms ({} sections, {} failed)",
+                System.currentTimeMillis() - startedAt, sections.size(), result.errors.size());
+        return result;
+    }
+
+    private <T> Callable<T> inTransaction(Callable<T> section) {
+        return () -> readOnlyTx.execute(status -> {
+            try {
+                return section.call();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+
+    /** Section values by name; failed sections are absent from the values and present in the errors. */
+    public static final class Sections {
+        private final Map<String, Object> values = new LinkedHashMap<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+
+        public Object get(String name) { return values.get(name); }
+        public Map<String, String> getErrors() { return errors; }
+    }
+}
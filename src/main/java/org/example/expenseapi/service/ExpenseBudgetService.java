@@ -1,18 +1,31 @@
 package org.example.expenseapi.service;
 
+import org.example.expenseapi.dto.BudgetMatrixDto;
+import org.example.expenseapi.dto.BudgetMatrixRowDto;
 import org.example.expenseapi.dto.BudgetStatus;
+import org.example.expenseapi.dto.ExpenseCategoryBudgetBulkItem;
 import org.example.expenseapi.dto.ExpenseCategoryBudgetDto;
+import org.example.expenseapi.dto.SpendProjectionDto;
+import org.example.expenseapi.model.ExpenseCategory;
 import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetBulkOperations.BudgetRow;
 import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
 import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.analytics.ExpenseColumnStore;
+import org.example.expenseapi.service.analytics.SpendVelocityTracker;
+import org.example.expenseapi.service.event.BudgetChangedEvent;
+import org.example.expenseapi.util.MoneyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Service
@@ -22,10 +35,32 @@ public class ExpenseBudgetService {
 
     private final ExpenseCategoryBudgetRepository budgetRepo;
     private final ExpenseRepository expenseRepo;
+    private final ExpenseColumnStore columnStore;
+    private final SpendVelocityTracker velocityTracker;
+    private final BudgetSpentCache spentCache;
+    private final ExpensePeriodCloseService periodCloses;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<String> auditorAware;
+    private final CategoryTreeCache categoryTree;
 
-    public ExpenseBudgetService(ExpenseCategoryBudgetRepository budgetRepo, ExpenseRepository expenseRepo) {
+    public ExpenseBudgetService(ExpenseCategoryBudgetRepository budgetRepo,
+                                ExpenseRepository expenseRepo,
+                                ExpenseColumnStore columnStore,
+                                SpendVelocityTracker velocityTracker,
+                                BudgetSpentCache spentCache,
+                                ExpensePeriodCloseService periodCloses,
+                                ApplicationEventPublisher eventPublisher,
+                                AuditorAware<String> auditorAware,
+                                CategoryTreeCache categoryTree) {
         this.budgetRepo = budgetRepo;
         this.expenseRepo = expenseRepo;
+        this.columnStore = columnStore;
+        this.velocityTracker = velocityTracker;
+        this.spentCache = spentCache;
+        this.periodCloses = periodCloses;
+        this.eventPublisher = eventPublisher;
+        this.auditorAware = auditorAware;
+        this.categoryTree = categoryTree;
     }
 
     @Transactional
@@ -39,7 +74,54 @@ public class ExpenseBudgetService {
         org.example.expenseapi.model.ExpenseCategory c = new org.example.expenseapi.model.ExpenseCategory();
         c.setId(categoryId);
         b.setCategory(c);
-        return budgetRepo.save(b);
+        ExpenseCategoryBudget saved = budgetRepo.save(b);
+        eventPublisher.publishEvent(new BudgetChangedEvent(categoryId, year, month));
+        return saved;
+    }
+
+    /**
+     * Insert or update many budgets in one transaction with set-based MERGE statements; the last entry for a
+     * category/month wins. Returns the number of budgets written.
+     */
+    @Transactional
+    public int upsertBudgets(List<ExpenseCategoryBudgetBulkItem> items) {
+        Map<String, BudgetRow> rows = new LinkedHashMap<>();
+        for (var item : items) {
+            rows.put(item.getCategoryId() + "|" + item.getYear() + "|" + item.getMonth(),
+                    new BudgetRow(item.getCategoryId(), item.getYear(), item.getMonth(), item.getBudget(), item.getAllowOverspend()));
+        }
+        int written = budgetRepo.upsertAll(rows.values(), currentAuditor());
+        for (BudgetRow r : rows.values()) {
+            eventPublisher.publishEvent(new BudgetChangedEvent(r.getCategoryId(), r.getYear(), r.getMonth()));
+        }
+        log.info("Upserted {} budgets", written);
+        return written;
+    }
+
+    /**
+     * Copy every budget of month {@code from} to month {@code to}, adjusted by {@code adjustPct} percent and rounded
+     * to cents, in one MERGE. Budgets already set in {@code to} are kept unless {@code overwrite}.
+     * Returns the number of budgets written.
+     */
+    @Transactional
+    public int rolloverBudgets(YearMonth from, YearMonth to, BigDecimal adjustPct, boolean overwrite) {
+        List<ExpenseCategoryBudget> source = budgetRepo.findByYearAndMonth(from.getYear(), from.getMonthValue());
+        if (source.isEmpty()) return 0;
+        BigDecimal factor = BigDecimal.ONE.add(adjustPct.movePointLeft(2));
+        int written = budgetRepo.rollover(from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue(),
+                factor, overwrite, currentAuditor());
+        for (var b : source) {
+            if (b.getCategory() != null) {
+                eventPublisher.publishEvent(new BudgetChangedEvent(b.getCategory().getId(), to.getYear(), to.getMonthValue()));
+            }
+        }
+        log.info("Rolled over budgets from {} to {} (adjust {}%, overwrite={}): {} written", from, to, adjustPct, overwrite, written);
+        return written;
+    }
+
+    // same auditor JPA auditing would record; the set-based writes above bypass it
+    private String currentAuditor() {
+        return auditorAware == null ? "system" : auditorAware.getCurrentAuditor().orElse("system");
     }
 
     @Transactional
@@ -48,11 +130,39 @@ public class ExpenseBudgetService {
         if (opt.isEmpty()) return null;
         var b = opt.get();
         b.setAllowOverspend(allow == null ? Boolean.FALSE : allow);
+        ExpenseCategoryBudget saved = budgetRepo.save(b);
+        if (b.getCategory() != null) {
+            eventPublisher.publishEvent(new BudgetChangedEvent(b.getCategory().getId(), b.getYear(), b.getMonth()));
+        }
+        return saved;
+    }
+
+    @Transactional
+    public ExpenseCategoryBudget setIncludeSubcategoriesForBudget(Long budgetId, Boolean include) {
+        var opt = budgetRepo.findById(budgetId);
+        if (opt.isEmpty()) return null;
+        var b = opt.get();
+        b.setIncludeSubcategories(Boolean.TRUE.equals(include));
+        ExpenseCategoryBudget saved = budgetRepo.save(b);
+        if (b.getCategory() != null) {
+            eventPublisher.publishEvent(new BudgetChangedEvent(b.getCategory().getId(), b.getYear(), b.getMonth()));
+        }
+        return saved;
+    }
+
+    // thresholds: percentages of the budget that raise an alert (see BudgetAlertService); empty disables alerts
+    @Transactional
+    public ExpenseCategoryBudget setAlertThresholdsForBudget(Long budgetId, List<Integer> thresholds) {
+        var opt = budgetRepo.findById(budgetId);
+        if (opt.isEmpty()) return null;
+        var b = opt.get();
+        b.setAlertThresholds(BudgetAlertService.formatThresholds(thresholds));
         return budgetRepo.save(b);
     }
 
     public BudgetStatus getBudgetStatus(Long categoryId, int year, int month) {
-        BigDecimal spent = sumSpentForMonth(categoryId, year, month);
+        long spentCents = sumSpentCentsForMonth(categoryId, year, month);
+        BigDecimal spent = MoneyUtils.fromMinorUnits(spentCents);
         BudgetStatus s = new BudgetStatus();
         Optional<ExpenseCategoryBudget> opt = budgetRepo.findByCategoryIdAndYearAndMonth(categoryId, year, month);
         // If there is no budget entry for this category/month, do NOT compare expenses to a budget.
@@ -62,23 +172,40 @@ public class ExpenseBudgetService {
             s.setRemaining(null);
             s.setAllowOverspend(null);
             s.setOverBudget(false); // no budget => cannot be over budget
+            if (isCurrentMonth(year, month)) {
+                s.setProjection(projectCurrentMonth(Map.of(categoryId, spentCents), Map.of()).get(categoryId));
+            }
             log.debug("getBudgetStatus: categoryId={} year={} month={} -> NO BUDGET (spent={}), overBudget=false", categoryId, year, month, spent);
             return s;
         }
 
-        // Budget exists: compute normally
+        // Budget exists: compute normally, over the whole subtree when it includes subcategories
+        if (opt.get().getIncludeSubcategories() && categoryTree != null) {
+            List<Long> subtree = categoryTree.subtreeIds(categoryId);
+            if (subtree.size() > 1) {
+                spentCents = 0L;
+                for (long cents : sumSpentCentsByCategory(subtree, LocalDate.of(year, month, 1), YearMonth.of(year, month).atEndOfMonth()).values()) {
+                    spentCents = MoneyUtils.add(spentCents, cents);
+                }
+                spent = MoneyUtils.fromMinorUnits(spentCents);
+            }
+        }
         BigDecimal budget = opt.map(ExpenseCategoryBudget::getBudget).orElse(BigDecimal.ZERO);
+        long budgetCents = MoneyUtils.toMinorUnitsRounded(budget);
         s.setBudget(budget);
         s.setSpent(spent);
-        s.setRemaining(budget.subtract(spent));
+        s.setRemaining(MoneyUtils.fromMinorUnits(Math.subtractExact(budgetCents, spentCents)));
         boolean allow = opt.map(ExpenseCategoryBudget::getAllowOverspend).orElse(Boolean.TRUE);
         boolean over = false;
         if (!allow) {
             // only compare if overspend is NOT allowed
-            over = spent.compareTo(budget) > 0;
+            over = spentCents > budgetCents;
         }
         s.setOverBudget(over);
         s.setAllowOverspend(allow);
+        if (isCurrentMonth(year, month)) {
+            s.setProjection(projectCurrentMonth(Map.of(categoryId, spentCents), Map.of(categoryId, opt.get())).get(categoryId));
+        }
         log.debug("getBudgetStatus: categoryId={}, year={}, month={}, budget={}, spent={}, allowOverspend={}, overBudget={}", categoryId, year, month, budget, spent, allow, over);
         return s;
     }
@@ -88,30 +215,40 @@ public class ExpenseBudgetService {
         return budgetRepo.findByCategoryIdAndYearAndMonth(categoryId, year, month);
     }
 
-    public boolean isWithinBudgetForNewExpense(Long categoryId, LocalDate expenseDate, BigDecimal amount) {
-        YearMonth ym = YearMonth.from(expenseDate);
-        Optional<ExpenseCategoryBudget> budgetOpt = budgetRepo.findByCategoryIdAndYearAndMonth(categoryId, ym.getYear(), ym.getMonthValue());
-        if (budgetOpt.isEmpty()) {
-            return true; // no budget set => allow
-        }
-        ExpenseCategoryBudget b = budgetOpt.get();
-        BigDecimal budget = b.getBudget();
-        // if allowOverspend is true for this budget, allow creating expenses beyond the budget
-        if (b.getAllowOverspend() != null && b.getAllowOverspend()) {
-            return true;
-        }
-        BigDecimal spent = sumSpentForMonth(categoryId, ym.getYear(), ym.getMonthValue());
-        return spent.add(amount).compareTo(budget) <= 0;
-    }
-
     public List<ExpenseCategoryBudget> findBudgetsForCategory(Long categoryId) {
         return budgetRepo.findByCategoryIdOrderByYearAscMonthAsc(categoryId);
     }
 
+    public List<ExpenseCategoryBudget> findBudgetsForCategory(Long categoryId, BudgetWindow window) {
+        return findBudgetsForCategories(List.of(categoryId), window).getOrDefault(categoryId, List.of());
+    }
+
+    /**
+     * Budgets of the categories within the window, oldest first, keyed by category id (categories without budgets
+     * in the window are absent). One query for all categories; none for {@link BudgetWindow#none()}.
+     */
+    public Map<Long, List<ExpenseCategoryBudget>> findBudgetsForCategories(Collection<Long> categoryIds, BudgetWindow window) {
+        Map<Long, List<ExpenseCategoryBudget>> result = new HashMap<>();
+        if (window.isNone() || categoryIds == null) return result;
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(categoryIds));
+        ids.removeIf(Objects::isNull);
+        if (ids.isEmpty()) return result;
+        var budgets = new ArrayList<>(budgetRepo.findByCategoryIdInAndMonthRange(ids, window.getFrom().getYear(),
+                window.getFrom().getMonthValue(), window.getTo().getYear(), window.getTo().getMonthValue()));
+        budgets.sort(Comparator.comparingInt(ExpenseCategoryBudget::getYear).thenComparingInt(ExpenseCategoryBudget::getMonth));
+        for (var b : budgets) {
+            if (b.getCategory() == null || b.getCategory().getId() == null) continue;
+            result.computeIfAbsent(b.getCategory().getId(), id -> new ArrayList<>()).add(b);
+        }
+        return result;
+    }
+
     @Transactional
     public void deleteBudget(Long categoryId, int year, int month) {
         var opt = budgetRepo.findByCategoryIdAndYearAndMonth(categoryId, year, month);
-        opt.ifPresent(budgetRepo::delete);
+        if (opt.isEmpty()) return;
+        budgetRepo.delete(opt.get());
+        eventPublisher.publishEvent(new BudgetChangedEvent(categoryId, year, month));
     }
 
     public List<ExpenseCategoryBudgetDto> findBudgetsForCategoryDto(Long categoryId) {
@@ -121,6 +258,8 @@ public class ExpenseBudgetService {
             var dto = new ExpenseCategoryBudgetDto();
             dto.setYear(b.getYear()); dto.setMonth(b.getMonth()); dto.setBudget(b.getBudget());
             dto.setAllowOverspend(b.getAllowOverspend());
+            dto.setIncludeSubcategories(b.getIncludeSubcategories());
+            if (b.getAlertThresholds() != null) dto.setAlertThresholds(BudgetAlertService.parseThresholds(b.getAlertThresholds()));
             res.add(dto);
         }
         return res;
@@ -144,37 +283,47 @@ public class ExpenseBudgetService {
         java.time.LocalDate start = java.time.LocalDate.of(year, month, 1);
         java.time.LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
 
-        // 1) Fetch sums per category in the date range
-        var sums = expenseRepo.sumAmountGroupedByCategoryBetween(start, end, ids);
-        Map<Long, java.math.BigDecimal> spentMap = new HashMap<>();
-        if (sums != null) {
-            for (Object[] row : sums) {
-                Long catId = row[0] == null ? null : ((Number) row[0]).longValue();
-                java.math.BigDecimal sum = row[1] == null ? java.math.BigDecimal.ZERO : (java.math.BigDecimal) row[1];
-                if (catId != null) spentMap.put(catId, sum);
-            }
-        }
+        // 1) Fetch sums per category in the date range (from the column store or the spent cache when available)
+        Map<Long, Long> spentMap = sumSpentCentsByCategory(ids, start, end);
 
         // 2) Fetch budgets for the categories for the same period
-        var budgets = budgetRepo.findByCategoryIdInAndYearAndMonth(ids, year, month);
         Map<Long, org.example.expenseapi.model.ExpenseCategoryBudget> budgetMap = new HashMap<>();
-        if (budgets != null) {
-            for (var b : budgets) {
-                if (b.getCategory() != null && b.getCategory().getId() != null) {
-                    budgetMap.put(b.getCategory().getId(), b);
+        if (spentCache != null && spentCache.isEnabled()) {
+            // already cached by step 1 unless the column store answered it
+            for (var e : spentCache.get(ids, YearMonth.of(year, month)).entrySet()) {
+                if (e.getValue().hasBudget()) budgetMap.put(e.getKey(), budgetOf(e.getValue()));
+            }
+        } else {
+            var budgets = budgetRepo.findByCategoryIdInAndYearAndMonth(ids, year, month);
+            if (budgets != null) {
+                for (var b : budgets) {
+                    if (b.getCategory() != null && b.getCategory().getId() != null) {
+                        budgetMap.put(b.getCategory().getId(), b);
+                    }
                 }
             }
         }
 
+        rollUpSpent(spentMap, budgetMap, start, end);
+
+        Map<Long, SpendProjectionDto> projections = Map.of();
+        if (isCurrentMonth(year, month)) {
+            Map<Long, Long> spentForAll = new LinkedHashMap<>();
+            for (Long cid : ids) spentForAll.put(cid, spentMap.getOrDefault(cid, 0L));
+            projections = projectCurrentMonth(spentForAll, budgetMap);
+        }
+
         // Debug logs to help trace mismatched values
         log.debug("getBudgetStatusForCategories: year={}, month={}, requestedIds={}, spentMap={}, budgetMapKeys={}", year, month, ids, spentMap, budgetMap.keySet());
 
         // 3) Compose BudgetStatus for each requested category
         for (Long cid : ids) {
             BudgetStatus s = new BudgetStatus();
-            java.math.BigDecimal spent = spentMap.getOrDefault(cid, java.math.BigDecimal.ZERO);
+            long spentCents = spentMap.getOrDefault(cid, 0L);
+            java.math.BigDecimal spent = MoneyUtils.fromMinorUnits(spentCents);
             var optB = java.util.Optional.ofNullable(budgetMap.get(cid));
             // If no budget entity exists for this category/month, do not compare expenses
+            s.setProjection(projections.get(cid));
             if (optB.isEmpty()) {
                 s.setBudget(null);
                 s.setSpent(spent);
@@ -187,13 +336,14 @@ public class ExpenseBudgetService {
             }
 
             java.math.BigDecimal budget = optB.map(org.example.expenseapi.model.ExpenseCategoryBudget::getBudget).orElse(java.math.BigDecimal.ZERO);
+            long budgetCents = MoneyUtils.toMinorUnitsRounded(budget);
             s.setBudget(budget);
             s.setSpent(spent);
-            s.setRemaining(budget.subtract(spent));
+            s.setRemaining(MoneyUtils.fromMinorUnits(Math.subtractExact(budgetCents, spentCents)));
             boolean allowLocal = optB.map(org.example.expenseapi.model.ExpenseCategoryBudget::getAllowOverspend).orElse(Boolean.TRUE);
             boolean overLocal = false;
             if (!allowLocal) {
-                overLocal = spent.compareTo(budget) > 0;
+                overLocal = spentCents > budgetCents;
             }
             s.setOverBudget(overLocal);
             s.setAllowOverspend(allowLocal);
@@ -204,10 +354,205 @@ public class ExpenseBudgetService {
          return result;
      }
 
-    private BigDecimal sumSpentForMonth(Long categoryId, int year, int month) {
+    /**
+     * Budget status of each category for every month from {@code from} to {@code to}: one grouped sum over the whole
+     * range (closed months are read from their snapshots) and one budget query, instead of a pair per month.
+     */
+    public BudgetMatrixDto getBudgetMatrix(List<ExpenseCategory> categories, YearMonth from, YearMonth to) {
+        int months = (int) from.until(to, ChronoUnit.MONTHS) + 1;
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Integer> rowOf = new HashMap<>();
+        for (ExpenseCategory c : categories) {
+            rowOf.put(c.getId(), ids.size());
+            ids.add(c.getId());
+        }
+
+        long[][] spent = new long[ids.size()][months];
+        // spent of every category, kept for budgets that include subcategories outside the requested rows
+        Map<Long, long[]> spentOf = new HashMap<>();
+        for (long[] r : periodCloses.countAndSumByCategoryAndMonth(from.atDay(1), to.atEndOfMonth())) {
+            int col = (int) from.until(YearMonth.of((int) r[1], (int) r[2]), ChronoUnit.MONTHS);
+            long[] all = spentOf.computeIfAbsent(r[0], id -> new long[months]);
+            all[col] = MoneyUtils.add(all[col], r[4]);
+            Integer row = rowOf.get(r[0]);
+            if (row == null) continue;
+            spent[row][col] = MoneyUtils.add(spent[row][col], r[4]);
+        }
+        ExpenseCategoryBudget[][] budgets = new ExpenseCategoryBudget[ids.size()][months];
+        if (!ids.isEmpty()) {
+            for (var b : budgetRepo.findByCategoryIdInAndMonthRange(ids, from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue())) {
+                Integer row = b.getCategory() == null ? null : rowOf.get(b.getCategory().getId());
+                if (row == null) continue;
+                budgets[row][(int) from.until(YearMonth.of(b.getYear(), b.getMonth()), ChronoUnit.MONTHS)] = b;
+            }
+        }
+        if (categoryTree != null) {
+            for (int i = 0; i < ids.size(); i++) {
+                List<Long> subtree = null;
+                for (int m = 0; m < months; m++) {
+                    if (budgets[i][m] == null || !budgets[i][m].getIncludeSubcategories()) continue;
+                    if (subtree == null) subtree = categoryTree.subtreeIds(ids.get(i));
+                    long cents = 0L;
+                    for (Long id : subtree) {
+                        long[] all = spentOf.get(id);
+                        if (all != null) cents = MoneyUtils.add(cents, all[m]);
+                    }
+                    spent[i][m] = cents;
+                }
+            }
+        }
+
+        List<BudgetMatrixRowDto> rows = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            BudgetMatrixRowDto row = new BudgetMatrixRowDto();
+            row.setCategoryId(ids.get(i));
+            row.setCategoryName(categories.get(i).getName());
+            row.setBudget(new BigDecimal[months]);
+            row.setSpent(new BigDecimal[months]);
+            row.setRemaining(new BigDecimal[months]);
+            row.setAllowOverspend(new Boolean[months]);
+            row.setOverBudget(new boolean[months]);
+            for (int m = 0; m < months; m++) {
+                row.getSpent()[m] = MoneyUtils.fromMinorUnits(spent[i][m]);
+                ExpenseCategoryBudget b = budgets[i][m];
+                if (b == null) continue; // no budget => not compared, as in getBudgetStatus
+                long budgetCents = MoneyUtils.toMinorUnitsRounded(b.getBudget());
+                boolean allow = b.getAllowOverspend() == null || b.getAllowOverspend();
+                row.getBudget()[m] = b.getBudget();
+                row.getRemaining()[m] = MoneyUtils.fromMinorUnits(Math.subtractExact(budgetCents, spent[i][m]));
+                row.getAllowOverspend()[m] = allow;
+                row.getOverBudget()[m] = !allow && spent[i][m] > budgetCents;
+            }
+            rows.add(row);
+        }
+
+        List<String> monthLabels = new ArrayList<>();
+        for (int m = 0; m < months; m++) monthLabels.add(from.plusMonths(m).toString());
+        BudgetMatrixDto dto = new BudgetMatrixDto();
+        dto.setFrom(from.toString());
+        dto.setTo(to.toString());
+        dto.setMonths(monthLabels);
+        dto.setRows(rows);
+        return dto;
+    }
+
+    /**
+     * Spend velocity and month-end projection for the current month, for every category with a budget this month
+     * (or only {@code categoryId} when given, with or without a budget).
+     *
+     * @param atRiskOnly keep only categories projected to exceed their budget
+     */
+    public List<SpendProjectionDto> getProjections(Long categoryId, boolean atRiskOnly) {
+        YearMonth ym = YearMonth.now();
+        Map<Long, ExpenseCategoryBudget> budgetMap = new HashMap<>();
+        List<ExpenseCategoryBudget> budgets = categoryId != null
+                ? budgetRepo.findByCategoryIdAndYearAndMonth(categoryId, ym.getYear(), ym.getMonthValue()).map(List::of).orElse(List.of())
+                : budgetRepo.findByYearAndMonth(ym.getYear(), ym.getMonthValue());
+        for (var b : budgets) {
+            if (b.getCategory() != null && b.getCategory().getId() != null) budgetMap.put(b.getCategory().getId(), b);
+        }
+        List<Long> ids = categoryId != null ? List.of(categoryId) : new ArrayList<>(new TreeSet<>(budgetMap.keySet()));
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        Map<Long, Long> spentMap = sumSpentCentsByCategory(ids, ym.atDay(1), ym.atEndOfMonth());
+        Map<Long, Long> spentForAll = new LinkedHashMap<>();
+        for (Long cid : ids) spentForAll.put(cid, spentMap.getOrDefault(cid, 0L));
+
+        List<SpendProjectionDto> res = new ArrayList<>();
+        for (SpendProjectionDto p : projectCurrentMonth(spentForAll, budgetMap).values()) {
+            if (atRiskOnly && !Boolean.TRUE.equals(p.getProjectedOverBudget())) continue;
+            res.add(p);
+        }
+        return res;
+    }
+
+    private static boolean isCurrentMonth(int year, int month) {
+        return YearMonth.of(year, month).equals(YearMonth.now());
+    }
+
+    // Velocity and projection per category, compared with the budget where the category has one
+    private Map<Long, SpendProjectionDto> projectCurrentMonth(Map<Long, Long> spentCents, Map<Long, ExpenseCategoryBudget> budgets) {
+        Map<Long, SpendProjectionDto> projections = velocityTracker.project(spentCents, LocalDate.now());
+        for (var e : projections.entrySet()) {
+            ExpenseCategoryBudget b = budgets.get(e.getKey());
+            if (b == null || b.getBudget() == null) continue;
+            SpendProjectionDto p = e.getValue();
+            long budgetCents = MoneyUtils.toMinorUnitsRounded(b.getBudget());
+            long projectedCents = MoneyUtils.toMinorUnitsRounded(p.getEwmaProjection());
+            p.setBudget(b.getBudget());
+            p.setProjectedRemaining(MoneyUtils.fromMinorUnits(Math.subtractExact(budgetCents, projectedCents)));
+            p.setProjectedOverBudget(projectedCents > budgetCents);
+        }
+        return projections;
+    }
+
+    // Value holder for a cached budget (not persisted)
+    private static ExpenseCategoryBudget budgetOf(BudgetSpentCache.Entry e) {
+        ExpenseCategoryBudget b = new ExpenseCategoryBudget();
+        b.setBudget(e.getBudget());
+        b.setAllowOverspend(e.getAllowOverspend());
+        b.setIncludeSubcategories(e.isIncludeSubcategories());
+        return b;
+    }
+
+    // Replace the spent of budgets that include subcategories by the spent of their whole subtree; descendants not
+    // already summed are fetched in one more batch
+    private void rollUpSpent(Map<Long, Long> spentMap, Map<Long, ExpenseCategoryBudget> budgetMap, LocalDate start, LocalDate end) {
+        if (categoryTree == null) return;
+        Map<Long, List<Long>> subtrees = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (var e : budgetMap.entrySet()) {
+            if (!e.getValue().getIncludeSubcategories()) continue;
+            List<Long> subtree = categoryTree.subtreeIds(e.getKey());
+            if (subtree.size() < 2) continue;
+            subtrees.put(e.getKey(), subtree);
+            for (Long id : subtree) if (!spentMap.containsKey(id)) missing.add(id);
+        }
+        if (subtrees.isEmpty()) return;
+        Map<Long, Long> own = new HashMap<>(spentMap);
+        if (!missing.isEmpty()) own.putAll(sumSpentCentsByCategory(new ArrayList<>(missing), start, end));
+        for (var e : subtrees.entrySet()) {
+            long cents = 0L;
+            for (Long id : e.getValue()) cents = MoneyUtils.add(cents, own.getOrDefault(id, 0L));
+            spentMap.put(e.getKey(), cents);
+        }
+    }
+
+    // Spent cents per category in the date range (a calendar month), from the column store when it is loaded,
+    // else from the spent cache when enabled
+    private Map<Long, Long> sumSpentCentsByCategory(List<Long> ids, LocalDate start, LocalDate end) {
+        Map<Long, Long> spentMap = new HashMap<>();
+        if (columnStore != null && columnStore.isReady()) {
+            spentMap.putAll(columnStore.sumByCategory(start, end, ids));
+            return spentMap;
+        }
+        if (spentCache != null && spentCache.isEnabled()) {
+            spentCache.get(ids, YearMonth.from(start)).forEach((id, e) -> spentMap.put(id, e.getSpentCents()));
+            return spentMap;
+        }
+        var sums = expenseRepo.sumAmountGroupedByCategoryBetween(start, end, ids);
+        if (sums != null) {
+            for (Object[] row : sums) {
+                Long catId = row[0] == null ? null : ((Number) row[0]).longValue();
+                long sum = row[1] == null ? 0L : MoneyUtils.toMinorUnitsRounded((java.math.BigDecimal) row[1]);
+                if (catId != null) spentMap.put(catId, sum);
+            }
+        }
+        return spentMap;
+    }
+
+    // Spent amount for the category/month in cents
+    private long sumSpentCentsForMonth(Long categoryId, int year, int month) {
         LocalDate start = LocalDate.of(year, month, 1);
         LocalDate end = start.withDayOfMonth(start.lengthOfMonth());
+        if (columnStore != null && columnStore.isReady()) {
+            Long cents = columnStore.sumByCategory(start, end, List.of(categoryId)).get(categoryId);
+            return cents == null ? 0L : cents;
+        }
+        if (spentCache != null && spentCache.isEnabled()) {
+            return spentCache.get(categoryId, YearMonth.of(year, month)).getSpentCents();
+        }
         BigDecimal sum = expenseRepo.sumAmountByCategoryAndDateBetween(categoryId, start, end);
-        return sum == null ? BigDecimal.ZERO : sum;
+        return MoneyUtils.toMinorUnitsRounded(sum);
     }
 }
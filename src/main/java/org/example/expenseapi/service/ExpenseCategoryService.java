@@ -2,15 +2,19 @@ package org.example.expenseapi.service;
 
 import org.example.expenseapi.model.ExpenseCategory;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ExpenseCategoryService {
     ExpenseCategory createExpenseCategory(ExpenseCategory category);
     ExpenseCategory updateExpenseCategory(Long id, ExpenseCategory category);
+    ExpenseCategory toggleStatus(Long id);
     void deleteExpenseCategory(Long id);
     Optional<ExpenseCategory> findById(Long id);
     List<ExpenseCategory> findAll();
+    List<ExpenseCategory> findChildren(Long parentId);
+    List<Long> findMissingIds(Collection<Long> ids);
     Optional<ExpenseCategory> findByName(String name);
 }
 
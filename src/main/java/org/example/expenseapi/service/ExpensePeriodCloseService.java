@@ -0,0 +1,266 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseMonthSnapshot;
+import org.example.expenseapi.model.ExpensePeriodClose;
+import org.example.expenseapi.model.ExpensePeriodLock;
+import org.example.expenseapi.repository.ExpenseMonthSnapshotRepository;
+import org.example.expenseapi.repository.ExpensePeriodCloseRepository;
+import org.example.expenseapi.repository.ExpensePeriodLockRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Month close: freezes an accounting month so its expenses become read-only, and stores per-category totals of it
+ * ({@link ExpenseMonthSnapshot}) that reports read instead of re-aggregating the month.
+ *
+ * {@link #countAndSumByCategoryAndMonth} combines those snapshots with live aggregates of the open months only, so
+ * a report over years of closed history costs about as much as one over the open months. Snapshots are immutable;
+ * once read they are kept in memory, keyed by the id of their close so a reopen + close on another node is noticed.
+ *
+ * Writes and the close are serialized per month on an {@link ExpensePeriodLock} row: writers hold it shared until
+ * they commit, the close holds it exclusively while it snapshots the month. A close therefore waits for the writes
+ * already in flight and snapshots them, and writes that arrive meanwhile wait for the close and are then rejected.
+ * The row also carries the month's closed flag, so a writer checks and locks its month with one query. Rows for the
+ * months around today are created ahead of time by {@link ExpensePeriodLockBackfill}; others on first use.
+ */
+@Service
+public class ExpensePeriodCloseService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpensePeriodCloseService.class);
+
+    private final ExpensePeriodCloseRepository closeRepo;
+    private final ExpenseMonthSnapshotRepository snapshotRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpensePeriodLockRepository lockRepo;
+    // lock rows missing on first use are created in their own transaction, so a concurrent creator's duplicate does
+    // not abort the caller's
+    private final TransactionTemplate newTx;
+    // monthIndex -> snapshot totals of a closed month
+    private final Map<Integer, FrozenMonth> frozenMonths = new ConcurrentHashMap<>();
+
+    public ExpensePeriodCloseService(ExpensePeriodCloseRepository closeRepo,
+                                     ExpenseMonthSnapshotRepository snapshotRepo,
+                                     ExpenseRepository expenseRepo,
+                                     ExpensePeriodLockRepository lockRepo,
+                                     PlatformTransactionManager txManager) {
+        this.closeRepo = closeRepo;
+        this.snapshotRepo = snapshotRepo;
+        this.expenseRepo = expenseRepo;
+        this.lockRepo = lockRepo;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<ExpensePeriodClose> findAll() {
+        return closeRepo.findAllByOrderByYearDescMonthDesc();
+    }
+
+    public Optional<ExpensePeriodClose> find(YearMonth month) {
+        return closeRepo.findByYearAndMonth(month.getYear(), month.getMonthValue());
+    }
+
+    public List<ExpenseMonthSnapshot> findSnapshots(YearMonth month) {
+        return snapshotRepo.findByYearAndMonth(month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * Check that the months of the given dates are open and keep them open until the caller's transaction ends:
+     * each month's lock row is read with its closed flag and held shared, so a concurrent close waits for the caller
+     * to commit. Months are locked in calendar order, so writers touching two months cannot deadlock with each other.
+     *
+     * @throws ClosedPeriodException when the month of one of the dates is closed
+     */
+    @Transactional
+    public void checkOpen(LocalDate... dates) {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (LocalDate d : dates) if (d != null) months.add(YearMonth.from(d));
+        for (YearMonth month : months) {
+            if (isClosed(month, lockMonth(month, false))) throw new ClosedPeriodException(month);
+        }
+    }
+
+    /**
+     * Close a past month and snapshot its per-category totals.
+     *
+     * @throws IllegalArgumentException when the month has not ended yet
+     * @throws IllegalStateException when the month is already closed
+     */
+    @Transactional
+    public ExpensePeriodClose close(YearMonth month) {
+        if (!month.atEndOfMonth().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Only months that have ended can be closed");
+        }
+        // waits for the writers of the month to commit; new ones wait for this close
+        ExpensePeriodLock lock = lockMonth(month, true);
+        if (isClosed(month, lock)) {
+            throw new IllegalStateException("Accounting period " + month + " is already closed");
+        }
+
+        // writes that waited for the month lock read the flag once this commits, and are rejected
+        lock.setClosed(true);
+        lockRepo.save(lock);
+        ExpensePeriodClose close = new ExpensePeriodClose();
+        close.setYear(month.getYear());
+        close.setMonth(month.getMonthValue());
+        close.setExpenseCount(0L);
+        close.setAmount(BigDecimal.ZERO);
+        close = closeRepo.saveAndFlush(close);
+
+        long count = 0L;
+        long cents = 0L;
+        List<ExpenseMonthSnapshot> snapshots = new ArrayList<>();
+        for (Object[] r : expenseRepo.countAndSumGroupedByCategoryAndMonthBetween(month.atDay(1), month.atEndOfMonth())) {
+            if (r[0] == null) continue;
+            ExpenseMonthSnapshot s = new ExpenseMonthSnapshot();
+            s.setYear(month.getYear());
+            s.setMonth(month.getMonthValue());
+            s.setCategoryId(((Number) r[0]).longValue());
+            s.setExpenseCount(((Number) r[3]).longValue());
+            s.setAmount(MoneyUtils.fromMinorUnits(MoneyUtils.toMinorUnitsRounded((BigDecimal) r[4])));
+            snapshots.add(s);
+            count += s.getExpenseCount();
+            cents = MoneyUtils.add(cents, MoneyUtils.toMinorUnitsRounded(s.getAmount()));
+        }
+        snapshotRepo.saveAll(snapshots);
+
+        close.setExpenseCount(count);
+        close.setAmount(MoneyUtils.fromMinorUnits(cents));
+        close = closeRepo.save(close);
+        log.info("Closed accounting period {}: {} expenses, {} categories, total {}", month, count, snapshots.size(), close.getAmount());
+        return close;
+    }
+
+    /** Reopen a closed month, dropping its snapshots. Returns false when it was not closed. */
+    @Transactional
+    public boolean reopen(YearMonth month) {
+        // serialized with close() and with the writers of the month, like close() itself
+        ExpensePeriodLock lock = lockMonth(month, true);
+        Optional<ExpensePeriodClose> close = find(month);
+        if (close.isEmpty()) return false;
+        lock.setClosed(false);
+        lockRepo.save(lock);
+        snapshotRepo.deleteByYearAndMonth(month.getYear(), month.getMonthValue());
+        closeRepo.delete(close.get());
+        frozenMonths.remove(monthIndex(month));
+        log.info("Reopened accounting period {}", month);
+        return true;
+    }
+
+    /**
+     * Count and sum (in cents) per category and calendar month for expenses dated within [start, end]:
+     * rows of {categoryId, year, month, count, sum}. Closed months that lie entirely inside the range come from
+     * their snapshots; the remaining runs of open months are aggregated with one grouped query each.
+     */
+    @Transactional(readOnly = true)
+    public List<long[]> countAndSumByCategoryAndMonth(LocalDate start, LocalDate end) {
+        List<long[]> rows = new ArrayList<>();
+        if (start.isAfter(end)) return rows;
+
+        Map<Integer, ExpensePeriodClose> closed = new HashMap<>();
+        for (ExpensePeriodClose c : closeRepo.findAll()) closed.put(c.getYear() * 12 + (c.getMonth() - 1), c);
+
+        LocalDate runStart = null;
+        YearMonth last = YearMonth.from(end);
+        for (YearMonth m = YearMonth.from(start); !m.isAfter(last); m = m.plusMonths(1)) {
+            ExpensePeriodClose close = closed.get(monthIndex(m));
+            boolean frozen = close != null && !m.atDay(1).isBefore(start) && !m.atEndOfMonth().isAfter(end);
+            if (frozen) {
+                if (runStart != null) {
+                    addLive(rows, runStart, m.minusMonths(1).atEndOfMonth());
+                    runStart = null;
+                }
+                for (Map.Entry<Long, long[]> e : frozenMonth(m, close).byCategory.entrySet()) {
+                    long[] t = e.getValue();
+                    rows.add(new long[]{e.getKey(), m.getYear(), m.getMonthValue(), t[0], t[1]});
+                }
+            } else if (runStart == null) {
+                runStart = m.atDay(1).isBefore(start) ? start : m.atDay(1);
+            }
+        }
+        if (runStart != null) addLive(rows, runStart, end);
+        return rows;
+    }
+
+    private ExpensePeriodLock lockMonth(YearMonth month, boolean exclusive) {
+        Optional<ExpensePeriodLock> lock = lockMonthRow(month, exclusive);
+        if (lock.isPresent()) return lock.get();
+        try {
+            newTx.executeWithoutResult(status -> {
+                if (lockRepo.existsByYearAndMonth(month.getYear(), month.getMonthValue())) return;
+                ExpensePeriodLock row = new ExpensePeriodLock();
+                row.setYear(month.getYear());
+                row.setMonth(month.getMonthValue());
+                row.setClosed(closeRepo.existsByYearAndMonth(month.getYear(), month.getMonthValue()));
+                lockRepo.saveAndFlush(row);
+            });
+        } catch (DataIntegrityViolationException ignored) {
+            // created concurrently
+        }
+        return lockMonthRow(month, exclusive).orElseThrow(
+                () -> new IllegalStateException("Lock row of accounting period " + month + " is missing"));
+    }
+
+    private Optional<ExpensePeriodLock> lockMonthRow(YearMonth month, boolean exclusive) {
+        return exclusive ? lockRepo.lockExclusive(month.getYear(), month.getMonthValue())
+                : lockRepo.lockShared(month.getYear(), month.getMonthValue());
+    }
+
+    // rows that predate the flag fall back to the close table until the backfill has set it
+    private boolean isClosed(YearMonth month, ExpensePeriodLock lock) {
+        if (lock.getClosed() != null) return lock.getClosed();
+        return closeRepo.existsByYearAndMonth(month.getYear(), month.getMonthValue());
+    }
+
+    private void addLive(List<long[]> rows, LocalDate start, LocalDate end) {
+        for (Object[] r : expenseRepo.countAndSumGroupedByCategoryAndMonthBetween(start, end)) {
+            if (r[0] == null) continue;
+            rows.add(new long[]{((Number) r[0]).longValue(), ((Number) r[1]).intValue(), ((Number) r[2]).intValue(),
+                    ((Number) r[3]).longValue(), MoneyUtils.toMinorUnitsRounded((BigDecimal) r[4])});
+        }
+    }
+
+    private FrozenMonth frozenMonth(YearMonth month, ExpensePeriodClose close) {
+        FrozenMonth cached = frozenMonths.get(monthIndex(month));
+        if (cached != null && cached.closeId.equals(close.getId())) return cached;
+        Map<Long, long[]> byCategory = new HashMap<>();
+        for (ExpenseMonthSnapshot s : findSnapshots(month)) {
+            byCategory.put(s.getCategoryId(), new long[]{s.getExpenseCount(), MoneyUtils.toMinorUnitsRounded(s.getAmount())});
+        }
+        FrozenMonth loaded = new FrozenMonth(close.getId(), byCategory);
+        frozenMonths.put(monthIndex(month), loaded);
+        return loaded;
+    }
+
+    private static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + (month.getMonthValue() - 1);
+    }
+
+    private static final class FrozenMonth {
+        final Long closeId;
+        final Map<Long, long[]> byCategory; // categoryId -> {count, sum in cents}
+
+        FrozenMonth(Long closeId, Map<Long, long[]> byCategory) {
+            this.closeId = closeId;
+            this.byCategory = byCategory;
+        }
+    }
+}
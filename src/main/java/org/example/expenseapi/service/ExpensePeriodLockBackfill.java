@@ -0,0 +1,125 @@
+package org.example.expenseapi.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.expenseapi.model.ExpensePeriodClose;
+import org.example.expenseapi.model.ExpensePeriodLock;
+import org.example.expenseapi.repository.ExpensePeriodCloseRepository;
+import org.example.expenseapi.repository.ExpensePeriodLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the month lock rows of {@link ExpensePeriodCloseService} ahead of time, for the months around today and
+ * for every closed month, so expense writers find their row and do not have to create it on the request path.
+ * Also sets the closed flag on rows that predate it.
+ *
+ * Runs once the application is up and then daily. Nodes starting together may race on the same rows; the loser's
+ * inserts roll back and the winner's rows are used.
+ */
+@Component
+public class ExpensePeriodLockBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpensePeriodLockBackfill.class);
+
+    private final ExpensePeriodLockRepository lockRepo;
+    private final ExpensePeriodCloseRepository closeRepo;
+    private final TransactionTemplate tx;
+    private final int monthsBack;
+    private final int monthsAhead;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "period-lock-backfill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ExpensePeriodLockBackfill(ExpensePeriodLockRepository lockRepo, ExpensePeriodCloseRepository closeRepo,
+                                     PlatformTransactionManager txManager,
+                                     @Value("${app.periods.locks.months-back:24}") int monthsBack,
+                                     @Value("${app.periods.locks.months-ahead:12}") int monthsAhead) {
+        this.lockRepo = lockRepo;
+        this.closeRepo = closeRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.monthsBack = Math.max(0, monthsBack);
+        this.monthsAhead = Math.max(0, monthsAhead);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduler.scheduleWithFixedDelay(this::backfillQuietly, 0, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void backfillQuietly() {
+        try {
+            backfill(YearMonth.now());
+        } catch (RuntimeException ex) {
+            log.error("Failed to create accounting period lock rows: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /** @return the number of lock rows created */
+    public int backfill(YearMonth today) {
+        tx.executeWithoutResult(status -> {
+            List<ExpensePeriodLock> unflagged = lockRepo.findByClosedIsNull();
+            if (unflagged.isEmpty()) return;
+            Set<YearMonth> closed = closedMonths();
+            for (ExpensePeriodLock l : unflagged) {
+                lockRepo.initClosed(l.getId(), closed.contains(YearMonth.of(l.getYear(), l.getMonth())));
+            }
+            log.info("Set the closed flag on {} accounting period lock rows", unflagged.size());
+        });
+        try {
+            Integer created = tx.execute(status -> {
+                Set<YearMonth> existing = new HashSet<>();
+                for (ExpensePeriodLock l : lockRepo.findAll()) existing.add(YearMonth.of(l.getYear(), l.getMonth()));
+                Set<YearMonth> closed = closedMonths();
+                Set<YearMonth> wanted = new HashSet<>(closed);
+                for (YearMonth m = today.minusMonths(monthsBack); !m.isAfter(today.plusMonths(monthsAhead)); m = m.plusMonths(1)) {
+                    wanted.add(m);
+                }
+                wanted.removeAll(existing);
+                List<ExpensePeriodLock> rows = new ArrayList<>();
+                for (YearMonth m : wanted) {
+                    ExpensePeriodLock row = new ExpensePeriodLock();
+                    row.setYear(m.getYear());
+                    row.setMonth(m.getMonthValue());
+                    row.setClosed(closed.contains(m));
+                    rows.add(row);
+                }
+                lockRepo.saveAllAndFlush(rows);
+                return rows.size();
+            });
+            if (created != null && created > 0) log.info("Created {} accounting period lock rows", created);
+            return created == null ? 0 : created;
+        } catch (DataIntegrityViolationException ex) {
+            log.info("Accounting period lock rows were created concurrently; next run fills any gap");
+            return 0;
+        }
+    }
+
+    private Set<YearMonth> closedMonths() {
+        Set<YearMonth> closed = new HashSet<>();
+        for (ExpensePeriodClose c : closeRepo.findAll()) closed.add(YearMonth.of(c.getYear(), c.getMonth()));
+        return closed;
+    }
+}
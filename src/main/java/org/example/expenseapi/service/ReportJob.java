@@ -0,0 +1,87 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.dto.YearlyExpenseDto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of a single asynchronous report job. Mutated only by the worker running it;
+ * readers (status / result endpoints) see a consistent view through the volatile fields.
+ */
+public class ReportJob {
+
+    private final String id;
+    private final String definitionKey;
+    private final String requestedBy;
+    private final int fromYear;
+    private final int toYear;
+    private final List<Long> categoryIds;
+    private final int totalSteps;
+    private final AtomicInteger completedSteps = new AtomicInteger();
+    private final Instant submittedAt = Instant.now();
+
+    private volatile ReportJobStatus status = ReportJobStatus.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile List<YearlyExpenseDto> result;
+    private volatile String error;
+
+    public ReportJob(String id, String definitionKey, String requestedBy, int fromYear, int toYear, List<Long> categoryIds) {
+        this.id = id;
+        this.definitionKey = definitionKey;
+        this.requestedBy = requestedBy;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.categoryIds = categoryIds;
+        // one step per calendar year of the requested range
+        this.totalSteps = toYear - fromYear + 1;
+    }
+
+    public String getId() { return id; }
+    public String getDefinitionKey() { return definitionKey; }
+    public String getRequestedBy() { return requestedBy; }
+    public int getFromYear() { return fromYear; }
+    public int getToYear() { return toYear; }
+    public List<Long> getCategoryIds() { return categoryIds; }
+    public int getTotalSteps() { return totalSteps; }
+    public int getCompletedSteps() { return completedSteps.get(); }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public ReportJobStatus getStatus() { return status; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getCompletedAt() { return completedAt; }
+    public List<YearlyExpenseDto> getResult() { return result; }
+    public String getError() { return error; }
+
+    // progress in percent (0..100)
+    public int getProgress() {
+        if (status == ReportJobStatus.COMPLETED) return 100;
+        return totalSteps <= 0 ? 0 : (int) (completedSteps.get() * 100L / totalSteps);
+    }
+
+    public boolean isActive() {
+        return status == ReportJobStatus.PENDING || status == ReportJobStatus.RUNNING;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = ReportJobStatus.RUNNING;
+    }
+
+    void stepCompleted() {
+        completedSteps.incrementAndGet();
+    }
+
+    void complete(List<YearlyExpenseDto> result) {
+        this.result = result;
+        this.completedAt = Instant.now();
+        this.status = ReportJobStatus.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.completedAt = Instant.now();
+        this.status = ReportJobStatus.FAILED;
+    }
+}
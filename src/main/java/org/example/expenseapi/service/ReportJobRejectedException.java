@@ -0,0 +1,7 @@
+package org.example.expenseapi.service;
+
+public class ReportJobRejectedException extends RuntimeException {
+    public ReportJobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.expenseapi.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.expenseapi.dto.YearlyExpenseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs long expense reports off the request thread.
+ *
+ * Jobs execute on a bounded pool (fixed threads + bounded queue, submissions beyond capacity are rejected).
+ * Identical submissions (same user, year range and categories) attach to the job already pending/running
+ * for that definition. Finished jobs are kept for a limited time and up to a maximum count.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private final ExpenseService expenseService;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor();
+    private final long resultTtlMillis;
+    private final int maxResults;
+
+    // jobId -> job (pending, running and finished jobs until they expire)
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    // definition key -> id of the job currently pending/running for that definition
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+
+    public ReportJobService(ExpenseService expenseService,
+                            @Value("${app.reports.jobs.pool-size:2}") int poolSize,
+                            @Value("${app.reports.jobs.queue-capacity:16}") int queueCapacity,
+                            @Value("${app.reports.jobs.result-ttl-minutes:30}") long resultTtlMinutes,
+                            @Value("${app.reports.jobs.max-results:100}") int maxResults) {
+        this.expenseService = expenseService;
+        this.resultTtlMillis = TimeUnit.MINUTES.toMillis(resultTtlMinutes);
+        this.maxResults = maxResults;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "report-job-" + threadCounter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    public void init() {
+        // Evict expired results every minute
+        cleaner.scheduleAtFixedRate(this::evictExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submit a report for the inclusive year range. Returns the existing job when an identical one is
+     * still pending or running for the same user.
+     *
+     * @throws ReportJobRejectedException when the job queue is full
+     */
+    public ReportJob submit(String requestedBy, int fromYear, int toYear, List<Long> categoryIds) {
+        List<Long> cats = normalizeCategoryIds(categoryIds);
+        String key = definitionKey(requestedBy, fromYear, toYear, cats);
+
+        ReportJob[] created = new ReportJob[1];
+        String jobId = inFlight.compute(key, (k, existingId) -> {
+            if (existingId != null) {
+                ReportJob existing = jobs.get(existingId);
+                if (existing != null && existing.isActive()) return existingId;
+            }
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), k, requestedBy, fromYear, toYear, cats);
+            jobs.put(job.getId(), job);
+            created[0] = job;
+            return job.getId();
+        });
+
+        if (created[0] == null) {
+            log.debug("Report job submission attached to running job id={} key={}", jobId, key);
+            return jobs.get(jobId);
+        }
+
+        ReportJob job = created[0];
+        try {
+            // propagate the caller's security context so amounts are formatted with the user's settings
+            executor.execute(new DelegatingSecurityContextRunnable(() -> run(job)));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.getId());
+            inFlight.remove(key, job.getId());
+            throw new ReportJobRejectedException("Too many report jobs queued, retry later");
+        }
+        log.info("Submitted report job id={} fromYear={} toYear={} categoryIds={}", job.getId(), fromYear, toYear, cats);
+        return job;
+    }
+
+    public Optional<ReportJob> findById(String id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(ReportJob job) {
+        job.markRunning();
+        try {
+            List<YearlyExpenseDto> years = new ArrayList<>();
+            // one report per calendar year so progress can be reported and each query stays bounded
+            for (int y = job.getFromYear(); y <= job.getToYear(); y++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Report job interrupted");
+                }
+                LocalDate start = LocalDate.of(y, 1, 1);
+                LocalDate end = LocalDate.of(y, 12, 31);
+                List<YearlyExpenseDto> part = expenseService.getExpensesReportByCategory(start, end, job.getCategoryIds());
+                if (part != null) {
+                    for (YearlyExpenseDto ydto : part) {
+                        if (ydto != null && ydto.getYear() != null && ydto.getYear() == y) years.add(ydto);
+                    }
+                }
+                job.stepCompleted();
+            }
+            years.sort(Comparator.comparing(YearlyExpenseDto::getYear).reversed());
+            job.complete(years);
+            log.info("Report job id={} completed ({} years)", job.getId(), years.size());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.fail("Report job interrupted");
+        } catch (Exception ex) {
+            log.error("Report job id={} failed: {}", job.getId(), ex.getMessage(), ex);
+            job.fail(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+        } finally {
+            inFlight.remove(job.getDefinitionKey(), job.getId());
+            enforceMaxResults();
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, ReportJob>> it = jobs.entrySet().iterator();
+        while (it.hasNext()) {
+            ReportJob job = it.next().getValue();
+            if (!job.isActive() && job.getCompletedAt() != null
+                    && job.getCompletedAt().toEpochMilli() + resultTtlMillis < now) {
+                it.remove();
+            }
+        }
+    }
+
+    // Keep at most maxResults finished jobs, dropping the oldest first
+    private void enforceMaxResults() {
+        List<ReportJob> finished = new ArrayList<>();
+        for (ReportJob job : jobs.values()) {
+            if (!job.isActive()) finished.add(job);
+        }
+        int excess = finished.size() - maxResults;
+        if (excess <= 0) return;
+        finished.sort(Comparator.comparing(ReportJob::getCompletedAt));
+        for (int i = 0; i < excess; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    private static List<Long> normalizeCategoryIds(List<Long> categoryIds) {
+        if (categoryIds == null) return null;
+        TreeSet<Long> sorted = new TreeSet<>();
+        for (Long id : categoryIds) {
+            if (id != null) sorted.add(id);
+        }
+        return sorted.isEmpty() ? null : List.copyOf(sorted);
+    }
+
+    private static String definitionKey(String requestedBy, int fromYear, int toYear, List<Long> categoryIds) {
+        return requestedBy + "|" + fromYear + "|" + toYear + "|" + (categoryIds == null ? "*" : categoryIds.toString());
+    }
+}
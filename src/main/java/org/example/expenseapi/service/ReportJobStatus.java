@@ -0,0 +1,8 @@
+package org.example.expenseapi.service;
+
+public enum ReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
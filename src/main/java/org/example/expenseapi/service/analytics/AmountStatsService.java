@@ -0,0 +1,313 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.AmountHistogramBucketDto;
+import org.example.expenseapi.dto.AmountStatsDto;
+import org.example.expenseapi.repository.ExpenseCategoryClosureRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Amount distribution (percentiles, histogram) of expenses per category and month.
+ *
+ * One {@link KllSketch} is kept per (category, month) cell. Cells are built from the database on first use,
+ * then new expenses are added incrementally. Deleting or editing an expense marks its cell stale and the cell
+ * alone is rebuilt on the next query. Yearly and subtree statistics are answered by merging cell sketches.
+ *
+ * At most {@code max-cells} cells are kept, least recently used dropped first, and a cell older than
+ * {@code ttl-seconds} is rebuilt like a stale one, so expenses written on other nodes show up.
+ */
+@Service
+public class AmountStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AmountStatsService.class);
+
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseCategoryClosureRepository closureRepo;
+    private final TransactionTemplate readOnlyTx;
+    private final int k;
+    private final long ttlNanos;
+
+    // guards cells
+    private final Object lock = new Object();
+    // access-ordered so the least recently used cell is dropped first
+    private final Map<CellKey, Cell> cells;
+    // serializes cell builds so concurrent queries do not read the same rows twice
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public AmountStatsService(ExpenseRepository expenseRepo,
+                              ExpenseCategoryClosureRepository closureRepo,
+                              PlatformTransactionManager txManager,
+                              @Value("${app.analytics.amount-stats.k:200}") int k,
+                              @Value("${app.analytics.amount-stats.max-cells:20000}") int maxCells,
+                              @Value("${app.analytics.amount-stats.ttl-seconds:300}") long ttlSeconds) {
+        this.expenseRepo = expenseRepo;
+        this.closureRepo = closureRepo;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.k = k;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+        this.cells = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CellKey, Cell> eldest) {
+                return size() > maxCells;
+            }
+        };
+    }
+
+    /**
+     * Statistics for a category over one month, or the whole year when {@code month} is null.
+     *
+     * @param includeSubcategories also merge every descendant category
+     * @param buckets number of equal-width histogram buckets between min and max (0 = no histogram)
+     */
+    public AmountStatsDto getStats(Long categoryId, boolean includeSubcategories, int year, Integer month, int buckets) {
+        List<Long> categoryIds = includeSubcategories ? closureRepo.findSubtreeIds(categoryId) : List.of(categoryId);
+        List<YearMonth> months = new ArrayList<>();
+        if (month != null) {
+            months.add(YearMonth.of(year, month));
+        } else {
+            for (int m = 1; m <= 12; m++) months.add(YearMonth.of(year, m));
+        }
+
+        // held here, as a query may need more cells than are kept
+        Map<CellKey, Cell> queried = ensureCells(categoryIds, months);
+
+        KllSketch merged = new KllSketch(k, new SplittableRandom());
+        long sumCents = 0L;
+        synchronized (lock) {
+            for (Cell cell : queried.values()) {
+                merged.merge(cell.sketch);
+                sumCents = MoneyUtils.add(sumCents, cell.sumCents);
+            }
+        }
+
+        AmountStatsDto dto = new AmountStatsDto();
+        dto.setCategoryId(categoryId);
+        dto.setIncludeSubcategories(includeSubcategories);
+        dto.setYear(year);
+        dto.setMonth(month);
+        dto.setCount(merged.getCount());
+        dto.setTotal(MoneyUtils.fromMinorUnits(sumCents));
+        if (merged.isEmpty()) {
+            dto.setHistogram(List.of());
+            return dto;
+        }
+        dto.setMean(MoneyUtils.fromMinorUnits(sumCents).divide(BigDecimal.valueOf(merged.getCount()), 2, RoundingMode.HALF_UP));
+        dto.setMin(MoneyUtils.fromMinorUnits(merged.getMin()));
+        dto.setP50(MoneyUtils.fromMinorUnits(merged.quantile(0.5)));
+        dto.setP90(MoneyUtils.fromMinorUnits(merged.quantile(0.9)));
+        dto.setP99(MoneyUtils.fromMinorUnits(merged.quantile(0.99)));
+        dto.setMax(MoneyUtils.fromMinorUnits(merged.getMax()));
+        dto.setHistogram(histogram(merged, buckets));
+        return dto;
+    }
+
+    // Equal-width buckets (from, to] between min and max; the first bucket also includes min
+    private static List<AmountHistogramBucketDto> histogram(KllSketch sketch, int buckets) {
+        List<AmountHistogramBucketDto> result = new ArrayList<>();
+        if (buckets <= 0) return result;
+        long min = sketch.getMin();
+        long max = sketch.getMax();
+        long width = Math.max(1L, (max - min + buckets - 1) / buckets);
+        long previousRank = 0L;
+        long from = min;
+        for (int i = 0; i < buckets && from <= max; i++) {
+            long to = i == buckets - 1 ? max : Math.min(max, from + width);
+            long rank = sketch.rank(to);
+            AmountHistogramBucketDto b = new AmountHistogramBucketDto();
+            b.setFrom(MoneyUtils.fromMinorUnits(from));
+            b.setTo(MoneyUtils.fromMinorUnits(to));
+            b.setCount(Math.max(0L, rank - previousRank));
+            result.add(b);
+            previousRank = rank;
+            if (to >= max) break;
+            from = to;
+        }
+        return result;
+    }
+
+    // ---- change feed ---------------------------------------------------------------------------------------
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event == null) return;
+        synchronized (lock) {
+            // KLL cannot forget a value: a removed or edited expense invalidates its cell
+            if (event.getBefore() != null) {
+                Cell cell = cellOf(event.getBefore());
+                if (cell != null) cell.stale = true;
+            }
+            if (event.getAfter() != null) {
+                Cell cell = cellOf(event.getAfter());
+                if (cell != null) {
+                    if (cell.building) cell.stale = true; // the running build may or may not see this row
+                    else if (!cell.stale) cell.add(MoneyUtils.toMinorUnitsRounded(event.getAfter().getAmount()));
+                }
+            }
+        }
+    }
+
+    private Cell cellOf(ExpenseSnapshot s) {
+        if (s.getCategoryId() == null || s.getExpenseDate() == null || s.getAmount() == null) return null;
+        return cells.get(new CellKey(s.getCategoryId(), YearMonth.from(s.getExpenseDate())));
+    }
+
+    // ---- cell building -------------------------------------------------------------------------------------
+
+    // The cells of the query, building those that are missing, stale or expired
+    private Map<CellKey, Cell> ensureCells(List<Long> categoryIds, List<YearMonth> months) {
+        Map<CellKey, Cell> result = new HashMap<>();
+        if (collectCells(categoryIds, months, result).isEmpty()) return result;
+        buildLock.lock();
+        try {
+            result.clear();
+            Set<CellKey> missing = collectCells(categoryIds, months, result);
+            if (missing.isEmpty()) return result;
+            Map<CellKey, Cell> fresh = new HashMap<>();
+            synchronized (lock) {
+                for (CellKey key : missing) {
+                    Cell cell = new Cell(new KllSketch(k, new SplittableRandom()), System.nanoTime());
+                    cell.building = true;
+                    fresh.put(key, cell);
+                    cells.put(key, cell);
+                }
+            }
+            try {
+                build(fresh);
+            } catch (RuntimeException ex) {
+                synchronized (lock) {
+                    fresh.forEach(cells::remove);
+                }
+                throw ex;
+            } finally {
+                synchronized (lock) {
+                    for (Cell cell : fresh.values()) cell.building = false;
+                }
+            }
+            result.putAll(fresh);
+            return result;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    // Put the usable cells of the query into found and return the keys of the others
+    private Set<CellKey> collectCells(List<Long> categoryIds, List<YearMonth> months, Map<CellKey, Cell> found) {
+        Set<CellKey> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        synchronized (lock) {
+            for (Long cid : categoryIds) {
+                for (YearMonth ym : months) {
+                    CellKey key = new CellKey(cid, ym);
+                    Cell cell = cells.get(key);
+                    // a cell still being built by another query counts as missing so the caller waits for it
+                    if (cell == null || cell.stale || cell.building || now - cell.builtAt >= ttlNanos) missing.add(key);
+                    else found.put(key, cell);
+                }
+            }
+        }
+        return missing;
+    }
+
+    // Fill new cells with one streaming query over the categories/months that need it
+    private void build(Map<CellKey, Cell> fresh) {
+        long startedAt = System.currentTimeMillis();
+        Set<Long> categoryIds = new HashSet<>();
+        YearMonth first = null;
+        YearMonth last = null;
+        for (CellKey key : fresh.keySet()) {
+            categoryIds.add(key.categoryId);
+            if (first == null || key.month.isBefore(first)) first = key.month;
+            if (last == null || key.month.isAfter(last)) last = key.month;
+        }
+        LocalDate start = first.atDay(1);
+        LocalDate end = last.atEndOfMonth();
+        long rows = readOnlyTx.execute(status -> {
+            long count = 0;
+            try (var stream = expenseRepo.streamAmountsByCategoriesBetween(new ArrayList<>(categoryIds), start, end)) {
+                var it = stream.iterator();
+                while (it.hasNext()) {
+                    Object[] r = it.next();
+                    if (r[0] == null || r[1] == null || r[2] == null) continue;
+                    Cell cell = fresh.get(new CellKey(((Number) r[0]).longValue(), YearMonth.from((LocalDate) r[1])));
+                    if (cell == null) continue;
+                    long cents = MoneyUtils.toMinorUnitsRounded((BigDecimal) r[2]);
+                    synchronized (lock) {
+                        cell.add(cents);
+                    }
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.debug("Built {} amount stats cells from {} expenses in {} ms", fresh.size(), rows, System.currentTimeMillis() - startedAt);
+    }
+
+    private static final class Cell {
+        final KllSketch sketch;
+        final long builtAt;
+        long sumCents;
+        boolean stale;
+        boolean building;
+
+        Cell(KllSketch sketch, long builtAt) {
+            this.sketch = sketch;
+            this.builtAt = builtAt;
+        }
+
+        void add(long cents) {
+            sketch.update(cents);
+            sumCents = MoneyUtils.add(sumCents, cents);
+        }
+    }
+
+    private static final class CellKey {
+        final Long categoryId;
+        final YearMonth month;
+
+        CellKey(Long categoryId, YearMonth month) {
+            this.categoryId = categoryId;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CellKey)) return false;
+            CellKey other = (CellKey) o;
+            return categoryId.equals(other.categoryId) && month.equals(other.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryId, month);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.expenseapi.service.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Spend in cents per day for the last {@code capacity} days of one category.
+ *
+ * Slots are indexed by epoch day modulo capacity and tagged with their day, so the window slides forward without
+ * shifting: a slot whose tag is older than the window simply reads as zero and is reset on the next write.
+ * Days after {@link #getLoadedThrough()} have not been loaded yet and are ignored until the owner catches up.
+ * Not thread-safe.
+ */
+final class DailySpendRing {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] cents;
+    private final long[] days;
+    private long loadedThrough;
+
+    DailySpendRing(int capacity, LocalDate loadedThrough) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.cents = new long[capacity];
+        this.days = new long[capacity];
+        Arrays.fill(days, EMPTY);
+        this.loadedThrough = loadedThrough.toEpochDay();
+    }
+
+    int capacity() { return cents.length; }
+
+    LocalDate getLoadedThrough() { return LocalDate.ofEpochDay(loadedThrough); }
+
+    void setLoadedThrough(LocalDate day) { this.loadedThrough = day.toEpochDay(); }
+
+    /** True when {@code day} is inside the window ending at the last loaded day. */
+    boolean covers(LocalDate day) {
+        long d = day.toEpochDay();
+        return d <= loadedThrough && d > loadedThrough - cents.length;
+    }
+
+    void add(LocalDate day, long amountCents) {
+        if (!covers(day)) return;
+        long d = day.toEpochDay();
+        int slot = (int) Math.floorMod(d, (long) cents.length);
+        if (days[slot] != d) {
+            days[slot] = d;
+            cents[slot] = 0L;
+        }
+        cents[slot] = Math.addExact(cents[slot], amountCents);
+    }
+
+    long get(LocalDate day) {
+        long d = day.toEpochDay();
+        int slot = (int) Math.floorMod(d, (long) cents.length);
+        return days[slot] == d ? cents[slot] : 0L;
+    }
+
+    /** Sum of the days in [start, end] (inclusive); days outside the window count as zero. */
+    long sum(LocalDate start, LocalDate end) {
+        long total = 0L;
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            total = Math.addExact(total, get(d));
+        }
+        return total;
+    }
+
+    /**
+     * Exponentially weighted daily average over [start, end], oldest day first, seeded with the plain average
+     * so that a short history does not start from zero.
+     */
+    double ewma(LocalDate start, LocalDate end, double alpha) {
+        long n = end.toEpochDay() - start.toEpochDay() + 1;
+        if (n <= 0) return 0.0;
+        double s = (double) sum(start, end) / n;
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            s = alpha * get(d) + (1 - alpha) * s;
+        }
+        return s;
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.expenseapi.service.analytics;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results computed over date ranges (period comparisons, facet counts), kept per key. The least recently used
+ * result is dropped beyond max-entries and any result once it is older than the ttl, so changes made on other nodes
+ * show up; changes on this node evict the results whose ranges contain the changed expense's date at once.
+ *
+ * A result computed while an eviction ran may miss the change, so callers take {@link #stamp()} before computing and
+ * {@link #put} drops the result when an eviction happened since.
+ */
+final class DateRangeCache<V> {
+
+    // access-ordered so the least recently used result is dropped first; guarded by itself
+    private final Map<String, Cached<V>> entries;
+    private final long ttlNanos;
+    // bumped on every eviction (guarded by entries)
+    private long invalidations;
+
+    DateRangeCache(int maxEntries, long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** The cached result, or null when there is none or it expired. */
+    V get(String key) {
+        synchronized (entries) {
+            Cached<V> c = entries.get(key);
+            if (c == null) return null;
+            if (System.nanoTime() - c.cachedAt >= ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return c.value;
+        }
+    }
+
+    long stamp() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+    /**
+     * Cache a result computed over the given ranges (start/end pairs), unless an eviction ran since {@code stamp}.
+     */
+    void put(String key, V value, long stamp, LocalDate... bounds) {
+        synchronized (entries) {
+            if (stamp == invalidations) entries.put(key, new Cached<>(value, bounds, System.nanoTime()));
+        }
+    }
+
+    /** Evict every result with a range containing one of the days (null days are ignored). */
+    void evict(LocalDate... days) {
+        synchronized (entries) {
+            Iterator<Cached<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Cached<V> c = it.next();
+                for (LocalDate day : days) {
+                    if (c.covers(day)) {
+                        it.remove();
+                        break;
+                    }
+                }
+            }
+            invalidations++;
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Cached<V> {
+        final V value;
+        final LocalDate[] bounds;
+        final long cachedAt;
+
+        Cached(V value, LocalDate[] bounds, long cachedAt) {
+            this.value = value;
+            this.bounds = bounds;
+            this.cachedAt = cachedAt;
+        }
+
+        boolean covers(LocalDate day) {
+            if (day == null) return false;
+            for (int i = 0; i + 1 < bounds.length; i += 2) {
+                if (!day.isBefore(bounds[i]) && !day.isAfter(bounds[i + 1])) return true;
+            }
+            return false;
+        }
+    }
+}
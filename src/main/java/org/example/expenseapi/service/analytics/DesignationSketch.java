@@ -0,0 +1,96 @@
+package org.example.expenseapi.service.analytics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Heavy-hitter designations of one (category, month): one summary ranked by expense count (aux = amount in cents)
+ * and one ranked by amount in cents (aux = count). Not thread-safe.
+ */
+final class DesignationSketch {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_KEY_LENGTH = 255;
+
+    final SpaceSavingSketch byCount;
+    final SpaceSavingSketch byAmount;
+
+    DesignationSketch(int capacity) {
+        this(new SpaceSavingSketch(capacity), new SpaceSavingSketch(capacity));
+    }
+
+    private DesignationSketch(SpaceSavingSketch byCount, SpaceSavingSketch byAmount) {
+        this.byCount = byCount;
+        this.byAmount = byAmount;
+    }
+
+    void add(String designation, long cents) {
+        String key = normalize(designation);
+        if (key == null) return;
+        byCount.offer(key, 1L, cents);
+        if (cents > 0) byAmount.offer(key, cents, 1L);
+    }
+
+    void remove(String designation, long cents) {
+        String key = normalize(designation);
+        if (key == null) return;
+        byCount.retract(key, 1L, cents);
+        if (cents > 0) byAmount.retract(key, cents, 1L);
+    }
+
+    /** Number of expenses added to this sketch (net of removals). */
+    long count() {
+        return byCount.getTotalWeight();
+    }
+
+    /** Sum of amounts in cents added to this sketch (net of removals). */
+    long amount() {
+        return byAmount.getTotalWeight();
+    }
+
+    static DesignationSketch merge(List<DesignationSketch> sketches, int capacity) {
+        return new DesignationSketch(
+                SpaceSavingSketch.merge(sketches.stream().map(s -> s.byCount).toList(), capacity),
+                SpaceSavingSketch.merge(sketches.stream().map(s -> s.byAmount).toList(), capacity));
+    }
+
+    /** Same normalization as the exact GROUP BY: trimmed and lower-cased. */
+    static String normalize(String designation) {
+        if (designation == null) return null;
+        String key = designation.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) return null;
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    String serialize() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(FORMAT_VERSION);
+            byCount.writeTo(out);
+            byAmount.writeTo(out);
+            out.flush();
+            return Base64.getEncoder().encodeToString(bytes.toByteArray());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    static DesignationSketch deserialize(String payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(payload)));
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) throw new IOException("Unsupported sketch format " + version);
+            return new DesignationSketch(SpaceSavingSketch.readFrom(in), SpaceSavingSketch.readFrom(in));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
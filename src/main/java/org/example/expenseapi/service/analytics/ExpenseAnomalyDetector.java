@@ -0,0 +1,446 @@
+package org.example.expenseapi.service.analytics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.expenseapi.dto.ExpenseAnomalyDto;
+import org.example.expenseapi.model.Expense;
+import org.example.expenseapi.model.ExpenseAnomaly;
+import org.example.expenseapi.model.ExpenseCategoryAmountStats;
+import org.example.expenseapi.repository.ExpenseAnomalyRepository;
+import org.example.expenseapi.repository.ExpenseCategoryAmountStatsRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores expenses against the running mean and standard deviation of their category.
+ *
+ * Statistics are kept per category with {@link WelfordStats} (O(1) per write, no lookback queries) and updated from
+ * {@link ExpenseChangedEvent}s after commit. They are written back periodically and reloaded on startup; a persisted
+ * row is trusted only when its count and total still match the expenses table, otherwise that category is rebuilt
+ * by streaming its expenses once. Until the startup load has finished expenses are not scored.
+ *
+ * Every node sees only its own writes, so a flush does not overwrite the shared row with this node's view: it merges
+ * the values added and removed here since the last flush into the row under a row lock, and the merged row (which
+ * includes the other nodes' flushed changes) becomes this node's view.
+ */
+@Service
+public class ExpenseAnomalyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseAnomalyDetector.class);
+
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseCategoryAmountStatsRepository statsRepo;
+    private final ExpenseAnomalyRepository anomalyRepo;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final double threshold;
+    private final long minSamples;
+    private final long flushIntervalSeconds;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "anomaly-stats-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // guards stats, deltas, rebuilt, pending and ready
+    private final Object lock = new Object();
+    private final Map<Long, CategoryStats> stats = new HashMap<>();
+    // changes applied here since the last flush, merged into the persisted rows
+    private final Map<Long, Delta> deltas = new HashMap<>();
+    // categories rebuilt from the expenses table on startup, written as a whole by the next flush
+    private final Set<Long> rebuilt = new HashSet<>();
+    // changes committed while the startup load runs, applied once it is done
+    private final List<ExpenseChangedEvent> pending = new ArrayList<>();
+    private boolean ready;
+
+    public ExpenseAnomalyDetector(ExpenseRepository expenseRepo,
+                                  ExpenseCategoryAmountStatsRepository statsRepo,
+                                  ExpenseAnomalyRepository anomalyRepo,
+                                  PlatformTransactionManager txManager,
+                                  @Value("${app.analytics.anomalies.threshold:3.0}") double threshold,
+                                  @Value("${app.analytics.anomalies.min-samples:10}") long minSamples,
+                                  @Value("${app.analytics.anomalies.flush-interval-seconds:60}") long flushIntervalSeconds) {
+        this.expenseRepo = expenseRepo;
+        this.statsRepo = statsRepo;
+        this.anomalyRepo = anomalyRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.threshold = threshold;
+        this.minSamples = Math.max(2L, minSamples);
+        this.flushIntervalSeconds = flushIntervalSeconds;
+    }
+
+    @PostConstruct
+    public void init() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread t = new Thread(this::loadQuietly, "anomaly-stats-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public boolean isReady() {
+        synchronized (lock) {
+            return ready;
+        }
+    }
+
+    // ---- scoring -------------------------------------------------------------------------------------------
+
+    /**
+     * Score a newly created expense against its category (which does not contain it yet) and record it as an
+     * anomaly when the score reaches the threshold. Runs in the caller's transaction.
+     *
+     * @return standard deviations from the category mean (2 decimals), or null while the category has too little history
+     */
+    public Double assess(Expense expense) {
+        return assess(expense, null, false);
+    }
+
+    /**
+     * Score an edited expense. The category statistics still contain the old amount until the edit commits,
+     * so it is taken out of a copy first.
+     */
+    public Double reassess(ExpenseSnapshot before, Expense expense) {
+        return assess(expense, before, true);
+    }
+
+    /** Drop the anomaly record of a deleted expense. Runs in the caller's transaction. */
+    public void forget(Long expenseId) {
+        if (expenseId != null) anomalyRepo.deleteByExpenseId(expenseId);
+    }
+
+    private Double assess(Expense expense, ExpenseSnapshot before, boolean existing) {
+        if (expense == null || expense.getId() == null || expense.getAmount() == null
+                || expense.getExpenseCategory() == null || expense.getExpenseCategory().getId() == null) return null;
+        Long categoryId = expense.getExpenseCategory().getId();
+        WelfordStats s;
+        synchronized (lock) {
+            CategoryStats cs = ready ? stats.get(categoryId) : null;
+            if (cs == null) return clear(expense.getId(), existing);
+            s = new WelfordStats(cs.stats.getCount(), cs.stats.getMean(), cs.stats.getM2());
+        }
+        if (before != null && before.getAmount() != null && categoryId.equals(before.getCategoryId())) {
+            s.remove(MoneyUtils.toMinorUnitsRounded(before.getAmount()));
+        }
+        if (s.getCount() < minSamples) return clear(expense.getId(), existing);
+        double z = s.zScore(MoneyUtils.toMinorUnitsRounded(expense.getAmount()));
+        if (Double.isNaN(z)) return clear(expense.getId(), existing);
+        double score = Math.round(z * 100.0) / 100.0;
+
+        ExpenseAnomaly anomaly = existing ? anomalyRepo.findByExpenseId(expense.getId()).orElse(null) : null;
+        if (Math.abs(score) < threshold) {
+            if (anomaly != null) anomalyRepo.delete(anomaly);
+            return score;
+        }
+        if (anomaly == null) {
+            anomaly = new ExpenseAnomaly();
+            anomaly.setExpenseId(expense.getId());
+        }
+        anomaly.setCategoryId(categoryId);
+        anomaly.setExpenseDate(expense.getExpenseDate());
+        anomaly.setDesignation(expense.getDesignation());
+        anomaly.setAmount(expense.getAmount());
+        anomaly.setScore(score);
+        anomaly.setCategoryMean(MoneyUtils.fromMinorUnits(Math.round(s.getMean())));
+        anomaly.setCategoryStddev(MoneyUtils.fromMinorUnits(Math.round(s.stddev())));
+        anomaly.setSampleCount(s.getCount());
+        anomalyRepo.save(anomaly);
+        return score;
+    }
+
+    // An edit that can no longer be scored also drops its old record
+    private Double clear(Long expenseId, boolean existing) {
+        if (existing) anomalyRepo.deleteByExpenseId(expenseId);
+        return null;
+    }
+
+    /** Most recently recorded anomalies first, optionally for one category. */
+    public List<ExpenseAnomalyDto> recent(Long categoryId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<ExpenseAnomaly> rows = categoryId == null
+                ? anomalyRepo.findAllByOrderByCreatedAtDescIdDesc(page)
+                : anomalyRepo.findByCategoryIdOrderByCreatedAtDescIdDesc(categoryId, page);
+        List<ExpenseAnomalyDto> res = new ArrayList<>();
+        for (ExpenseAnomaly a : rows) {
+            ExpenseAnomalyDto dto = new ExpenseAnomalyDto();
+            dto.setExpenseId(a.getExpenseId());
+            dto.setCategoryId(a.getCategoryId());
+            dto.setExpenseDate(a.getExpenseDate());
+            dto.setDesignation(a.getDesignation());
+            dto.setAmount(a.getAmount());
+            dto.setScore(a.getScore());
+            dto.setCategoryMean(a.getCategoryMean());
+            dto.setCategoryStddev(a.getCategoryStddev());
+            dto.setSampleCount(a.getSampleCount());
+            dto.setDetectedAt(a.getCreatedAt());
+            res.add(dto);
+        }
+        return res;
+    }
+
+    // ---- change feed ---------------------------------------------------------------------------------------
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event == null) return;
+        synchronized (lock) {
+            if (!ready) {
+                pending.add(event);
+                return;
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(ExpenseChangedEvent event) {
+        ExpenseSnapshot before = event.getBefore();
+        ExpenseSnapshot after = event.getAfter();
+        if (before != null && before.getCategoryId() != null && before.getAmount() != null) {
+            CategoryStats cs = stats.get(before.getCategoryId());
+            if (cs != null) {
+                long cents = MoneyUtils.toMinorUnitsRounded(before.getAmount());
+                cs.remove(cents);
+                deltas.computeIfAbsent(before.getCategoryId(), id -> new Delta()).remove(cents);
+            }
+        }
+        if (after != null && after.getCategoryId() != null && after.getAmount() != null) {
+            long cents = MoneyUtils.toMinorUnitsRounded(after.getAmount());
+            stats.computeIfAbsent(after.getCategoryId(), id -> new CategoryStats(new WelfordStats(), 0L)).add(cents);
+            deltas.computeIfAbsent(after.getCategoryId(), id -> new Delta()).add(cents);
+        }
+    }
+
+    // ---- loading -------------------------------------------------------------------------------------------
+
+    /**
+     * Load persisted statistics, rebuild the categories whose persisted copy is missing or out of date,
+     * then start scoring. A write committed while the rebuild streams may be seen by both the stream and the
+     * change feed; the next startup check corrects such drift.
+     */
+    public void load() {
+        long startedAt = System.currentTimeMillis();
+        Map<Long, CategoryStats> loaded = new HashMap<>();
+        Set<Long> rebuild = new HashSet<>();
+        readOnlyTx.executeWithoutResult(status -> {
+            Map<Long, ExpenseCategoryAmountStats> persisted = new HashMap<>();
+            for (ExpenseCategoryAmountStats row : statsRepo.findAll()) persisted.put(row.getCategoryId(), row);
+            for (Object[] r : expenseRepo.countAndSumGroupedByCategory()) {
+                if (r[0] == null) continue;
+                Long categoryId = ((Number) r[0]).longValue();
+                long count = ((Number) r[1]).longValue();
+                long sumCents = MoneyUtils.toMinorUnitsRounded((BigDecimal) r[2]);
+                ExpenseCategoryAmountStats p = persisted.remove(categoryId);
+                if (p != null && p.getSampleCount() == count && p.getAmountCents() == sumCents) {
+                    loaded.put(categoryId, new CategoryStats(new WelfordStats(count, p.getMean(), p.getM2()), sumCents));
+                } else {
+                    rebuild.add(categoryId);
+                }
+            }
+            // persisted rows of categories that no longer have expenses are reset to empty
+            rebuild.addAll(persisted.keySet());
+            if (rebuild.isEmpty()) return;
+            for (Long categoryId : rebuild) loaded.put(categoryId, new CategoryStats(new WelfordStats(), 0L));
+            try (var stream = expenseRepo.streamAllForAnalytics()) {
+                var it = stream.iterator();
+                while (it.hasNext()) {
+                    Object[] r = it.next();
+                    if (r[2] == null || r[4] == null) continue;
+                    Long categoryId = ((Number) r[2]).longValue();
+                    if (!rebuild.contains(categoryId)) continue;
+                    loaded.get(categoryId).add(MoneyUtils.toMinorUnitsRounded((BigDecimal) r[4]));
+                }
+            }
+        });
+        synchronized (lock) {
+            stats.clear();
+            stats.putAll(loaded);
+            rebuilt.addAll(rebuild);
+            for (ExpenseChangedEvent event : pending) apply(event);
+            pending.clear();
+            ready = true;
+        }
+        log.info("Loaded anomaly statistics for {} categories ({} rebuilt) in {} ms",
+                loaded.size(), rebuild.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (RuntimeException ex) {
+            log.error("Failed to load anomaly statistics, expenses will not be scored: {}", ex.getMessage(), ex);
+        }
+    }
+
+    // ---- persistence ---------------------------------------------------------------------------------------
+
+    /**
+     * Merge the changes applied since the last flush into the persisted rows and take the merged rows as this
+     * node's statistics. Two nodes creating the row of a new category at once fail on its unique key; the loser
+     * keeps its changes and merges them into the winner's row on the next run.
+     */
+    public void flush() {
+        Map<Long, Delta> toMerge;
+        Map<Long, CategoryStats> toWrite = new HashMap<>();
+        synchronized (lock) {
+            if (!ready || (deltas.isEmpty() && rebuilt.isEmpty())) return;
+            toMerge = new HashMap<>(deltas);
+            deltas.clear();
+            for (Long categoryId : rebuilt) {
+                // the rebuilt statistics already contain every change applied since
+                toMerge.remove(categoryId);
+                CategoryStats cs = stats.get(categoryId);
+                if (cs != null) toWrite.put(categoryId, cs.copy());
+            }
+            rebuilt.clear();
+        }
+        Map<Long, CategoryStats> merged;
+        try {
+            merged = tx.execute(status -> {
+                Map<Long, CategoryStats> res = new HashMap<>();
+                for (Map.Entry<Long, CategoryStats> e : toWrite.entrySet()) {
+                    ExpenseCategoryAmountStats row = statsRepo.findByCategoryId(e.getKey()).orElse(null);
+                    res.put(e.getKey(), save(e.getKey(), row, e.getValue()));
+                }
+                for (Map.Entry<Long, Delta> e : toMerge.entrySet()) {
+                    ExpenseCategoryAmountStats row = statsRepo.lockByCategoryId(e.getKey()).orElse(null);
+                    CategoryStats cs = row == null
+                            ? new CategoryStats(new WelfordStats(), 0L)
+                            : new CategoryStats(new WelfordStats(row.getSampleCount(), row.getMean(), row.getM2()),
+                                                row.getAmountCents());
+                    e.getValue().applyTo(cs);
+                    res.put(e.getKey(), save(e.getKey(), row, cs));
+                }
+                return res;
+            });
+        } catch (RuntimeException ex) {
+            // put them back so the next run retries
+            synchronized (lock) {
+                for (Map.Entry<Long, Delta> e : toMerge.entrySet()) {
+                    Delta since = deltas.get(e.getKey());
+                    if (since != null) e.getValue().merge(since);
+                    deltas.put(e.getKey(), e.getValue());
+                }
+                rebuilt.addAll(toWrite.keySet());
+            }
+            throw ex;
+        }
+        synchronized (lock) {
+            for (Map.Entry<Long, CategoryStats> e : merged.entrySet()) {
+                CategoryStats cs = e.getValue();
+                Delta since = deltas.get(e.getKey());
+                if (since != null) since.applyTo(cs);
+                stats.put(e.getKey(), cs);
+            }
+        }
+        log.debug("Flushed anomaly statistics for {} categories", merged.size());
+    }
+
+    private CategoryStats save(Long categoryId, ExpenseCategoryAmountStats row, CategoryStats cs) {
+        if (row == null) {
+            row = new ExpenseCategoryAmountStats();
+            row.setCategoryId(categoryId);
+        }
+        row.setSampleCount(cs.stats.getCount());
+        row.setMean(cs.stats.getMean());
+        row.setM2(cs.stats.getM2());
+        row.setAmountCents(cs.sumCents);
+        statsRepo.save(row);
+        return cs;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to persist anomaly statistics: {}", ex.getMessage());
+        }
+    }
+
+    private static final class CategoryStats {
+        final WelfordStats stats;
+        long sumCents;
+
+        CategoryStats(WelfordStats stats, long sumCents) {
+            this.stats = stats;
+            this.sumCents = sumCents;
+        }
+
+        void add(long cents) {
+            stats.add(cents);
+            sumCents = MoneyUtils.add(sumCents, cents);
+        }
+
+        void remove(long cents) {
+            stats.remove(cents);
+            sumCents = Math.subtractExact(sumCents, cents);
+        }
+
+        CategoryStats copy() {
+            return new CategoryStats(new WelfordStats(stats.getCount(), stats.getMean(), stats.getM2()), sumCents);
+        }
+    }
+
+    // Values added and removed on this node; an edit within the category shows up in both
+    private static final class Delta {
+        final WelfordStats added = new WelfordStats();
+        final WelfordStats removed = new WelfordStats();
+        long sumCents;
+
+        void add(long cents) {
+            added.add(cents);
+            sumCents = MoneyUtils.add(sumCents, cents);
+        }
+
+        void remove(long cents) {
+            removed.add(cents);
+            sumCents = Math.subtractExact(sumCents, cents);
+        }
+
+        void merge(Delta other) {
+            added.merge(other.added);
+            removed.merge(other.removed);
+            sumCents = MoneyUtils.add(sumCents, other.sumCents);
+        }
+
+        void applyTo(CategoryStats cs) {
+            cs.stats.merge(added);
+            cs.stats.unmerge(removed);
+            cs.sumCents = MoneyUtils.add(cs.sumCents, sumCents);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process column store of expenses used to answer aggregate queries (reports, budget sums)
+ * without going to the database.
+ *
+ * Expenses are held as primitive arrays (epochDay, categoryId, statusId, amount in cents) partitioned by month.
+ * The store is filled once at startup by {@link ExpenseColumnStoreLoader} and then kept current from
+ * {@link ExpenseChangedEvent}s. Until loading has finished {@link #isReady()} is false and callers must use SQL.
+ *
+ * Disabled by default ({@code app.analytics.column-store.enabled}); only worth it for read-heavy dashboards
+ * on a single node, since writes made by other nodes are not seen.
+ */
+@Component
+public class ExpenseColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseColumnStore.class);
+
+    private final boolean enabled;
+    private final int parallelThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // monthIndex -> partition (guarded by lock)
+    private final NavigableMap<Integer, MonthPartition> partitions = new TreeMap<>();
+    // expenseId -> monthIndex of the partition holding it (guarded by lock)
+    private final Map<Long, Integer> monthOfExpense = new HashMap<>();
+    // events received while the initial load runs; replayed once it finishes (guarded by lock)
+    private final Queue<ExpenseChangedEvent> pendingDuringLoad = new ArrayDeque<>();
+
+    private boolean loading;
+    private volatile boolean ready;
+
+    public ExpenseColumnStore(@Value("${app.analytics.column-store.enabled:false}") boolean enabled,
+                              @Value("${app.analytics.column-store.parallel-threshold:200000}") int parallelThreshold) {
+        this.enabled = enabled;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** True once the initial load completed; only then may aggregates be answered from the store. */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // ---- loading -------------------------------------------------------------------------------------------
+
+    void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            loading = true;
+            partitions.clear();
+            monthOfExpense.clear();
+            pendingDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void loadRow(Long id, LocalDate date, Long categoryId, Long statusId, BigDecimal amount) {
+        lock.writeLock().lock();
+        try {
+            upsert(id, date, categoryId, statusId, amount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            int replayed = pendingDuringLoad.size();
+            ExpenseChangedEvent e;
+            while ((e = pendingDuringLoad.poll()) != null) {
+                apply(e);
+            }
+            loading = false;
+            ready = true;
+            log.info("Expense column store ready: {} expenses in {} month partitions ({} events replayed)",
+                    monthOfExpense.size(), partitions.size(), replayed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void abortLoad() {
+        lock.writeLock().lock();
+        try {
+            loading = false;
+            ready = false;
+            partitions.clear();
+            monthOfExpense.clear();
+            pendingDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---- change feed ---------------------------------------------------------------------------------------
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (!enabled || event == null) return;
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                pendingDuringLoad.add(event);
+            } else if (ready) {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ExpenseChangedEvent event) {
+        ExpenseSnapshot after = event.getAfter();
+        if (after == null) {
+            if (event.getBefore() != null && event.getBefore().getId() != null) remove(event.getBefore().getId());
+            return;
+        }
+        upsert(after.getId(), after.getExpenseDate(), after.getCategoryId(), after.getStatusId(), after.getAmount());
+    }
+
+    private void upsert(Long id, LocalDate date, Long categoryId, Long statusId, BigDecimal amount) {
+        if (id == null || date == null || amount == null) return;
+        int monthIndex = monthIndex(date);
+        Integer previousMonth = monthOfExpense.get(id);
+        if (previousMonth != null && previousMonth != monthIndex) {
+            // expense moved to another month
+            MonthPartition old = partitions.get(previousMonth);
+            if (old != null) old.remove(id);
+        }
+        partitions.computeIfAbsent(monthIndex, MonthPartition::new)
+                .upsert(id, (int) date.toEpochDay(),
+                        categoryId == null ? 0L : categoryId,
+                        statusId == null ? 0L : statusId,
+                        MoneyUtils.toMinorUnitsRounded(amount));
+        monthOfExpense.put(id, monthIndex);
+    }
+
+    private void remove(Long id) {
+        Integer monthIndex = monthOfExpense.remove(id);
+        if (monthIndex == null) return;
+        MonthPartition p = partitions.get(monthIndex);
+        if (p != null) p.remove(id);
+    }
+
+    // ---- queries -------------------------------------------------------------------------------------------
+
+    /**
+     * Sum of amounts (in cents) per month for expenses dated within [start, end], optionally restricted
+     * to the given categories. Months without expenses are absent from the result.
+     */
+    public Map<YearMonth, Long> sumByMonth(LocalDate start, LocalDate end, Collection<Long> categoryIds) {
+        long[] cats = toSortedArray(categoryIds);
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        Map<YearMonth, Long> result = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            List<MonthPartition> selected = select(start, end);
+            stream(selected).map(p -> new long[]{p.monthIndex, sumPartition(p, startDay, endDay, cats)})
+                    .sequential()
+                    .forEach(r -> {
+                        if (r[1] != 0) result.put(toYearMonth((int) r[0]), r[1]);
+                    });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Sum of amounts (in cents) per category for expenses dated within [start, end], optionally restricted
+     * to the given categories. Categories without expenses are absent from the result.
+     */
+    public Map<Long, Long> sumByCategory(LocalDate start, LocalDate end, Collection<Long> categoryIds) {
+        long[] cats = toSortedArray(categoryIds);
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        lock.readLock().lock();
+        try {
+            List<MonthPartition> selected = select(start, end);
+            return stream(selected)
+                    .map(p -> sumPartitionByCategory(p, startDay, endDay, cats))
+                    .reduce(new HashMap<>(), ExpenseColumnStore::mergeInto, ExpenseColumnStore::mergeInto);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count, sum, min and max (in cents) per category and status for expenses dated within [start, end], optionally
+     * restricted to the given categories: rows of {categoryId, statusId, count, sum, min, max}.
+     */
+    public List<long[]> totalsByCategoryAndStatus(LocalDate start, LocalDate end, Collection<Long> categoryIds) {
+        long[] cats = toSortedArray(categoryIds);
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        Map<Long, Map<Long, long[]>> totals;
+        lock.readLock().lock();
+        try {
+            List<MonthPartition> selected = select(start, end);
+            totals = stream(selected)
+                    .map(p -> totalsPartition(p, startDay, endDay, cats))
+                    .reduce(new HashMap<>(), ExpenseColumnStore::mergeTotals, ExpenseColumnStore::mergeTotals);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<long[]> rows = new ArrayList<>();
+        totals.forEach((categoryId, byStatus) -> byStatus.forEach((statusId, t) ->
+                rows.add(new long[]{categoryId, statusId, t[0], t[1], t[2], t[3]})));
+        return rows;
+    }
+
+    /** Per-month expense count and sum in cents, used by the consistency check: yearMonth -> {count, sum}. */
+    public Map<YearMonth, long[]> monthTotals() {
+        Map<YearMonth, long[]> result = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            for (MonthPartition p : partitions.values()) {
+                if (p.size > 0) result.put(toYearMonth(p.monthIndex), new long[]{p.size, p.sum()});
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Tight loop over one partition; boundary partitions also check the day, inner ones only the category.
+    private static long sumPartition(MonthPartition p, int startDay, int endDay, long[] cats) {
+        final int n = p.size;
+        final int[] days = p.epochDays;
+        final long[] catCol = p.categoryIds;
+        final long[] amounts = p.amountCents;
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            int d = days[i];
+            if (d < startDay || d > endDay) continue;
+            if (cats != null && Arrays.binarySearch(cats, catCol[i]) < 0) continue;
+            sum += amounts[i];
+        }
+        return sum;
+    }
+
+    private static Map<Long, Long> sumPartitionByCategory(MonthPartition p, int startDay, int endDay, long[] cats) {
+        final int n = p.size;
+        final int[] days = p.epochDays;
+        final long[] catCol = p.categoryIds;
+        final long[] amounts = p.amountCents;
+        if (cats != null) {
+            // accumulate into a dense array aligned with the filter to avoid boxing per row
+            long[] sums = new long[cats.length];
+            boolean[] seen = new boolean[cats.length];
+            for (int i = 0; i < n; i++) {
+                int d = days[i];
+                if (d < startDay || d > endDay) continue;
+                int idx = Arrays.binarySearch(cats, catCol[i]);
+                if (idx < 0) continue;
+                sums[idx] += amounts[i];
+                seen[idx] = true;
+            }
+            Map<Long, Long> res = new HashMap<>();
+            for (int k = 0; k < cats.length; k++) {
+                if (seen[k]) res.put(cats[k], sums[k]);
+            }
+            return res;
+        }
+        Map<Long, Long> res = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int d = days[i];
+            if (d < startDay || d > endDay) continue;
+            res.merge(catCol[i], amounts[i], Long::sum);
+        }
+        return res;
+    }
+
+    // categoryId -> statusId -> {count, sum, min, max}
+    private static Map<Long, Map<Long, long[]>> totalsPartition(MonthPartition p, int startDay, int endDay, long[] cats) {
+        final int n = p.size;
+        final int[] days = p.epochDays;
+        final long[] catCol = p.categoryIds;
+        final long[] statusCol = p.statusIds;
+        final long[] amounts = p.amountCents;
+        Map<Long, Map<Long, long[]>> res = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int d = days[i];
+            if (d < startDay || d > endDay) continue;
+            if (cats != null && Arrays.binarySearch(cats, catCol[i]) < 0) continue;
+            long amount = amounts[i];
+            long[] t = res.computeIfAbsent(catCol[i], k -> new HashMap<>())
+                    .computeIfAbsent(statusCol[i], k -> new long[]{0L, 0L, Long.MAX_VALUE, Long.MIN_VALUE});
+            t[0]++;
+            t[1] = MoneyUtils.add(t[1], amount);
+            if (amount < t[2]) t[2] = amount;
+            if (amount > t[3]) t[3] = amount;
+        }
+        return res;
+    }
+
+    private static Map<Long, Map<Long, long[]>> mergeTotals(Map<Long, Map<Long, long[]>> a, Map<Long, Map<Long, long[]>> b) {
+        Map<Long, Map<Long, long[]>> res = new HashMap<>();
+        for (Map<Long, Map<Long, long[]>> side : List.of(a, b)) {
+            side.forEach((categoryId, byStatus) -> byStatus.forEach((statusId, t) ->
+                    res.computeIfAbsent(categoryId, k -> new HashMap<>()).merge(statusId, t.clone(), (x, y) -> new long[]{
+                            x[0] + y[0], MoneyUtils.add(x[1], y[1]), Math.min(x[2], y[2]), Math.max(x[3], y[3])})));
+        }
+        return res;
+    }
+
+    private List<MonthPartition> select(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) return List.of();
+        return new ArrayList<>(partitions.subMap(monthIndex(start), true, monthIndex(end), true).values());
+    }
+
+    // Fork/join across partitions once the scan is large enough to amortize the split
+    private Stream<MonthPartition> stream(List<MonthPartition> selected) {
+        long rows = 0;
+        for (MonthPartition p : selected) rows += p.size;
+        return rows >= parallelThreshold && selected.size() > 1 ? selected.parallelStream() : selected.stream();
+    }
+
+    private static Map<Long, Long> mergeInto(Map<Long, Long> a, Map<Long, Long> b) {
+        Map<Long, Long> res = new HashMap<>(a);
+        b.forEach((k, v) -> res.merge(k, v, Long::sum));
+        return res;
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return null;
+        long[] arr = ids.stream().filter(java.util.Objects::nonNull).mapToLong(Long::longValue).distinct().sorted().toArray();
+        return arr.length == 0 ? null : arr;
+    }
+
+    static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + (date.getMonthValue() - 1);
+    }
+
+    static YearMonth toYearMonth(int monthIndex) {
+        return YearMonth.of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1);
+    }
+}
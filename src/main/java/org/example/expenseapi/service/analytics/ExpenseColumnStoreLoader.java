@@ -0,0 +1,113 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streams the expenses table into the {@link ExpenseColumnStore} once the application is up, then compares
+ * per-month counts and sums with the database. Runs on a background thread so startup is not delayed;
+ * the store reports not-ready (and callers use SQL) until the load has finished.
+ */
+@Component
+public class ExpenseColumnStoreLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseColumnStoreLoader.class);
+
+    private final ExpenseColumnStore store;
+    private final ExpenseRepository repository;
+    private final TransactionTemplate readOnlyTx;
+
+    public ExpenseColumnStoreLoader(ExpenseColumnStore store, ExpenseRepository repository, PlatformTransactionManager txManager) {
+        this.store = store;
+        this.repository = repository;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!store.isEnabled()) return;
+        Thread t = new Thread(this::load, "expense-column-store-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public void load() {
+        long startedAt = System.currentTimeMillis();
+        store.beginLoad();
+        try {
+            long rows = readOnlyTx.execute(status -> {
+                long count = 0;
+                try (var stream = repository.streamAllForAnalytics()) {
+                    var it = stream.iterator();
+                    while (it.hasNext()) {
+                        Object[] r = it.next();
+                        store.loadRow(toLong(r[0]), (LocalDate) r[1], toLong(r[2]), toLong(r[3]), (BigDecimal) r[4]);
+                        count++;
+                    }
+                }
+                return count;
+            });
+            store.finishLoad();
+            log.info("Loaded {} expenses into column store in {} ms", rows, System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException ex) {
+            store.abortLoad();
+            log.error("Failed to load expense column store, aggregates will be served from the database: {}", ex.getMessage(), ex);
+            return;
+        }
+        verifyAgainstDatabase();
+    }
+
+    /**
+     * Compare per-month expense count and sum between the store and the database.
+     * Returns the months that differ (empty when consistent). Differences are expected only transiently
+     * (writes committed while the check runs) or when other nodes write to the same database.
+     */
+    public List<YearMonth> verifyAgainstDatabase() {
+        if (!store.isReady()) return List.of();
+        Map<YearMonth, long[]> db = new TreeMap<>();
+        for (Object[] r : repository.countAndSumGroupedByMonth()) {
+            YearMonth ym = YearMonth.of(((Number) r[0]).intValue(), ((Number) r[1]).intValue());
+            long count = ((Number) r[2]).longValue();
+            BigDecimal sum = r[3] == null ? BigDecimal.ZERO : (BigDecimal) r[3];
+            db.put(ym, new long[]{count, sum.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact()});
+        }
+        Map<YearMonth, long[]> mem = store.monthTotals();
+
+        List<YearMonth> mismatched = new ArrayList<>();
+        TreeMap<YearMonth, Boolean> months = new TreeMap<>();
+        db.keySet().forEach(k -> months.put(k, true));
+        mem.keySet().forEach(k -> months.put(k, true));
+        for (YearMonth ym : months.keySet()) {
+            long[] a = db.getOrDefault(ym, new long[]{0, 0});
+            long[] b = mem.getOrDefault(ym, new long[]{0, 0});
+            if (a[0] != b[0] || a[1] != b[1]) {
+                mismatched.add(ym);
+                log.warn("Column store mismatch for {}: db count={} sumCents={} / store count={} sumCents={}", ym, a[0], a[1], b[0], b[1]);
+            }
+        }
+        if (mismatched.isEmpty()) {
+            log.info("Column store consistency check passed ({} months)", months.size());
+        }
+        return mismatched;
+    }
+
+    private static Long toLong(Object o) {
+        return o == null ? null : ((Number) o).longValue();
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.FacetCountDto;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseStatus;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.repository.ExpenseStatusRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Facet counts for an expense search: how many results each category and each status would give.
+ *
+ * The category facet ignores the search's own category filter (so unselected categories still show their count);
+ * the status facet applies it. Both come from one GROUP BY category/status query without the category filter.
+ * Counts are cached per normalized filter (keyword, categories, dates), so paging through results does not
+ * recompute them; entries expire after {@code cache-ttl-seconds} and are evicted at once when an expense dated
+ * inside their range changes on this node.
+ */
+@Service
+public class ExpenseFacetService {
+
+    public static final String CATEGORY = "category";
+    public static final String STATUS = "status";
+    public static final Set<String> SUPPORTED = Set.of(CATEGORY, STATUS);
+
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseCategoryRepository categoryRepo;
+    private final ExpenseStatusRepository statusRepo;
+    private final DateRangeCache<CachedFacets> cache;
+
+    public ExpenseFacetService(ExpenseRepository expenseRepo,
+                               ExpenseCategoryRepository categoryRepo,
+                               ExpenseStatusRepository statusRepo,
+                               @Value("${app.expenses.facets.cache-size:256}") int cacheSize,
+                               @Value("${app.expenses.facets.cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        this.expenseRepo = expenseRepo;
+        this.categoryRepo = categoryRepo;
+        this.statusRepo = statusRepo;
+        this.cache = new DateRangeCache<>(cacheSize, cacheTtlSeconds);
+    }
+
+    /** Counts of the requested facets (facet name -> options, largest count first) for the given search. */
+    public Map<String, List<FacetCountDto>> facets(String keyword, List<Long> categoryIds, LocalDate start, LocalDate end,
+                                                   Collection<String> requested) {
+        // same normalization as ExpenseRepository.search
+        String k = (keyword == null || keyword.isBlank()) ? null : keyword.trim().toLowerCase();
+        TreeSet<Long> cats = new TreeSet<>();
+        if (categoryIds != null) categoryIds.stream().filter(Objects::nonNull).forEach(cats::add);
+
+        String key = k + "|" + cats + "|" + start + "|" + end;
+        long seen = cache.stamp();
+        CachedFacets counts = cache.get(key);
+        if (counts == null) {
+            counts = count(k, cats, start, end);
+            cache.put(key, counts, seen, start, end);
+        }
+
+        Map<String, List<FacetCountDto>> result = new LinkedHashMap<>();
+        if (requested.contains(CATEGORY)) result.put(CATEGORY, categoryOptions(counts.byCategory));
+        if (requested.contains(STATUS)) result.put(STATUS, statusOptions(counts.byStatus));
+        return result;
+    }
+
+    private CachedFacets count(String keyword, Set<Long> cats, LocalDate start, LocalDate end) {
+        Map<Long, Long> byCategory = new HashMap<>();
+        Map<Long, Long> byStatus = new HashMap<>();
+        List<Object[]> rows = expenseRepo.summarizeGroupedByCategoryAndStatus(start, end, null,
+                ExpenseSummaryService.likePattern(keyword));
+        for (Object[] r : rows) {
+            Long categoryId = r[0] == null ? null : ((Number) r[0]).longValue();
+            Long statusId = r[1] == null ? null : ((Number) r[1]).longValue();
+            long n = ((Number) r[2]).longValue();
+            if (categoryId != null) byCategory.merge(categoryId, n, Long::sum);
+            if (statusId != null && (cats.isEmpty() || (categoryId != null && cats.contains(categoryId)))) {
+                byStatus.merge(statusId, n, Long::sum);
+            }
+        }
+        return new CachedFacets(byCategory, byStatus);
+    }
+
+    private List<FacetCountDto> categoryOptions(Map<Long, Long> counts) {
+        Map<Long, String> names = new HashMap<>();
+        for (ExpenseCategory c : categoryRepo.findAllById(counts.keySet())) names.put(c.getId(), c.getName());
+        return options(counts, names);
+    }
+
+    private List<FacetCountDto> statusOptions(Map<Long, Long> counts) {
+        Map<Long, String> names = new HashMap<>();
+        for (ExpenseStatus s : statusRepo.findAllById(counts.keySet())) names.put(s.getId(), s.getName());
+        return options(counts, names);
+    }
+
+    private static List<FacetCountDto> options(Map<Long, Long> counts, Map<Long, String> names) {
+        List<FacetCountDto> result = new ArrayList<>();
+        counts.forEach((id, n) -> result.add(new FacetCountDto(id, names.get(id), n)));
+        result.sort(Comparator.comparingLong(FacetCountDto::getCount).reversed().thenComparing(FacetCountDto::getId));
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event == null) return;
+        cache.evict(date(event.getBefore()), date(event.getAfter()));
+    }
+
+    private static LocalDate date(ExpenseSnapshot s) {
+        return s == null ? null : s.getExpenseDate();
+    }
+
+    private static final class CachedFacets {
+        final Map<Long, Long> byCategory;
+        final Map<Long, Long> byStatus;
+
+        CachedFacets(Map<Long, Long> byCategory, Map<Long, Long> byStatus) {
+            this.byCategory = byCategory;
+            this.byStatus = byStatus;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.ExpenseSummaryDto;
+import org.example.expenseapi.dto.ExpenseSummaryGroupDto;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseStatus;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.repository.ExpenseStatusRepository;
+import org.example.expenseapi.util.MoneyUtils;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Count, sum, min, max and average of an expense search (the filters of {@code GET /v1/expenses}), overall and
+ * per category and status.
+ *
+ * Answered by one GROUP BY category/status query; without a keyword the month partitions of the column store are
+ * used instead when it is loaded. Overall figures are folded from the groups.
+ */
+@Service
+public class ExpenseSummaryService {
+
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseCategoryRepository categoryRepo;
+    private final ExpenseStatusRepository statusRepo;
+    private final ExpenseColumnStore columnStore;
+
+    public ExpenseSummaryService(ExpenseRepository expenseRepo,
+                                 ExpenseCategoryRepository categoryRepo,
+                                 ExpenseStatusRepository statusRepo,
+                                 ExpenseColumnStore columnStore) {
+        this.expenseRepo = expenseRepo;
+        this.categoryRepo = categoryRepo;
+        this.statusRepo = statusRepo;
+        this.columnStore = columnStore;
+    }
+
+    public ExpenseSummaryDto summarize(String keyword, List<Long> categoryIds, LocalDate start, LocalDate end) {
+        // same normalization as ExpenseRepository.search
+        String k = (keyword == null || keyword.isBlank()) ? null : keyword.trim().toLowerCase();
+        List<Long> cats = categoryIds == null ? null
+                : categoryIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (cats != null && cats.isEmpty()) cats = null;
+
+        List<long[]> rows; // {categoryId, statusId, count, sum, min, max}; 0 stands for "none"
+        if (k == null && columnStore != null && columnStore.isReady()) {
+            rows = columnStore.totalsByCategoryAndStatus(start, end, cats);
+        } else {
+            rows = new ArrayList<>();
+            for (Object[] r : expenseRepo.summarizeGroupedByCategoryAndStatus(start, end, cats, likePattern(k))) {
+                rows.add(new long[]{
+                        r[0] == null ? 0L : ((Number) r[0]).longValue(),
+                        r[1] == null ? 0L : ((Number) r[1]).longValue(),
+                        ((Number) r[2]).longValue(),
+                        MoneyUtils.toMinorUnitsRounded((BigDecimal) r[3]),
+                        MoneyUtils.toMinorUnitsRounded((BigDecimal) r[4]),
+                        MoneyUtils.toMinorUnitsRounded((BigDecimal) r[5])});
+            }
+        }
+
+        Totals overall = new Totals();
+        Map<Long, Totals> byCategory = new HashMap<>();
+        Map<Long, Totals> byStatus = new HashMap<>();
+        for (long[] r : rows) {
+            overall.add(r);
+            byCategory.computeIfAbsent(r[0], id -> new Totals()).add(r);
+            byStatus.computeIfAbsent(r[1], id -> new Totals()).add(r);
+        }
+
+        Map<Long, String> categoryNames = new HashMap<>();
+        for (ExpenseCategory c : categoryRepo.findAllById(byCategory.keySet())) categoryNames.put(c.getId(), c.getName());
+        Map<Long, String> statusNames = new HashMap<>();
+        for (ExpenseStatus s : statusRepo.findAllById(byStatus.keySet())) statusNames.put(s.getId(), s.getName());
+
+        ExpenseSummaryDto dto = new ExpenseSummaryDto();
+        dto.setKeyword(k);
+        dto.setCategoryIds(cats);
+        dto.setStartDate(start);
+        dto.setEndDate(end);
+        dto.setCount(overall.count);
+        dto.setSum(MoneyUtils.fromMinorUnits(overall.sum));
+        if (overall.count > 0) {
+            dto.setMin(MoneyUtils.fromMinorUnits(overall.min));
+            dto.setMax(MoneyUtils.fromMinorUnits(overall.max));
+            dto.setAvg(overall.avg());
+        }
+        dto.setByCategory(groups(byCategory, categoryNames));
+        dto.setByStatus(groups(byStatus, statusNames));
+        return dto;
+    }
+
+    // lower-case "contains" pattern; LIKE wildcards in the keyword match literally
+    static String likePattern(String keyword) {
+        if (keyword == null) return null;
+        String escaped = keyword.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    // largest sum first
+    private static List<ExpenseSummaryGroupDto> groups(Map<Long, Totals> totals, Map<Long, String> names) {
+        List<ExpenseSummaryGroupDto> result = new ArrayList<>();
+        for (Map.Entry<Long, Totals> e : totals.entrySet()) {
+            Totals t = e.getValue();
+            ExpenseSummaryGroupDto g = new ExpenseSummaryGroupDto();
+            g.setId(e.getKey() == 0L ? null : e.getKey());
+            g.setName(names.get(e.getKey()));
+            g.setCount(t.count);
+            g.setSum(MoneyUtils.fromMinorUnits(t.sum));
+            g.setMin(MoneyUtils.fromMinorUnits(t.min));
+            g.setMax(MoneyUtils.fromMinorUnits(t.max));
+            g.setAvg(t.avg());
+            result.add(g);
+        }
+        result.sort(Comparator.comparing(ExpenseSummaryGroupDto::getSum).reversed()
+                .thenComparing(ExpenseSummaryGroupDto::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private static final class Totals {
+        long count;
+        long sum;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        void add(long[] row) {
+            count += row[2];
+            sum = MoneyUtils.add(sum, row[3]);
+            min = Math.min(min, row[4]);
+            max = Math.max(max, row[5]);
+        }
+
+        BigDecimal avg() {
+            return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count).movePointRight(MoneyUtils.SCALE),
+                    MoneyUtils.SCALE, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.expenseapi.service.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch (Karnin, Lang, Liberty) over {@code long} values, here amounts in cents.
+ *
+ * Values are kept in a stack of compactors; level h holds items of weight 2^h and has capacity ~ k * (2/3)^(H-h-1).
+ * When the sketch is full the lowest full compactor is sorted and every other item is promoted to the next level,
+ * which keeps the total weight equal to the number of values seen.
+ * Rank error is about 1.65/k (~1% for the default k=200) with high probability, independent of the stream length.
+ * Sketches of the same k are mergeable, so monthly sketches can be combined into yearly or subtree answers.
+ *
+ * Insert-only: deletions are handled by the caller rebuilding the affected sketch. Not thread-safe.
+ */
+public final class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+    private static final double C = 2.0 / 3.0;
+
+    private final int k;
+    private final List<long[]> levels = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private final SplittableRandom random;
+    private int retained;
+    private int maxRetained;
+    private long n;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public KllSketch() {
+        this(DEFAULT_K, new SplittableRandom());
+    }
+
+    KllSketch(int k, SplittableRandom random) {
+        if (k < 8) throw new IllegalArgumentException("k must be >= 8");
+        this.k = k;
+        this.random = random;
+        grow();
+    }
+
+    public int getK() { return k; }
+    public long getCount() { return n; }
+    public boolean isEmpty() { return n == 0; }
+    public long getMin() { return min; }
+    public long getMax() { return max; }
+
+    public void update(long value) {
+        push(0, value);
+        n++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+        retained++;
+        if (retained >= maxRetained) compress();
+    }
+
+    /** Fold {@code other} into this sketch; {@code other} is left unchanged. */
+    public void merge(KllSketch other) {
+        if (other == null || other.n == 0) return;
+        if (other.k != k) throw new IllegalArgumentException("Cannot merge sketches with different k");
+        while (levels.size() < other.levels.size()) grow();
+        for (int h = 0; h < other.levels.size(); h++) {
+            long[] src = other.levels.get(h);
+            int srcSize = other.sizes.get(h);
+            for (int i = 0; i < srcSize; i++) push(h, src[i]);
+            retained += srcSize;
+        }
+        n += other.n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (retained >= maxRetained) compress();
+    }
+
+    /** Copy of this sketch, so cached sketches can be merged without being modified. */
+    public KllSketch copy() {
+        KllSketch c = new KllSketch(k, random.split());
+        c.merge(this);
+        return c;
+    }
+
+    /**
+     * Approximate value at normalized rank q (0..1): q=0.5 is the median. Returns 0 for an empty sketch;
+     * q=0 and q=1 return the exact min and max.
+     */
+    public long quantile(double q) {
+        if (n == 0) return 0L;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        long[][] sorted = sortedWithWeights();
+        long[] values = sorted[0];
+        long[] cumulative = sorted[1];
+        long total = cumulative[cumulative.length - 1];
+        long target = (long) Math.ceil(q * total);
+        int idx = Arrays.binarySearch(cumulative, target);
+        if (idx < 0) idx = -idx - 1;
+        return values[Math.min(idx, values.length - 1)];
+    }
+
+    /** Approximate number of values <= {@code value}. */
+    public long rank(long value) {
+        if (n == 0) return 0L;
+        if (value >= max) return n;
+        if (value < min) return 0L;
+        long weight = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            long[] items = levels.get(h);
+            int size = sizes.get(h);
+            for (int i = 0; i < size; i++) {
+                if (items[i] <= value) weight += 1L << h;
+            }
+        }
+        return weight;
+    }
+
+    private long[][] sortedWithWeights() {
+        long[] values = new long[retained];
+        long[] weights = new long[retained];
+        int p = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            long[] items = levels.get(h);
+            int size = sizes.get(h);
+            for (int i = 0; i < size; i++) {
+                values[p] = items[i];
+                weights[p] = 1L << h;
+                p++;
+            }
+        }
+        Integer[] order = new Integer[p];
+        for (int i = 0; i < p; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(values[a], values[b]));
+        long[] sortedValues = new long[p];
+        long[] cumulative = new long[p];
+        long acc = 0;
+        for (int i = 0; i < p; i++) {
+            sortedValues[i] = values[order[i]];
+            acc += weights[order[i]];
+            cumulative[i] = acc;
+        }
+        return new long[][]{sortedValues, cumulative};
+    }
+
+    private int capacity(int h) {
+        int depth = levels.size() - h - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(C, depth)));
+    }
+
+    private void grow() {
+        levels.add(new long[8]);
+        sizes.add(0);
+        int total = 0;
+        for (int h = 0; h < levels.size(); h++) total += capacity(h);
+        maxRetained = total;
+    }
+
+    private void push(int h, long value) {
+        long[] items = levels.get(h);
+        int size = sizes.get(h);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(h, items);
+        }
+        items[size] = value;
+        sizes.set(h, size + 1);
+    }
+
+    // Compact the lowest full level; repeat while the sketch is still over its budget
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            if (sizes.get(h) < capacity(h)) continue;
+            if (h + 1 >= levels.size()) grow();
+            long[] items = levels.get(h);
+            int size = sizes.get(h);
+            Arrays.sort(items, 0, size);
+            // odd count: the smallest item stays at this level
+            int start = size % 2;
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = start + offset; i < size; i += 2) push(h + 1, items[i]);
+            sizes.set(h, start);
+            retained = 0;
+            for (int s : sizes) retained += s;
+            if (retained < maxRetained) break;
+        }
+    }
+}
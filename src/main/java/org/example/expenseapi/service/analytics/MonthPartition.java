@@ -0,0 +1,77 @@
+package org.example.expenseapi.service.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column arrays for all expenses of one calendar month. Not thread-safe: guarded by the owning store's lock.
+ * Rows are unordered; removal swaps the last row into the freed slot.
+ */
+final class MonthPartition {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    final int monthIndex; // year * 12 + (month - 1)
+    int size;
+    long[] ids = new long[INITIAL_CAPACITY];
+    int[] epochDays = new int[INITIAL_CAPACITY];
+    long[] categoryIds = new long[INITIAL_CAPACITY];
+    long[] statusIds = new long[INITIAL_CAPACITY];
+    long[] amountCents = new long[INITIAL_CAPACITY];
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    MonthPartition(int monthIndex) {
+        this.monthIndex = monthIndex;
+    }
+
+    void upsert(long id, int epochDay, long categoryId, long statusId, long cents) {
+        Integer slot = slotById.get(id);
+        int i;
+        if (slot == null) {
+            ensureCapacity(size + 1);
+            i = size++;
+            slotById.put(id, i);
+        } else {
+            i = slot;
+        }
+        ids[i] = id;
+        epochDays[i] = epochDay;
+        categoryIds[i] = categoryId;
+        statusIds[i] = statusId;
+        amountCents[i] = cents;
+    }
+
+    boolean remove(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) return false;
+        int i = slot;
+        int last = --size;
+        if (i != last) {
+            ids[i] = ids[last];
+            epochDays[i] = epochDays[last];
+            categoryIds[i] = categoryIds[last];
+            statusIds[i] = statusIds[last];
+            amountCents[i] = amountCents[last];
+            slotById.put(ids[i], i);
+        }
+        return true;
+    }
+
+    long sum() {
+        long s = 0;
+        for (int i = 0; i < size; i++) s += amountCents[i];
+        return s;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) return;
+        int cap = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, cap);
+        epochDays = Arrays.copyOf(epochDays, cap);
+        categoryIds = Arrays.copyOf(categoryIds, cap);
+        statusIds = Arrays.copyOf(statusIds, cap);
+        amountCents = Arrays.copyOf(amountCents, cap);
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.CategoryComparisonDto;
+import org.example.expenseapi.dto.PeriodComparisonDto;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.service.ExpensePeriodCloseService;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Current vs previous period totals per category (month, quarter or year; against the previous period or the
+ * same period a year earlier).
+ *
+ * Both periods come from one GROUP BY category/month query, with closed months read from their snapshots
+ * (or from the column store when it is loaded).
+ * Results are cached per (period, anchor, against) for up to {@code cache-ttl-seconds}, and evicted at once when an
+ * expense dated inside either period changes on this node.
+ */
+@Service
+public class PeriodComparisonService {
+
+    public static final String AGAINST_PREVIOUS = "previous";
+    public static final String AGAINST_YEAR_AGO = "year-ago";
+
+    private final ExpensePeriodCloseService periodCloses;
+    private final ExpenseCategoryRepository categoryRepo;
+    private final ExpenseColumnStore columnStore;
+    private final DateRangeCache<PeriodComparisonDto> cache;
+
+    public PeriodComparisonService(ExpensePeriodCloseService periodCloses,
+                                   ExpenseCategoryRepository categoryRepo,
+                                   ExpenseColumnStore columnStore,
+                                   @Value("${app.reports.compare.cache-size:256}") int cacheSize,
+                                   @Value("${app.reports.compare.cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        this.periodCloses = periodCloses;
+        this.categoryRepo = categoryRepo;
+        this.columnStore = columnStore;
+        this.cache = new DateRangeCache<>(cacheSize, cacheTtlSeconds);
+    }
+
+    public PeriodComparisonDto compare(ReportPeriod current, String against) {
+        ReportPeriod previous = AGAINST_YEAR_AGO.equals(against) ? current.yearAgo() : current.previous();
+        String key = current.getType() + "|" + current.getLabel() + "|" + against;
+        long seen = cache.stamp();
+        PeriodComparisonDto hit = cache.get(key);
+        if (hit != null) return hit;
+        PeriodComparisonDto result = build(current, previous, against);
+        cache.put(key, result, seen, current.getStart(), current.getEnd(), previous.getStart(), previous.getEnd());
+        return result;
+    }
+
+    private PeriodComparisonDto build(ReportPeriod current, ReportPeriod previous, String against) {
+        Map<Long, Long> currentSums;
+        Map<Long, Long> previousSums;
+        if (columnStore != null && columnStore.isReady()) {
+            currentSums = columnStore.sumByCategory(current.getStart(), current.getEnd(), null);
+            previousSums = columnStore.sumByCategory(previous.getStart(), previous.getEnd(), null);
+        } else {
+            currentSums = new HashMap<>();
+            previousSums = new HashMap<>();
+            // previous always lies before current: one pass over [previous.start, current.end],
+            // closed months in it are read from their snapshots
+            for (long[] r : periodCloses.countAndSumByCategoryAndMonth(previous.getStart(), current.getEnd())) {
+                LocalDate monthStart = YearMonth.of((int) r[1], (int) r[2]).atDay(1);
+                if (current.contains(monthStart)) currentSums.merge(r[0], r[4], MoneyUtils::add);
+                else if (previous.contains(monthStart)) previousSums.merge(r[0], r[4], MoneyUtils::add);
+            }
+        }
+
+        TreeSet<Long> categoryIds = new TreeSet<>(currentSums.keySet());
+        categoryIds.addAll(previousSums.keySet());
+        Map<Long, String> names = new HashMap<>();
+        for (ExpenseCategory c : categoryRepo.findAllById(categoryIds)) names.put(c.getId(), c.getName());
+
+        List<CategoryComparisonDto> rows = new ArrayList<>();
+        long currentTotal = 0L;
+        long previousTotal = 0L;
+        for (Long categoryId : categoryIds) {
+            long cur = currentSums.getOrDefault(categoryId, 0L);
+            long prev = previousSums.getOrDefault(categoryId, 0L);
+            currentTotal = MoneyUtils.add(currentTotal, cur);
+            previousTotal = MoneyUtils.add(previousTotal, prev);
+            rows.add(row(categoryId, names.get(categoryId), cur, prev));
+        }
+        // biggest movers first
+        rows.sort(Comparator.comparing((CategoryComparisonDto r) -> r.getDelta().abs()).reversed()
+                .thenComparing(CategoryComparisonDto::getCategoryId));
+
+        PeriodComparisonDto dto = new PeriodComparisonDto();
+        dto.setPeriod(current.getType().name().toLowerCase(Locale.ROOT));
+        dto.setAgainst(against);
+        dto.setCurrentLabel(current.getLabel());
+        dto.setCurrentStart(current.getStart());
+        dto.setCurrentEnd(current.getEnd());
+        dto.setPreviousLabel(previous.getLabel());
+        dto.setPreviousStart(previous.getStart());
+        dto.setPreviousEnd(previous.getEnd());
+        dto.setTotal(row(null, null, currentTotal, previousTotal));
+        dto.setCategories(rows);
+        return dto;
+    }
+
+    private static CategoryComparisonDto row(Long categoryId, String name, long currentCents, long previousCents) {
+        CategoryComparisonDto r = new CategoryComparisonDto();
+        r.setCategoryId(categoryId);
+        r.setCategoryName(name);
+        r.setCurrent(MoneyUtils.fromMinorUnits(currentCents));
+        r.setPrevious(MoneyUtils.fromMinorUnits(previousCents));
+        long delta = Math.subtractExact(currentCents, previousCents);
+        r.setDelta(MoneyUtils.fromMinorUnits(delta));
+        if (previousCents != 0L) {
+            r.setDeltaPercent(BigDecimal.valueOf(delta).multiply(BigDecimal.valueOf(100))
+                    .divide(BigDecimal.valueOf(previousCents), 2, RoundingMode.HALF_UP));
+        }
+        return r;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event == null) return;
+        cache.evict(date(event.getBefore()), date(event.getAfter()));
+    }
+
+    private static LocalDate date(ExpenseSnapshot s) {
+        return s == null ? null : s.getExpenseDate();
+    }
+}
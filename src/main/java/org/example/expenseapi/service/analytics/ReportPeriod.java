@@ -0,0 +1,141 @@
+package org.example.expenseapi.service.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A calendar month, quarter or year. Anchors are written as {@code 2026-10}, {@code 2026-Q4} and {@code 2026};
+ * a full date ({@code 2026-10-19}) selects the period of the given type containing that day.
+ */
+public final class ReportPeriod {
+
+    public enum Type { MONTH, QUARTER, YEAR }
+
+    private static final Pattern QUARTER = Pattern.compile("(\\d{4})-[Qq]([1-4])");
+
+    private final Type type;
+    private final YearMonth firstMonth;
+
+    private ReportPeriod(Type type, YearMonth firstMonth) {
+        this.type = type;
+        this.firstMonth = firstMonth;
+    }
+
+    public static ReportPeriod containing(Type type, LocalDate day) {
+        YearMonth ym = YearMonth.from(day);
+        switch (type) {
+            case MONTH: return new ReportPeriod(type, ym);
+            case QUARTER: return new ReportPeriod(type, YearMonth.of(ym.getYear(), ((ym.getMonthValue() - 1) / 3) * 3 + 1));
+            default: return new ReportPeriod(type, YearMonth.of(ym.getYear(), 1));
+        }
+    }
+
+    /**
+     * Parse a period type name (month | quarter | year, case-insensitive).
+     *
+     * @throws IllegalArgumentException when the name is unknown
+     */
+    public static Type parseType(String name) {
+        if (name == null) throw new IllegalArgumentException("period is required");
+        try {
+            return Type.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("period must be one of month, quarter, year");
+        }
+    }
+
+    /**
+     * Parse an anchor for the given type; a null/blank anchor means the current period.
+     *
+     * @throws IllegalArgumentException when the anchor does not match the type
+     */
+    public static ReportPeriod parse(Type type, String anchor) {
+        if (anchor == null || anchor.isBlank()) return containing(type, LocalDate.now());
+        String a = anchor.trim();
+        try {
+            if (a.length() == 10) return containing(type, LocalDate.parse(a));
+            switch (type) {
+                case MONTH:
+                    return new ReportPeriod(type, YearMonth.parse(a));
+                case QUARTER: {
+                    Matcher m = QUARTER.matcher(a);
+                    if (!m.matches()) break;
+                    return new ReportPeriod(type, YearMonth.of(Integer.parseInt(m.group(1)), (Integer.parseInt(m.group(2)) - 1) * 3 + 1));
+                }
+                default:
+                    if (a.matches("\\d{4}")) return new ReportPeriod(type, YearMonth.of(Integer.parseInt(a), 1));
+            }
+        } catch (DateTimeParseException ex) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("anchor must be formatted as " + example(type) + " or yyyy-MM-dd");
+    }
+
+    public Type getType() { return type; }
+
+    public int monthCount() {
+        switch (type) {
+            case MONTH: return 1;
+            case QUARTER: return 3;
+            default: return 12;
+        }
+    }
+
+    public YearMonth getFirstMonth() { return firstMonth; }
+    public YearMonth getLastMonth() { return firstMonth.plusMonths(monthCount() - 1); }
+    public LocalDate getStart() { return firstMonth.atDay(1); }
+    public LocalDate getEnd() { return getLastMonth().atEndOfMonth(); }
+
+    public boolean contains(LocalDate day) {
+        return day != null && !day.isBefore(getStart()) && !day.isAfter(getEnd());
+    }
+
+    /** The period of the same type right before this one. */
+    public ReportPeriod previous() {
+        return new ReportPeriod(type, firstMonth.minusMonths(monthCount()));
+    }
+
+    /** The same period one year earlier. */
+    public ReportPeriod yearAgo() {
+        return new ReportPeriod(type, firstMonth.minusYears(1));
+    }
+
+    public String getLabel() {
+        switch (type) {
+            case MONTH: return firstMonth.toString();
+            case QUARTER: return firstMonth.getYear() + "-Q" + ((firstMonth.getMonthValue() - 1) / 3 + 1);
+            default: return String.valueOf(firstMonth.getYear());
+        }
+    }
+
+    private static String example(Type type) {
+        switch (type) {
+            case MONTH: return "yyyy-MM";
+            case QUARTER: return "yyyy-Qn";
+            default: return "yyyy";
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReportPeriod)) return false;
+        ReportPeriod other = (ReportPeriod) o;
+        return type == other.type && firstMonth.equals(other.firstMonth);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, firstMonth);
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+}
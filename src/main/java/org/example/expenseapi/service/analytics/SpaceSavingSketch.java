@@ -0,0 +1,164 @@
+package org.example.expenseapi.service.analytics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary (Metwally et al.) keeping at most {@code capacity} heavy hitters of a weighted stream.
+ *
+ * Each tracked item has an estimated weight that over-counts the true weight by at most its {@code error};
+ * any item whose true weight exceeds total/capacity is guaranteed to be tracked. Besides the ranking weight every
+ * counter carries an auxiliary sum (e.g. the amount when ranking by count) accumulated while the item was tracked.
+ *
+ * Retractions (deleted/edited expenses) are applied to tracked items only, so they keep the summary a
+ * conservative approximation rather than an exact one. Not thread-safe.
+ */
+public final class SpaceSavingSketch {
+
+    /** One tracked item. */
+    public static final class Counter {
+        private final String item;
+        private long weight;
+        private long error;
+        private long aux;
+
+        Counter(String item, long weight, long error, long aux) {
+            this.item = item;
+            this.weight = weight;
+            this.error = error;
+            this.aux = aux;
+        }
+
+        public String getItem() { return item; }
+        public long getWeight() { return weight; }
+        public long getError() { return error; }
+        public long getAux() { return aux; }
+        /** Lower bound of the true weight. */
+        public long getGuaranteedWeight() { return Math.max(0L, weight - error); }
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private long totalWeight;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public int getCapacity() { return capacity; }
+    public int size() { return counters.size(); }
+    public long getTotalWeight() { return totalWeight; }
+
+    public void offer(String item, long weight, long aux) {
+        if (item == null || weight <= 0) return;
+        totalWeight += weight;
+        Counter c = counters.get(item);
+        if (c != null) {
+            c.weight += weight;
+            c.aux += aux;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(item, new Counter(item, weight, 0L, aux));
+            return;
+        }
+        // replace the smallest counter; the newcomer inherits its weight as error
+        Counter min = minCounter();
+        counters.remove(min.item);
+        counters.put(item, new Counter(item, min.weight + weight, min.weight, aux));
+    }
+
+    public void retract(String item, long weight, long aux) {
+        if (item == null || weight <= 0) return;
+        totalWeight = Math.max(0L, totalWeight - weight);
+        Counter c = counters.get(item);
+        if (c == null) return;
+        c.weight = Math.max(0L, c.weight - weight);
+        c.error = Math.min(c.error, c.weight);
+        c.aux -= aux;
+        if (c.weight == 0L) counters.remove(item);
+    }
+
+    /** Tracked items, heaviest first, at most {@code limit}. */
+    public List<Counter> top(int limit) {
+        List<Counter> all = new ArrayList<>(counters.values());
+        all.sort(Comparator.comparingLong(Counter::getWeight).reversed().thenComparing(Counter::getItem));
+        return all.size() > limit ? new ArrayList<>(all.subList(0, Math.max(0, limit))) : all;
+    }
+
+    /**
+     * Merge two summaries into a new one of the given capacity. Items tracked on one side only are charged the
+     * other side's minimum weight as additional error when that side was full (it may have evicted them).
+     */
+    public static SpaceSavingSketch merge(List<SpaceSavingSketch> sketches, int capacity) {
+        SpaceSavingSketch out = new SpaceSavingSketch(capacity);
+        Map<String, Counter> combined = new HashMap<>();
+        for (SpaceSavingSketch s : sketches) {
+            out.totalWeight += s.totalWeight;
+        }
+        for (SpaceSavingSketch s : sketches) {
+            for (Counter c : s.counters.values()) {
+                Counter acc = combined.computeIfAbsent(c.item, k -> new Counter(k, 0L, 0L, 0L));
+                acc.weight += c.weight;
+                acc.error += c.error;
+                acc.aux += c.aux;
+            }
+        }
+        for (SpaceSavingSketch s : sketches) {
+            if (s.counters.size() < s.capacity) continue;
+            long floor = s.minCounter().weight;
+            for (Counter acc : combined.values()) {
+                if (!s.counters.containsKey(acc.item)) {
+                    acc.weight += floor;
+                    acc.error += floor;
+                }
+            }
+        }
+        List<Counter> ranked = new ArrayList<>(combined.values());
+        ranked.sort(Comparator.comparingLong(Counter::getWeight).reversed().thenComparing(Counter::getItem));
+        for (int i = 0; i < ranked.size() && i < capacity; i++) {
+            Counter c = ranked.get(i);
+            out.counters.put(c.item, c);
+        }
+        return out;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(capacity);
+        out.writeLong(totalWeight);
+        out.writeInt(counters.size());
+        for (Counter c : counters.values()) {
+            out.writeUTF(c.item);
+            out.writeLong(c.weight);
+            out.writeLong(c.error);
+            out.writeLong(c.aux);
+        }
+    }
+
+    static SpaceSavingSketch readFrom(DataInputStream in) throws IOException {
+        SpaceSavingSketch s = new SpaceSavingSketch(in.readInt());
+        s.totalWeight = in.readLong();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            String item = in.readUTF();
+            s.counters.put(item, new Counter(item, in.readLong(), in.readLong(), in.readLong()));
+        }
+        return s;
+    }
+
+    private Counter minCounter() {
+        Counter min = null;
+        for (Counter c : counters.values()) {
+            if (min == null || c.weight < min.weight) min = c;
+        }
+        return min;
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.SpendProjectionDto;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rolling spend and month-end projections per category.
+ *
+ * Each category keeps a {@link DailySpendRing} of its last {@code history-days} days. A ring is loaded from the
+ * database on first use; afterwards expense writes are applied as they commit and, when the date moves on, only the
+ * new days are read. A ring older than {@code ttl-seconds} is read again in full, so writes made on other nodes show
+ * up. Projections:
+ * <ul>
+ *   <li>linear: month-to-date spend divided by the elapsed days, times the days in the month</li>
+ *   <li>EWMA: spent so far plus an exponentially weighted daily rate (up to yesterday) times the days left</li>
+ * </ul>
+ * Expenses dated later in the current month are counted as already spent by both.
+ */
+@Service
+public class SpendVelocityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(SpendVelocityTracker.class);
+
+    // the month-to-date sum must fit in the window
+    private static final int MIN_HISTORY_DAYS = 31;
+
+    private final ExpenseRepository expenseRepo;
+    private final int historyDays;
+    private final double alpha;
+    private final long ttlNanos;
+
+    // guards entries
+    private final Object lock = new Object();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // serializes loads so concurrent requests do not read the same days twice
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public SpendVelocityTracker(ExpenseRepository expenseRepo,
+                                @Value("${app.budgets.projection.history-days:60}") int historyDays,
+                                @Value("${app.budgets.projection.ewma-alpha:0.1}") double alpha,
+                                @Value("${app.budgets.projection.ttl-seconds:300}") long ttlSeconds) {
+        if (alpha <= 0 || alpha > 1) throw new IllegalArgumentException("app.budgets.projection.ewma-alpha must be in (0, 1]");
+        this.expenseRepo = expenseRepo;
+        this.historyDays = Math.max(MIN_HISTORY_DAYS, historyDays);
+        this.alpha = alpha;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+    }
+
+    /**
+     * Velocity and month-end projection of the month containing {@code today} for each category.
+     *
+     * @param monthSpentCents spent in the whole month per category, as reported by the budget status
+     */
+    public Map<Long, SpendProjectionDto> project(Map<Long, Long> monthSpentCents, LocalDate today) {
+        Map<Long, SpendProjectionDto> result = new LinkedHashMap<>();
+        if (monthSpentCents.isEmpty()) return result;
+        ensureLoaded(monthSpentCents.keySet(), today);
+
+        LocalDate monthStart = today.withDayOfMonth(1);
+        int elapsed = today.getDayOfMonth();
+        int length = today.lengthOfMonth();
+        synchronized (lock) {
+            for (Map.Entry<Long, Long> e : monthSpentCents.entrySet()) {
+                Entry entry = entries.get(e.getKey());
+                if (entry == null) continue;
+                DailySpendRing ring = entry.ring;
+                long spent = e.getValue() == null ? 0L : e.getValue();
+                long monthToDate = ring.sum(monthStart, today);
+                long scheduled = spent - monthToDate; // dated after today
+                double rate = ring.ewma(today.minusDays(ring.capacity() - 1L), today.minusDays(1), alpha);
+
+                SpendProjectionDto dto = new SpendProjectionDto();
+                dto.setCategoryId(e.getKey());
+                dto.setAsOf(today);
+                dto.setLast7Days(MoneyUtils.fromMinorUnits(ring.sum(today.minusDays(6), today)));
+                dto.setLast30Days(MoneyUtils.fromMinorUnits(ring.sum(today.minusDays(29), today)));
+                dto.setDailyRate(MoneyUtils.fromMinorUnits(Math.round(rate)));
+                dto.setSpent(MoneyUtils.fromMinorUnits(spent));
+                long linear = BigDecimal.valueOf(monthToDate).multiply(BigDecimal.valueOf(length))
+                        .divide(BigDecimal.valueOf(elapsed), 0, RoundingMode.HALF_UP).longValueExact();
+                dto.setLinearProjection(MoneyUtils.fromMinorUnits(MoneyUtils.add(linear, scheduled)));
+                dto.setEwmaProjection(MoneyUtils.fromMinorUnits(MoneyUtils.add(spent, Math.round(rate * (length - elapsed)))));
+                result.put(e.getKey(), dto);
+            }
+        }
+        return result;
+    }
+
+    // ---- change feed ---------------------------------------------------------------------------------------
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event == null) return;
+        synchronized (lock) {
+            apply(event.getBefore(), -1);
+            apply(event.getAfter(), 1);
+        }
+    }
+
+    private void apply(ExpenseSnapshot s, int sign) {
+        if (s == null || s.getCategoryId() == null || s.getExpenseDate() == null || s.getAmount() == null) return;
+        Entry entry = entries.get(s.getCategoryId());
+        if (entry == null) return;
+        LocalDate day = s.getExpenseDate();
+        if (entry.loadingThrough != null && day.isAfter(entry.ring.getLoadedThrough()) && !day.isAfter(entry.loadingThrough)) {
+            // the running load may or may not see this row
+            entry.stale = true;
+            return;
+        }
+        long cents = MoneyUtils.toMinorUnitsRounded(s.getAmount());
+        entry.ring.add(day, sign < 0 ? Math.negateExact(cents) : cents);
+    }
+
+    // ---- loading -------------------------------------------------------------------------------------------
+
+    private void ensureLoaded(Collection<Long> categoryIds, LocalDate today) {
+        if (behind(categoryIds, today).isEmpty()) return;
+        buildLock.lock();
+        try {
+            List<Long> ids = behind(categoryIds, today);
+            if (ids.isEmpty()) return;
+            Map<Long, Entry> loading = new HashMap<>();
+            LocalDate from = today;
+            long now = System.nanoTime();
+            synchronized (lock) {
+                for (Long id : ids) {
+                    Entry entry = entries.get(id);
+                    if (entry == null || entry.stale || expired(entry, now)) {
+                        entry = new Entry(new DailySpendRing(historyDays, today.minusDays(historyDays)), now);
+                        entries.put(id, entry);
+                    }
+                    entry.loadingThrough = today;
+                    loading.put(id, entry);
+                    LocalDate next = entry.ring.getLoadedThrough().plusDays(1);
+                    if (next.isBefore(from)) from = next;
+                }
+            }
+            try {
+                load(loading, from, today);
+            } catch (RuntimeException ex) {
+                synchronized (lock) {
+                    loading.keySet().forEach(entries::remove);
+                }
+                throw ex;
+            } finally {
+                synchronized (lock) {
+                    for (Entry entry : loading.values()) entry.loadingThrough = null;
+                }
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private List<Long> behind(Collection<Long> categoryIds, LocalDate today) {
+        List<Long> ids = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (lock) {
+            for (Long id : categoryIds) {
+                if (id == null) continue;
+                Entry entry = entries.get(id);
+                // a ring still being loaded by another request counts as behind so the caller waits for it
+                if (entry == null || entry.stale || expired(entry, now) || entry.loadingThrough != null
+                        || entry.ring.getLoadedThrough().isBefore(today)) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.loadedAt >= ttlNanos;
+    }
+
+    // Read the days each ring is missing with one grouped query and move the rings forward to today
+    private void load(Map<Long, Entry> loading, LocalDate from, LocalDate today) {
+        long startedAt = System.currentTimeMillis();
+        List<Object[]> rows = expenseRepo.sumAmountGroupedByCategoryAndDayBetween(new ArrayList<>(loading.keySet()), from, today);
+        synchronized (lock) {
+            Map<Long, LocalDate> previous = new HashMap<>();
+            for (Map.Entry<Long, Entry> e : loading.entrySet()) {
+                previous.put(e.getKey(), e.getValue().ring.getLoadedThrough());
+                e.getValue().ring.setLoadedThrough(today);
+            }
+            for (Object[] r : rows) {
+                if (r[0] == null || r[1] == null || r[2] == null) continue;
+                Long categoryId = ((Number) r[0]).longValue();
+                Entry entry = loading.get(categoryId);
+                LocalDate day = (LocalDate) r[1];
+                if (entry == null || !day.isAfter(previous.get(categoryId))) continue;
+                entry.ring.add(day, MoneyUtils.toMinorUnitsRounded((BigDecimal) r[2]));
+            }
+        }
+        log.debug("Loaded spend velocity for {} categories from {} to {} in {} ms", loading.size(), from, today, System.currentTimeMillis() - startedAt);
+    }
+
+    private static final class Entry {
+        final DailySpendRing ring;
+        final long loadedAt; // System.nanoTime() when the full read started
+        boolean stale;
+        LocalDate loadingThrough; // non-null while a load is running
+
+        Entry(DailySpendRing ring, long loadedAt) {
+            this.ring = ring;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package org.example.expenseapi.service.analytics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.expenseapi.dto.TopDesignationDto;
+import org.example.expenseapi.dto.TopDesignationsReportDto;
+import org.example.expenseapi.model.ExpenseDesignationSketch;
+import org.example.expenseapi.repository.ExpenseDesignationSketchRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.example.expenseapi.util.MoneyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Top designations (merchants) per month, by expense count or by amount.
+ *
+ * Small months are answered with an exact GROUP BY. Larger ones are answered from Space-Saving sketches kept per
+ * (category, month): a month's sketches are materialized on first use (from the persisted copy when its totals
+ * still match the expenses table, otherwise by streaming the month once), then kept current from
+ * {@link ExpenseChangedEvent}s and written back periodically.
+ *
+ * A write is tracked from the moment its event is published until its transaction completes. A month read while a
+ * write to it is in that window may or may not contain the write's row, and Space-Saving counters cannot be corrected
+ * afterwards without knowing which: such a month is marked stale instead. The query that built it is answered from
+ * the build, the month is not written back, and the next query rebuilds it.
+ */
+@Service
+public class TopDesignationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TopDesignationService.class);
+
+    public static final String BY_COUNT = "count";
+    public static final String BY_AMOUNT = "amount";
+
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseDesignationSketchRepository sketchRepo;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final int capacity;
+    private final long exactThreshold;
+    private final long flushIntervalSeconds;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "designation-sketch-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // guards months, building, inFlight and everything inside MonthSketches
+    private final Object lock = new Object();
+    private final Map<YearMonth, MonthSketches> months = new HashMap<>();
+    // months being read from the database
+    private final Map<YearMonth, MonthSketches> building = new HashMap<>();
+    // writes per month whose transaction has not completed yet
+    private final Map<YearMonth, Integer> inFlight = new HashMap<>();
+    // serializes month materialization so a month is read from the database only once
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    public TopDesignationService(ExpenseRepository expenseRepo,
+                                 ExpenseDesignationSketchRepository sketchRepo,
+                                 PlatformTransactionManager txManager,
+                                 @Value("${app.analytics.top-designations.capacity:64}") int capacity,
+                                 @Value("${app.analytics.top-designations.exact-threshold:5000}") long exactThreshold,
+                                 @Value("${app.analytics.top-designations.flush-interval-seconds:60}") long flushIntervalSeconds) {
+        this.expenseRepo = expenseRepo;
+        this.sketchRepo = sketchRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.capacity = capacity;
+        this.exactThreshold = exactThreshold;
+        this.flushIntervalSeconds = flushIntervalSeconds;
+    }
+
+    @PostConstruct
+    public void init() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    /**
+     * Top designations of the month, optionally within one category.
+     *
+     * @param rankBy {@link #BY_COUNT} or {@link #BY_AMOUNT}
+     * @param forceExact always use the exact GROUP BY
+     */
+    public TopDesignationsReportDto topDesignations(YearMonth month, Long categoryId, int limit, String rankBy, boolean forceExact) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        boolean byAmount = BY_AMOUNT.equals(rankBy);
+
+        TopDesignationsReportDto report = new TopDesignationsReportDto();
+        report.setMonth(month.toString());
+        report.setCategoryId(categoryId);
+        report.setRankBy(byAmount ? BY_AMOUNT : BY_COUNT);
+
+        long rows = forceExact ? 0L : expenseRepo.countBetween(start, end, categoryId);
+        if (forceExact || rows <= exactThreshold) {
+            fillExact(report, start, end, categoryId, limit, byAmount);
+        } else {
+            fillFromSketches(report, month, categoryId, limit, byAmount);
+        }
+        return report;
+    }
+
+    private void fillExact(TopDesignationsReportDto report, LocalDate start, LocalDate end, Long categoryId, int limit, boolean byAmount) {
+        List<TopDesignationDto> items = new ArrayList<>();
+        long totalCount = 0L;
+        long totalCents = 0L;
+        for (Object[] r : expenseRepo.countAndSumGroupedByDesignationBetween(start, end, categoryId)) {
+            TopDesignationDto dto = new TopDesignationDto();
+            dto.setDesignation((String) r[0]);
+            dto.setCount(((Number) r[1]).longValue());
+            dto.setAmount(MoneyUtils.fromMinorUnits(MoneyUtils.toMinorUnitsRounded((BigDecimal) r[2])));
+            totalCount += dto.getCount();
+            totalCents = MoneyUtils.add(totalCents, MoneyUtils.toMinorUnits(dto.getAmount()));
+            items.add(dto);
+        }
+        Comparator<TopDesignationDto> order = byAmount
+                ? Comparator.comparing(TopDesignationDto::getAmount).reversed()
+                : Comparator.comparing(TopDesignationDto::getCount).reversed();
+        items.sort(order.thenComparing(TopDesignationDto::getDesignation, Comparator.nullsLast(Comparator.naturalOrder())));
+        report.setExact(true);
+        report.setTotalCount(totalCount);
+        report.setTotalAmount(MoneyUtils.fromMinorUnits(totalCents));
+        report.setItems(items.size() > limit ? new ArrayList<>(items.subList(0, limit)) : items);
+    }
+
+    private void fillFromSketches(TopDesignationsReportDto report, YearMonth month, Long categoryId, int limit, boolean byAmount) {
+        ensureMonth(month);
+        DesignationSketch merged;
+        synchronized (lock) {
+            MonthSketches ms = months.get(month);
+            List<DesignationSketch> selected = new ArrayList<>();
+            for (Map.Entry<Long, DesignationSketch> e : ms.byCategory.entrySet()) {
+                if (categoryId == null || categoryId.equals(e.getKey())) selected.add(e.getValue());
+            }
+            merged = DesignationSketch.merge(selected, capacity);
+        }
+        List<TopDesignationDto> items = new ArrayList<>();
+        for (SpaceSavingSketch.Counter c : (byAmount ? merged.byAmount : merged.byCount).top(limit)) {
+            TopDesignationDto dto = new TopDesignationDto();
+            dto.setDesignation(c.getItem());
+            if (byAmount) {
+                dto.setAmount(MoneyUtils.fromMinorUnits(c.getWeight()));
+                dto.setAmountError(MoneyUtils.fromMinorUnits(c.getError()));
+                dto.setCount(c.getAux());
+            } else {
+                dto.setCount(c.getWeight());
+                dto.setCountError(c.getError());
+                dto.setAmount(MoneyUtils.fromMinorUnits(c.getAux()));
+            }
+            items.add(dto);
+        }
+        report.setExact(false);
+        report.setTotalCount(merged.count());
+        report.setTotalAmount(MoneyUtils.fromMinorUnits(merged.amount()));
+        report.setItems(items);
+    }
+
+    // ---- change feed ---------------------------------------------------------------------------------------
+
+    // Runs when the event is published, i.e. before the write commits; the change is applied once it has committed
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event == null || sameSketchInput(event.getBefore(), event.getAfter())) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (lock) {
+                applyChange(event);
+            }
+            return;
+        }
+        Set<YearMonth> touched = new HashSet<>();
+        for (ExpenseSnapshot s : new ExpenseSnapshot[]{event.getBefore(), event.getAfter()}) {
+            if (s != null && s.getExpenseDate() != null && s.getCategoryId() != null) touched.add(YearMonth.from(s.getExpenseDate()));
+        }
+        if (touched.isEmpty()) return;
+        synchronized (lock) {
+            for (YearMonth month : touched) {
+                inFlight.merge(month, 1, Integer::sum);
+                MonthSketches build = building.get(month);
+                if (build != null) build.stale = true;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (lock) {
+                    if (status == STATUS_COMMITTED) applyChange(event);
+                    for (YearMonth month : touched) inFlight.computeIfPresent(month, (m, n) -> n == 1 ? null : n - 1);
+                }
+            }
+        });
+    }
+
+    private void applyChange(ExpenseChangedEvent event) {
+        if (event.getBefore() != null) applyOrMarkStale(event.getBefore(), false);
+        if (event.getAfter() != null) applyOrMarkStale(event.getAfter(), true);
+    }
+
+    // Months that were never materialized are ignored: they are read from the database on first use
+    private void applyOrMarkStale(ExpenseSnapshot s, boolean add) {
+        if (s.getExpenseDate() == null || s.getCategoryId() == null) return;
+        YearMonth month = YearMonth.from(s.getExpenseDate());
+        // the running read may or may not see this row
+        MonthSketches build = building.get(month);
+        if (build != null) build.stale = true;
+        MonthSketches ms = months.get(month);
+        if (ms != null && !ms.stale) apply(ms, s, add);
+    }
+
+    private void apply(MonthSketches ms, ExpenseSnapshot s, boolean add) {
+        long cents = MoneyUtils.toMinorUnitsRounded(s.getAmount());
+        DesignationSketch sketch = ms.byCategory.computeIfAbsent(s.getCategoryId(), k -> new DesignationSketch(capacity));
+        if (add) sketch.add(s.getDesignation(), cents);
+        else sketch.remove(s.getDesignation(), cents);
+        ms.dirty.add(s.getCategoryId());
+    }
+
+    private static boolean sameSketchInput(ExpenseSnapshot a, ExpenseSnapshot b) {
+        if (a == null || b == null) return false;
+        return Objects.equals(a.getCategoryId(), b.getCategoryId())
+                && Objects.equals(a.getExpenseDate() == null ? null : YearMonth.from(a.getExpenseDate()),
+                                  b.getExpenseDate() == null ? null : YearMonth.from(b.getExpenseDate()))
+                && Objects.equals(DesignationSketch.normalize(a.getDesignation()), DesignationSketch.normalize(b.getDesignation()))
+                && (a.getAmount() == null ? b.getAmount() == null : b.getAmount() != null && a.getAmount().compareTo(b.getAmount()) == 0);
+    }
+
+    // ---- materialization -----------------------------------------------------------------------------------
+
+    void ensureMonth(YearMonth month) {
+        synchronized (lock) {
+            MonthSketches ms = months.get(month);
+            if (ms != null && !ms.stale) return;
+        }
+        buildLock.lock();
+        try {
+            MonthSketches ms = new MonthSketches();
+            synchronized (lock) {
+                MonthSketches current = months.get(month);
+                if (current != null && !current.stale) return;
+                // from here on, changes to this month mark the build stale; so do writes already in flight
+                ms.stale = inFlight.containsKey(month);
+                building.put(month, ms);
+            }
+            Map<Long, DesignationSketch> built = new HashMap<>();
+            Set<Long> rebuilt = new HashSet<>();
+            try {
+                materialize(month, built, rebuilt);
+            } finally {
+                synchronized (lock) {
+                    building.remove(month);
+                }
+            }
+            synchronized (lock) {
+                ms.byCategory.putAll(built);
+                ms.dirty.addAll(rebuilt);
+                // a stale month keeps answering queries until its rebuild replaces it
+                months.put(month, ms);
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void materialize(YearMonth month, Map<Long, DesignationSketch> built, Set<Long> rebuilt) {
+        long startedAt = System.currentTimeMillis();
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+
+        // categoryId -> {count, cents} as currently in the expenses table
+        Map<Long, long[]> dbTotals = new HashMap<>();
+        for (Object[] r : expenseRepo.countAndSumGroupedByCategoryBetween(start, end)) {
+            if (r[0] == null) continue;
+            dbTotals.put(((Number) r[0]).longValue(),
+                    new long[]{((Number) r[1]).longValue(), MoneyUtils.toMinorUnitsRounded((BigDecimal) r[2])});
+        }
+
+        // reuse persisted sketches whose totals still match
+        for (ExpenseDesignationSketch p : sketchRepo.findByYearAndMonth(month.getYear(), month.getMonthValue())) {
+            long[] t = dbTotals.get(p.getCategoryId());
+            if (t != null && t[0] == p.getExpenseCount() && t[1] == p.getAmountCents()) {
+                try {
+                    built.put(p.getCategoryId(), DesignationSketch.deserialize(p.getPayload()));
+                } catch (RuntimeException ex) {
+                    log.warn("Ignoring unreadable designation sketch categoryId={} month={}: {}", p.getCategoryId(), month, ex.getMessage());
+                }
+            } else if (t == null) {
+                // category has no expenses left this month: overwrite the stale copy with an empty sketch
+                built.put(p.getCategoryId(), new DesignationSketch(capacity));
+                rebuilt.add(p.getCategoryId());
+            }
+        }
+
+        Set<Long> missing = new HashSet<>(dbTotals.keySet());
+        missing.removeAll(built.keySet());
+        if (missing.isEmpty()) {
+            log.debug("Designation sketches for {} loaded from storage", month);
+            return;
+        }
+        for (Long categoryId : missing) built.put(categoryId, new DesignationSketch(capacity));
+        long rows = readOnlyTx.execute(status -> {
+            long count = 0;
+            try (var stream = expenseRepo.streamDesignationsBetween(start, end)) {
+                var it = stream.iterator();
+                while (it.hasNext()) {
+                    Object[] r = it.next();
+                    if (r[0] == null) continue;
+                    Long categoryId = ((Number) r[0]).longValue();
+                    if (!missing.contains(categoryId)) continue;
+                    built.get(categoryId).add((String) r[1], MoneyUtils.toMinorUnitsRounded((BigDecimal) r[2]));
+                    count++;
+                }
+            }
+            return count;
+        });
+        rebuilt.addAll(missing);
+        log.info("Built designation sketches for {} ({} categories, {} expenses) in {} ms",
+                month, missing.size(), rows, System.currentTimeMillis() - startedAt);
+    }
+
+    // ---- persistence ---------------------------------------------------------------------------------------
+
+    /** Write sketches changed since the last flush. */
+    public void flush() {
+        List<ExpenseDesignationSketch> toSave = new ArrayList<>();
+        synchronized (lock) {
+            for (Map.Entry<YearMonth, MonthSketches> e : months.entrySet()) {
+                MonthSketches ms = e.getValue();
+                if (ms.stale || ms.dirty.isEmpty()) continue;
+                for (Long categoryId : ms.dirty) {
+                    DesignationSketch sketch = ms.byCategory.get(categoryId);
+                    if (sketch == null) continue;
+                    ExpenseDesignationSketch row = new ExpenseDesignationSketch();
+                    row.setCategoryId(categoryId);
+                    row.setYear(e.getKey().getYear());
+                    row.setMonth(e.getKey().getMonthValue());
+                    row.setExpenseCount(sketch.count());
+                    row.setAmountCents(sketch.amount());
+                    row.setPayload(sketch.serialize());
+                    toSave.add(row);
+                }
+                ms.dirty.clear();
+            }
+        }
+        if (toSave.isEmpty()) return;
+        try {
+            tx.executeWithoutResult(status -> {
+                for (ExpenseDesignationSketch row : toSave) {
+                    ExpenseDesignationSketch target = sketchRepo
+                            .findByCategoryIdAndYearAndMonth(row.getCategoryId(), row.getYear(), row.getMonth())
+                            .orElse(row);
+                    target.setExpenseCount(row.getExpenseCount());
+                    target.setAmountCents(row.getAmountCents());
+                    target.setPayload(row.getPayload());
+                    sketchRepo.save(target);
+                }
+            });
+            log.debug("Flushed {} designation sketches", toSave.size());
+        } catch (RuntimeException ex) {
+            // mark them dirty again so the next run retries
+            synchronized (lock) {
+                for (ExpenseDesignationSketch row : toSave) {
+                    MonthSketches ms = months.get(YearMonth.of(row.getYear(), row.getMonth()));
+                    if (ms != null) ms.dirty.add(row.getCategoryId());
+                }
+            }
+            throw ex;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Failed to persist designation sketches: {}", ex.getMessage());
+        }
+    }
+
+    private static final class MonthSketches {
+        final Map<Long, DesignationSketch> byCategory = new HashMap<>();
+        final Set<Long> dirty = new HashSet<>();
+        // changed while being read: answered as built, never written back, rebuilt on next use
+        boolean stale;
+    }
+}
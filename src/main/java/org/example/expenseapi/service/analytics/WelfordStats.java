@@ -0,0 +1,96 @@
+package org.example.expenseapi.service.analytics;
+
+/**
+ * Running count, mean and variance (Welford's online algorithm). Values can also be removed, which lets edits and
+ * deletes be undone without a rescan. O(1) per update and three numbers of state. Not thread-safe.
+ */
+public final class WelfordStats {
+
+    private long count;
+    private double mean;
+    private double m2; // sum of squared distances from the mean
+
+    public WelfordStats() {
+    }
+
+    public WelfordStats(long count, double mean, double m2) {
+        this.count = Math.max(0L, count);
+        this.mean = this.count == 0 ? 0.0 : mean;
+        this.m2 = this.count < 2 ? 0.0 : Math.max(0.0, m2);
+    }
+
+    public long getCount() { return count; }
+    public double getMean() { return mean; }
+    public double getM2() { return m2; }
+
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    /** Undo a previous {@link #add(double)} of the same value. */
+    public void remove(double x) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0.0;
+            m2 = 0.0;
+            return;
+        }
+        double meanWithout = (count * mean - x) / (count - 1);
+        m2 -= (x - mean) * (x - meanWithout);
+        if (m2 < 0) m2 = 0.0; // rounding
+        mean = meanWithout;
+        count--;
+    }
+
+    /** Fold in statistics built from other values (Chan et al. parallel update). */
+    public void merge(WelfordStats other) {
+        if (other.count == 0) return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        mean += delta * other.count / n;
+        count = n;
+    }
+
+    /** Undo a previous {@link #merge(WelfordStats)} of the same statistics. */
+    public void unmerge(WelfordStats other) {
+        if (other.count == 0) return;
+        if (other.count >= count) {
+            count = 0;
+            mean = 0.0;
+            m2 = 0.0;
+            return;
+        }
+        long n = count - other.count;
+        double meanWithout = (count * mean - other.count * other.mean) / n;
+        double delta = other.mean - meanWithout;
+        m2 -= other.m2 + delta * delta * ((double) n * other.count / count);
+        if (m2 < 0 || n < 2) m2 = 0.0; // rounding
+        mean = meanWithout;
+        count = n;
+    }
+
+    /** Sample variance; 0 with fewer than two values. */
+    public double variance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    public double stddev() {
+        return Math.sqrt(variance());
+    }
+
+    /** Number of standard deviations {@code x} lies from the mean, or NaN when the spread is zero or unknown. */
+    public double zScore(double x) {
+        double sd = stddev();
+        return sd > 0 ? (x - mean) / sd : Double.NaN;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.expenseapi.service.event;
+
+/**
+ * Published by the budget service when the budget of a category/month is set, changed or deleted.
+ */
+public final class BudgetChangedEvent {
+
+    private final Long categoryId;
+    private final int year;
+    private final int month;
+
+    public BudgetChangedEvent(Long categoryId, int year, int month) {
+        this.categoryId = categoryId;
+        this.year = year;
+        this.month = month;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+}
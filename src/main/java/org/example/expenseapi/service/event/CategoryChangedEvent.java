@@ -0,0 +1,15 @@
+package org.example.expenseapi.service.event;
+
+/**
+ * Published by the category service when a category is created, changed, moved or deleted.
+ */
+public final class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+}
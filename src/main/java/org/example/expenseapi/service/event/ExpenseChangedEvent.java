@@ -0,0 +1,34 @@
+package org.example.expenseapi.service.event;
+
+/**
+ * Published by the expense service for every create, update and delete.
+ * {@code before} is null for creates, {@code after} is null for deletes.
+ */
+public final class ExpenseChangedEvent {
+
+    private final ExpenseSnapshot before;
+    private final ExpenseSnapshot after;
+
+    public ExpenseChangedEvent(ExpenseSnapshot before, ExpenseSnapshot after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public static ExpenseChangedEvent created(ExpenseSnapshot after) {
+        return new ExpenseChangedEvent(null, after);
+    }
+
+    public static ExpenseChangedEvent updated(ExpenseSnapshot before, ExpenseSnapshot after) {
+        return new ExpenseChangedEvent(before, after);
+    }
+
+    public static ExpenseChangedEvent deleted(ExpenseSnapshot before) {
+        return new ExpenseChangedEvent(before, null);
+    }
+
+    public ExpenseSnapshot getBefore() { return before; }
+    public ExpenseSnapshot getAfter() { return after; }
+
+    public boolean isCreate() { return before == null && after != null; }
+    public boolean isDelete() { return before != null && after == null; }
+}
@@ -0,0 +1,47 @@
+package org.example.expenseapi.service.event;
+
+import org.example.expenseapi.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of the fields of an {@link Expense} that derived data (aggregates, caches, sketches) depends on.
+ * Taken inside the write transaction so listeners never touch lazy associations.
+ */
+public final class ExpenseSnapshot {
+
+    private final Long id;
+    private final LocalDate expenseDate;
+    private final Long categoryId;
+    private final Long statusId;
+    private final BigDecimal amount;
+    private final String designation;
+
+    public ExpenseSnapshot(Long id, LocalDate expenseDate, Long categoryId, Long statusId, BigDecimal amount, String designation) {
+        this.id = id;
+        this.expenseDate = expenseDate;
+        this.categoryId = categoryId;
+        this.statusId = statusId;
+        this.amount = amount;
+        this.designation = designation;
+    }
+
+    public static ExpenseSnapshot of(Expense e) {
+        if (e == null) return null;
+        return new ExpenseSnapshot(
+                e.getId(),
+                e.getExpenseDate(),
+                e.getExpenseCategory() != null ? e.getExpenseCategory().getId() : null,
+                e.getExpenseStatus() != null ? e.getExpenseStatus().getId() : null,
+                e.getAmount(),
+                e.getDesignation());
+    }
+
+    public Long getId() { return id; }
+    public LocalDate getExpenseDate() { return expenseDate; }
+    public Long getCategoryId() { return categoryId; }
+    public Long getStatusId() { return statusId; }
+    public BigDecimal getAmount() { return amount; }
+    public String getDesignation() { return designation; }
+}
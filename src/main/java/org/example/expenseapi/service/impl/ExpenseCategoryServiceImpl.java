@@ -2,52 +2,65 @@ package org.example.expenseapi.service.impl;
 
 import org.example.expenseapi.model.ExpenseCategory;
 import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.repository.ExpenseCategoryClosureRepository;
 import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.service.CategoryTreeCache;
+import org.example.expenseapi.service.CategoryTreeLock;
 import org.example.expenseapi.service.ExpenseCategoryService;
+import org.example.expenseapi.service.event.CategoryChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class ExpenseCategoryServiceImpl implements ExpenseCategoryService {
 
     private final ExpenseCategoryRepository repository;
-
-    public ExpenseCategoryServiceImpl(ExpenseCategoryRepository repository) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryTreeCache categoryTree;
+    private final ExpenseCategoryClosureRepository closureRepo;
+    private final CategoryTreeLock treeLock;
+
+    public ExpenseCategoryServiceImpl(ExpenseCategoryRepository repository, ApplicationEventPublisher eventPublisher,
+                                      CategoryTreeCache categoryTree, ExpenseCategoryClosureRepository closureRepo,
+                                      CategoryTreeLock treeLock) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.categoryTree = categoryTree;
+        this.closureRepo = closureRepo;
+        this.treeLock = treeLock;
     }
 
     @Override
     public ExpenseCategory createExpenseCategory(ExpenseCategory category) {
-        // Determine sibling list based on parent (null parent -> top-level)
-        List<ExpenseCategory> siblings = (category.getParent() == null)
-                ? repository.findByParentIsNullOrderByLevelAsc()
-                : repository.findByParentOrderByLevelAsc(category.getParent());
+        // Siblings are the children of the parent (null parent -> top-level); reorders under it are serialized.
+        // Under a parent, the tree lock is held shared: the parent's ancestors, whose closure links the new category
+        // copies, cannot move before this commits, while inserts under other parents go ahead.
+        Long parentId = idOf(category.getParent());
+        if (parentId != null) treeLock.lockShared();
+        lockSiblings(new HashSet<>(), parentId);
+        int maxLevel = maxLevel(parentId);
 
         Integer requestedLevel = category.getLevel();
         if (requestedLevel == null || requestedLevel <= 0) {
             // place at the bottom
-            int next = 1;
-            if (!siblings.isEmpty()) {
-                ExpenseCategory last = siblings.get(siblings.size() - 1);
-                if (last.getLevel() != null) next = last.getLevel() + 1;
-            }
-            category.setLevel(next);
+            category.setLevel(maxLevel + 1);
         } else {
-            // ensure at least 1 (requestedLevel > 0 here)
-            int newLevel = requestedLevel;
+            // at most right below the last sibling, so levels stay contiguous
+            int newLevel = Math.min(requestedLevel, maxLevel + 1);
             // shift siblings with level >= newLevel
-            for (ExpenseCategory s : siblings) {
-                Integer lvl = s.getLevel();
-                if (lvl != null && lvl >= newLevel) {
-                    s.setLevel(lvl + 1);
-                    repository.save(s);
-                }
-            }
+            if (newLevel <= maxLevel) repository.shiftLevels(parentId, newLevel, maxLevel, 1);
             category.setLevel(newLevel);
         }
 
@@ -55,133 +68,170 @@ public class ExpenseCategoryServiceImpl implements ExpenseCategoryService {
             category.setStatus(ExpenseCategoryStatus.ACTIVE);
         }
 
-        return repository.save(category);
+        ExpenseCategory saved = repository.save(category);
+        closureRepo.insertSelfLink(saved.getId());
+        if (parentId != null) closureRepo.attachSubtree(saved.getId(), parentId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Override
     public ExpenseCategory updateExpenseCategory(Long id, ExpenseCategory category) {
+        // Lock the old and the new sibling lists before reading the category, so its level is read after any
+        // concurrent reorder under them has committed. The old parent comes from the category snapshot and is
+        // checked once the category is loaded. A new parent may move a whole subtree: that takes the tree lock too.
+        Set<Long> locked = new HashSet<>();
+        Long knownParentId = parentIdOf(id);
+        if (category.getParent() != null) lockSiblings(locked, null, knownParentId, category.getParent().getId());
+        else lockSiblings(locked, knownParentId);
+
         ExpenseCategory existing = repository.findById(id).orElseThrow(() -> new RuntimeException("ExpenseCategory not found: " + id));
 
         // Track previous parent and level
-        ExpenseCategory oldParent = existing.getParent();
+        Long oldParentId = idOf(existing.getParent());
+        lockSiblings(locked, oldParentId);
         Integer oldLevel = existing.getLevel();
 
-        if (category.getName() != null) existing.setName(category.getName());
-        if (category.getStatus() != null) existing.setStatus(category.getStatus());
         // We'll handle level and parent specially below
-        // if (category.getBudget() != null) existing.setBudget(category.getBudget());
         // budget is managed via ExpenseCategoryBudget entities; ignore single-budget updates here
-
         ExpenseCategory newParent = (category.getParent() != null) ? category.getParent() : existing.getParent();
+        Long newParentId = idOf(newParent);
+        boolean parentChanged = !Objects.equals(oldParentId, newParentId);
         Integer requestedLevel = category.getLevel();
-
-        // If parent changed, remove gap from old siblings
-        if ((oldParent == null && newParent != null) || (oldParent != null && !oldParent.equals(newParent))) {
-            // decrement levels of siblings in old parent that were greater than oldLevel
-            List<ExpenseCategory> oldSiblings = (oldParent == null)
-                    ? repository.findByParentIsNullOrderByLevelAsc()
-                    : repository.findByParentOrderByLevelAsc(oldParent);
-            if (oldLevel != null) {
-                for (ExpenseCategory s : oldSiblings) {
-                    Integer lvl = s.getLevel();
-                    if (lvl != null && lvl > oldLevel) {
-                        s.setLevel(lvl - 1);
-                        repository.save(s);
-                    }
-                }
-            }
+        Integer newLevel = oldLevel;
+        if (parentChanged && newParentId != null && closureRepo.existsByAncestorIdAndDescendantId(id, newParentId)) {
+            throw new IllegalArgumentException("A category cannot be moved under itself or one of its subcategories");
         }
 
-        // Determine siblings for the new parent (could be same as old parent)
-        List<ExpenseCategory> newSiblings = (newParent == null)
-                ? repository.findByParentIsNullOrderByLevelAsc()
-                : repository.findByParentOrderByLevelAsc(newParent);
-
-        // If level requested, place there, shifting others as needed
-        if (requestedLevel != null && requestedLevel > 0) {
-            int newLevel = requestedLevel;
-            // If moving within same sibling list and level increased or decreased, handle accordingly
-            if ((oldParent == null && newParent == null) || (oldParent != null && oldParent.equals(newParent))) {
-                // same sibling list
-                if (oldLevel == null) oldLevel = Integer.MAX_VALUE; // safety
+        // Siblings are shifted with ranged updates before the category itself changes, so none of them matches it
+        if (parentChanged) {
+            // remove gap from old siblings: levels greater than oldLevel move up by one
+            if (oldLevel != null) repository.shiftLevels(oldParentId, oldLevel + 1, Integer.MAX_VALUE, -1);
+            int maxLevel = maxLevel(newParentId);
+            if (requestedLevel != null && requestedLevel > 0) {
+                // shift new siblings >= newLevel down by one
+                newLevel = Math.min(requestedLevel, maxLevel + 1);
+                if (newLevel <= maxLevel) repository.shiftLevels(newParentId, newLevel, maxLevel, 1);
+            } else {
+                // no level requested: put at bottom of new siblings
+                newLevel = maxLevel + 1;
+            }
+        } else if (requestedLevel != null && requestedLevel > 0) {
+            // same sibling list (the category is one of them)
+            int maxLevel = maxLevel(oldParentId);
+            if (oldLevel == null) {
+                newLevel = Math.min(requestedLevel, maxLevel + 1);
+                if (newLevel <= maxLevel) repository.shiftLevels(oldParentId, newLevel, maxLevel, 1);
+            } else {
+                newLevel = Math.min(requestedLevel, maxLevel);
                 if (newLevel > oldLevel) {
                     // shifting others down between oldLevel+1 .. newLevel => decrement by 1
-                    for (ExpenseCategory s : newSiblings) {
-                        Integer lvl = s.getLevel();
-                        if (lvl != null && lvl > oldLevel && lvl <= newLevel) {
-                            s.setLevel(lvl - 1);
-                            repository.save(s);
-                        }
-                    }
+                    repository.shiftLevels(oldParentId, oldLevel + 1, newLevel, -1);
                 } else if (newLevel < oldLevel) {
                     // shifting others up between newLevel .. oldLevel-1 => increment by 1
-                    for (ExpenseCategory s : newSiblings) {
-                        Integer lvl = s.getLevel();
-                        if (lvl != null && lvl >= newLevel && lvl < oldLevel) {
-                            s.setLevel(lvl + 1);
-                            repository.save(s);
-                        }
-                    }
-                }
-                existing.setLevel(newLevel);
-            } else {
-                // moved to different parent (we already removed gap from old siblings)
-                // shift new siblings >= newLevel up by 1
-                for (ExpenseCategory s : newSiblings) {
-                    Integer lvl = s.getLevel();
-                    if (lvl != null && lvl >= newLevel) {
-                        s.setLevel(lvl + 1);
-                        repository.save(s);
-                    }
+                    repository.shiftLevels(oldParentId, newLevel, oldLevel - 1, 1);
                 }
-                existing.setLevel(newLevel);
             }
-        } else {
-            // no level requested: if parent changed, put at bottom of new siblings; otherwise keep existing level
-            if ((oldParent == null && newParent != null) || (oldParent != null && !oldParent.equals(newParent))) {
-                int next = 1;
-                if (!newSiblings.isEmpty()) {
-                    ExpenseCategory last = newSiblings.get(newSiblings.size() - 1);
-                    if (last.getLevel() != null) next = last.getLevel() + 1;
-                }
-                existing.setLevel(next);
-            }
-            // else keep existing.level as-is
         }
+        // else keep existing.level as-is
 
-        // Finally set the parent if changed
+        if (category.getName() != null) existing.setName(category.getName());
+        if (category.getStatus() != null) existing.setStatus(category.getStatus());
+        existing.setLevel(newLevel);
         existing.setParent(newParent);
 
-        return repository.save(existing);
+        ExpenseCategory saved = repository.save(existing);
+        if (parentChanged) {
+            // the subtree moves along: unlink it from the old ancestors, link it to the new ones
+            closureRepo.detachSubtree(id);
+            if (newParentId != null) closureRepo.attachSubtree(id, newParentId);
+        }
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
+    }
+
+    @Override
+    public ExpenseCategory toggleStatus(Long id) {
+        // the current status is read from the locked row, not the category snapshot, which can lag behind a toggle
+        // made on another node; concurrent toggles of the same category are applied one after the other
+        ExpenseCategory existing = repository.lockById(id).orElseThrow(() -> new RuntimeException("ExpenseCategory not found: " + id));
+        existing.setStatus(existing.getStatus() == ExpenseCategoryStatus.ACTIVE
+                ? ExpenseCategoryStatus.INACTIVE : ExpenseCategoryStatus.ACTIVE);
+        ExpenseCategory saved = repository.save(existing);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Override
     public void deleteExpenseCategory(Long id) {
+        closureRepo.deleteLinksOf(id);
         repository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 
+    // reads are answered from the category snapshot and need no transaction (nor a connection)
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<ExpenseCategory> findById(Long id) {
-        return repository.findById(id);
+        return categoryTree.findById(id);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ExpenseCategory> findAll() {
-        // Return parents ordered by level, and for each parent append its children ordered by level.
-        List<ExpenseCategory> ordered = new ArrayList<>();
-        List<ExpenseCategory> parents = repository.findByParentIsNullOrderByLevelAsc();
-        for (ExpenseCategory parent : parents) {
-            ordered.add(parent);
-            List<ExpenseCategory> children = repository.findByParentOrderByLevelAsc(parent);
-            if (children != null && !children.isEmpty()) {
-                ordered.addAll(children);
-            }
-        }
-        return ordered;
+        // Parents ordered by level, each followed by its children ordered by level (from the category snapshot)
+        return categoryTree.findAll();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ExpenseCategory> findChildren(Long parentId) {
+        return categoryTree.findChildren(parentId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Long> findMissingIds(Collection<Long> ids) {
+        return categoryTree.findMissingIds(ids);
     }
 
     @Override
     public Optional<ExpenseCategory> findByName(String name) {
+        // read from the database: used for name conflict checks, which must not see a stale snapshot
         return repository.findByName(name);
     }
+
+    // Lock the sibling lists under the given parents (null = top-level, on the tree lock) that are not locked yet:
+    // the tree lock first, then by parent id, so two movers between the same parents take the locks in the same order
+    private void lockSiblings(Set<Long> locked, Long... parentIds) {
+        List<Long> todo = new ArrayList<>();
+        for (Long p : parentIds) {
+            if (!locked.contains(p) && !todo.contains(p)) todo.add(p);
+        }
+        todo.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (Long p : todo) {
+            lockSiblings(p);
+            locked.add(p);
+        }
+    }
+
+    private void lockSiblings(Long parentId) {
+        if (parentId == null) treeLock.lockExclusive();
+        else repository.lockById(parentId);
+    }
+
+    private int maxLevel(Long parentId) {
+        Integer max = repository.findMaxLevelByParentId(parentId);
+        return max == null ? 0 : max;
+    }
+
+    private Long parentIdOf(Long id) {
+        List<Long> path = categoryTree.pathToRoot(id);
+        return path.size() > 1 ? path.get(1) : null;
+    }
+
+    // parents are compared by id: the new one may be a detached copy from the category snapshot
+    private static Long idOf(ExpenseCategory category) {
+        return category == null ? null : category.getId();
+    }
 }
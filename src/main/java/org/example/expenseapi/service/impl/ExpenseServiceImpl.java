@@ -6,11 +6,19 @@ import org.example.expenseapi.model.ExpenseStatus;
 import org.example.expenseapi.repository.ExpenseRepository;
 import org.example.expenseapi.repository.ExpenseCategoryRepository;
 import org.example.expenseapi.repository.ExpenseStatusRepository;
+import org.example.expenseapi.service.BudgetGuard;
+import org.example.expenseapi.service.ExpensePeriodCloseService;
 import org.example.expenseapi.service.ExpenseService;
 import org.example.expenseapi.service.UserService;
 import org.example.expenseapi.application.service.UserSettingsApplicationService;
 import org.example.expenseapi.model.UserSettings;
+import org.example.expenseapi.service.analytics.ExpenseAnomalyDetector;
+import org.example.expenseapi.service.analytics.ExpenseColumnStore;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
 import org.example.expenseapi.util.CurrencyFormatter;
+import org.example.expenseapi.util.MoneyUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,7 +27,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -37,21 +44,37 @@ public class ExpenseServiceImpl implements ExpenseService {
     private final ExpenseStatusRepository statusRepository;
     private final UserService userService;
     private final UserSettingsApplicationService userSettingsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExpenseColumnStore columnStore;
+    private final ExpenseAnomalyDetector anomalyDetector;
+    private final ExpensePeriodCloseService periodCloses;
+    private final BudgetGuard budgetGuard;
 
     public ExpenseServiceImpl(ExpenseRepository repository,
                               ExpenseCategoryRepository categoryRepository,
                               ExpenseStatusRepository statusRepository,
                               UserService userService,
-                              UserSettingsApplicationService userSettingsService) {
+                              UserSettingsApplicationService userSettingsService,
+                              ApplicationEventPublisher eventPublisher,
+                              ExpenseColumnStore columnStore,
+                              ExpenseAnomalyDetector anomalyDetector,
+                              ExpensePeriodCloseService periodCloses,
+                              BudgetGuard budgetGuard) {
         this.repository = repository;
         this.categoryRepository = categoryRepository;
         this.statusRepository = statusRepository;
         this.userService = userService;
         this.userSettingsService = userSettingsService;
+        this.eventPublisher = eventPublisher;
+        this.columnStore = columnStore;
+        this.anomalyDetector = anomalyDetector;
+        this.periodCloses = periodCloses;
+        this.budgetGuard = budgetGuard;
     }
 
     @Override
     public Expense createExpense(Expense expense) {
+        if (periodCloses != null) periodCloses.checkOpen(expense.getExpenseDate());
         // ensure referenced category and status exist
         ExpenseCategory cat = null;
         ExpenseStatus st = null;
@@ -71,12 +94,20 @@ public class ExpenseServiceImpl implements ExpenseService {
             throw new RuntimeException("ExpenseStatus is required");
         }
 
-        return repository.save(expense);
+        if (budgetGuard != null) budgetGuard.check(cat.getId(), expense.getExpenseDate(), expense.getAmount(), null);
+
+        Expense saved = repository.save(expense);
+        if (anomalyDetector != null) saved.setAnomalyScore(anomalyDetector.assess(saved));
+        eventPublisher.publishEvent(ExpenseChangedEvent.created(ExpenseSnapshot.of(saved)));
+        return saved;
     }
 
     @Override
     public Expense updateExpense(Long id, Expense expense) {
         Expense existing = repository.findById(id).orElseThrow(() -> new RuntimeException("Expense not found: " + id));
+        ExpenseSnapshot before = ExpenseSnapshot.of(existing);
+        // neither the month it leaves nor the month it moves to may be closed
+        if (periodCloses != null) periodCloses.checkOpen(existing.getExpenseDate(), expense.getExpenseDate());
 
         if (expense.getExpenseDate() != null) existing.setExpenseDate(expense.getExpenseDate());
         if (expense.getDesignation() != null) existing.setDesignation(expense.getDesignation());
@@ -94,12 +125,32 @@ public class ExpenseServiceImpl implements ExpenseService {
             existing.setExpenseStatus(st);
         }
 
-        return repository.save(existing);
+        // re-check the budget when the expense moves to another category/month or grows; other edits always pass
+        if (budgetGuard != null && existing.getExpenseCategory() != null) {
+            boolean moved = !java.util.Objects.equals(before.getCategoryId(), existing.getExpenseCategory().getId())
+                    || before.getExpenseDate() == null || existing.getExpenseDate() == null
+                    || !YearMonth.from(before.getExpenseDate()).equals(YearMonth.from(existing.getExpenseDate()));
+            boolean grew = before.getAmount() == null
+                    || (existing.getAmount() != null && existing.getAmount().compareTo(before.getAmount()) > 0);
+            if (moved || grew) {
+                budgetGuard.check(existing.getExpenseCategory().getId(), existing.getExpenseDate(), existing.getAmount(), id);
+            }
+        }
+
+        Expense saved = repository.save(existing);
+        if (anomalyDetector != null) saved.setAnomalyScore(anomalyDetector.reassess(before, saved));
+        eventPublisher.publishEvent(ExpenseChangedEvent.updated(before, ExpenseSnapshot.of(saved)));
+        return saved;
     }
 
     @Override
     public void deleteExpense(Long id) {
+        // capture the row first so listeners know which aggregates the delete affects
+        Optional<ExpenseSnapshot> before = repository.findById(id).map(ExpenseSnapshot::of);
+        if (periodCloses != null) before.ifPresent(b -> periodCloses.checkOpen(b.getExpenseDate()));
         repository.deleteById(id);
+        if (anomalyDetector != null) anomalyDetector.forget(id);
+        before.ifPresent(b -> eventPublisher.publishEvent(ExpenseChangedEvent.deleted(b)));
     }
 
     @Override
@@ -190,34 +241,61 @@ public class ExpenseServiceImpl implements ExpenseService {
         if (start == null) start = LocalDate.of(1970,1,1);
         if (end == null) end = LocalDate.now();
 
-        List<Expense> expenses = repository.findAllByExpenseDateBetweenOrderByExpenseDateDesc(start, end);
-
-        // filter by category if provided (single category id expected)
-        List<Expense> filtered = expenses.stream()
-                .filter(e -> e.getExpenseCategory() != null && e.getExpenseCategory().getId() != null)
-                .filter(e -> categoryIds == null || categoryIds.isEmpty() || categoryIds.contains(e.getExpenseCategory().getId()))
-                .collect(Collectors.toList());
-
-        // Now aggregate by year -> month across the filtered expenses (no further grouping by category)
-        Map<Integer, Map<Integer, BigDecimal>> yearMonthSums = new HashMap<>();
-        for (Expense ex : filtered) {
-            if (ex.getExpenseDate() == null || ex.getAmount() == null) continue;
-            int y = ex.getExpenseDate().getYear();
-            int m = ex.getExpenseDate().getMonthValue();
-            yearMonthSums.computeIfAbsent(y, yy -> new HashMap<>());
-            Map<Integer, BigDecimal> months = yearMonthSums.get(y);
-            months.put(m, months.getOrDefault(m, BigDecimal.ZERO).add(ex.getAmount()));
+        Map<Integer, long[]> yearMonthSums = columnStore != null && columnStore.isReady()
+                ? sumByYearMonthFromColumnStore(start, end, categoryIds)
+                : sumByYearMonthFromExpenses(start, end, categoryIds);
+
+        return toYearlyReport(yearMonthSums, end);
+    }
+
+    // Aggregate from the in-memory column store (no database access)
+    private Map<Integer, long[]> sumByYearMonthFromColumnStore(LocalDate start, LocalDate end, List<Long> categoryIds) {
+        Map<Integer, long[]> yearMonthSums = new HashMap<>();
+        for (Map.Entry<YearMonth, Long> e : columnStore.sumByMonth(start, end, categoryIds).entrySet()) {
+            yearMonthSums.computeIfAbsent(e.getKey().getYear(), yy -> new long[13])[e.getKey().getMonthValue()] = e.getValue();
         }
+        return yearMonthSums;
+    }
+
+    // Per category/month aggregates; closed months come from their snapshots (see ExpensePeriodCloseService)
+    private Map<Integer, long[]> sumByYearMonthFromExpenses(LocalDate start, LocalDate end, List<Long> categoryIds) {
+        // Aggregate by year -> month across the selected categories (no further grouping by category).
+        // Sums are kept in cents per year (index = month).
+        Map<Integer, long[]> yearMonthSums = new HashMap<>();
+        List<long[]> rows = periodCloses != null ? periodCloses.countAndSumByCategoryAndMonth(start, end)
+                : countAndSumByCategoryAndMonthLive(start, end);
+        for (long[] r : rows) {
+            if (categoryIds != null && !categoryIds.isEmpty() && !categoryIds.contains(r[0])) continue;
+            long[] months = yearMonthSums.computeIfAbsent((int) r[1], yy -> new long[13]);
+            int m = (int) r[2];
+            months[m] = MoneyUtils.add(months[m], r[4]);
+        }
+        return yearMonthSums;
+    }
+
+    // Same rows as ExpensePeriodCloseService#countAndSumByCategoryAndMonth, all from the live expenses
+    private List<long[]> countAndSumByCategoryAndMonthLive(LocalDate start, LocalDate end) {
+        List<long[]> rows = new ArrayList<>();
+        for (Object[] r : repository.countAndSumGroupedByCategoryAndMonthBetween(start, end)) {
+            if (r[0] == null) continue;
+            rows.add(new long[]{((Number) r[0]).longValue(), ((Number) r[1]).intValue(), ((Number) r[2]).intValue(),
+                    ((Number) r[3]).longValue(), MoneyUtils.toMinorUnitsRounded((BigDecimal) r[4])});
+        }
+        return rows;
+    }
 
+    private List<org.example.expenseapi.dto.YearlyExpenseDto> toYearlyReport(Map<Integer, long[]> yearMonthSums, LocalDate end) {
         List<org.example.expenseapi.dto.YearlyExpenseDto> years = new ArrayList<>();
-        for (Map.Entry<Integer, Map<Integer, BigDecimal>> ye : yearMonthSums.entrySet()) {
+        for (Map.Entry<Integer, long[]> ye : yearMonthSums.entrySet()) {
             Integer year = ye.getKey();
-            Map<Integer, BigDecimal> months = ye.getValue();
+            long[] months = ye.getValue();
             Map<Integer, BigDecimal> monthsWithZeros = new HashMap<>();
+            long totalCents = 0L;
             for (int i = 1; i <= 12; i++) {
-                monthsWithZeros.put(i, months.getOrDefault(i, BigDecimal.ZERO));
+                monthsWithZeros.put(i, months[i] == 0L ? BigDecimal.ZERO : MoneyUtils.fromMinorUnits(months[i]));
+                totalCents = MoneyUtils.add(totalCents, months[i]);
             }
-            BigDecimal total = monthsWithZeros.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal total = MoneyUtils.fromMinorUnits(totalCents);
             org.example.expenseapi.dto.YearlyExpenseDto ydto = new org.example.expenseapi.dto.YearlyExpenseDto();
             ydto.setYear(year);
             ydto.setMonths(monthsWithZeros);
@@ -0,0 +1,79 @@
+package org.example.expenseapi.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point helpers for monetary amounts held as {@code long} minor units (cents).
+ *
+ * Amounts are limited to 2 fractional digits, so internal aggregation (sums, budget comparisons, rollups)
+ * works on {@code long} cents and only converts to/from {@link BigDecimal} at the API boundary.
+ * Conversions and additions are overflow-checked and throw {@link ArithmeticException} instead of wrapping.
+ */
+public final class MoneyUtils {
+    private MoneyUtils() { }
+
+    public static final int SCALE = 2;
+
+    private static final BigInteger[] POWERS_OF_TEN = {
+            BigInteger.ONE, BigInteger.TEN, BigInteger.valueOf(100), BigInteger.valueOf(1_000),
+            BigInteger.valueOf(10_000), BigInteger.valueOf(100_000), BigInteger.valueOf(1_000_000)
+    };
+
+    /**
+     * Convert an amount to cents. The amount must not carry more than 2 significant fractional digits
+     * (trailing zeros such as {@code 1.500} are fine).
+     *
+     * @param amount amount (null -> 0)
+     * @return amount in minor units
+     * @throws ArithmeticException if the amount has more than 2 significant decimals or does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) return 0L;
+        if (amount.scale() == SCALE) return amount.unscaledValue().longValueExact();
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convert an amount to cents, rounding half-up any digits beyond the second decimal.
+     *
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toMinorUnitsRounded(BigDecimal amount) {
+        if (amount == null) return 0L;
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /** Convert cents back to an amount with scale 2. */
+    public static BigDecimal fromMinorUnits(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /** Overflow-checked addition of two cent values. */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /** Overflow-checked sum of cent values. */
+    public static long sum(long[] cents) {
+        long s = 0L;
+        for (long c : cents) s = Math.addExact(s, c);
+        return s;
+    }
+
+    /**
+     * True when the amount has at most 2 significant fractional digits. Unlike
+     * {@code stripTrailingZeros().scale()} this does not allocate for the common case of scale <= 2.
+     */
+    public static boolean hasAtMostTwoDecimals(BigDecimal amount) {
+        if (amount == null) return true;
+        int scale = amount.scale();
+        if (scale <= SCALE) return true;
+        int extra = scale - SCALE;
+        if (extra >= POWERS_OF_TEN.length) {
+            return amount.stripTrailingZeros().scale() <= SCALE;
+        }
+        return amount.unscaledValue().mod(POWERS_OF_TEN[extra]).signum() == 0;
+    }
+}
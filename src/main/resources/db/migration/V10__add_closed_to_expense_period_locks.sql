@@ -0,0 +1,8 @@
+-- Closed flag on the month lock row, so an expense writer checks and locks its month with one query
+ALTER TABLE expense_period_locks
+ADD COLUMN IF NOT EXISTS closed BOOLEAN;
+
+-- Backfill from the closed months (ExpensePeriodLockBackfill does the same on startup)
+UPDATE expense_period_locks l SET closed = EXISTS (
+  SELECT 1 FROM expense_period_closes c WHERE c.year_col = l.year_col AND c.month_col = l.month_col
+) WHERE closed IS NULL;
@@ -0,0 +1,10 @@
+-- Lock row of the category tree: top-level reorders and moves between parents lock it exclusively, inserts under a parent shared
+CREATE TABLE IF NOT EXISTS expense_category_tree_locks (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name VARCHAR(32) NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255),
+  CONSTRAINT uk_expense_category_tree_locks UNIQUE (name)
+);
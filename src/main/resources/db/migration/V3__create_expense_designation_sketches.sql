@@ -0,0 +1,15 @@
+-- Persisted heavy-hitter sketches of expense designations per category and month (derived data, safe to truncate)
+CREATE TABLE IF NOT EXISTS expense_designation_sketches (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  category_id BIGINT NOT NULL,
+  year_col INT NOT NULL,
+  month_col INT NOT NULL,
+  expense_count BIGINT NOT NULL,
+  amount_cents BIGINT NOT NULL,
+  payload VARCHAR(100000) NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255),
+  CONSTRAINT uk_expense_designation_sketches UNIQUE (category_id, year_col, month_col)
+);
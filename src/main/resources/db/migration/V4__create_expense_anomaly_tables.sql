@@ -0,0 +1,35 @@
+-- Running amount statistics per category (derived data, safe to truncate)
+CREATE TABLE IF NOT EXISTS expense_category_amount_stats (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  category_id BIGINT NOT NULL,
+  sample_count BIGINT NOT NULL,
+  mean_cents DOUBLE PRECISION NOT NULL,
+  m2 DOUBLE PRECISION NOT NULL,
+  amount_cents BIGINT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255),
+  CONSTRAINT uk_expense_category_amount_stats UNIQUE (category_id)
+);
+
+-- Expenses flagged as outliers of their category when they were recorded
+CREATE TABLE IF NOT EXISTS expense_anomalies (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  expense_id BIGINT NOT NULL,
+  category_id BIGINT NOT NULL,
+  expense_date DATE NOT NULL,
+  designation VARCHAR(255) NOT NULL,
+  amount DECIMAL(19,2) NOT NULL,
+  score DOUBLE PRECISION NOT NULL,
+  category_mean DECIMAL(19,2) NOT NULL,
+  category_stddev DECIMAL(19,2) NOT NULL,
+  sample_count BIGINT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255),
+  CONSTRAINT uk_expense_anomalies UNIQUE (expense_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_expense_anomalies_created_at ON expense_anomalies (created_at);
@@ -0,0 +1,28 @@
+-- Closed accounting months: expenses dated in them are read-only
+CREATE TABLE IF NOT EXISTS expense_period_closes (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  year_col INTEGER NOT NULL,
+  month_col INTEGER NOT NULL,
+  expense_count BIGINT NOT NULL,
+  amount DECIMAL(19,2) NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255),
+  CONSTRAINT uk_expense_period_closes UNIQUE (year_col, month_col)
+);
+
+-- Per-category totals of each closed month, written once at close time
+CREATE TABLE IF NOT EXISTS expense_month_snapshots (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  year_col INTEGER NOT NULL,
+  month_col INTEGER NOT NULL,
+  category_id BIGINT NOT NULL,
+  expense_count BIGINT NOT NULL,
+  amount DECIMAL(19,2) NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255),
+  CONSTRAINT uk_expense_month_snapshots UNIQUE (year_col, month_col, category_id)
+);
@@ -0,0 +1,22 @@
+-- Percentages of the budget at which an alert is raised, e.g. '50,80,100'; NULL uses the configured defaults,
+-- an empty string disables alerts for the budget
+ALTER TABLE expense_category_budgets
+ADD COLUMN IF NOT EXISTS alert_thresholds VARCHAR(64);
+
+-- Outbox of budget threshold crossings, written in the transaction of the expense that crossed it
+CREATE TABLE IF NOT EXISTS budget_alerts (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  category_id BIGINT NOT NULL,
+  year_col INTEGER NOT NULL,
+  month_col INTEGER NOT NULL,
+  threshold_pct INTEGER NOT NULL,
+  budget DECIMAL(19,2) NOT NULL,
+  spent DECIMAL(19,2) NOT NULL,
+  expense_id BIGINT,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_budget_alerts_category_id ON budget_alerts (category_id, id);
@@ -0,0 +1,3 @@
+-- Budgets that also count the spending of all subcategories (e.g. a "Travel" budget covering "Flights")
+ALTER TABLE expense_category_budgets
+ADD COLUMN IF NOT EXISTS include_subcategories BOOLEAN DEFAULT FALSE NOT NULL;
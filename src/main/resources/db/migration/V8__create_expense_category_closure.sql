@@ -0,0 +1,20 @@
+-- Closure table of the category hierarchy: one row per (ancestor, descendant) pair at any depth, plus a depth-0 row
+-- per category, so the subtree of a category is one indexed lookup on ancestor_id
+CREATE TABLE IF NOT EXISTS expense_category_closure (
+  ancestor_id BIGINT NOT NULL,
+  descendant_id BIGINT NOT NULL,
+  depth INTEGER NOT NULL,
+  CONSTRAINT pk_expense_category_closure PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_expense_category_closure_descendant ON expense_category_closure (descendant_id, ancestor_id);
+
+-- Backfill from the parent links
+INSERT INTO expense_category_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree (ancestor_id, descendant_id, depth) AS (
+  SELECT id, id, 0 FROM expense_categories
+  UNION ALL
+  SELECT t.ancestor_id, c.id, t.depth + 1
+  FROM tree t JOIN expense_categories c ON c.id_expense_category_parent = t.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM tree;
@@ -0,0 +1,11 @@
+-- One lock row per accounting month: expense writers lock it shared, closing the month locks it exclusively
+CREATE TABLE IF NOT EXISTS expense_period_locks (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  year_col INTEGER NOT NULL,
+  month_col INTEGER NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  created_by VARCHAR(255) NOT NULL,
+  updated_at TIMESTAMP,
+  updated_by VARCHAR(255),
+  CONSTRAINT uk_expense_period_locks UNIQUE (year_col, month_col)
+);
@@ -2,7 +2,9 @@ package org.example.expenseapi.application.service;
 
 import org.example.expenseapi.dto.ExpenseCategoryDto;
 import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
 import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.service.BudgetWindow;
 import org.example.expenseapi.service.ExpenseCategoryService;
 import org.example.expenseapi.service.ExpenseBudgetService;
 import org.example.expenseapi.testutil.ExpenseCategoryBuilder;
@@ -13,7 +15,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -107,7 +111,7 @@ class ExpenseCategoryApplicationServiceImplTest {
     @Test
     void parentWithChildrenIfChild_whenChild_returnsParentDtoWithChildren() {
         when(service.findById(5L)).thenReturn(Optional.of(child));
-        when(service.findAll()).thenReturn(List.of(parent, child));
+        when(service.findChildren(10L)).thenReturn(List.of(child));
 
         Optional<ExpenseCategoryDto> dtoOpt = appService.parentWithChildrenIfChild(5L);
 
@@ -118,7 +122,9 @@ class ExpenseCategoryApplicationServiceImplTest {
         assertEquals(child.getId(), dto.getSubCategories().get(0).getId());
 
         verify(service).findById(5L);
-        verify(service).findAll();
+        verify(service).findChildren(10L);
+        verify(service, never()).findAll();
+        verify(budgetService).findBudgetsForCategories(eq(List.of(10L, 5L)), any());
     }
 
     @Test
@@ -163,4 +169,57 @@ class ExpenseCategoryApplicationServiceImplTest {
 
         verify(service, times(2)).findById(anyLong());
     }
+
+    @Test
+    void siblingsForParent_loadsTheBudgetsOfAllSiblingsInOneQuery() {
+        ExpenseCategory other = ExpenseCategoryBuilder.anExpenseCategory().withId(11L).withName("Other").build();
+        ExpenseCategory third = ExpenseCategoryBuilder.anExpenseCategory().withId(12L).withName("Third").build();
+        ExpenseCategoryBudget budget = new ExpenseCategoryBudget();
+        budget.setCategory(other);
+        budget.setYear(2026);
+        budget.setMonth(3);
+        budget.setBudget(new BigDecimal("150.00"));
+        when(service.findById(10L)).thenReturn(Optional.of(parent));
+        when(service.findAll()).thenReturn(List.of(parent, other, third));
+        when(budgetService.findBudgetsForCategories(eq(List.of(11L, 12L)), any())).thenReturn(Map.of(11L, List.of(budget)));
+
+        List<ExpenseCategoryDto> siblings = appService.siblingsForParent(10L);
+
+        assertThat(siblings).extracting(ExpenseCategoryDto::getId).containsExactly(11L, 12L);
+        assertEquals(new BigDecimal("150.00"), siblings.get(0).getBudgets().get(0).getBudget());
+        assertThat(siblings.get(1).getBudgets()).isEmpty();
+        verify(budgetService, times(1)).findBudgetsForCategories(anyCollection(), any());
+        verify(budgetService, never()).findBudgetsForCategory(anyLong(), any());
+    }
+
+    @Test
+    void listTree_nestsSubcategoriesUnderTheirParents_toAnyDepth() {
+        ExpenseCategory other = ExpenseCategoryBuilder.anExpenseCategory().withId(11L).withName("Other").build();
+        ExpenseCategory grandchild = ExpenseCategoryBuilder.anExpenseCategory().withId(6L).withName("Grandchild").withParent(child).build();
+        when(service.findAll()).thenReturn(List.of(parent, other, child, grandchild));
+        when(budgetService.findBudgetsForCategories(anyCollection(), any())).thenReturn(Map.of());
+
+        List<ExpenseCategoryDto> tree = appService.listTree(BudgetWindow.currentYear());
+
+        assertThat(tree).extracting(ExpenseCategoryDto::getId).containsExactly(10L, 11L);
+        assertThat(tree.get(1).getSubCategories()).isEmpty();
+        ExpenseCategoryDto childDto = tree.get(0).getSubCategories().get(0);
+        assertEquals(5L, childDto.getId());
+        assertEquals(6L, childDto.getSubCategories().get(0).getId());
+        assertNull(childDto.getSubCategories().get(0).getSubCategories());
+        assertThat(childDto.getBudgets()).isEmpty();
+        // budgets and statuses of the whole tree in one query each
+        verify(budgetService).findBudgetsForCategories(eq(List.of(10L, 11L, 5L, 6L)), any());
+        verify(budgetService).getBudgetStatusForCategories(eq(List.of(10L, 11L, 5L, 6L)), anyInt(), anyInt());
+    }
+
+    @Test
+    void listTree_budgetsNone_leavesBudgetsOutWithoutQueryingThem() {
+        when(service.findAll()).thenReturn(List.of(parent));
+
+        List<ExpenseCategoryDto> tree = appService.listTree(BudgetWindow.none());
+
+        assertNull(tree.get(0).getBudgets());
+        verify(budgetService, never()).findBudgetsForCategories(anyCollection(), any());
+    }
 }
@@ -4,6 +4,7 @@ import org.example.expenseapi.application.service.ExpenseCategoryApplicationServ
 import org.example.expenseapi.dto.ExpenseCategoryDto;
 import org.example.expenseapi.model.ExpenseCategory;
 import org.example.expenseapi.testutil.ExpenseCategoryBuilder;
+import org.example.expenseapi.service.BudgetWindow;
 import org.example.expenseapi.service.ExpenseBudgetService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -29,7 +31,7 @@ public class ExpenseCategoryControllerTest {
     public void setup() {
         ExpenseCategoryController controller = new ExpenseCategoryController(service, budgetService);
         // stub budgets to return empty list for all categories used in tests
-        when(budgetService.findBudgetsForCategory(anyLong())).thenReturn(List.of());
+        when(budgetService.findBudgetsForCategories(anyCollection(), any())).thenReturn(Map.of());
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new TestExceptionHandler())
                 .build();
@@ -48,7 +50,7 @@ public class ExpenseCategoryControllerTest {
         childDto.setParentId(10L);
 
         when(service.findById(5L)).thenReturn(Optional.of(child));
-        when(service.findAll()).thenReturn(List.of(parent, child));
+        when(service.findChildren(5L)).thenReturn(List.of());
 
         mockMvc.perform(get("/v1/expense-categories/5").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -57,7 +59,8 @@ public class ExpenseCategoryControllerTest {
                 .andExpect(jsonPath("$.subCategories.length()").value(0));
 
         verify(service, times(1)).findById(5L);
-        verify(service, times(1)).findAll();
+        verify(service, times(1)).findChildren(5L);
+        verify(service, never()).findAll();
         verify(service, never()).parentWithChildrenIfChild(anyLong());
     }
 
@@ -67,7 +70,7 @@ public class ExpenseCategoryControllerTest {
         ExpenseCategory child = ExpenseCategoryBuilder.anExpenseCategory().withId(5L).withName("Child").withParent(parent).build();
 
         when(service.findById(10L)).thenReturn(Optional.of(parent));
-        when(service.findAll()).thenReturn(List.of(parent, child));
+        when(service.findChildren(10L)).thenReturn(List.of(child));
 
         mockMvc.perform(get("/v1/expense-categories/10").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -77,34 +80,46 @@ public class ExpenseCategoryControllerTest {
                 .andExpect(jsonPath("$.subCategories[0].id").value(5));
 
         verify(service, times(1)).findById(10L);
-        verify(service, times(1)).findAll();
+        verify(service, times(1)).findChildren(10L);
+        verify(service, never()).findAll();
         verify(service, never()).parentWithChildrenIfChild(anyLong());
     }
 
     @Test
-    public void getAll_shouldReturnParentsWithAndWithoutSubCategories() throws Exception {
-        // Parent without children
-        ExpenseCategory parentNoChild = ExpenseCategoryBuilder.anExpenseCategory().withId(10L).withName("NoChildParent").build();
-        // Parent with one child
-        ExpenseCategory parentWithChild = ExpenseCategoryBuilder.anExpenseCategory().withId(20L).withName("ParentWithChild").build();
-        ExpenseCategory childOf20 = ExpenseCategoryBuilder.anExpenseCategory().withId(21L).withName("ChildOf20").withParent(parentWithChild).build();
-
-        // Return all categories (parents then child) from service
-        when(service.findAll()).thenReturn(List.of(parentNoChild, parentWithChild, childOf20));
+    public void getAll_shouldReturnTheTreeOfTheApplicationService() throws Exception {
+        ExpenseCategoryDto child = new ExpenseCategoryDto();
+        child.setId(21L);
+        ExpenseCategoryDto parent = new ExpenseCategoryDto();
+        parent.setId(20L);
+        parent.setSubCategories(List.of(child));
+        when(service.listTree(any())).thenReturn(List.of(parent));
 
         mockMvc.perform(get("/v1/expense-categories").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                // Expect two top-level parents
-                .andExpect(jsonPath("$.length()").value(2))
-                // First parent has no subCategories
-                .andExpect(jsonPath("$[0].id").value(10))
-                .andExpect(jsonPath("$[0].subCategories.length()").value(0))
-                // Second parent has one subCategory with id 21
-                .andExpect(jsonPath("$[1].id").value(20))
-                .andExpect(jsonPath("$[1].subCategories.length()").value(1))
-                .andExpect(jsonPath("$[1].subCategories[0].id").value(21));
-
-        verify(service, times(1)).findAll();
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(20))
+                .andExpect(jsonPath("$[0].subCategories[0].id").value(21));
+
+        verify(service).listTree(argThat(window -> !window.isNone()));
+    }
+
+    @Test
+    public void getAll_budgetsNone_isPassedOn() throws Exception {
+        when(service.listTree(any())).thenReturn(List.of());
+
+        mockMvc.perform(get("/v1/expense-categories").param("budgets", "none").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(service).listTree(argThat(BudgetWindow::isNone));
+    }
+
+    @Test
+    public void getAll_invalidBudgetsWindow_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/v1/expense-categories").param("budgetsFrom", "2026-13").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(service, never()).listTree(any());
     }
 }
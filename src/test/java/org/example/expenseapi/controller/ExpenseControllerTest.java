@@ -1,20 +1,28 @@
 package org.example.expenseapi.controller;
 
+import org.example.expenseapi.application.service.ExpenseApplicationServiceImpl;
+import org.example.expenseapi.dto.ExpenseDto;
 import org.example.expenseapi.dto.ExpenseUpdateRequest;
+import org.example.expenseapi.dto.PaginatedResponse;
 import org.example.expenseapi.model.Expense;
 import org.example.expenseapi.model.ExpenseStatus;
 import org.example.expenseapi.service.ExpenseBudgetService;
 import org.example.expenseapi.service.ExpenseCategoryService;
 import org.example.expenseapi.service.ExpenseService;
 import org.example.expenseapi.service.ExpenseStatusService;
+import org.example.expenseapi.service.analytics.ExpenseFacetService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,7 +42,9 @@ public class ExpenseControllerTest {
         statusService = Mockito.mock(ExpenseStatusService.class);
         budgetService = Mockito.mock(ExpenseBudgetService.class);
 
-        controller = new ExpenseController(expenseService, categoryService, statusService, budgetService);
+        controller = new ExpenseController(expenseService, categoryService, statusService,
+                new ExpenseApplicationServiceImpl(expenseService, budgetService, statusService),
+                Mockito.mock(ExpenseFacetService.class));
     }
 
     @Test
@@ -60,6 +70,61 @@ public class ExpenseControllerTest {
         assertTrue(body.contains("Category not found"));
     }
 
+    @Test
+    void list_withUnknownCategoryIds_reportsAllOfThemInOneBadRequest() {
+        Mockito.when(categoryService.findMissingIds(List.of(1L, 5L, 9L, 3L))).thenReturn(List.of(5L, 9L));
+
+        ResponseEntity<?> resp = controller.list(1, 20, "expenseDate,desc", "", 3L, "1,5,9", null, null, null, null, null, null);
+
+        assertEquals(400, resp.getStatusCodeValue());
+        assertEquals("Categories not found: 5, 9", ((Map<?, ?>) resp.getBody()).get("error"));
+        // resolved in one batch, not one lookup per id
+        Mockito.verify(categoryService, Mockito.never()).findById(ArgumentMatchers.anyLong());
+        Mockito.verifyNoInteractions(expenseService);
+    }
+
+    @Test
+    void list_budgetsNone_leavesBudgetsOutWithoutQueryingThem() {
+        org.example.expenseapi.model.ExpenseCategory cat = new org.example.expenseapi.model.ExpenseCategory();
+        cat.setId(10L);
+        Expense e = new Expense();
+        e.setId(1L);
+        e.setExpenseCategory(cat);
+        Mockito.when(expenseService.search(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(new PageImpl<>(List.of(e)));
+
+        ResponseEntity<?> resp = controller.list(1, 20, "expenseDate,desc", "", null, null, null, null, null, "none", null, null);
+
+        assertEquals(200, resp.getStatusCodeValue());
+        var page = (PaginatedResponse<?>) resp.getBody();
+        assertNull(((ExpenseDto) page.getData().get(0)).getExpenseCategory().getBudgets());
+        Mockito.verifyNoInteractions(budgetService);
+    }
+
+    @Test
+    void get_withBudgetWindow_embedsThoseBudgets() {
+        org.example.expenseapi.model.ExpenseCategory cat = new org.example.expenseapi.model.ExpenseCategory();
+        cat.setId(10L);
+        Expense e = new Expense();
+        e.setId(1L);
+        e.setExpenseCategory(cat);
+        Mockito.when(expenseService.findById(1L)).thenReturn(Optional.of(e));
+
+        ResponseEntity<?> resp = controller.get(1L, null, "2025-01", "2025-06");
+
+        assertEquals(200, resp.getStatusCodeValue());
+        Mockito.verify(budgetService).findBudgetsForCategories(ArgumentMatchers.eq(List.of(10L)), ArgumentMatchers.argThat(w ->
+                w.getFrom().equals(YearMonth.of(2025, 1)) && w.getTo().equals(YearMonth.of(2025, 6))));
+    }
+
+    @Test
+    void list_invalidBudgetWindow_returnsBadRequest() {
+        ResponseEntity<?> resp = controller.list(1, 20, "expenseDate,desc", "", null, null, null, null, null, null, "2025-13", null);
+
+        assertEquals(400, resp.getStatusCodeValue());
+        Mockito.verifyNoInteractions(expenseService);
+    }
+
     @Test
     void update_whenStatusIdProvidedButNotFound_returnsBadRequest() {
         // given
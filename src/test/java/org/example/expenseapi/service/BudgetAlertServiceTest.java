@@ -0,0 +1,193 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.BudgetAlert;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.BudgetAlertRepository;
+import org.example.expenseapi.repository.ExpenseCategoryClosureRepository;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BudgetAlertServiceTest {
+
+    private ExpenseCategoryBudgetRepository budgetRepo;
+    private ExpenseRepository expenseRepo;
+    private BudgetAlertRepository alertRepo;
+    private ExpenseCategoryClosureRepository closureRepo;
+    private BudgetAlertService service;
+
+    @BeforeEach
+    void setUp() {
+        budgetRepo = Mockito.mock(ExpenseCategoryBudgetRepository.class);
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        alertRepo = Mockito.mock(BudgetAlertRepository.class);
+        closureRepo = Mockito.mock(ExpenseCategoryClosureRepository.class);
+        service = new BudgetAlertService(budgetRepo, expenseRepo, alertRepo, true, "50,80,100", 0, 10, closureRepo, null);
+    }
+
+    @Test
+    void onExpenseChanged_recordsEveryThresholdCrossedByTheWrite() {
+        stubBudget("100.00", null);
+        // 45.00 spent before, 85.00 after the new 40.00 expense: 50% and 80% are crossed, 100% is not
+        when(expenseRepo.sumAmountByCategoryAndDateBetween(1L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)))
+                .thenReturn(new BigDecimal("85.00"));
+
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(7L, "2025-06-10", "40.00")));
+
+        ArgumentCaptor<BudgetAlert> alerts = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(alertRepo, times(2)).save(alerts.capture());
+        assertEquals(List.of(50, 80), alerts.getAllValues().stream().map(BudgetAlert::getThresholdPct).collect(Collectors.toList()));
+        assertEquals(7L, alerts.getValue().getExpenseId());
+        assertEquals(0, new BigDecimal("85.00").compareTo(alerts.getValue().getSpent()));
+    }
+
+    @Test
+    void onExpenseChanged_usesTheBudgetsOwnThresholds_andCountsOnlyTheIncrease() {
+        stubBudget("200.00", "30");
+        // amount raised from 50.00 to 70.00 in the same month: spent went from 50.00 to 70.00, 30% = 60.00
+        when(expenseRepo.sumAmountByCategoryAndDateBetween(eq(1L), any(), any())).thenReturn(new BigDecimal("70.00"));
+
+        service.onExpenseChanged(ExpenseChangedEvent.updated(snapshot(7L, "2025-06-10", "50.00"), snapshot(7L, "2025-06-12", "70.00")));
+
+        ArgumentCaptor<BudgetAlert> alert = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(alertRepo).save(alert.capture());
+        assertEquals(30, alert.getValue().getThresholdPct());
+    }
+
+    @Test
+    void onExpenseChanged_thatDoesNotIncreaseSpending_queriesNothing() {
+        service.onExpenseChanged(ExpenseChangedEvent.deleted(snapshot(7L, "2025-06-10", "40.00")));
+        service.onExpenseChanged(ExpenseChangedEvent.updated(snapshot(7L, "2025-06-10", "40.00"), snapshot(7L, "2025-06-11", "30.00")));
+
+        verifyNoInteractions(budgetRepo, expenseRepo, alertRepo, closureRepo);
+    }
+
+    @Test
+    void onExpenseChanged_withoutBudgetOrThresholds_recordsNothing() {
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(7L, "2025-06-10", "40.00")));
+        stubBudget("100.00", "");
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(8L, "2025-06-10", "40.00")));
+
+        verify(expenseRepo, never()).sumAmountByCategoryAndDateBetween(any(), any(), any());
+        verify(alertRepo, never()).save(any());
+    }
+
+    @Test
+    void onExpenseChanged_evaluatesParentBudgetThatIncludesSubcategories_againstSubtreeSpent() {
+        // category 1 is a child of 9 (resolved through the category closure); 9 has a budget of 100.00 including
+        // subcategories, 1 has none
+        ExpenseCategoryBudget b = budget(9L, "100.00", null);
+        b.setIncludeSubcategories(true);
+        when(budgetRepo.findCoveringBudgets(1L, 2025, 6)).thenReturn(List.of(b));
+        when(budgetRepo.lockByCategoryIdAndYearAndMonth(9L, 2025, 6)).thenReturn(Optional.of(b));
+        // spent of the whole subtree, summed in one query through the category closure
+        when(expenseRepo.sumAmountInSubtreeBetween(9L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)))
+                .thenReturn(new BigDecimal("55.00"));
+
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(7L, "2025-06-10", "40.00")));
+
+        // 15.00 spent in the subtree before, 55.00 after: 50% is crossed
+        ArgumentCaptor<BudgetAlert> alert = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(alertRepo).save(alert.capture());
+        assertEquals(9L, alert.getValue().getCategoryId());
+        assertEquals(50, alert.getValue().getThresholdPct());
+        verify(budgetRepo, never()).lockByCategoryIdAndYearAndMonth(eq(1L), anyInt(), anyInt());
+    }
+
+    @Test
+    void onExpenseChanged_movedWithinTheParentsSubtree_countsOnlyTheIncrease() {
+        ExpenseCategoryBudget b = budget(9L, "100.00", null);
+        b.setIncludeSubcategories(true);
+        when(budgetRepo.findCoveringBudgets(1L, 2025, 6)).thenReturn(List.of(b));
+        when(budgetRepo.lockByCategoryIdAndYearAndMonth(9L, 2025, 6)).thenReturn(Optional.of(b));
+        when(closureRepo.existsByAncestorIdAndDescendantId(9L, 2L)).thenReturn(true);
+        when(expenseRepo.sumAmountInSubtreeBetween(eq(9L), any(), any())).thenReturn(new BigDecimal("52.00"));
+
+        // moved from sibling 2 to 1 and raised from 40.00 to 45.00: the subtree only grew by 5.00 (47.00 -> 52.00)
+        ExpenseSnapshot before = new ExpenseSnapshot(7L, LocalDate.of(2025, 6, 10), 2L, 1L, new BigDecimal("40.00"), "x");
+        service.onExpenseChanged(ExpenseChangedEvent.updated(before, snapshot(7L, "2025-06-10", "45.00")));
+
+        ArgumentCaptor<BudgetAlert> alert = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(alertRepo).save(alert.capture());
+        assertEquals(50, alert.getValue().getThresholdPct());
+    }
+
+    @Test
+    void onExpenseChanged_farBelowTheLowestThresholdInTheCache_locksAndSumsNothing() {
+        service = withSpentCache("10.00");
+        stubBudget("100.00", null);
+
+        // 10.00 + 5.00 stays below 40% (the lowest threshold less the 10-point margin)
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(7L, "2025-06-10", "5.00")));
+
+        verify(budgetRepo, never()).lockByCategoryIdAndYearAndMonth(any(), anyInt(), anyInt());
+        verifyNoInteractions(expenseRepo, alertRepo);
+    }
+
+    @Test
+    void onExpenseChanged_withinTheMarginInTheCache_isEvaluated() {
+        service = withSpentCache("38.00");
+        stubBudget("100.00", null);
+        when(expenseRepo.sumAmountByCategoryAndDateBetween(eq(1L), any(), any())).thenReturn(new BigDecimal("53.00"));
+
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(7L, "2025-06-10", "5.00")));
+
+        verify(budgetRepo).lockByCategoryIdAndYearAndMonth(1L, 2025, 6);
+        ArgumentCaptor<BudgetAlert> alert = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(alertRepo).save(alert.capture());
+        assertEquals(50, alert.getValue().getThresholdPct());
+    }
+
+    @Test
+    void parseThresholds_sortsAndDropsDuplicates() {
+        assertEquals(List.of(25, 90), BudgetAlertService.parseThresholds(" 90,25,25 "));
+        assertEquals(List.of(), BudgetAlertService.parseThresholds(""));
+        assertEquals("25,90", BudgetAlertService.formatThresholds(List.of(90, 25, 25)));
+    }
+
+    private BudgetAlertService withSpentCache(String spent) {
+        BudgetSpentCache spentCache = Mockito.mock(BudgetSpentCache.class);
+        when(spentCache.isEnabled()).thenReturn(true);
+        when(spentCache.get(eq(1L), any())).thenReturn(new BudgetSpentCache.Entry(new BigDecimal("100.00"), true,
+                new BigDecimal(spent).movePointRight(2).longValueExact(), System.nanoTime()));
+        return new BudgetAlertService(budgetRepo, expenseRepo, alertRepo, true, "50,80,100", 0, 10, closureRepo, spentCache);
+    }
+
+    private void stubBudget(String amount, String thresholds) {
+        ExpenseCategoryBudget b = budget(1L, amount, thresholds);
+        when(budgetRepo.findCoveringBudgets(1L, 2025, 6)).thenReturn(List.of(b));
+        when(budgetRepo.lockByCategoryIdAndYearAndMonth(1L, 2025, 6)).thenReturn(Optional.of(b));
+    }
+
+    private static ExpenseCategoryBudget budget(Long categoryId, String amount, String thresholds) {
+        ExpenseCategory c = new ExpenseCategory();
+        c.setId(categoryId);
+        ExpenseCategoryBudget b = new ExpenseCategoryBudget();
+        b.setCategory(c);
+        b.setYear(2025);
+        b.setMonth(6);
+        b.setBudget(new BigDecimal(amount));
+        b.setAlertThresholds(thresholds);
+        return b;
+    }
+
+    private static ExpenseSnapshot snapshot(Long id, String date, String amount) {
+        return new ExpenseSnapshot(id, LocalDate.parse(date), 1L, 1L, new BigDecimal(amount), "x");
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.Expense;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.model.ExpenseStatus;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.repository.ExpenseStatusRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class BudgetGuardConcurrencyTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 15);
+
+    @Autowired
+    private ExpenseService expenseService;
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    @Autowired
+    private ExpenseStatusRepository statusRepository;
+    @Autowired
+    private ExpenseCategoryBudgetRepository budgetRepository;
+
+    private ExpenseCategory category;
+    private ExpenseStatus status;
+
+    @BeforeEach
+    void setUp() {
+        category = new ExpenseCategory();
+        category.setName("Concurrency-Category");
+        category.setStatus(ExpenseCategoryStatus.ACTIVE);
+        category.setLevel(1);
+        category = categoryRepository.save(category);
+
+        status = statusRepository.save(new ExpenseStatus("Concurrency-Status"));
+
+        ExpenseCategoryBudget budget = new ExpenseCategoryBudget();
+        budget.setCategory(category);
+        budget.setYear(DATE.getYear());
+        budget.setMonth(DATE.getMonthValue());
+        budget.setBudget(new BigDecimal("100.00"));
+        budget.setAllowOverspend(false);
+        budgetRepository.save(budget);
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll();
+        budgetRepository.deleteAll();
+        categoryRepository.delete(category);
+        statusRepository.delete(status);
+    }
+
+    @Test
+    void concurrentCreates_neverExceedHardBudget() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                int n = i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        expenseService.createExpense(expense("Concurrent " + n, "10.00"));
+                        return true;
+                    } catch (BudgetExceededException ex) {
+                        return false;
+                    }
+                }));
+            }
+            // release all writers at once so their budget checks overlap
+            start.countDown();
+
+            int created = 0;
+            int rejected = 0;
+            for (Future<Boolean> f : results) {
+                if (f.get(30, TimeUnit.SECONDS)) created++; else rejected++;
+            }
+
+            assertThat(created).isEqualTo(10);
+            assertThat(rejected).isEqualTo(threads - 10);
+            BigDecimal spent = expenseRepository.findAll().stream()
+                    .filter(e -> e.getExpenseCategory().getId().equals(category.getId()))
+                    .map(Expense::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertThat(spent).isEqualByComparingTo(new BigDecimal("100.00"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Expense expense(String designation, String amount) {
+        Expense e = new Expense();
+        e.setExpenseDate(DATE);
+        e.setDesignation(designation);
+        e.setAmount(new BigDecimal(amount));
+        e.setExpenseCategory(category);
+        e.setExpenseStatus(status);
+        return e;
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BudgetGuardTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 15);
+
+    private ExpenseCategoryBudgetRepository budgetRepo;
+    private BudgetGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        budgetRepo = Mockito.mock(ExpenseCategoryBudgetRepository.class);
+        guard = new BudgetGuard(budgetRepo);
+    }
+
+    @Test
+    void check_withoutBudget_passes() {
+        when(budgetRepo.findCoveringBudgets(1L, 2025, 6)).thenReturn(List.of());
+
+        assertDoesNotThrow(() -> guard.check(1L, DATE, new BigDecimal("1000"), null));
+        verify(budgetRepo, never()).lockByCategoryIdAndYearAndMonth(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void check_allowOverspend_passes() {
+        stubBudget("100.00", true, "90.00");
+
+        assertDoesNotThrow(() -> guard.check(1L, DATE, new BigDecimal("50"), null));
+        verify(budgetRepo, never()).lockByCategoryIdAndYearAndMonth(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void check_hardBudget_rejectsOnlyAboveBudget() {
+        stubBudget("100.00", false, "90.00");
+
+        assertDoesNotThrow(() -> guard.check(1L, DATE, new BigDecimal("10.00"), null));
+        BudgetExceededException ex = assertThrows(BudgetExceededException.class,
+                () -> guard.check(1L, DATE, new BigDecimal("10.01"), 7L));
+        assertEquals(0, new BigDecimal("100.01").compareTo(ex.getAttemptedTotal()));
+        assertEquals(0, new BigDecimal("90.00").compareTo(ex.getSpent()));
+        assertEquals("2025-06", ex.getMonth().toString());
+        // hard budgets are re-read under the budget row lock
+        verify(budgetRepo, times(2)).lockByCategoryIdAndYearAndMonth(1L, 2025, 6);
+        verify(budgetRepo, times(2)).findBudgetWithSpent(1L, 2025, 6, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), 7L);
+    }
+
+    @Test
+    void check_hardBudgetsAreReadFromTheDatabase_notTheSpentCache() {
+        // whatever this node has cached, a budget hardened elsewhere is seen by the check
+        stubBudget("100.00", false, "95.00");
+
+        assertThrows(BudgetExceededException.class, () -> guard.check(3L, DATE, new BigDecimal("10.00"), null));
+        verify(budgetRepo).findCoveringBudgets(3L, 2025, 6);
+        verify(budgetRepo).lockByCategoryIdAndYearAndMonth(3L, 2025, 6);
+    }
+
+    @Test
+    void check_parentHardBudgetIncludingSubcategories_coversChildExpenses() {
+        // the ancestors come from the category closure in the same query, not from the category snapshot
+        when(budgetRepo.findCoveringBudgets(3L, 2025, 6)).thenReturn(List.of(budget(2L, "100.00", false)));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{new BigDecimal("100.00"), false, new BigDecimal("95.00"), true});
+        when(budgetRepo.findBudgetWithSpent(eq(2L), anyInt(), anyInt(), any(), any(), any())).thenReturn(rows);
+
+        assertDoesNotThrow(() -> guard.check(3L, DATE, new BigDecimal("5.00"), null));
+        BudgetExceededException ex = assertThrows(BudgetExceededException.class,
+                () -> guard.check(3L, DATE, new BigDecimal("5.01"), null));
+        assertEquals(2L, ex.getCategoryId());
+        verify(budgetRepo, times(2)).lockByCategoryIdAndYearAndMonth(2L, 2025, 6);
+        verify(budgetRepo, never()).lockByCategoryIdAndYearAndMonth(eq(3L), anyInt(), anyInt());
+    }
+
+    @Test
+    void check_locksTopLevelFirst_andChecksTheOwnBudgetFirst() {
+        when(budgetRepo.findCoveringBudgets(3L, 2025, 6)).thenReturn(List.of(budget(2L, "500.00", false), budget(3L, "50.00", false)));
+        List<Object[]> parent = new ArrayList<>();
+        parent.add(new Object[]{new BigDecimal("500.00"), false, new BigDecimal("450.00"), true});
+        List<Object[]> own = new ArrayList<>();
+        own.add(new Object[]{new BigDecimal("50.00"), false, new BigDecimal("45.00"), false});
+        when(budgetRepo.findBudgetWithSpent(eq(2L), anyInt(), anyInt(), any(), any(), any())).thenReturn(parent);
+        when(budgetRepo.findBudgetWithSpent(eq(3L), anyInt(), anyInt(), any(), any(), any())).thenReturn(own);
+
+        BudgetExceededException ex = assertThrows(BudgetExceededException.class,
+                () -> guard.check(3L, DATE, new BigDecimal("60.00"), null));
+
+        assertEquals(3L, ex.getCategoryId());
+        InOrder order = inOrder(budgetRepo);
+        order.verify(budgetRepo).lockByCategoryIdAndYearAndMonth(2L, 2025, 6);
+        order.verify(budgetRepo).lockByCategoryIdAndYearAndMonth(3L, 2025, 6);
+    }
+
+    private void stubBudget(String budget, boolean allowOverspend, String spent) {
+        when(budgetRepo.findCoveringBudgets(anyLong(), anyInt(), anyInt()))
+                .thenAnswer(inv -> List.of(budget(inv.getArgument(0), budget, allowOverspend)));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{new BigDecimal(budget), allowOverspend, new BigDecimal(spent)});
+        when(budgetRepo.findBudgetWithSpent(anyLong(), anyInt(), anyInt(), any(), any(), any())).thenReturn(rows);
+    }
+
+    private static ExpenseCategoryBudget budget(Long categoryId, String amount, boolean allowOverspend) {
+        ExpenseCategory c = new ExpenseCategory();
+        c.setId(categoryId);
+        ExpenseCategoryBudget b = new ExpenseCategoryBudget();
+        b.setCategory(c);
+        b.setBudget(new BigDecimal(amount));
+        b.setAllowOverspend(allowOverspend);
+        return b;
+    }
+}
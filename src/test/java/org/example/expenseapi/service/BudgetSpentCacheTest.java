@@ -0,0 +1,170 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.BudgetChangedEvent;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BudgetSpentCacheTest {
+
+    private static final YearMonth JUNE = YearMonth.of(2025, 6);
+
+    private ExpenseRepository expenseRepo;
+    private ExpenseCategoryBudgetRepository budgetRepo;
+    private BudgetSpentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        budgetRepo = Mockito.mock(ExpenseCategoryBudgetRepository.class);
+        cache = new BudgetSpentCache(expenseRepo, budgetRepo, true, 60, 100, 8);
+
+        // category 1 spent 40.00 in June 2025 against a hard budget of 100.00; category 2 spent nothing
+        List<Object[]> sums = new ArrayList<>();
+        sums.add(new Object[]{1L, new BigDecimal("40.00")});
+        when(expenseRepo.sumAmountGroupedByCategoryBetween(any(), any(), anyList())).thenReturn(sums);
+        when(budgetRepo.findByCategoryIdInAndYearAndMonth(anyList(), eq(2025), eq(6))).thenReturn(List.of(budget(1L, "100.00", false)));
+    }
+
+    @Test
+    void get_loadsMissingCategoriesInOneBatch_thenServesFromMemory() {
+        Map<Long, BudgetSpentCache.Entry> entries = cache.get(List.of(1L, 2L), JUNE);
+
+        assertEquals(4000L, entries.get(1L).getSpentCents());
+        assertTrue(entries.get(1L).isHardBudget());
+        assertEquals(0L, entries.get(2L).getSpentCents());
+        assertFalse(entries.get(2L).hasBudget());
+
+        cache.get(1L, JUNE);
+        cache.get(List.of(2L, 1L), JUNE);
+        verify(expenseRepo, times(1)).sumAmountGroupedByCategoryBetween(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), List.of(1L, 2L));
+        verify(budgetRepo, times(1)).findByCategoryIdInAndYearAndMonth(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void onExpenseChanged_movesSpentBetweenCachedMonths() {
+        cache.get(List.of(1L, 2L), JUNE);
+
+        cache.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-06-10", "12.50")));
+        cache.onExpenseChanged(ExpenseChangedEvent.updated(snapshot(1L, "2025-06-10", "12.50"), snapshot(2L, "2025-06-11", "12.50")));
+        cache.onExpenseChanged(ExpenseChangedEvent.deleted(snapshot(1L, "2025-06-02", "5.00")));
+
+        assertEquals(3500L, cache.get(1L, JUNE).getSpentCents());
+        assertEquals(1250L, cache.get(2L, JUNE).getSpentCents());
+        verify(expenseRepo, times(1)).sumAmountGroupedByCategoryBetween(any(), any(), anyList());
+    }
+
+    @Test
+    void onBudgetChanged_dropsTheEntry() {
+        cache.get(1L, JUNE);
+        when(budgetRepo.findByCategoryIdInAndYearAndMonth(anyList(), eq(2025), eq(6))).thenReturn(List.of(budget(1L, "100.00", true)));
+
+        cache.onBudgetChanged(new BudgetChangedEvent(1L, 2025, 6));
+
+        assertFalse(cache.get(1L, JUNE).isHardBudget());
+        verify(budgetRepo, times(2)).findByCategoryIdInAndYearAndMonth(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void get_reloadsExpiredEntries() {
+        cache = new BudgetSpentCache(expenseRepo, budgetRepo, true, 0, 100, 8);
+
+        cache.get(1L, JUNE);
+        cache.get(1L, JUNE);
+
+        verify(expenseRepo, times(2)).sumAmountGroupedByCategoryBetween(any(), any(), anyList());
+    }
+
+    @Test
+    void get_changeCommittedDuringLoad_isNotCached() {
+        // the write commits after the sum was read: caching that sum would lose the write
+        when(expenseRepo.sumAmountGroupedByCategoryBetween(any(), any(), anyList())).thenAnswer(inv -> {
+            cache.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-06-20", "1.00")));
+            List<Object[]> sums = new ArrayList<>();
+            sums.add(new Object[]{1L, new BigDecimal("40.00")});
+            return sums;
+        });
+
+        assertEquals(4000L, cache.get(1L, JUNE).getSpentCents());
+        cache.get(1L, JUNE);
+
+        verify(expenseRepo, times(2)).sumAmountGroupedByCategoryBetween(any(), any(), anyList());
+    }
+
+    @Test
+    void get_writeCommittedBeforeTheSum_isNotCountedTwice() {
+        // the write's row is in the sum (41.00), but its delta is only applied once its transaction completes
+        List<Object[]> sums = new ArrayList<>();
+        sums.add(new Object[]{1L, new BigDecimal("41.00")});
+        when(expenseRepo.sumAmountGroupedByCategoryBetween(any(), any(), anyList())).thenReturn(sums);
+
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> completions;
+        try {
+            cache.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-06-20", "1.00")));
+            completions = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(4100L, cache.get(1L, JUNE).getSpentCents());
+        completions.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(4100L, cache.get(1L, JUNE).getSpentCents());
+        // loaded again once the write completed, then served from memory
+        assertEquals(4100L, cache.get(1L, JUNE).getSpentCents());
+        verify(expenseRepo, times(2)).sumAmountGroupedByCategoryBetween(any(), any(), anyList());
+    }
+
+    @Test
+    void onExpenseChanged_rolledBackWrite_isNotApplied() {
+        cache.get(1L, JUNE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> completions;
+        try {
+            cache.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-06-20", "1.00")));
+            completions = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        completions.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(4000L, cache.get(1L, JUNE).getSpentCents());
+    }
+
+    private static ExpenseCategoryBudget budget(Long categoryId, String amount, boolean allowOverspend) {
+        ExpenseCategory c = new ExpenseCategory();
+        c.setId(categoryId);
+        ExpenseCategoryBudget b = new ExpenseCategoryBudget();
+        b.setCategory(c);
+        b.setYear(2025);
+        b.setMonth(6);
+        b.setBudget(new BigDecimal(amount));
+        b.setAllowOverspend(allowOverspend);
+        return b;
+    }
+
+    private static ExpenseSnapshot snapshot(Long categoryId, String date, String amount) {
+        return new ExpenseSnapshot(null, LocalDate.parse(date), categoryId, 1L, new BigDecimal(amount), "x");
+    }
+}
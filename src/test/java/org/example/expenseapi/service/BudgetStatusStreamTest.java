@@ -0,0 +1,102 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.dto.BudgetStatus;
+import org.example.expenseapi.service.event.BudgetChangedEvent;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BudgetStatusStreamTest {
+
+    private ExpenseBudgetService budgetService;
+    private BudgetStatusStream stream;
+
+    @BeforeEach
+    void setUp() {
+        budgetService = Mockito.mock(ExpenseBudgetService.class);
+        when(budgetService.getBudgetStatusForCategories(anyList(), anyInt(), anyInt())).thenReturn(Map.of(1L, new BudgetStatus()));
+        stream = new BudgetStatusStream(budgetService, 500, 30, 30, 2, 4, 2, 10, null);
+    }
+
+    @Test
+    void publish_coalescesChangesOfACategory_intoOneStatusQuery() {
+        stream.subscribe(null);
+
+        stream.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-06-10")));
+        stream.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-06-11")));
+        stream.onBudgetChanged(new BudgetChangedEvent(1L, 2025, 6));
+        stream.publish();
+        stream.publish();
+
+        verify(budgetService, times(1)).getBudgetStatusForCategories(List.of(1L), 2025, 6);
+    }
+
+    @Test
+    void publish_onlyComputesCategoriesSomeoneSubscribedTo() {
+        stream.subscribe(Set.of(2L));
+
+        stream.onExpenseChanged(ExpenseChangedEvent.updated(snapshot(1L, "2025-06-10"), snapshot(3L, "2025-07-01")));
+        stream.publish();
+
+        verify(budgetService, never()).getBudgetStatusForCategories(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void onExpenseChanged_withoutSubscribers_isIgnored() {
+        stream.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-06-10")));
+        stream.subscribe(null);
+        stream.publish();
+
+        verifyNoInteractions(budgetService);
+    }
+
+    @Test
+    void subscribe_beyondMaxSubscribers_isRejected() {
+        stream.subscribe(null);
+        stream.subscribe(Set.of(1L));
+
+        assertThrows(IllegalStateException.class, () -> stream.subscribe(null));
+        assertEquals(2, stream.subscriberCount());
+    }
+
+    @Test
+    void publish_subscriberThatFallsBehind_isDropped_withoutDelayingTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slow = Mockito.mock(SseEmitter.class);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(slow).send(any(SseEmitter.SseEventBuilder.class));
+        SseEmitter fast = Mockito.mock(SseEmitter.class);
+        stream.subscribe(null, slow);
+        stream.subscribe(null, fast);
+
+        // one write blocked plus a full buffer of 4; the sixth status does not fit
+        for (int i = 1; i <= 6; i++) {
+            stream.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-0" + i + "-10")));
+            stream.publish();
+            verify(fast, timeout(1000).times(i)).send(any(SseEmitter.SseEventBuilder.class));
+        }
+
+        assertEquals(1, stream.subscriberCount());
+        release.countDown();
+        verify(slow, timeout(1000)).complete();
+        verify(fast, never()).complete();
+    }
+
+    private static ExpenseSnapshot snapshot(Long categoryId, String date) {
+        return new ExpenseSnapshot(null, LocalDate.parse(date), categoryId, 1L, new BigDecimal("10.00"), "x");
+    }
+}
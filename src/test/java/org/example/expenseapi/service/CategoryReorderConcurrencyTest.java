@@ -0,0 +1,99 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class CategoryReorderConcurrencyTest {
+
+    private static final int CHILDREN = 8;
+
+    @Autowired
+    private ExpenseCategoryService categoryService;
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+
+    private ExpenseCategory parent;
+    private final List<Long> children = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        parent = categoryService.createExpenseCategory(category("Reorder-Parent", null, null));
+        for (int i = 0; i < CHILDREN; i++) {
+            children.add(categoryService.createExpenseCategory(category("Reorder-Child-" + i, parent, null)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (ExpenseCategory c : categoryRepository.findAll()) {
+            if (c.getName().startsWith("Reorder-Child-")) categoryRepository.delete(c);
+        }
+        categoryRepository.deleteById(parent.getId());
+    }
+
+    @Test
+    void concurrentMovesAndInserts_keepSiblingLevelsContiguous() throws Exception {
+        int threads = 8;
+        int movesPerThread = 10;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int n = t;
+                results.add(pool.submit(() -> {
+                    Random random = new Random(n);
+                    start.await();
+                    for (int i = 0; i < movesPerThread; i++) {
+                        ExpenseCategory move = new ExpenseCategory();
+                        move.setLevel(1 + random.nextInt(CHILDREN + 2));
+                        categoryService.updateExpenseCategory(children.get(random.nextInt(CHILDREN)), move);
+                    }
+                    // one insert per thread at a random position
+                    categoryService.createExpenseCategory(category("Reorder-Child-new-" + n, parent, 1 + random.nextInt(CHILDREN)));
+                    return null;
+                }));
+            }
+            // release all writers at once so their reorders overlap
+            start.countDown();
+            for (Future<?> f : results) f.get(60, TimeUnit.SECONDS);
+
+            List<Integer> levels = categoryRepository.findByParentOrderByLevelAsc(parent).stream()
+                    .map(ExpenseCategory::getLevel)
+                    .collect(Collectors.toList());
+            assertThat(levels).containsExactlyElementsOf(
+                    IntStream.rangeClosed(1, CHILDREN + threads).boxed().collect(Collectors.toList()));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ExpenseCategory category(String name, ExpenseCategory parent, Integer level) {
+        ExpenseCategory c = new ExpenseCategory();
+        c.setName(name);
+        c.setStatus(ExpenseCategoryStatus.ACTIVE);
+        c.setParent(parent);
+        c.setLevel(level);
+        return c;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.expenseapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardServiceTest {
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(Mockito.mock(PlatformTransactionManager.class), 2, 4, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void run_returnsEverySection() {
+        Map<String, Callable<?>> sections = new LinkedHashMap<>();
+        sections.put("a", () -> List.of(1, 2));
+        sections.put("b", () -> "ok");
+
+        DashboardService.Sections result = dashboardService.run(sections);
+
+        assertEquals(List.of(1, 2), result.get("a"));
+        assertEquals("ok", result.get("b"));
+        assertThat(result.getErrors()).isEmpty();
+    }
+
+    @Test
+    void run_sectionsRunConcurrently() {
+        // both sections wait for each other: only passes when they run at the same time
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Callable<String> section = () -> {
+            bothStarted.countDown();
+            return bothStarted.await(400, TimeUnit.MILLISECONDS) ? "together" : "alone";
+        };
+        Map<String, Callable<?>> sections = new LinkedHashMap<>();
+        sections.put("a", section);
+        sections.put("b", section);
+
+        DashboardService.Sections result = dashboardService.run(sections);
+
+        assertEquals("together", result.get("a"));
+        assertEquals("together", result.get("b"));
+    }
+
+    @Test
+    void run_failedOrSlowSectionsAreReported_othersReturned() {
+        Map<String, Callable<?>> sections = new LinkedHashMap<>();
+        sections.put("ok", () -> "fine");
+        sections.put("broken", () -> { throw new IllegalStateException("boom"); });
+        sections.put("slow", () -> { Thread.sleep(5_000); return "late"; });
+
+        long startedAt = System.currentTimeMillis();
+        DashboardService.Sections result = dashboardService.run(sections);
+
+        assertThat(System.currentTimeMillis() - startedAt).isLessThan(2_000);
+        assertEquals("fine", result.get("ok"));
+        assertNull(result.get("broken"));
+        assertNull(result.get("slow"));
+        assertEquals("Failed to load", result.getErrors().get("broken"));
+        assertEquals("Timed out", result.getErrors().get("slow"));
+    }
+
+    @Test
+    void run_sectionsBeyondThePoolAndQueue_areReportedBusy_notRunInline() {
+        // 2 threads + 4 queued: the last two sections are rejected
+        Map<String, Callable<?>> sections = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            sections.put("s" + i, () -> {
+                Thread.sleep(100);
+                return Thread.currentThread().getName();
+            });
+        }
+
+        DashboardService.Sections result = dashboardService.run(sections);
+
+        assertEquals("Busy", result.getErrors().get("s6"));
+        assertEquals("Busy", result.getErrors().get("s7"));
+        assertNull(result.get("s7"));
+        for (int i = 0; i < 6; i++) {
+            assertThat((String) result.get("s" + i)).startsWith("dashboard-");
+        }
+    }
+}
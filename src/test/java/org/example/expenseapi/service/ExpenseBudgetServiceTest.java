@@ -0,0 +1,153 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.dto.BudgetMatrixDto;
+import org.example.expenseapi.dto.BudgetMatrixRowDto;
+import org.example.expenseapi.dto.ExpenseCategoryBudgetBulkItem;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryBudget;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetBulkOperations.BudgetRow;
+import org.example.expenseapi.repository.ExpenseCategoryBudgetRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.analytics.SpendVelocityTracker;
+import org.example.expenseapi.service.event.BudgetChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExpenseBudgetServiceTest {
+
+    private ExpenseCategoryBudgetRepository budgetRepo;
+    private ExpensePeriodCloseService periodCloses;
+    private ApplicationEventPublisher eventPublisher;
+    private ExpenseBudgetService service;
+
+    @BeforeEach
+    void setUp() {
+        budgetRepo = Mockito.mock(ExpenseCategoryBudgetRepository.class);
+        periodCloses = Mockito.mock(ExpensePeriodCloseService.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        service = new ExpenseBudgetService(budgetRepo, Mockito.mock(ExpenseRepository.class), null,
+                Mockito.mock(SpendVelocityTracker.class), null, periodCloses, eventPublisher, () -> Optional.of("alice"), null);
+    }
+
+    @Test
+    void getBudgetMatrix_fillsCategoryByMonthGrid_fromOneSumAndOneBudgetQuery() {
+        ExpenseCategory food = category(1L, "Food");
+        ExpenseCategory travel = category(2L, "Travel");
+        // spent: food 120.00 in Feb and 30.00 in Mar, travel 50.00 in Jan; category 9 is not requested
+        when(periodCloses.countAndSumByCategoryAndMonth(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 31))).thenReturn(List.of(
+                new long[]{1L, 2026, 2, 3L, 12000L},
+                new long[]{1L, 2026, 3, 1L, 3000L},
+                new long[]{2L, 2026, 1, 1L, 5000L},
+                new long[]{9L, 2026, 1, 1L, 700L}));
+        when(budgetRepo.findByCategoryIdInAndMonthRange(List.of(1L, 2L), 2026, 1, 2026, 3)).thenReturn(List.of(
+                budget(food, 2, "100.00", false),
+                budget(travel, 1, "40.00", true)));
+
+        BudgetMatrixDto matrix = service.getBudgetMatrix(List.of(food, travel), YearMonth.of(2026, 1), YearMonth.of(2026, 3));
+
+        assertEquals(List.of("2026-01", "2026-02", "2026-03"), matrix.getMonths());
+        assertEquals(2, matrix.getRows().size());
+
+        BudgetMatrixRowDto foodRow = matrix.getRows().get(0);
+        assertEquals("Food", foodRow.getCategoryName());
+        assertEquals(0, new BigDecimal("0.00").compareTo(foodRow.getSpent()[0]));
+        assertNull(foodRow.getBudget()[0]);
+        assertEquals(0, new BigDecimal("-20.00").compareTo(foodRow.getRemaining()[1]));
+        assertTrue(foodRow.getOverBudget()[1]);
+        assertNull(foodRow.getBudget()[2]);
+        assertFalse(foodRow.getOverBudget()[2]);
+
+        // over the budget, but overspend is allowed
+        BudgetMatrixRowDto travelRow = matrix.getRows().get(1);
+        assertEquals(0, new BigDecimal("-10.00").compareTo(travelRow.getRemaining()[0]));
+        assertFalse(travelRow.getOverBudget()[0]);
+        assertEquals(Boolean.TRUE, travelRow.getAllowOverspend()[0]);
+
+        verify(periodCloses, times(1)).countAndSumByCategoryAndMonth(any(), any());
+        verify(budgetRepo, times(1)).findByCategoryIdInAndMonthRange(anyList(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertBudgets_lastEntryPerCategoryMonthWins_andEvictsEach() {
+        when(budgetRepo.upsertAll(anyCollection(), eq("alice"))).thenAnswer(inv -> ((Collection<?>) inv.getArgument(0)).size());
+
+        int written = service.upsertBudgets(List.of(
+                item(1L, 1, "10.00", null),
+                item(2L, 1, "20.00", false),
+                item(1L, 1, "15.00", true)));
+
+        assertEquals(2, written);
+        ArgumentCaptor<Collection<BudgetRow>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(budgetRepo).upsertAll(rows.capture(), eq("alice"));
+        BudgetRow food = rows.getValue().iterator().next();
+        assertEquals(1L, food.getCategoryId());
+        assertEquals(0, new BigDecimal("15.00").compareTo(food.getBudget()));
+        assertEquals(Boolean.TRUE, food.getAllowOverspend());
+        verify(eventPublisher, times(2)).publishEvent(any(BudgetChangedEvent.class));
+    }
+
+    @Test
+    void rolloverBudgets_scalesByAdjustPct_andEvictsTargetMonth() {
+        when(budgetRepo.findByYearAndMonth(2026, 1)).thenReturn(List.of(budget(category(1L, "Food"), 1, "100.00", false)));
+        when(budgetRepo.rollover(anyInt(), anyInt(), anyInt(), anyInt(), any(), anyBoolean(), any())).thenReturn(1);
+
+        assertEquals(1, service.rolloverBudgets(YearMonth.of(2026, 1), YearMonth.of(2026, 2), new BigDecimal("-2.5"), false));
+
+        ArgumentCaptor<BigDecimal> factor = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(budgetRepo).rollover(eq(2026), eq(1), eq(2026), eq(2), factor.capture(), eq(false), eq("alice"));
+        assertEquals(0, new BigDecimal("0.975").compareTo(factor.getValue()));
+        ArgumentCaptor<BudgetChangedEvent> event = ArgumentCaptor.forClass(BudgetChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getMonth());
+    }
+
+    @Test
+    void rolloverBudgets_emptySourceMonth_writesNothing() {
+        when(budgetRepo.findByYearAndMonth(2026, 1)).thenReturn(List.of());
+
+        assertEquals(0, service.rolloverBudgets(YearMonth.of(2026, 1), YearMonth.of(2026, 2), BigDecimal.ZERO, true));
+        verify(budgetRepo, never()).rollover(anyInt(), anyInt(), anyInt(), anyInt(), any(), anyBoolean(), any());
+    }
+
+    private static ExpenseCategoryBudgetBulkItem item(Long categoryId, int month, String amount, Boolean allowOverspend) {
+        ExpenseCategoryBudgetBulkItem i = new ExpenseCategoryBudgetBulkItem();
+        i.setCategoryId(categoryId);
+        i.setYear(2026);
+        i.setMonth(month);
+        i.setBudget(new BigDecimal(amount));
+        i.setAllowOverspend(allowOverspend);
+        return i;
+    }
+
+    private static ExpenseCategory category(Long id, String name) {
+        ExpenseCategory c = new ExpenseCategory();
+        c.setId(id);
+        c.setName(name);
+        return c;
+    }
+
+    private static ExpenseCategoryBudget budget(ExpenseCategory category, int month, String amount, boolean allowOverspend) {
+        ExpenseCategoryBudget b = new ExpenseCategoryBudget();
+        b.setCategory(category);
+        b.setYear(2026);
+        b.setMonth(month);
+        b.setBudget(new BigDecimal(amount));
+        b.setAllowOverspend(allowOverspend);
+        return b;
+    }
+}
@@ -2,22 +2,28 @@ package org.example.expenseapi.service;
 
 import org.example.expenseapi.model.ExpenseCategory;
 import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.repository.ExpenseCategoryClosureRepository;
 import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.service.event.CategoryChangedEvent;
 import org.example.expenseapi.service.impl.ExpenseCategoryServiceImpl;
 import org.example.expenseapi.testutil.ExpenseCategoryBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,13 +32,24 @@ class ExpenseCategoryServiceImplTest {
     @Mock
     private ExpenseCategoryRepository repository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ExpenseCategoryClosureRepository closureRepo;
+
+    @Mock
+    private CategoryTreeLock treeLock;
+
+    private CategoryTreeCache categoryTree;
     private ExpenseCategoryServiceImpl service;
 
     private ExpenseCategory existing;
 
     @BeforeEach
     void setUp() {
+        categoryTree = new CategoryTreeCache(repository, 60);
+        service = new ExpenseCategoryServiceImpl(repository, eventPublisher, categoryTree, closureRepo, treeLock);
         existing = ExpenseCategoryBuilder.anExpenseCategory()
                 .withId(1L)
                 .withName("Travel")
@@ -73,6 +90,7 @@ class ExpenseCategoryServiceImplTest {
         // status left null to ensure partial update works
 
         when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.findMaxLevelByParentId(null)).thenReturn(2);
         when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ExpenseCategory updated = service.updateExpenseCategory(1L, updates);
@@ -83,6 +101,7 @@ class ExpenseCategoryServiceImplTest {
 
         // budget unchanged here; budgets are managed via ExpenseCategoryBudget
         verify(repository).findById(1L);
+        verify(repository).shiftLevels(null, 2, 2, -1);
         verify(repository).save(existing);
     }
 
@@ -99,50 +118,104 @@ class ExpenseCategoryServiceImplTest {
         verify(repository, never()).save(any());
     }
 
+    @Test
+    void toggleStatus_flipsTheStatusOfTheLockedRow_notOfTheSnapshot() {
+        existing.setStatus(ExpenseCategoryStatus.INACTIVE);
+        when(repository.lockById(1L)).thenReturn(Optional.of(existing));
+        when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExpenseCategory saved = service.toggleStatus(1L);
+
+        assertEquals(ExpenseCategoryStatus.ACTIVE, saved.getStatus());
+        verify(repository, never()).findAllForSnapshot();
+        verify(eventPublisher).publishEvent(any(CategoryChangedEvent.class));
+    }
+
+    @Test
+    void toggleStatus_nonExisting_throws() {
+        when(repository.lockById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> service.toggleStatus(99L));
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void deleteExpenseCategory_deletes() {
         doNothing().when(repository).deleteById(1L);
 
         assertDoesNotThrow(() -> service.deleteExpenseCategory(1L));
         verify(repository).deleteById(1L);
+        verify(closureRepo).deleteLinksOf(1L);
     }
 
     @Test
     void findById_and_findAll_and_findByName() {
-        when(repository.findById(1L)).thenReturn(Optional.of(existing));
-        // Service.findAll() now builds ordered list from parents and children; mock parent fetch and child fetch.
-        when(repository.findByParentIsNullOrderByLevelAsc()).thenReturn(List.of(existing));
-        when(repository.findByParentOrderByLevelAsc(existing)).thenReturn(List.of());
+        ExpenseCategory child = ExpenseCategoryBuilder.anExpenseCategory().withId(3L).withName("Flights").withLevel(2).withParent(existing).build();
+        ExpenseCategory child2 = ExpenseCategoryBuilder.anExpenseCategory().withId(4L).withName("Hotels").withLevel(1).withParent(existing).build();
+        ExpenseCategory other = ExpenseCategoryBuilder.anExpenseCategory().withId(2L).withName("Food").withLevel(2).build();
+        // the category snapshot is loaded with a single query
+        when(repository.findAllForSnapshot()).thenReturn(rows(child, other, existing, child2));
         when(repository.findByName("Travel")).thenReturn(Optional.of(existing));
 
         Optional<ExpenseCategory> byId = service.findById(1L);
         List<ExpenseCategory> all = service.findAll();
+        List<ExpenseCategory> children = service.findChildren(1L);
         Optional<ExpenseCategory> byName = service.findByName("Travel");
 
         assertTrue(byId.isPresent());
         assertEquals(existing.getName(), byId.get().getName());
+        assertTrue(service.findById(99L).isEmpty());
 
-        assertEquals(1, all.size());
-        assertEquals(existing.getName(), all.get(0).getName());
+        // parents by level, each followed by its children by level
+        assertEquals(List.of(1L, 4L, 3L, 2L), all.stream().map(ExpenseCategory::getId).collect(Collectors.toList()));
+        assertEquals(1L, all.get(1).getParent().getId());
+        assertEquals(List.of(4L, 3L), children.stream().map(ExpenseCategory::getId).collect(Collectors.toList()));
 
         assertTrue(byName.isPresent());
         assertEquals(existing.getName(), byName.get().getName());
 
-        verify(repository).findById(1L);
-        verify(repository).findByParentIsNullOrderByLevelAsc();
-        verify(repository).findByParentOrderByLevelAsc(existing);
+        verify(repository, times(1)).findAllForSnapshot();
+        verify(repository, never()).findById(any());
+        verify(repository, never()).findByParentOrderByLevelAsc(any());
         verify(repository).findByName("Travel");
     }
 
+    @Test
+    void findMissingIds_resolvesAllIdsAgainstTheSnapshot() {
+        when(repository.findAllForSnapshot()).thenReturn(rows(existing));
+
+        assertEquals(List.of(5L, 9L), service.findMissingIds(java.util.Arrays.asList(5L, 1L, null, 9L, 5L)));
+        assertEquals(List.of(), service.findMissingIds(List.of(1L)));
+
+        verify(repository, times(1)).findAllForSnapshot();
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void reads_returnCopies_andAreReloadedAfterAChange() {
+        when(repository.findAllForSnapshot()).thenAnswer(invocation -> rows(existing));
+
+        service.findById(1L).orElseThrow().setName("changed by a caller");
+        assertEquals("Travel", service.findById(1L).orElseThrow().getName());
+
+        when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        service.updateExpenseCategory(1L, ExpenseCategoryBuilder.anExpenseCategory().withName("Trips").withLevel(null).build());
+        // the change is committed: the listener drops the snapshot
+        ArgumentCaptor<CategoryChangedEvent> event = ArgumentCaptor.forClass(CategoryChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        categoryTree.onCategoryChanged(event.getValue());
+
+        assertEquals("Trips", service.findById(1L).orElseThrow().getName());
+        verify(repository, times(2)).findAllForSnapshot();
+    }
+
     // New tests for level management
 
     @Test
     void createWithoutLevel_placesAtBottom() {
         // existing siblings have levels 1 and 2
-        ExpenseCategory s1 = ExpenseCategoryBuilder.anExpenseCategory().withId(10L).withLevel(1).withName("A").build();
-        ExpenseCategory s2 = ExpenseCategoryBuilder.anExpenseCategory().withId(11L).withLevel(2).withName("B").build();
-
-        when(repository.findByParentIsNullOrderByLevelAsc()).thenReturn(List.of(s1, s2));
+        when(repository.findMaxLevelByParentId(null)).thenReturn(2);
         when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> {
             ExpenseCategory arg = invocation.getArgument(0);
             if (arg.getId() == null) arg.setId(20L);
@@ -154,18 +227,15 @@ class ExpenseCategoryServiceImplTest {
         ExpenseCategory created = service.createExpenseCategory(newCat);
 
         assertEquals(3, created.getLevel());
-        verify(repository).findByParentIsNullOrderByLevelAsc();
+        verify(treeLock).lockExclusive();
+        verify(repository, never()).shiftLevels(any(), anyInt(), anyInt(), anyInt());
         verify(repository).save(created);
     }
 
     @Test
     void createWithLevel_shiftsSiblings() {
         // siblings with levels 1,2,3
-        ExpenseCategory s1 = ExpenseCategoryBuilder.anExpenseCategory().withId(10L).withLevel(1).withName("A").build();
-        ExpenseCategory s2 = ExpenseCategoryBuilder.anExpenseCategory().withId(11L).withLevel(2).withName("B").build();
-        ExpenseCategory s3 = ExpenseCategoryBuilder.anExpenseCategory().withId(12L).withLevel(3).withName("C").build();
-
-        when(repository.findByParentIsNullOrderByLevelAsc()).thenReturn(List.of(s1, s2, s3));
+        when(repository.findMaxLevelByParentId(null)).thenReturn(3);
         when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ExpenseCategory newCat = ExpenseCategoryBuilder.anExpenseCategory().withName("Inserted").withLevel(2).build();
@@ -174,25 +244,67 @@ class ExpenseCategoryServiceImplTest {
 
         assertEquals(2, created.getLevel());
 
-        // verify siblings with level >=2 were shifted up (B -> 3, C -> 4)
-        ArgumentCaptor<ExpenseCategory> captor = ArgumentCaptor.forClass(ExpenseCategory.class);
-        verify(repository, atLeast(3)).save(captor.capture());
-        List<ExpenseCategory> saved = captor.getAllValues();
+        // siblings with level >= 2 are shifted down (B -> 3, C -> 4) in one statement, under the tree lock
+        InOrder order = inOrder(treeLock, repository);
+        order.verify(treeLock).lockExclusive();
+        order.verify(repository).shiftLevels(null, 2, 3, 1);
+        order.verify(repository).save(created);
+        verify(repository, times(1)).save(any(ExpenseCategory.class));
+    }
 
-        boolean foundShiftedB = saved.stream().anyMatch(ec -> ec.getId()!=null && ec.getId().equals(11L) && ec.getLevel()==3);
-        boolean foundShiftedC = saved.stream().anyMatch(ec -> ec.getId()!=null && ec.getId().equals(12L) && ec.getLevel()==4);
-        assertTrue(foundShiftedB, "Sibling B should have been shifted to level 3");
-        assertTrue(foundShiftedC, "Sibling C should have been shifted to level 4");
+    @Test
+    void createWithLevelPastTheEnd_isPlacedRightBelowTheLastSibling() {
+        ExpenseCategory parent = ExpenseCategoryBuilder.anExpenseCategory().withId(7L).withName("P").build();
+        when(repository.findMaxLevelByParentId(7L)).thenReturn(2);
+        when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExpenseCategory created = service.createExpenseCategory(
+                ExpenseCategoryBuilder.anExpenseCategory().withName("Child").withParent(parent).withLevel(10).build());
+
+        assertEquals(3, created.getLevel());
+        verify(repository).lockById(7L);
+        verify(repository, never()).shiftLevels(any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void createUnderParent_locksOnlyTheParent_andTheTreeShared() {
+        ExpenseCategory parent = ExpenseCategoryBuilder.anExpenseCategory().withId(7L).withName("P").build();
+        when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.createExpenseCategory(ExpenseCategoryBuilder.anExpenseCategory().withName("Child").withParent(parent).build());
+
+        // inserts under different parents do not wait for each other, nor for the top level
+        verify(treeLock).lockShared();
+        verify(treeLock, never()).lockExclusive();
+        verify(repository, times(1)).lockById(any());
+        verify(repository).lockById(7L);
+    }
+
+    @Test
+    void createUnderParent_linksTheCategoryToAllItsAncestors() {
+        ExpenseCategory parent = ExpenseCategoryBuilder.anExpenseCategory().withId(7L).withName("Flights").build();
+        when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> {
+            ExpenseCategory arg = invocation.getArgument(0);
+            arg.setId(30L);
+            return arg;
+        });
+
+        service.createExpenseCategory(ExpenseCategoryBuilder.anExpenseCategory().withName("Domestic").withParent(parent).build());
+
+        // the tree lock is held shared, so the ancestors cannot move; then the sibling list is locked
+        InOrder order = inOrder(treeLock, repository, closureRepo);
+        order.verify(treeLock).lockShared();
+        order.verify(repository).lockById(7L);
+        order.verify(repository).save(any(ExpenseCategory.class));
+        order.verify(closureRepo).insertSelfLink(30L);
+        order.verify(closureRepo).attachSubtree(30L, 7L);
     }
 
     @Test
     void updateLevel_repositionsWithinSameParent() {
         // siblings: existing(id=1, level=1), s2(level=2), s3(level=3)
-        ExpenseCategory s2 = ExpenseCategoryBuilder.anExpenseCategory().withId(11L).withLevel(2).withName("B").build();
-        ExpenseCategory s3 = ExpenseCategoryBuilder.anExpenseCategory().withId(12L).withLevel(3).withName("C").build();
-
         when(repository.findById(1L)).thenReturn(Optional.of(existing));
-        when(repository.findByParentIsNullOrderByLevelAsc()).thenReturn(List.of(existing, s2, s3));
+        when(repository.findMaxLevelByParentId(null)).thenReturn(3);
         when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // move existing from level 1 to level 3
@@ -202,15 +314,64 @@ class ExpenseCategoryServiceImplTest {
 
         assertEquals(3, updated.getLevel());
 
-        // verify that s2 and s3 were adjusted: s2 should move to level 1? Actually service logic: when newLevel > oldLevel, decrement levels in (oldLevel+1..newLevel]
-        // So s2(level2) becomes 1? Wait: oldLevel=1, newLevel=3: s with level>1 and <=3 have lvl-1 -> s2:2->1, s3:3->2
-        ArgumentCaptor<ExpenseCategory> captor = ArgumentCaptor.forClass(ExpenseCategory.class);
-        verify(repository, atLeast(2)).save(captor.capture());
-        List<ExpenseCategory> saved = captor.getAllValues();
+        // newLevel > oldLevel: siblings in (oldLevel..newLevel] move up by one, s2: 2 -> 1 and s3: 3 -> 2
+        verify(repository).shiftLevels(null, 2, 3, -1);
+        verify(repository, times(1)).save(any(ExpenseCategory.class));
+    }
+
+    @Test
+    void updateParent_closesGapUnderOldParent_andOpensSlotUnderNewParent() {
+        ExpenseCategory oldParent = ExpenseCategoryBuilder.anExpenseCategory().withId(7L).withName("Old").build();
+        ExpenseCategory newParent = ExpenseCategoryBuilder.anExpenseCategory().withId(8L).withName("New").build();
+        existing.setParent(oldParent);
+        existing.setLevel(2);
+        when(repository.findAllForSnapshot()).thenReturn(rows(oldParent, newParent, existing));
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.findMaxLevelByParentId(8L)).thenReturn(4);
+        when(repository.save(any(ExpenseCategory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExpenseCategory updated = service.updateExpenseCategory(1L,
+                ExpenseCategoryBuilder.anExpenseCategory().withName(null).withParent(newParent).withLevel(1).build());
+
+        assertEquals(1, updated.getLevel());
+        assertEquals(8L, updated.getParent().getId());
+        // the subtree moves: the tree lock is taken, then both parents (by id), before the category is read
+        InOrder order = inOrder(treeLock, repository);
+        order.verify(treeLock).lockExclusive();
+        order.verify(repository).lockById(7L);
+        order.verify(repository).lockById(8L);
+        order.verify(repository).findById(1L);
+        verify(repository).shiftLevels(7L, 3, Integer.MAX_VALUE, -1);
+        verify(repository).shiftLevels(8L, 1, 4, 1);
+        // the subtree moves along with the category
+        InOrder closure = inOrder(closureRepo);
+        closure.verify(closureRepo).detachSubtree(1L);
+        closure.verify(closureRepo).attachSubtree(1L, 8L);
+    }
+
+    @Test
+    void updateParent_toOwnSubcategory_isRejected() {
+        ExpenseCategory child = ExpenseCategoryBuilder.anExpenseCategory().withId(8L).withName("Flights").withParent(existing).build();
+        when(repository.findAllForSnapshot()).thenReturn(rows(existing, child));
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(closureRepo.existsByAncestorIdAndDescendantId(1L, 8L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> service.updateExpenseCategory(1L,
+                ExpenseCategoryBuilder.anExpenseCategory().withName(null).withParent(child).build()));
+
+        verify(repository, never()).shiftLevels(any(), anyInt(), anyInt(), anyInt());
+        verify(repository, never()).save(any());
+        verify(closureRepo, never()).detachSubtree(any());
+    }
 
-        boolean s2MovedTo1 = saved.stream().anyMatch(ec -> ec.getId()!=null && ec.getId().equals(11L) && ec.getLevel()==1);
-        boolean s3MovedTo2 = saved.stream().anyMatch(ec -> ec.getId()!=null && ec.getId().equals(12L) && ec.getLevel()==2);
-        assertTrue(s2MovedTo1, "Sibling s2 should have been decremented to level 1");
-        assertTrue(s3MovedTo2, "Sibling s3 should have been decremented to level 2");
+    // rows of the category snapshot query
+    private static List<Object[]> rows(ExpenseCategory... categories) {
+        List<Object[]> rows = new ArrayList<>();
+        for (ExpenseCategory c : categories) {
+            rows.add(new Object[]{c.getId(), c.getName(), c.getStatus(), c.getLevel(),
+                    c.getParent() == null ? null : c.getParent().getId(),
+                    c.getCreatedAt(), c.getCreatedBy(), c.getUpdatedAt(), c.getUpdatedBy()});
+        }
+        return rows;
     }
 }
@@ -0,0 +1,186 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.model.ExpenseMonthSnapshot;
+import org.example.expenseapi.model.ExpensePeriodClose;
+import org.example.expenseapi.model.ExpensePeriodLock;
+import org.example.expenseapi.repository.ExpenseMonthSnapshotRepository;
+import org.example.expenseapi.repository.ExpensePeriodCloseRepository;
+import org.example.expenseapi.repository.ExpensePeriodLockRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class ExpensePeriodCloseServiceTest {
+
+    private ExpensePeriodCloseRepository closeRepo;
+    private ExpenseMonthSnapshotRepository snapshotRepo;
+    private ExpenseRepository expenseRepo;
+    private ExpensePeriodLockRepository lockRepo;
+    private ExpensePeriodCloseService service;
+
+    @BeforeEach
+    void setUp() {
+        closeRepo = Mockito.mock(ExpensePeriodCloseRepository.class);
+        snapshotRepo = Mockito.mock(ExpenseMonthSnapshotRepository.class);
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        lockRepo = Mockito.mock(ExpensePeriodLockRepository.class);
+        service = new ExpensePeriodCloseService(closeRepo, snapshotRepo, expenseRepo, lockRepo,
+                Mockito.mock(PlatformTransactionManager.class));
+        when(lockRepo.lockShared(anyInt(), anyInt())).thenAnswer(invocation -> Optional.of(lock(false)));
+        when(lockRepo.lockExclusive(anyInt(), anyInt())).thenAnswer(invocation -> Optional.of(lock(false)));
+
+        // 2025-02 is closed: 3 expenses of category 1 totalling 30.00
+        ExpensePeriodClose feb = new ExpensePeriodClose();
+        feb.setId(7L);
+        feb.setYear(2025);
+        feb.setMonth(2);
+        when(closeRepo.findAll()).thenReturn(List.of(feb));
+        ExpenseMonthSnapshot s = new ExpenseMonthSnapshot();
+        s.setYear(2025);
+        s.setMonth(2);
+        s.setCategoryId(1L);
+        s.setExpenseCount(3L);
+        s.setAmount(new BigDecimal("30.00"));
+        when(snapshotRepo.findByYearAndMonth(2025, 2)).thenReturn(List.of(s));
+        when(expenseRepo.countAndSumGroupedByCategoryAndMonthBetween(any(), any())).thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    void countAndSum_readsClosedMonthsFromSnapshots_andQueriesOnlyOpenRuns() {
+        List<Object[]> january = new ArrayList<>();
+        january.add(new Object[]{1L, 2025, 1, 2L, new BigDecimal("5.50")});
+        when(expenseRepo.countAndSumGroupedByCategoryAndMonthBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)))
+                .thenReturn(january);
+
+        List<long[]> rows = service.countAndSumByCategoryAndMonth(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 30));
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new long[]{1L, 2025, 1, 2L, 550L}, rows.get(0));
+        assertArrayEquals(new long[]{1L, 2025, 2, 3L, 3000L}, rows.get(1));
+        verify(expenseRepo).countAndSumGroupedByCategoryAndMonthBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        verify(expenseRepo).countAndSumGroupedByCategoryAndMonthBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 30));
+        verify(expenseRepo, never()).countAndSumGroupedByCategoryAndMonthBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28));
+    }
+
+    @Test
+    void countAndSum_closedMonthOnlyPartlyInRange_isAggregatedLive() {
+        service.countAndSumByCategoryAndMonth(LocalDate.of(2025, 2, 10), LocalDate.of(2025, 3, 5));
+
+        verify(expenseRepo).countAndSumGroupedByCategoryAndMonthBetween(LocalDate.of(2025, 2, 10), LocalDate.of(2025, 3, 5));
+        verify(snapshotRepo, never()).findByYearAndMonth(anyInt(), anyInt());
+    }
+
+    @Test
+    void countAndSum_snapshotsAreReadOnce() {
+        service.countAndSumByCategoryAndMonth(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28));
+        service.countAndSumByCategoryAndMonth(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28));
+
+        verify(snapshotRepo, times(1)).findByYearAndMonth(2025, 2);
+        verify(expenseRepo, never()).countAndSumGroupedByCategoryAndMonthBetween(any(), any());
+    }
+
+    @Test
+    void checkOpen_rejectsDatesInClosedMonths() {
+        when(lockRepo.lockShared(2025, 2)).thenReturn(Optional.of(lock(true)));
+
+        ClosedPeriodException ex = assertThrows(ClosedPeriodException.class, () -> service.checkOpen(LocalDate.of(2025, 2, 14)));
+        assertEquals("2025-02", ex.getMonth().toString());
+        assertDoesNotThrow(() -> service.checkOpen(LocalDate.of(2025, 3, 1)));
+    }
+
+    @Test
+    void checkOpen_holdsTheMonthLocksShared_inCalendarOrder_andReadsOnlyTheLockRows() {
+        service.checkOpen(LocalDate.of(2025, 5, 20), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 5, 2));
+
+        InOrder order = inOrder(lockRepo);
+        order.verify(lockRepo).lockShared(2025, 3);
+        order.verify(lockRepo).lockShared(2025, 5);
+        verify(lockRepo, never()).lockExclusive(anyInt(), anyInt());
+        verify(closeRepo, never()).existsByYearAndMonth(anyInt(), anyInt());
+    }
+
+    @Test
+    void checkOpen_lockRowWithoutTheFlag_fallsBackToTheCloseTable() {
+        when(lockRepo.lockShared(2025, 2)).thenReturn(Optional.of(lock(null)));
+        when(closeRepo.existsByYearAndMonth(2025, 2)).thenReturn(true);
+
+        assertThrows(ClosedPeriodException.class, () -> service.checkOpen(LocalDate.of(2025, 2, 14)));
+    }
+
+    @Test
+    void checkOpen_createsAMissingLockRow_beforeLockingIt() {
+        when(lockRepo.lockShared(2025, 3)).thenReturn(Optional.empty(), Optional.of(new ExpensePeriodLock()));
+
+        service.checkOpen(LocalDate.of(2025, 3, 1));
+
+        verify(lockRepo).saveAndFlush(argThat(row -> row.getYear() == 2025 && row.getMonth() == 3 && Boolean.FALSE.equals(row.getClosed())));
+        verify(lockRepo, times(2)).lockShared(2025, 3);
+    }
+
+    @Test
+    void close_locksTheMonthExclusively_beforeSnapshottingIt() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        when(closeRepo.saveAndFlush(any(ExpensePeriodClose.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(closeRepo.save(any(ExpensePeriodClose.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExpensePeriodLock lock = lock(false);
+        when(lockRepo.lockExclusive(month.getYear(), month.getMonthValue())).thenReturn(Optional.of(lock));
+
+        service.close(month);
+
+        // writers still holding the month shared are waited for, so their expenses are in the snapshot
+        InOrder order = inOrder(lockRepo, closeRepo, expenseRepo);
+        order.verify(lockRepo).lockExclusive(month.getYear(), month.getMonthValue());
+        order.verify(lockRepo).save(lock);
+        order.verify(expenseRepo).countAndSumGroupedByCategoryAndMonthBetween(month.atDay(1), month.atEndOfMonth());
+        assertTrue(lock.getClosed());
+    }
+
+    @Test
+    void close_alreadyClosedMonth_isRejected() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        when(lockRepo.lockExclusive(month.getYear(), month.getMonthValue())).thenReturn(Optional.of(lock(true)));
+
+        assertThrows(IllegalStateException.class, () -> service.close(month));
+        verify(closeRepo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void reopen_locksTheMonthExclusively_andClearsTheFlag() {
+        ExpensePeriodLock lock = lock(true);
+        when(lockRepo.lockExclusive(2025, 2)).thenReturn(Optional.of(lock));
+        ExpensePeriodClose feb = new ExpensePeriodClose();
+        when(closeRepo.findByYearAndMonth(2025, 2)).thenReturn(Optional.of(feb));
+
+        assertTrue(service.reopen(YearMonth.of(2025, 2)));
+
+        InOrder order = inOrder(lockRepo, closeRepo);
+        order.verify(lockRepo).lockExclusive(2025, 2);
+        order.verify(closeRepo).findByYearAndMonth(2025, 2);
+        order.verify(closeRepo).delete(feb);
+        assertFalse(lock.getClosed());
+        verify(snapshotRepo).deleteByYearAndMonth(2025, 2);
+    }
+
+    private static ExpensePeriodLock lock(Boolean closed) {
+        ExpensePeriodLock lock = new ExpensePeriodLock();
+        lock.setClosed(closed);
+        return lock;
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +39,9 @@ public class ExpenseServiceImplTest {
     @Mock
     private ExpenseStatusRepository statusRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ExpenseServiceImpl service;
 
@@ -184,4 +188,21 @@ public class ExpenseServiceImplTest {
         assertThat(res.getTotalElements()).isEqualTo(0);
         verify(expenseRepository).search("x", null, null, null, pageable);
     }
+
+    @Test
+    void getExpensesReportByCategory_withoutPeriodCloses_aggregatesLiveExpenses() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        when(expenseRepository.countAndSumGroupedByCategoryAndMonthBetween(start, end)).thenReturn(List.of(
+                new Object[]{1L, 2025, 3, 2L, new BigDecimal("12.50")},
+                new Object[]{2L, 2025, 3, 1L, new BigDecimal("7.50")},
+                new Object[]{3L, 2025, 4, 1L, new BigDecimal("99.00")}));
+
+        var years = service.getExpensesReportByCategory(start, end, List.of(1L, 2L));
+
+        assertThat(years).hasSize(1);
+        assertEquals(0, new BigDecimal("20.00").compareTo(years.get(0).getMonths().get(3)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(years.get(0).getMonths().get(4)));
+        assertEquals(0, new BigDecimal("20.00").compareTo(years.get(0).getTotal()));
+    }
 }
@@ -0,0 +1,99 @@
+package org.example.expenseapi.service;
+
+import org.example.expenseapi.dto.YearlyExpenseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReportJobServiceTest {
+
+    private ExpenseService expenseService;
+    private ReportJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        expenseService = Mockito.mock(ExpenseService.class);
+        jobService = new ReportJobService(expenseService, 1, 1, 30, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void submit_runsOneStepPerYear_andStoresResult() throws Exception {
+        when(expenseService.getExpensesReportByCategory(any(LocalDate.class), any(LocalDate.class), any()))
+                .thenAnswer(i -> List.of(year(((LocalDate) i.getArgument(0)).getYear())));
+
+        ReportJob job = jobService.submit("user@example.org", 2022, 2024, null);
+        awaitFinished(job);
+
+        assertEquals(ReportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(100, job.getProgress());
+        assertEquals(3, job.getCompletedSteps());
+        assertThat(job.getResult()).extracting(YearlyExpenseDto::getYear).containsExactly(2024, 2023, 2022);
+        verify(expenseService, times(3)).getExpensesReportByCategory(any(LocalDate.class), any(LocalDate.class), any());
+    }
+
+    @Test
+    void identicalSubmission_attachesToRunningJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseService.getExpensesReportByCategory(any(LocalDate.class), any(LocalDate.class), any()))
+                .thenAnswer(i -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of(year(2025));
+                });
+
+        ReportJob first = jobService.submit("user@example.org", 2025, 2025, List.of(2L, 1L));
+        ReportJob second = jobService.submit("user@example.org", 2025, 2025, List.of(1L, 2L, 2L));
+        ReportJob otherUser = jobService.submit("other@example.org", 2025, 2025, List.of(1L, 2L));
+
+        assertSame(first, second);
+        assertNotSame(first, otherUser);
+
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(otherUser);
+        assertEquals(ReportJobStatus.COMPLETED, first.getStatus());
+    }
+
+    @Test
+    void failingReport_marksJobFailed() throws Exception {
+        when(expenseService.getExpensesReportByCategory(any(LocalDate.class), any(LocalDate.class), any()))
+                .thenThrow(new RuntimeException("boom"));
+
+        ReportJob job = jobService.submit("user@example.org", 2025, 2025, null);
+        awaitFinished(job);
+
+        assertEquals(ReportJobStatus.FAILED, job.getStatus());
+        assertEquals("boom", job.getError());
+        assertTrue(jobService.findById(job.getId()).isPresent());
+    }
+
+    private static YearlyExpenseDto year(int y) {
+        YearlyExpenseDto dto = new YearlyExpenseDto();
+        dto.setYear(y);
+        dto.setTotal(BigDecimal.TEN);
+        return dto;
+    }
+
+    private static void awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.AmountStatsDto;
+import org.example.expenseapi.repository.ExpenseCategoryClosureRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AmountStatsServiceTest {
+
+    private ExpenseRepository expenseRepo;
+    private ExpenseCategoryClosureRepository closureRepo;
+    // rows of the expenses table: {categoryId, date, amount}
+    private final List<Object[]> table = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        closureRepo = Mockito.mock(ExpenseCategoryClosureRepository.class);
+        when(expenseRepo.streamAmountsByCategoriesBetween(anyList(), any(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(table).stream());
+        when(closureRepo.findSubtreeIds(1L)).thenReturn(List.of(1L, 2L));
+        row(1L, "2025-03-04", "10.00");
+        row(1L, "2025-03-20", "30.00");
+        row(2L, "2025-03-11", "20.00");
+        row(2L, "2025-07-01", "40.00");
+    }
+
+    @Test
+    void getStats_mergesSubtreeAndYear_fromOneRead() {
+        AmountStatsService service = service(20000, 300);
+
+        AmountStatsDto month = service.getStats(1L, false, 2025, 3, 0);
+        assertEquals(2L, month.getCount());
+        assertEquals(new BigDecimal("40.00"), month.getTotal());
+
+        AmountStatsDto year = service.getStats(1L, true, 2025, null, 0);
+        assertEquals(4L, year.getCount());
+        assertEquals(new BigDecimal("100.00"), year.getTotal());
+        assertEquals(new BigDecimal("25.00"), year.getMean());
+        assertEquals(new BigDecimal("10.00"), year.getMin());
+        assertEquals(new BigDecimal("40.00"), year.getMax());
+        // the 2025-03 cell of category 1 is reused, the other 23 cells are built together
+        verify(expenseRepo, times(2)).streamAmountsByCategoriesBetween(anyList(), any(), any());
+    }
+
+    @Test
+    void getStats_afterAnExpenseIsDeleted_rebuildsTheStaleCell() {
+        AmountStatsService service = service(20000, 300);
+        assertEquals(2L, service.getStats(1L, false, 2025, 3, 0).getCount());
+
+        table.remove(1);
+        service.onExpenseChanged(ExpenseChangedEvent.deleted(snapshot(1L, "2025-03-20", "30.00")));
+        AmountStatsDto stats = service.getStats(1L, false, 2025, 3, 0);
+
+        assertEquals(1L, stats.getCount());
+        assertEquals(new BigDecimal("10.00"), stats.getTotal());
+        verify(expenseRepo, times(2)).streamAmountsByCategoriesBetween(anyList(), any(), any());
+    }
+
+    @Test
+    void getStats_afterAnExpenseIsAdded_updatesTheCellInPlace() {
+        AmountStatsService service = service(20000, 300);
+        service.getStats(1L, false, 2025, 3, 0);
+
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "2025-03-21", "5.00")));
+
+        assertEquals(new BigDecimal("45.00"), service.getStats(1L, false, 2025, 3, 0).getTotal());
+        verify(expenseRepo, times(1)).streamAmountsByCategoriesBetween(anyList(), any(), any());
+    }
+
+    @Test
+    void getStats_expiredCell_isRebuilt() {
+        AmountStatsService service = service(20000, 0);
+        service.getStats(1L, false, 2025, 3, 0);
+
+        // written on another node: no event here
+        row(1L, "2025-03-22", "50.00");
+
+        assertEquals(3L, service.getStats(1L, false, 2025, 3, 0).getCount());
+        verify(expenseRepo, times(2)).streamAmountsByCategoriesBetween(anyList(), any(), any());
+    }
+
+    @Test
+    void getStats_needingMoreCellsThanAreKept_isStillComplete() {
+        AmountStatsService service = service(2, 300);
+
+        AmountStatsDto year = service.getStats(1L, true, 2025, null, 0);
+
+        assertEquals(4L, year.getCount());
+        assertEquals(new BigDecimal("100.00"), year.getTotal());
+    }
+
+    private AmountStatsService service(int maxCells, long ttlSeconds) {
+        return new AmountStatsService(expenseRepo, closureRepo, Mockito.mock(PlatformTransactionManager.class), 200,
+                maxCells, ttlSeconds);
+    }
+
+    private void row(Long categoryId, String date, String amount) {
+        table.add(new Object[]{categoryId, LocalDate.parse(date), new BigDecimal(amount)});
+    }
+
+    private static ExpenseSnapshot snapshot(Long categoryId, String date, String amount) {
+        return new ExpenseSnapshot(9L, LocalDate.parse(date), categoryId, 1L, new BigDecimal(amount), "x");
+    }
+}
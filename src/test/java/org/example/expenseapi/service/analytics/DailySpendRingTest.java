@@ -0,0 +1,62 @@
+package org.example.expenseapi.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DailySpendRingTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void add_ignoresDaysOutsideTheWindow() {
+        DailySpendRing ring = new DailySpendRing(7, TODAY);
+        ring.add(TODAY, 100);
+        ring.add(TODAY.minusDays(6), 50);
+        ring.add(TODAY.minusDays(7), 999); // just left the window
+        ring.add(TODAY.plusDays(1), 999);  // not loaded yet
+
+        assertEquals(150, ring.sum(TODAY.minusDays(30), TODAY.plusDays(5)));
+        assertEquals(0, ring.get(TODAY.minusDays(7)));
+    }
+
+    @Test
+    void slidingForward_dropsOldDaysWithoutShifting() {
+        DailySpendRing ring = new DailySpendRing(7, TODAY);
+        ring.add(TODAY.minusDays(6), 50);
+        ring.add(TODAY, 100);
+
+        ring.setLoadedThrough(TODAY.plusDays(1));
+        // the slot of TODAY-6 is reused by TODAY+1
+        ring.add(TODAY.plusDays(1), 25);
+
+        assertEquals(0, ring.get(TODAY.minusDays(6)));
+        assertEquals(25, ring.get(TODAY.plusDays(1)));
+        assertEquals(125, ring.sum(TODAY.minusDays(5), TODAY.plusDays(1)));
+    }
+
+    @Test
+    void add_negativeAmountsRetractSpend() {
+        DailySpendRing ring = new DailySpendRing(31, TODAY);
+        ring.add(TODAY.minusDays(2), 1_000);
+        ring.add(TODAY.minusDays(2), -400);
+
+        assertEquals(600, ring.get(TODAY.minusDays(2)));
+    }
+
+    @Test
+    void ewma_followsRecentDays() {
+        DailySpendRing ring = new DailySpendRing(31, TODAY);
+        // 20 quiet days, then 10 days of 1000/day
+        for (int i = 1; i <= 10; i++) ring.add(TODAY.minusDays(i), 1_000);
+
+        double rate = ring.ewma(TODAY.minusDays(30), TODAY.minusDays(1), 0.3);
+        double average = (double) ring.sum(TODAY.minusDays(30), TODAY.minusDays(1)) / 30;
+
+        assertTrue(rate > average, "recent spend should weigh more than the plain average");
+        assertTrue(rate <= 1_000);
+        assertEquals(0.0, ring.ewma(TODAY, TODAY.minusDays(1), 0.3));
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.model.Expense;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryAmountStats;
+import org.example.expenseapi.repository.ExpenseAnomalyRepository;
+import org.example.expenseapi.repository.ExpenseCategoryAmountStatsRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExpenseAnomalyDetectorTest {
+
+    private ExpenseRepository expenseRepo;
+    private ExpenseCategoryAmountStatsRepository statsRepo;
+    private ExpenseAnomalyRepository anomalyRepo;
+    private ExpenseAnomalyDetector detector;
+
+    // rows of the expenses table: {categoryId, amount}
+    private final List<Object[]> table = new ArrayList<>();
+    private final List<ExpenseCategoryAmountStats> persisted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        statsRepo = Mockito.mock(ExpenseCategoryAmountStatsRepository.class);
+        anomalyRepo = Mockito.mock(ExpenseAnomalyRepository.class);
+        when(statsRepo.findAll()).thenAnswer(inv -> new ArrayList<>(persisted));
+        when(expenseRepo.countAndSumGroupedByCategory()).thenAnswer(inv -> countAndSum());
+        when(expenseRepo.streamAllForAnalytics()).thenAnswer(inv -> table.stream()
+                .map(r -> new Object[]{1L, LocalDate.of(2025, 3, 1), r[0], 1L, r[1]}));
+        detector = new ExpenseAnomalyDetector(expenseRepo, statsRepo, anomalyRepo,
+                Mockito.mock(PlatformTransactionManager.class), 3.0, 10, 60);
+        // 10.00, 11.00, ... 19.00 in category 1, persisted up to date
+        for (int i = 10; i <= 19; i++) table.add(new Object[]{1L, new BigDecimal(i + ".00")});
+        persisted.add(statsOf(1L, 10, 19));
+    }
+
+    @Test
+    void assess_recordsOutliers_only() {
+        detector.load();
+
+        Double outlier = detector.assess(expense(5L, 1L, "100.00"));
+        Double usual = detector.assess(expense(6L, 1L, "15.00"));
+
+        assertEquals(28.24, outlier);
+        assertEquals(0.17, usual);
+        verify(anomalyRepo).save(argThat(a -> a.getExpenseId() == 5L && a.getSampleCount() == 10L
+                && a.getCategoryMean().compareTo(new BigDecimal("14.50")) == 0));
+        verify(anomalyRepo, times(1)).save(any());
+        // the trusted row was not streamed again
+        verify(expenseRepo, never()).streamAllForAnalytics();
+    }
+
+    @Test
+    void load_rebuildsRowsThatNoLongerMatchTheTable() {
+        // category 2 has a third expense the row does not know of; category 3 has no expenses left
+        for (String amount : new String[]{"5.00", "6.00", "7.00"}) table.add(new Object[]{2L, new BigDecimal(amount)});
+        persisted.add(row(2L, 2L, 550.0, 50.0, 1100L));
+        persisted.add(row(3L, 4L, 900.0, 10.0, 3600L));
+
+        detector.load();
+        detector.flush();
+
+        verify(statsRepo).save(argThat(r -> r.getCategoryId() == 2L && r.getSampleCount() == 3L
+                && r.getAmountCents() == 1800L && r.getMean() == 600.0));
+        verify(statsRepo).save(argThat(r -> r.getCategoryId() == 3L && r.getSampleCount() == 0L));
+        verify(statsRepo, times(2)).save(any());
+        assertNull(detector.assess(expense(5L, 2L, "100.00")));
+    }
+
+    @Test
+    void onExpenseChanged_beforeTheLoad_isReplayedAfterIt() {
+        assertFalse(detector.isReady());
+        detector.onExpenseChanged(ExpenseChangedEvent.deleted(snapshot(1L, "19.00")));
+        detector.onExpenseChanged(ExpenseChangedEvent.created(snapshot(4L, "8.00")));
+        assertNull(detector.assess(expense(5L, 1L, "100.00")));
+        when(statsRepo.lockByCategoryId(1L)).thenReturn(Optional.of(statsOf(1L, 10, 19)));
+
+        detector.load();
+        assertTrue(detector.isReady());
+        detector.flush();
+
+        verify(statsRepo).save(argThat(r -> r.getCategoryId() == 1L && r.getSampleCount() == 9L
+                && r.getAmountCents() == 12600L && Math.abs(r.getMean() - 1400.0) < 1e-6));
+        verify(statsRepo).save(argThat(r -> r.getCategoryId() == 4L && r.getSampleCount() == 1L
+                && r.getAmountCents() == 800L));
+    }
+
+    @Test
+    void flush_mergesIntoTheRowWrittenByAnotherNode() {
+        detector.load();
+        // meanwhile another node flushed 20.00 and 21.00
+        when(statsRepo.lockByCategoryId(1L)).thenReturn(Optional.of(statsOf(1L, 10, 21)));
+        detector.onExpenseChanged(ExpenseChangedEvent.created(snapshot(1L, "22.00")));
+
+        detector.flush();
+
+        verify(statsRepo).save(argThat(r -> r.getCategoryId() == 1L && r.getSampleCount() == 13L
+                && r.getAmountCents() == 20800L && Math.abs(r.getMean() - 1600.0) < 1e-6));
+        // the merged row is this node's view from now on
+        detector.assess(expense(5L, 1L, "100.00"));
+        verify(anomalyRepo).save(argThat(a -> a.getSampleCount() == 13L));
+    }
+
+    private List<Object[]> countAndSum() {
+        List<Object[]> res = new ArrayList<>();
+        for (Long categoryId : table.stream().map(r -> (Long) r[0]).distinct().toList()) {
+            BigDecimal sum = table.stream().filter(r -> r[0].equals(categoryId))
+                    .map(r -> (BigDecimal) r[1]).reduce(BigDecimal.ZERO, BigDecimal::add);
+            long count = table.stream().filter(r -> r[0].equals(categoryId)).count();
+            res.add(new Object[]{categoryId, count, sum});
+        }
+        return res;
+    }
+
+    // row of whole amounts from..to
+    private static ExpenseCategoryAmountStats statsOf(Long categoryId, int from, int to) {
+        WelfordStats s = new WelfordStats();
+        long cents = 0;
+        for (int i = from; i <= to; i++) {
+            s.add(i * 100);
+            cents += i * 100L;
+        }
+        return row(categoryId, s.getCount(), s.getMean(), s.getM2(), cents);
+    }
+
+    private static ExpenseCategoryAmountStats row(Long categoryId, long count, double mean, double m2, long cents) {
+        ExpenseCategoryAmountStats row = new ExpenseCategoryAmountStats();
+        row.setCategoryId(categoryId);
+        row.setSampleCount(count);
+        row.setMean(mean);
+        row.setM2(m2);
+        row.setAmountCents(cents);
+        return row;
+    }
+
+    private static Expense expense(Long id, Long categoryId, String amount) {
+        ExpenseCategory category = new ExpenseCategory();
+        category.setId(categoryId);
+        Expense e = new Expense();
+        e.setId(id);
+        e.setExpenseCategory(category);
+        e.setExpenseDate(LocalDate.of(2025, 3, 10));
+        e.setDesignation("x");
+        e.setAmount(new BigDecimal(amount));
+        return e;
+    }
+
+    private static ExpenseSnapshot snapshot(Long categoryId, String amount) {
+        return new ExpenseSnapshot(9L, LocalDate.of(2025, 3, 10), categoryId, 1L, new BigDecimal(amount), "x");
+    }
+}
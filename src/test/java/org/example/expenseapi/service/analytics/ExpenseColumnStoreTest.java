@@ -0,0 +1,79 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpenseColumnStoreTest {
+
+    private ExpenseColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ExpenseColumnStore(true, 200000);
+        store.beginLoad();
+        store.loadRow(1L, LocalDate.of(2025, 1, 10), 1L, 1L, new BigDecimal("10.50"));
+        store.loadRow(2L, LocalDate.of(2025, 1, 31), 2L, 1L, new BigDecimal("4.25"));
+        store.loadRow(3L, LocalDate.of(2025, 3, 1), 1L, 1L, new BigDecimal("100"));
+        store.finishLoad();
+    }
+
+    @Test
+    void sumByMonth_filtersByDateAndCategory() {
+        Map<YearMonth, Long> all = store.sumByMonth(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), null);
+        assertEquals(Map.of(YearMonth.of(2025, 1), 1475L, YearMonth.of(2025, 3), 10000L), all);
+
+        Map<YearMonth, Long> food = store.sumByMonth(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 1), List.of(1L));
+        assertEquals(Map.of(YearMonth.of(2025, 3), 10000L), food);
+    }
+
+    @Test
+    void totalsByCategoryAndStatus_countsSumsAndExtremes() {
+        store.onExpenseChanged(ExpenseChangedEvent.created(new ExpenseSnapshot(4L, LocalDate.of(2025, 3, 2), 1L, 2L, new BigDecimal("0.99"), "x")));
+
+        List<long[]> rows = store.totalsByCategoryAndStatus(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), List.of(1L));
+        rows.sort((a, b) -> Long.compare(a[1], b[1]));
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new long[]{1L, 1L, 2L, 11050L, 1050L, 10000L}, rows.get(0));
+        assertArrayEquals(new long[]{1L, 2L, 1L, 99L, 99L, 99L}, rows.get(1));
+        assertTrue(store.totalsByCategoryAndStatus(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28), null).isEmpty());
+    }
+
+    @Test
+    void changeEvents_keepStoreCurrent() {
+        ExpenseSnapshot before = snapshot(1L, LocalDate.of(2025, 1, 10), 1L, "10.50");
+        ExpenseSnapshot moved = snapshot(1L, LocalDate.of(2025, 3, 5), 2L, "1.00");
+        store.onExpenseChanged(ExpenseChangedEvent.updated(before, moved));
+        store.onExpenseChanged(ExpenseChangedEvent.deleted(snapshot(2L, LocalDate.of(2025, 1, 31), 2L, "4.25")));
+
+        Map<Long, Long> byCategory = store.sumByCategory(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), null);
+        assertEquals(Map.of(1L, 10000L, 2L, 100L), byCategory);
+        assertNull(store.monthTotals().get(YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    void eventsDuringLoad_areReplayed() {
+        store.beginLoad();
+        assertFalse(store.isReady());
+        store.onExpenseChanged(ExpenseChangedEvent.created(snapshot(9L, LocalDate.of(2025, 2, 2), 1L, "2.00")));
+        store.loadRow(1L, LocalDate.of(2025, 1, 10), 1L, 1L, new BigDecimal("10.50"));
+        store.finishLoad();
+
+        assertTrue(store.isReady());
+        assertEquals(Map.of(1L, 1250L), store.sumByCategory(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 28), List.of(1L)));
+    }
+
+    private static ExpenseSnapshot snapshot(Long id, LocalDate date, Long categoryId, String amount) {
+        return new ExpenseSnapshot(id, date, categoryId, 1L, new BigDecimal(amount), "x");
+    }
+}
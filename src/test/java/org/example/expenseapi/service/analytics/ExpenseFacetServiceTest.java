@@ -0,0 +1,97 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.FacetCountDto;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.repository.ExpenseStatusRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExpenseFacetServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+    private static final LocalDate END = LocalDate.of(2025, 3, 31);
+
+    private ExpenseRepository expenseRepo;
+    private ExpenseFacetService facetService;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        ExpenseCategoryRepository categoryRepo = Mockito.mock(ExpenseCategoryRepository.class);
+        ExpenseStatusRepository statusRepo = Mockito.mock(ExpenseStatusRepository.class);
+        when(categoryRepo.findAllById(any())).thenReturn(List.of());
+        when(statusRepo.findAllById(any())).thenReturn(List.of());
+        // {categoryId, statusId, count, sum, min, max}
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 1L, 3L, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN});
+        rows.add(new Object[]{1L, 2L, 1L, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE});
+        rows.add(new Object[]{2L, 2L, 5L, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.TEN});
+        when(expenseRepo.summarizeGroupedByCategoryAndStatus(any(), any(), isNull(), any())).thenReturn(rows);
+        facetService = new ExpenseFacetService(expenseRepo, categoryRepo, statusRepo, 16, 60);
+    }
+
+    @Test
+    void facets_categoryIgnoresOwnFilter_statusAppliesIt() {
+        Map<String, List<FacetCountDto>> facets = facetService.facets("", List.of(1L), START, END,
+                Set.of(ExpenseFacetService.CATEGORY, ExpenseFacetService.STATUS));
+
+        List<FacetCountDto> categories = facets.get(ExpenseFacetService.CATEGORY);
+        assertEquals(2, categories.size());
+        assertEquals(2L, categories.get(0).getId());
+        assertEquals(5L, categories.get(0).getCount());
+        assertEquals(4L, categories.get(1).getCount());
+
+        List<FacetCountDto> statuses = facets.get(ExpenseFacetService.STATUS);
+        assertEquals(2, statuses.size());
+        assertEquals(1L, statuses.get(0).getId());
+        assertEquals(3L, statuses.get(0).getCount());
+        assertEquals(1L, statuses.get(1).getCount());
+    }
+
+    @Test
+    void facets_cachedPerFilter_untilAnExpenseInRangeChanges() {
+        Set<String> status = Set.of(ExpenseFacetService.STATUS);
+        facetService.facets(" Lunch ", List.of(2L, 1L), START, END, status);
+        facetService.facets("lunch", List.of(1L, 2L), START, END, status);
+        verify(expenseRepo, times(1)).summarizeGroupedByCategoryAndStatus(any(), any(), any(), any());
+
+        // outside the cached range: still cached
+        facetService.onExpenseChanged(ExpenseChangedEvent.created(snapshot(LocalDate.of(2025, 4, 2))));
+        facetService.facets("lunch", List.of(1L, 2L), START, END, status);
+        verify(expenseRepo, times(1)).summarizeGroupedByCategoryAndStatus(any(), any(), any(), any());
+
+        facetService.onExpenseChanged(ExpenseChangedEvent.created(snapshot(LocalDate.of(2025, 3, 15))));
+        facetService.facets("lunch", List.of(1L, 2L), START, END, status);
+        verify(expenseRepo, times(2)).summarizeGroupedByCategoryAndStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void facets_expiredCounts_areRecomputed() {
+        facetService = new ExpenseFacetService(expenseRepo, Mockito.mock(ExpenseCategoryRepository.class),
+                Mockito.mock(ExpenseStatusRepository.class), 16, 0);
+
+        facetService.facets("lunch", List.of(), START, END, Set.of());
+        facetService.facets("lunch", List.of(), START, END, Set.of());
+
+        verify(expenseRepo, times(2)).summarizeGroupedByCategoryAndStatus(any(), any(), any(), any());
+    }
+
+    private static ExpenseSnapshot snapshot(LocalDate date) {
+        return new ExpenseSnapshot(9L, date, 1L, 1L, new BigDecimal("5.00"), "Lunch");
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.ExpenseSummaryDto;
+import org.example.expenseapi.dto.ExpenseSummaryGroupDto;
+import org.example.expenseapi.model.Expense;
+import org.example.expenseapi.model.ExpenseCategory;
+import org.example.expenseapi.model.ExpenseCategoryStatus;
+import org.example.expenseapi.model.ExpenseStatus;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.repository.ExpenseStatusRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The summary must agree with the page it summarizes: for the same filter its totals are compared with the
+ * expenses {@code ExpenseRepository.search} returns, both from SQL (with a keyword, or without the column store) and
+ * from the column store.
+ */
+@SpringBootTest
+public class ExpenseSummaryServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2031, 2, 1);
+    private static final LocalDate END = LocalDate.of(2031, 3, 31);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    @Autowired
+    private ExpenseCategoryRepository categoryRepository;
+    @Autowired
+    private ExpenseStatusRepository statusRepository;
+
+    private ExpenseCategory food;
+    private ExpenseCategory travel;
+    private ExpenseStatus paid;
+    private ExpenseStatus open;
+    private final List<Expense> expenses = new ArrayList<>();
+    private ExpenseSummaryService fromSql;
+    private ExpenseSummaryService fromColumnStore;
+
+    @BeforeEach
+    void setUp() {
+        food = category("Summary-Food");
+        travel = category("Summary-Travel");
+        paid = statusRepository.save(new ExpenseStatus("Summary-Paid"));
+        open = statusRepository.save(new ExpenseStatus("Summary-Open"));
+
+        expense("2031-02-03", "Lunch", "12.40", food, paid);
+        expense("2031-02-17", "Team lunch", "86.15", food, open);
+        expense("2031-03-09", "Coffee beans", "7.99", food, paid);
+        expense("2031-02-11", "Taxi 50% off", "9.50", travel, paid);
+        expense("2031-03-02", "taxi_ride", "23.00", travel, open);
+        expense("2031-03-30", "Hotel", "240.00", travel, paid);
+        // outside the range
+        expense("2031-01-31", "Lunch", "15.00", food, paid);
+        expense("2031-04-01", "Taxi", "30.00", travel, paid);
+
+        ExpenseColumnStore store = new ExpenseColumnStore(true, 200000);
+        store.beginLoad();
+        for (Expense e : expenses) {
+            store.loadRow(e.getId(), e.getExpenseDate(), e.getExpenseCategory().getId(), e.getExpenseStatus().getId(),
+                    e.getAmount());
+        }
+        store.finishLoad();
+        fromSql = new ExpenseSummaryService(expenseRepository, categoryRepository, statusRepository, null);
+        fromColumnStore = new ExpenseSummaryService(expenseRepository, categoryRepository, statusRepository, store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        expenseRepository.deleteAll(expenses);
+        categoryRepository.deleteAll(List.of(food, travel));
+        statusRepository.deleteAll(List.of(paid, open));
+    }
+
+    @Test
+    void summarize_withoutKeyword_matchesSearch_fromSqlAndColumnStore() {
+        for (List<Long> cats : filters()) {
+            assertMatchesSearch(fromSql, null, cats);
+            assertMatchesSearch(fromColumnStore, null, cats);
+        }
+    }
+
+    @Test
+    void summarize_withKeyword_matchesSearch() {
+        // "%" and "_" are matched literally, as search() does
+        for (String keyword : new String[]{"lunch", " TAXI ", "50%", "_", "nothing"}) {
+            for (List<Long> cats : filters()) {
+                assertMatchesSearch(fromSql, keyword, cats);
+                assertMatchesSearch(fromColumnStore, keyword, cats);
+            }
+        }
+    }
+
+    @Test
+    void summarize_groupsByCategoryAndStatus() {
+        ExpenseSummaryDto dto = fromColumnStore.summarize(null, List.of(food.getId(), travel.getId()), START, END);
+
+        assertEquals(List.of(travel.getId(), food.getId()),
+                dto.getByCategory().stream().map(ExpenseSummaryGroupDto::getId).toList());
+        assertEquals(new BigDecimal("272.50"), dto.getByCategory().get(0).getSum());
+        assertEquals(List.of(paid.getId(), open.getId()),
+                dto.getByStatus().stream().map(ExpenseSummaryGroupDto::getId).toList());
+        assertEquals(4L, dto.getByStatus().get(0).getCount());
+        assertEquals(new BigDecimal("269.89"), dto.getByStatus().get(0).getSum());
+        assertEquals("Summary-Open", dto.getByStatus().get(1).getName());
+    }
+
+    private List<List<Long>> filters() {
+        List<List<Long>> filters = new ArrayList<>();
+        filters.add(List.of(food.getId(), travel.getId()));
+        filters.add(List.of(food.getId()));
+        filters.add(List.of(travel.getId()));
+        return filters;
+    }
+
+    private void assertMatchesSearch(ExpenseSummaryService service, String keyword, List<Long> cats) {
+        List<Expense> page = expenseRepository.search(keyword, cats, START, END, PageRequest.of(0, 1000)).getContent();
+        ExpenseSummaryDto dto = service.summarize(keyword, cats, START, END);
+        String filter = "keyword=" + keyword + " categories=" + cats;
+
+        assertEquals(page.size(), dto.getCount(), filter);
+        assertEquals(0, page.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add)
+                .compareTo(dto.getSum()), filter);
+        if (page.isEmpty()) {
+            assertNull(dto.getMin(), filter);
+            return;
+        }
+        assertEquals(0, page.stream().map(Expense::getAmount).min(Comparator.naturalOrder()).orElseThrow()
+                .compareTo(dto.getMin()), filter);
+        assertEquals(0, page.stream().map(Expense::getAmount).max(Comparator.naturalOrder()).orElseThrow()
+                .compareTo(dto.getMax()), filter);
+        assertEquals(page.size(), dto.getByCategory().stream().mapToLong(ExpenseSummaryGroupDto::getCount).sum(), filter);
+        assertEquals(page.size(), dto.getByStatus().stream().mapToLong(ExpenseSummaryGroupDto::getCount).sum(), filter);
+    }
+
+    private ExpenseCategory category(String name) {
+        ExpenseCategory c = new ExpenseCategory();
+        c.setName(name);
+        c.setStatus(ExpenseCategoryStatus.ACTIVE);
+        c.setLevel(1);
+        return categoryRepository.save(c);
+    }
+
+    private void expense(String date, String designation, String amount, ExpenseCategory category, ExpenseStatus status) {
+        Expense e = new Expense();
+        e.setExpenseDate(LocalDate.parse(date));
+        e.setDesignation(designation);
+        e.setAmount(new BigDecimal(amount));
+        e.setExpenseCategory(category);
+        e.setExpenseStatus(status);
+        expenses.add(expenseRepository.save(e));
+    }
+}
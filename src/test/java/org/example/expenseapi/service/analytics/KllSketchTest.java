@@ -0,0 +1,55 @@
+package org.example.expenseapi.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KllSketchTest {
+
+    @Test
+    void quantiles_areWithinRankError() {
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(7));
+        int n = 100_000;
+        for (int i = 1; i <= n; i++) sketch.update(i);
+
+        assertEquals(n, sketch.getCount());
+        assertEquals(1, sketch.getMin());
+        assertEquals(n, sketch.getMax());
+        assertWithin(sketch.quantile(0.5), 0.5 * n, 0.02 * n);
+        assertWithin(sketch.quantile(0.9), 0.9 * n, 0.02 * n);
+        assertWithin(sketch.quantile(0.99), 0.99 * n, 0.02 * n);
+        assertWithin(sketch.rank(n / 4), 0.25 * n, 0.02 * n);
+    }
+
+    @Test
+    void merge_matchesSingleStream() {
+        KllSketch jan = new KllSketch(200, new SplittableRandom(1));
+        KllSketch feb = new KllSketch(200, new SplittableRandom(2));
+        for (int i = 0; i < 50_000; i++) jan.update(i);          // 0 .. 49_999
+        for (int i = 50_000; i < 100_000; i++) feb.update(i);    // 50_000 .. 99_999
+
+        KllSketch year = new KllSketch(200, new SplittableRandom(3));
+        year.merge(jan);
+        year.merge(feb);
+
+        assertEquals(100_000, year.getCount());
+        assertEquals(50_000, jan.getCount()); // inputs are not modified
+        assertWithin(year.quantile(0.5), 50_000, 2_000);
+        assertWithin(year.quantile(0.9), 90_000, 2_000);
+    }
+
+    @Test
+    void smallSketches_areExact() {
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(1));
+        for (long v : new long[]{500, 100, 300, 200, 400}) sketch.update(v);
+        assertEquals(300, sketch.quantile(0.5));
+        assertEquals(500, sketch.quantile(0.99));
+        assertEquals(2, sketch.rank(250));
+    }
+
+    private static void assertWithin(double actual, double expected, double tolerance) {
+        assertTrue(Math.abs(actual - expected) <= tolerance, "expected " + expected + " +/- " + tolerance + " but was " + actual);
+    }
+}
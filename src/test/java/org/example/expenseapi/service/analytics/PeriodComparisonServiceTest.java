@@ -0,0 +1,93 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.CategoryComparisonDto;
+import org.example.expenseapi.dto.PeriodComparisonDto;
+import org.example.expenseapi.repository.ExpenseCategoryRepository;
+import org.example.expenseapi.service.ExpensePeriodCloseService;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PeriodComparisonServiceTest {
+
+    private static final ReportPeriod MARCH = ReportPeriod.parse(ReportPeriod.Type.MONTH, "2025-03");
+
+    private ExpensePeriodCloseService periodCloses;
+    private ExpenseCategoryRepository categoryRepo;
+    private PeriodComparisonService service;
+
+    @BeforeEach
+    void setUp() {
+        periodCloses = Mockito.mock(ExpensePeriodCloseService.class);
+        categoryRepo = Mockito.mock(ExpenseCategoryRepository.class);
+        when(categoryRepo.findAllById(any())).thenReturn(List.of());
+        // {categoryId, year, month, count, sum in cents}
+        when(periodCloses.countAndSumByCategoryAndMonth(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 31))).thenReturn(List.of(
+                new long[]{1L, 2025, 2, 4L, 10000L},
+                new long[]{1L, 2025, 3, 5L, 15000L},
+                new long[]{2L, 2025, 2, 1L, 2000L},
+                new long[]{3L, 2025, 3, 1L, 500L}));
+        service = new PeriodComparisonService(periodCloses, categoryRepo, null, 16, 60);
+    }
+
+    @Test
+    void compare_computesDeltasPerCategory_biggestMoversFirst() {
+        PeriodComparisonDto dto = service.compare(MARCH, PeriodComparisonService.AGAINST_PREVIOUS);
+
+        assertEquals("2025-02", dto.getPreviousLabel());
+        List<CategoryComparisonDto> rows = dto.getCategories();
+        assertEquals(List.of(1L, 2L, 3L), rows.stream().map(CategoryComparisonDto::getCategoryId).collect(Collectors.toList()));
+        assertEquals(new BigDecimal("50.00"), rows.get(0).getDelta());
+        assertEquals(new BigDecimal("50.00"), rows.get(0).getDeltaPercent());
+        assertEquals(new BigDecimal("-20.00"), rows.get(1).getDelta());
+        assertEquals(new BigDecimal("-100.00"), rows.get(1).getDeltaPercent());
+        // nothing to compare against
+        assertNull(rows.get(2).getDeltaPercent());
+
+        assertEquals(new BigDecimal("155.00"), dto.getTotal().getCurrent());
+        assertEquals(new BigDecimal("120.00"), dto.getTotal().getPrevious());
+        assertEquals(new BigDecimal("29.17"), dto.getTotal().getDeltaPercent());
+    }
+
+    @Test
+    void compare_isCached_untilAnExpenseInEitherPeriodChanges() {
+        service.compare(MARCH, PeriodComparisonService.AGAINST_PREVIOUS);
+        service.compare(MARCH, PeriodComparisonService.AGAINST_PREVIOUS);
+        verify(periodCloses, times(1)).countAndSumByCategoryAndMonth(any(), any());
+
+        // outside both periods: kept
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot("2025-04-02")));
+        service.compare(MARCH, PeriodComparisonService.AGAINST_PREVIOUS);
+        verify(periodCloses, times(1)).countAndSumByCategoryAndMonth(any(), any());
+
+        // moved out of the previous period: evicted
+        service.onExpenseChanged(ExpenseChangedEvent.updated(snapshot("2025-02-10"), snapshot("2025-04-02")));
+        service.compare(MARCH, PeriodComparisonService.AGAINST_PREVIOUS);
+        verify(periodCloses, times(2)).countAndSumByCategoryAndMonth(any(), any());
+    }
+
+    @Test
+    void compare_expiredResult_isRecomputed() {
+        service = new PeriodComparisonService(periodCloses, categoryRepo, null, 16, 0);
+
+        service.compare(MARCH, PeriodComparisonService.AGAINST_PREVIOUS);
+        service.compare(MARCH, PeriodComparisonService.AGAINST_PREVIOUS);
+
+        verify(periodCloses, times(2)).countAndSumByCategoryAndMonth(any(), any());
+    }
+
+    private static ExpenseSnapshot snapshot(String date) {
+        return new ExpenseSnapshot(7L, LocalDate.parse(date), 1L, 1L, new BigDecimal("10.00"), "x");
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.expenseapi.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportPeriodTest {
+
+    @Test
+    void parse_acceptsEachAnchorFormat() {
+        ReportPeriod month = ReportPeriod.parse(ReportPeriod.Type.MONTH, "2026-02");
+        assertEquals(LocalDate.of(2026, 2, 1), month.getStart());
+        assertEquals(LocalDate.of(2026, 2, 28), month.getEnd());
+
+        ReportPeriod quarter = ReportPeriod.parse(ReportPeriod.Type.QUARTER, "2026-q4");
+        assertEquals(LocalDate.of(2026, 10, 1), quarter.getStart());
+        assertEquals(LocalDate.of(2026, 12, 31), quarter.getEnd());
+        assertEquals("2026-Q4", quarter.getLabel());
+
+        ReportPeriod year = ReportPeriod.parse(ReportPeriod.Type.YEAR, "2025");
+        assertEquals(LocalDate.of(2025, 1, 1), year.getStart());
+        assertEquals(LocalDate.of(2025, 12, 31), year.getEnd());
+
+        // a full date selects the period containing it
+        assertEquals("2026-Q3", ReportPeriod.parse(ReportPeriod.Type.QUARTER, "2026-08-15").getLabel());
+    }
+
+    @Test
+    void parse_rejectsMismatchedAnchor() {
+        assertThrows(IllegalArgumentException.class, () -> ReportPeriod.parse(ReportPeriod.Type.MONTH, "2026-Q1"));
+        assertThrows(IllegalArgumentException.class, () -> ReportPeriod.parse(ReportPeriod.Type.QUARTER, "2026-Q5"));
+        assertThrows(IllegalArgumentException.class, () -> ReportPeriod.parse(ReportPeriod.Type.YEAR, "26"));
+        assertThrows(IllegalArgumentException.class, () -> ReportPeriod.parseType("week"));
+    }
+
+    @Test
+    void previousAndYearAgo_crossYearBoundaries() {
+        ReportPeriod q1 = ReportPeriod.parse(ReportPeriod.Type.QUARTER, "2026-Q1");
+        assertEquals("2025-Q4", q1.previous().getLabel());
+        assertEquals("2025-Q1", q1.yearAgo().getLabel());
+
+        ReportPeriod jan = ReportPeriod.parse(ReportPeriod.Type.MONTH, "2026-01");
+        assertEquals("2025-12", jan.previous().getLabel());
+        assertEquals(ReportPeriod.parse(ReportPeriod.Type.MONTH, "2025-01"), jan.yearAgo());
+
+        assertEquals("2025", ReportPeriod.parse(ReportPeriod.Type.YEAR, "2026").previous().getLabel());
+    }
+}
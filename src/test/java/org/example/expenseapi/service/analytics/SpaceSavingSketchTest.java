@@ -0,0 +1,63 @@
+package org.example.expenseapi.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpaceSavingSketchTest {
+
+    @Test
+    void heavyHitters_areKeptWithBoundedError() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("coffee", 1, 350);
+            if (i % 2 == 0) sketch.offer("groceries", 1, 4000);
+            sketch.offer("noise-" + i, 1, 100); // each seen once
+        }
+
+        List<SpaceSavingSketch.Counter> top = sketch.top(2);
+        assertThat(top).extracting(SpaceSavingSketch.Counter::getItem).containsExactly("coffee", "groceries");
+        SpaceSavingSketch.Counter coffee = top.get(0);
+        assertTrue(coffee.getGuaranteedWeight() <= 1000 && coffee.getWeight() >= 1000);
+        assertTrue(coffee.getError() <= sketch.getTotalWeight() / sketch.getCapacity());
+        assertEquals(2500, sketch.getTotalWeight());
+    }
+
+    @Test
+    void retract_onlyAffectsTrackedItems() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer("a", 3, 30);
+        sketch.offer("b", 1, 10);
+        sketch.offer("c", 1, 10); // evicts b, inherits its weight as error
+
+        sketch.retract("b", 1, 10);
+        sketch.retract("a", 1, 10);
+
+        assertEquals(3, sketch.getTotalWeight());
+        assertThat(sketch.top(2)).extracting(SpaceSavingSketch.Counter::getItem).containsExactly("a", "c");
+        assertEquals(2, sketch.top(1).get(0).getWeight());
+        assertEquals(20, sketch.top(1).get(0).getAux());
+        assertEquals(1, sketch.top(2).get(1).getError());
+    }
+
+    @Test
+    void designationSketch_roundTripsAndMerges() {
+        DesignationSketch a = new DesignationSketch(8);
+        a.add("  Starbucks ", 450);
+        a.add("starbucks", 550);
+        a.add("Amazon", 12000);
+        DesignationSketch b = DesignationSketch.deserialize(a.serialize());
+        b.add("AMAZON", 3000);
+
+        DesignationSketch merged = DesignationSketch.merge(List.of(a, b), 8);
+        assertEquals(7, merged.count());
+        assertEquals(2 * 13000 + 3000, merged.amount());
+        assertEquals("starbucks", merged.byCount.top(1).get(0).getItem());
+        assertEquals(4, merged.byCount.top(1).get(0).getWeight());
+        assertEquals("amazon", merged.byAmount.top(1).get(0).getItem());
+        assertEquals(27000, merged.byAmount.top(1).get(0).getWeight());
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.SpendProjectionDto;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SpendVelocityTrackerTest {
+
+    // June has 30 days: 10 elapsed, 20 left
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 10);
+
+    private ExpenseRepository expenseRepo;
+    // {categoryId, day, sum}
+    private final List<Object[]> days = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        when(expenseRepo.sumAmountGroupedByCategoryAndDayBetween(anyList(), any(), any()))
+                .thenAnswer(invocation -> new ArrayList<>(days));
+        day("2026-06-01", "10.00");
+        day("2026-06-09", "20.00");
+        day("2026-06-10", "30.00");
+    }
+
+    @Test
+    void project_linear_scalesMonthToDate_andAddsWhatIsScheduledLater() {
+        SpendVelocityTracker tracker = new SpendVelocityTracker(expenseRepo, 31, 0.5, 300);
+
+        // 70.00 spent in the month: 60.00 up to today, 10.00 dated later this month
+        SpendProjectionDto p = tracker.project(Map.of(1L, 7000L), TODAY).get(1L);
+
+        assertEquals(new BigDecimal("50.00"), p.getLast7Days());
+        assertEquals(new BigDecimal("60.00"), p.getLast30Days());
+        // 60.00 / 10 days * 30 days + 10.00
+        assertEquals(new BigDecimal("190.00"), p.getLinearProjection());
+    }
+
+    @Test
+    void project_ewma_weighsRecentDays_upToYesterday() {
+        SpendVelocityTracker tracker = new SpendVelocityTracker(expenseRepo, 31, 0.5, 300);
+
+        SpendProjectionDto p = tracker.project(Map.of(1L, 7000L), TODAY).get(1L);
+
+        // seeded with the 30-day average (1.00), halved on every empty day, then 06-01 (10.00) and 06-09 (20.00)
+        // weigh in: 1001.95 cents a day
+        assertEquals(new BigDecimal("10.02"), p.getDailyRate());
+        // 70.00 + 20 days * 10.0195
+        assertEquals(new BigDecimal("270.39"), p.getEwmaProjection());
+    }
+
+    @Test
+    void project_changeCommittedDuringTheLoad_reloadsTheRingNextTime() {
+        SpendVelocityTracker tracker = new SpendVelocityTracker(expenseRepo, 31, 0.5, 300);
+        AtomicInteger reads = new AtomicInteger();
+        when(expenseRepo.sumAmountGroupedByCategoryAndDayBetween(anyList(), any(), any())).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() == 1) {
+                // committed while the days are read: the read may or may not include it
+                day("2026-06-10", "5.00");
+                tracker.onExpenseChanged(ExpenseChangedEvent.created(snapshot("2026-06-10", "5.00")));
+            }
+            return new ArrayList<>(days);
+        });
+
+        assertEquals(new BigDecimal("65.00"), tracker.project(Map.of(1L, 7500L), TODAY).get(1L).getLast30Days());
+        assertEquals(new BigDecimal("65.00"), tracker.project(Map.of(1L, 7500L), TODAY).get(1L).getLast30Days());
+        assertEquals(2, reads.get());
+
+        // loaded and current: changes are applied in place
+        tracker.onExpenseChanged(ExpenseChangedEvent.created(snapshot("2026-06-10", "1.00")));
+        assertEquals(new BigDecimal("66.00"), tracker.project(Map.of(1L, 7600L), TODAY).get(1L).getLast30Days());
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void project_expiredRing_isReadAgain() {
+        SpendVelocityTracker tracker = new SpendVelocityTracker(expenseRepo, 31, 0.5, 0);
+        tracker.project(Map.of(1L, 7000L), TODAY);
+
+        // written on another node: no event here
+        day("2026-06-10", "4.00");
+
+        assertEquals(new BigDecimal("64.00"), tracker.project(Map.of(1L, 7400L), TODAY).get(1L).getLast30Days());
+        verify(expenseRepo, times(2)).sumAmountGroupedByCategoryAndDayBetween(anyList(), any(), any());
+    }
+
+    private void day(String date, String sum) {
+        days.add(new Object[]{1L, LocalDate.parse(date), new BigDecimal(sum)});
+    }
+
+    private static ExpenseSnapshot snapshot(String date, String amount) {
+        return new ExpenseSnapshot(9L, LocalDate.parse(date), 1L, 1L, new BigDecimal(amount), "x");
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.expenseapi.service.analytics;
+
+import org.example.expenseapi.dto.TopDesignationsReportDto;
+import org.example.expenseapi.repository.ExpenseDesignationSketchRepository;
+import org.example.expenseapi.repository.ExpenseRepository;
+import org.example.expenseapi.service.event.ExpenseChangedEvent;
+import org.example.expenseapi.service.event.ExpenseSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TopDesignationServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    private ExpenseRepository expenseRepo;
+    private ExpenseDesignationSketchRepository sketchRepo;
+    private TopDesignationService service;
+
+    // rows of the expenses table: {categoryId, designation, amount}
+    private final List<Object[]> table = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        expenseRepo = Mockito.mock(ExpenseRepository.class);
+        sketchRepo = Mockito.mock(ExpenseDesignationSketchRepository.class);
+        when(expenseRepo.countBetween(any(), any(), any())).thenReturn(100L);
+        when(expenseRepo.countAndSumGroupedByCategoryBetween(any(), any())).thenAnswer(inv -> {
+            long cents = table.stream().mapToLong(r -> ((BigDecimal) r[2]).movePointRight(2).longValue()).sum();
+            List<Object[]> totals = new ArrayList<>();
+            totals.add(new Object[]{1L, (long) table.size(), BigDecimal.valueOf(cents, 2)});
+            return totals;
+        });
+        when(sketchRepo.findByYearAndMonth(anyInt(), anyInt())).thenReturn(List.of());
+        when(sketchRepo.findByCategoryIdAndYearAndMonth(any(), anyInt(), anyInt())).thenReturn(Optional.empty());
+        service = new TopDesignationService(expenseRepo, sketchRepo, Mockito.mock(PlatformTransactionManager.class), 64, 0L, 60L);
+        table.add(new Object[]{1L, "Coffee", new BigDecimal("3.00")});
+        table.add(new Object[]{1L, "Coffee", new BigDecimal("3.00")});
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void topDesignations_changeCommittedDuringMaterialization_isNotCountedTwice_andMonthIsRebuilt() {
+        AtomicInteger reads = new AtomicInteger();
+        when(expenseRepo.streamDesignationsBetween(any(), any())).thenAnswer(inv -> {
+            if (reads.incrementAndGet() == 1) {
+                // committed after the totals were read but before the stream got to it: the read sees the row
+                table.add(new Object[]{1L, "Lunch", new BigDecimal("12.00")});
+                service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(3L, "Lunch", "12.00")));
+            }
+            return new ArrayList<>(table).stream();
+        });
+
+        TopDesignationsReportDto first = service.topDesignations(MONTH, null, 10, TopDesignationService.BY_COUNT, false);
+        assertEquals(3L, first.getTotalCount());
+
+        service.flush();
+        verify(sketchRepo, never()).save(any());
+
+        TopDesignationsReportDto second = service.topDesignations(MONTH, null, 10, TopDesignationService.BY_COUNT, false);
+        assertEquals(3L, second.getTotalCount());
+        assertEquals(2, reads.get());
+
+        service.flush();
+        verify(sketchRepo).save(argThat(row -> row.getExpenseCount() == 3L && row.getAmountCents() == 1800L));
+    }
+
+    @Test
+    void topDesignations_writeInFlightWhenReadStarts_marksMonthStale() {
+        when(expenseRepo.streamDesignationsBetween(any(), any())).thenAnswer(inv -> new ArrayList<>(table).stream());
+        TransactionSynchronizationManager.initSynchronization();
+        // published, not yet committed: the read below may or may not see it
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(3L, "Lunch", "12.00")));
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        table.add(new Object[]{1L, "Lunch", new BigDecimal("12.00")});
+
+        assertEquals(3L, service.topDesignations(MONTH, null, 10, TopDesignationService.BY_COUNT, false).getTotalCount());
+        syncs.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(3L, service.topDesignations(MONTH, null, 10, TopDesignationService.BY_COUNT, false).getTotalCount());
+        verify(expenseRepo, times(2)).streamDesignationsBetween(any(), any());
+    }
+
+    @Test
+    void topDesignations_changeAfterBuild_isApplied() {
+        when(expenseRepo.streamDesignationsBetween(any(), any())).thenAnswer(inv -> new ArrayList<>(table).stream());
+        assertEquals(2L, service.topDesignations(MONTH, null, 10, TopDesignationService.BY_COUNT, false).getTotalCount());
+
+        service.onExpenseChanged(ExpenseChangedEvent.created(snapshot(3L, "Lunch", "12.00")));
+        service.onExpenseChanged(ExpenseChangedEvent.deleted(snapshot(1L, "Coffee", "3.00")));
+
+        TopDesignationsReportDto report = service.topDesignations(MONTH, null, 10, TopDesignationService.BY_COUNT, false);
+        assertEquals(2L, report.getTotalCount());
+        assertEquals(new BigDecimal("15.00"), report.getTotalAmount());
+        verify(expenseRepo, times(1)).streamDesignationsBetween(any(), any());
+    }
+
+    private static ExpenseSnapshot snapshot(long id, String designation, String amount) {
+        return new ExpenseSnapshot(id, LocalDate.of(2025, 3, 10), 1L, 1L, new BigDecimal(amount), designation);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.expenseapi.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WelfordStatsTest {
+
+    @Test
+    void add_matchesTwoPassMeanAndVariance() {
+        double[] values = {1250, 725, 4000, 980, 1500, 2200, 640};
+        WelfordStats s = new WelfordStats();
+        for (double v : values) s.add(v);
+
+        double mean = 0;
+        for (double v : values) mean += v;
+        mean /= values.length;
+        double ss = 0;
+        for (double v : values) ss += (v - mean) * (v - mean);
+
+        assertEquals(values.length, s.getCount());
+        assertEquals(mean, s.getMean(), 1e-9);
+        assertEquals(ss / (values.length - 1), s.variance(), 1e-6);
+    }
+
+    @Test
+    void remove_undoesAdd() {
+        WelfordStats s = new WelfordStats();
+        for (int i = 1; i <= 10; i++) s.add(i * 100);
+        WelfordStats expected = new WelfordStats(s.getCount(), s.getMean(), s.getM2());
+
+        s.add(99_999);
+        s.remove(99_999);
+
+        assertEquals(expected.getCount(), s.getCount());
+        assertEquals(expected.getMean(), s.getMean(), 1e-9);
+        assertEquals(expected.variance(), s.variance(), 1e-6);
+
+        s.remove(100);
+        assertEquals(9, s.getCount());
+        assertEquals(600, s.getMean(), 1e-9);
+    }
+
+    @Test
+    void merge_matchesAddingTheValues_andUnmergeUndoesIt() {
+        WelfordStats left = new WelfordStats();
+        WelfordStats right = new WelfordStats();
+        WelfordStats all = new WelfordStats();
+        for (int i = 1; i <= 6; i++) {
+            left.add(i * 150);
+            all.add(i * 150);
+        }
+        for (int i = 1; i <= 4; i++) {
+            right.add(i * 1000);
+            all.add(i * 1000);
+        }
+
+        left.merge(right);
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getMean(), left.getMean(), 1e-9);
+        assertEquals(all.variance(), left.variance(), 1e-6);
+
+        left.unmerge(right);
+        assertEquals(6, left.getCount());
+        assertEquals(525, left.getMean(), 1e-9);
+        left.unmerge(all);
+        assertEquals(0, left.getCount());
+    }
+
+    @Test
+    void zScore_isNaNWithoutSpread() {
+        WelfordStats s = new WelfordStats();
+        assertTrue(Double.isNaN(s.zScore(10)));
+        s.add(500);
+        s.add(500);
+        assertTrue(Double.isNaN(s.zScore(10)));
+
+        s.add(800);
+        assertTrue(s.zScore(5_000) > 3);
+        s.remove(800);
+        s.remove(500);
+        s.remove(500);
+        assertEquals(0, s.getCount());
+        assertEquals(0.0, s.getMean());
+    }
+}
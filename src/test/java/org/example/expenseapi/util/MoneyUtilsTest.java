@@ -0,0 +1,48 @@
+package org.example.expenseapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyUtilsTest {
+
+    @Test
+    void toMinorUnits_acceptsUpToTwoSignificantDecimals() {
+        assertEquals(1234L, MoneyUtils.toMinorUnits(new BigDecimal("12.34")));
+        assertEquals(1200L, MoneyUtils.toMinorUnits(new BigDecimal("12")));
+        assertEquals(150L, MoneyUtils.toMinorUnits(new BigDecimal("1.500")));
+        assertEquals(0L, MoneyUtils.toMinorUnits(null));
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.toMinorUnits(new BigDecimal("1.005")));
+    }
+
+    @Test
+    void toMinorUnitsRounded_roundsHalfUp() {
+        assertEquals(101L, MoneyUtils.toMinorUnitsRounded(new BigDecimal("1.005")));
+        assertEquals(-101L, MoneyUtils.toMinorUnitsRounded(new BigDecimal("-1.005")));
+    }
+
+    @Test
+    void overflow_isDetected() {
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.toMinorUnits(new BigDecimal("1e20")));
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.add(Long.MAX_VALUE, 1L));
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.sum(new long[]{Long.MAX_VALUE, 1L}));
+    }
+
+    @Test
+    void fromMinorUnits_hasScaleTwo() {
+        assertEquals(new BigDecimal("19.75"), MoneyUtils.fromMinorUnits(1975L));
+        assertEquals(new BigDecimal("0.00"), MoneyUtils.fromMinorUnits(0L));
+    }
+
+    @Test
+    void hasAtMostTwoDecimals() {
+        assertTrue(MoneyUtils.hasAtMostTwoDecimals(new BigDecimal("10")));
+        assertTrue(MoneyUtils.hasAtMostTwoDecimals(new BigDecimal("10.5")));
+        assertTrue(MoneyUtils.hasAtMostTwoDecimals(new BigDecimal("10.500")));
+        assertTrue(MoneyUtils.hasAtMostTwoDecimals(new BigDecimal("10.50000000000")));
+        assertFalse(MoneyUtils.hasAtMostTwoDecimals(new BigDecimal("10.501")));
+        assertFalse(MoneyUtils.hasAtMostTwoDecimals(new BigDecimal("0.00000000001")));
+    }
+}